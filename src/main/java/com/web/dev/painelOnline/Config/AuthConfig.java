@@ -72,6 +72,8 @@ public class AuthConfig {
                 HttpMethod.OPTIONS.name()
         ));
         config.setAllowedHeaders(Arrays.asList("*"));
+        // Cursor da próxima página das listagens de transações
+        config.setExposedHeaders(Arrays.asList("X-Proximo-Cursor"));
         config.setMaxAge(3600L);
 
         source.registerCorsConfiguration("/**", config);
@@ -0,0 +1,47 @@
+package com.web.dev.painelOnline.Config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Envolve a transação (ordem antes do interceptador de @Transactional), então cada tentativa
+// abre, confirma ou desfaz a sua própria transação
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RepeticaoConflitoAspect {
+
+    @Value("${extrato.conflito.tentativas:3}")
+    private int tentativas = 3;
+
+    // Espera entre tentativas, multiplicada pelo número da tentativa
+    @Value("${extrato.conflito.espera-ms:25}")
+    private long esperaMs = 25;
+
+    @Around("@annotation(com.web.dev.painelOnline.Config.RepetirEmConflito)")
+    public Object repetir(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Chamada aninhada: a transação externa já está comprometida, quem repete é a chamada de fora
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) {
+                    throw e;
+                }
+                System.out.println("Conflito em " + joinPoint.getSignature().toShortString()
+                        + ", tentativa " + tentativa + " de " + tentativas + ": " + e.getMessage());
+                Thread.sleep(esperaMs * tentativa);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.web.dev.painelOnline.Config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Refaz a transação do método quando ela perde uma disputa de concorrência
+// (versão do extrato desatualizada, impasse no banco, trava não obtida a tempo).
+// Só vale na chamada mais externa: dentro de uma transação já aberta o método roda uma vez.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RepetirEmConflito {
+}
@@ -0,0 +1,109 @@
+package com.web.dev.painelOnline.Controller;
+
+import com.web.dev.painelOnline.Enum.FormatoExportacao;
+import com.web.dev.painelOnline.services.ExportacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Exportação por período em fluxo (NDJSON ou CSV). O corpo vai sendo enviado em partes enquanto
+// as linhas são lidas do banco; com Accept-Encoding: gzip a saída é compactada no caminho.
+@RestController
+@RequestMapping("/api/exportacao")
+@CrossOrigin(origins = "*")
+public class ExportacaoController {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    // Exporta as transações do período
+    @GetMapping("/transacoes")
+    public ResponseEntity<StreamingResponseBody> exportarTransacoes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportar("transacoes", dataInicio, dataFim, formato, acceptEncoding,
+                saida -> exportacaoService.exportarTransacoes(dataInicio, dataFim, formato, saida));
+    }
+
+    // Exporta os itens das transações do período
+    @GetMapping("/itens")
+    public ResponseEntity<StreamingResponseBody> exportarItens(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportar("itens", dataInicio, dataFim, formato, acceptEncoding,
+                saida -> exportacaoService.exportarItens(dataInicio, dataFim, formato, saida));
+    }
+
+    // Exporta os extratos diários do período
+    @GetMapping("/extratos")
+    public ResponseEntity<StreamingResponseBody> exportarExtratos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportar("extratos", dataInicio, dataFim, formato, acceptEncoding,
+                saida -> exportacaoService.exportarExtratos(dataInicio, dataFim, formato, saida));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportar(String nome, LocalDate dataInicio, LocalDate dataFim,
+                                       FormatoExportacao formato, String acceptEncoding, Exportacao exportacao) {
+        // Período inválido cai no tratador abaixo, antes de qualquer cabeçalho da exportação
+        exportacaoService.validarPeriodo(dataInicio, dataFim);
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String arquivo = nome + "_" + dataInicio + "_" + dataFim + "." + formato.getExtensao();
+
+        // Roda depois que o controller retorna, fora da thread da requisição
+        StreamingResponseBody corpo = saida -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(saida, 8192) : saida;
+            try {
+                exportacao.escrever(destino);
+            } catch (IOException | RuntimeException e) {
+                // Cabeçalhos já enviados: só resta interromper; o cliente recebe o corpo truncado
+                System.out.println("Exportação de " + arquivo + " interrompida: " + e.getMessage());
+                throw e;
+            }
+            if (gzip) {
+                ((GZIPOutputStream) destino).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getTipoConteudo()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(corpo);
+    }
+
+    // O tipo de retorno precisa ser ResponseEntity<StreamingResponseBody> para o Spring enviar o corpo em
+    // fluxo, então o erro de validação sai por aqui com o mesmo corpo {"erro": ...} dos outros controllers
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> periodoInvalido(IllegalArgumentException e) {
+        Map<String, String> erro = new HashMap<>();
+        erro.put("erro", e.getMessage());
+        return ResponseEntity.badRequest().body(erro);
+    }
+
+    @FunctionalInterface
+    private interface Exportacao {
+        int escrever(OutputStream saida) throws IOException;
+    }
+}
@@ -1,6 +1,9 @@
 package com.web.dev.painelOnline.Controller;
 
+import com.web.dev.painelOnline.dto.DiaExtratoDTO;
+import com.web.dev.painelOnline.entities.ExtratoAnual;
 import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
 import com.web.dev.painelOnline.services.ExtratoFinanceiroService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -21,10 +24,14 @@ public class ExtratoFinanceiroController {
     @Autowired
     private ExtratoFinanceiroService extratoFinanceiroService;
 
-    // Busca o extrato por data específica
+    // Busca o extrato por data específica; sincronizar=true aplica antes o recálculo pendente do dia
     @GetMapping("/data/{data}")
     public ResponseEntity<ExtratoFinanceiro> buscarExtratoPorData(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam(defaultValue = "false") boolean sincronizar) {
+        if (sincronizar) {
+            extratoFinanceiroService.sincronizarExtratoDia(data);
+        }
         Optional<ExtratoFinanceiro> extrato = extratoFinanceiroService.buscarExtratoPorData(data);
         return extrato.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -63,15 +70,13 @@ public class ExtratoFinanceiroController {
 
         Map<String, Object> resumo = new HashMap<>();
 
-        BigDecimal totalCreditos = extratoFinanceiroService.calcularTotalCreditosMes(ano, mes);
-        BigDecimal totalDebitos = extratoFinanceiroService.calcularTotalDebitosMes(ano, mes);
-        BigDecimal saldoMes = extratoFinanceiroService.calcularSaldoMes(ano, mes);
+        ExtratoMensal extratoMensal = extratoFinanceiroService.buscarResumoMes(ano, mes);
 
         resumo.put("ano", ano);
         resumo.put("mes", mes);
-        resumo.put("totalCreditos", totalCreditos);
-        resumo.put("totalDebitos", totalDebitos);
-        resumo.put("saldoMes", saldoMes);
+        resumo.put("totalCreditos", extratoMensal.getTotalCreditosDolares());
+        resumo.put("totalDebitos", extratoMensal.getTotalDebitosDolares());
+        resumo.put("saldoMes", extratoMensal.getSaldoDolares());
 
         return ResponseEntity.ok(resumo);
     }
@@ -81,18 +86,40 @@ public class ExtratoFinanceiroController {
     public ResponseEntity<Map<String, Object>> obterResumoAnual(@PathVariable int ano) {
         Map<String, Object> resumo = new HashMap<>();
 
-        BigDecimal totalCreditos = extratoFinanceiroService.calcularTotalCreditosAno(ano);
-        BigDecimal totalDebitos = extratoFinanceiroService.calcularTotalDebitosAno(ano);
-        BigDecimal saldoAno = extratoFinanceiroService.calcularSaldoAno(ano);
+        ExtratoAnual extratoAnual = extratoFinanceiroService.buscarResumoAno(ano);
 
         resumo.put("ano", ano);
-        resumo.put("totalCreditos", totalCreditos);
-        resumo.put("totalDebitos", totalDebitos);
-        resumo.put("saldoAno", saldoAno);
+        resumo.put("totalCreditos", extratoAnual.getTotalCreditosDolares());
+        resumo.put("totalDebitos", extratoAnual.getTotalDebitosDolares());
+        resumo.put("saldoAno", extratoAnual.getSaldoDolares());
 
         return ResponseEntity.ok(resumo);
     }
 
+    // Totais de cada mês do ano
+    @GetMapping("/resumo/meses/{ano}")
+    public ResponseEntity<List<ExtratoMensal>> buscarResumosMensaisAno(@PathVariable int ano) {
+        return ResponseEntity.ok(extratoFinanceiroService.buscarResumosMensaisAno(ano));
+    }
+
+    // Reconstrói os totais mensais e anuais a partir do extrato diário
+    @PostMapping("/resumo/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirResumos(
+            @RequestParam(required = false) Integer anoInicio,
+            @RequestParam(required = false) Integer anoFim) {
+        try {
+            int meses = extratoFinanceiroService.reconstruirResumos(anoInicio, anoFim);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("mesesReconstruidos", meses);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("erro", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
+    }
+
     // Atualiza o extrato de um dia específico
     @PostMapping("/atualizar/{data}")
     public ResponseEntity<ExtratoFinanceiro> atualizarExtratoDia(
@@ -105,6 +132,32 @@ public class ExtratoFinanceiroController {
         }
     }
 
+    // Confere o extrato do dia contra as transações e corrige se necessário
+    @PostMapping("/verificar/{data}")
+    public ResponseEntity<Map<String, Object>> verificarExtratoDia(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        boolean consistente = extratoFinanceiroService.verificarExtratoDia(data);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("consistente", consistente);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Força o recálculo de um dia pendente na fila assíncrona
+    @PostMapping("/sincronizar/{data}")
+    public ResponseEntity<Map<String, Object>> sincronizarExtratoDia(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        boolean pendente = extratoFinanceiroService.sincronizarExtratoDia(data);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("recalculado", pendente);
+
+        return ResponseEntity.ok(response);
+    }
+
     // Regenera extratos de um período
     @PostMapping("/regenerar")
     public ResponseEntity<String> regenerarExtratosPeriodo(
@@ -130,4 +183,59 @@ public class ExtratoFinanceiroController {
 
         return ResponseEntity.ok(response);
     }
+
+    // Totais de créditos e débitos de um período
+    @GetMapping("/totais-periodo")
+    public ResponseEntity<Map<String, Object>> calcularTotaisPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        BigDecimal totalCreditos = extratoFinanceiroService.calcularTotalCreditosPorPeriodo(dataInicio, dataFim);
+        BigDecimal totalDebitos = extratoFinanceiroService.calcularTotalDebitosPorPeriodo(dataInicio, dataFim);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("dataInicio", dataInicio);
+        response.put("dataFim", dataFim);
+        response.put("totalCreditos", totalCreditos);
+        response.put("totalDebitos", totalDebitos);
+        response.put("saldo", totalCreditos.subtract(totalDebitos));
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Dias de maior movimento (créditos + débitos), do maior para o menor
+    @GetMapping("/ranking/maior-movimento")
+    public ResponseEntity<?> buscarDiasMaiorMovimento(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        try {
+            List<DiaExtratoDTO> dias = extratoFinanceiroService.buscarDiasMaiorMovimento(pagina, tamanho);
+            return ResponseEntity.ok(dias);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> erro = new HashMap<>();
+            erro.put("erro", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
+    }
+
+    // Dias de saldo negativo, do mais negativo para o menos negativo
+    @GetMapping("/ranking/saldo-negativo")
+    public ResponseEntity<?> buscarDiasSaldoNegativo(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        try {
+            List<DiaExtratoDTO> dias = extratoFinanceiroService.buscarDiasSaldoNegativo(pagina, tamanho);
+            return ResponseEntity.ok(dias);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> erro = new HashMap<>();
+            erro.put("erro", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
+    }
+
+    // Recarrega o índice em memória de movimentos a partir das transações
+    @PostMapping("/indice/recarregar")
+    public ResponseEntity<String> recarregarIndiceMovimentos() {
+        extratoFinanceiroService.recarregarIndiceMovimentos();
+        return ResponseEntity.ok("Índice de movimentos recarregado");
+    }
 }
@@ -1,13 +1,22 @@
 package com.web.dev.painelOnline.Controller;
 
+import com.web.dev.painelOnline.Enum.FormatoExportacao;
 import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.OperacoesItensDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoOperacoesItensDTO;
+import com.web.dev.painelOnline.dto.SugestaoDTO;
 import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.services.AutocompletarService;
 import com.web.dev.painelOnline.services.ItemNotaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,6 +28,9 @@ public class ItemNotaController {
     @Autowired
     private ItemNotaService itemNotaService;
 
+    @Autowired
+    private AutocompletarService autocompletarService;
+
     @GetMapping("/transacao/{transacaoId}")
     public ResponseEntity<List<ItemNotaDTO>> buscarItensPorTransacao(@PathVariable Long transacaoId) {
         List<ItemNota> itens = itemNotaService.buscarItensPorTransacao(transacaoId);
@@ -35,20 +47,42 @@ public class ItemNotaController {
         return ResponseEntity.ok(dtos);
     }
 
+    // Busca os itens uma página por vez (ordem de id), opcionalmente de uma transação e numa faixa de valor total.
+    // O cursor da próxima página vem no cabeçalho X-Proximo-Cursor; sem o cabeçalho, é a última página.
     @GetMapping
-    public ResponseEntity<List<ItemNotaDTO>> buscarTodosItens() {
-        List<ItemNota> itens = itemNotaService.buscarTodosItens();
-        List<ItemNotaDTO> dtos = itens.stream()
-                .map(item -> new ItemNotaDTO(
-                        item.getId(),
-                        item.getDescricao(),
-                        item.getQuantidade(),
-                        item.getValorUnitario(),
-                        item.getValorTotal(),
-                        item.getTransacao() != null ? item.getTransacao().getId() : null
-                ))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> buscarTodosItens(
+            @RequestParam(required = false) Long transacaoId,
+            @RequestParam(required = false) BigDecimal valorMinimo,
+            @RequestParam(required = false) BigDecimal valorMaximo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaDTO<ItemNotaDTO> pagina = itemNotaService.buscarPaginaItens(transacaoId, valorMinimo, valorMaximo, cursor, tamanho);
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+            if (pagina.getProximoCursor() != null) {
+                resposta.header(TransacaoController.CABECALHO_PROXIMO_CURSOR, pagina.getProximoCursor());
+            }
+            return resposta.body(pagina.getItens());
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
+    // Os mesmos itens de uma vez em NDJSON, escritos enquanto são lidos do banco (sem montar a lista)
+    @GetMapping("/fluxo")
+    public ResponseEntity<StreamingResponseBody> buscarItensEmFluxo(
+            @RequestParam(required = false) Long transacaoId,
+            @RequestParam(required = false) BigDecimal valorMinimo,
+            @RequestParam(required = false) BigDecimal valorMaximo) {
+        // Depois que o corpo começa não dá mais para responder 400. O corpo declarado precisa ser
+        // StreamingResponseBody para o Spring escrever em fluxo, então o erro sai pelo tratador abaixo
+        if (valorMinimo != null && valorMaximo != null && valorMinimo.compareTo(valorMaximo) > 0) {
+            throw new IllegalArgumentException("valorMinimo não pode ser maior que valorMaximo.");
+        }
+        StreamingResponseBody corpo = saida -> itemNotaService.escreverItens(transacaoId, valorMinimo, valorMaximo, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(FormatoExportacao.NDJSON.getTipoConteudo()))
+                .body(corpo);
     }
 
     @GetMapping("/{id}")
@@ -109,6 +143,18 @@ public class ItemNotaController {
         }
     }
 
+    // Criações, alterações e exclusões de itens num só pedido e numa só transação (ex.: edição de uma nota);
+    // o extrato é revisado uma vez por dia tocado em vez de a cada item
+    @PostMapping("/lote")
+    public ResponseEntity<?> aplicarOperacoes(@RequestBody OperacoesItensDTO request) {
+        try {
+            ResultadoOperacoesItensDTO resultado = itemNotaService.aplicarOperacoes(request);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluirItem(@PathVariable Long id) {
         try {
@@ -134,4 +180,27 @@ public class ItemNotaController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
+
+    // Descrições já usadas que começam com o prefixo, das mais usadas para as menos (sem ir ao banco)
+    @GetMapping("/sugestoes")
+    public ResponseEntity<?> sugerirDescricoes(@RequestParam String prefixo,
+                                               @RequestParam(defaultValue = "10") int limite) {
+        try {
+            List<SugestaoDTO> sugestoes = autocompletarService.sugerirDescricoes(prefixo, limite);
+            return ResponseEntity.ok(sugestoes);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> requisicaoInvalida(IllegalArgumentException e) {
+        return erroResponse(e);
+    }
+
+    private ResponseEntity<Map<String, String>> erroResponse(RuntimeException e) {
+        Map<String, String> erro = new HashMap<>();
+        erro.put("erro", e.getMessage());
+        return ResponseEntity.badRequest().body(erro);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.web.dev.painelOnline.Controller;
+
+import com.web.dev.painelOnline.dto.PlanoParcelamentoDTO;
+import com.web.dev.painelOnline.dto.ReprogramacaoParcelasDTO;
+import com.web.dev.painelOnline.entities.Parcelamento;
+import com.web.dev.painelOnline.services.ParcelamentoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/parcelamentos")
+@CrossOrigin(origins = "*")
+public class ParcelamentoController {
+
+    @Autowired
+    private ParcelamentoService parcelamentoService;
+
+    // Cria o parcelamento e todas as parcelas de uma vez
+    @PostMapping
+    public ResponseEntity<?> criar(@RequestBody Parcelamento parcelamento) {
+        try {
+            PlanoParcelamentoDTO plano = parcelamentoService.criar(parcelamento);
+            return ResponseEntity.status(HttpStatus.CREATED).body(plano);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
+    // Busca o parcelamento com as parcelas
+    @GetMapping("/{id}")
+    public ResponseEntity<?> buscarPorId(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(parcelamentoService.buscarPorId(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Reprograma as parcelas em aberto a partir de uma nova data
+    @PutMapping("/{id}/reprogramar")
+    public ResponseEntity<?> reprogramar(@PathVariable Long id, @RequestBody ReprogramacaoParcelasDTO request) {
+        try {
+            return ResponseEntity.ok(parcelamentoService.reprogramar(id, request.getNovaDataProximaParcela()));
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Cancela as parcelas em aberto
+    @PutMapping("/{id}/cancelar")
+    public ResponseEntity<?> cancelar(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(parcelamentoService.cancelar(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> erroResponse(RuntimeException e) {
+        Map<String, String> erro = new HashMap<>();
+        erro.put("erro", e.getMessage());
+        return ResponseEntity.badRequest().body(erro);
+    }
+}
@@ -1,15 +1,33 @@
 package com.web.dev.painelOnline.Controller;
 
+import com.web.dev.painelOnline.dto.AtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.ExecucaoVencimentoDTO;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoAtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.ResultadoImportacaoDTO;
+import com.web.dev.painelOnline.dto.SugestaoDTO;
+import com.web.dev.painelOnline.dto.TransacaoComItensDTO;
+import com.web.dev.painelOnline.dto.TransacaoResumoDTO;
 import com.web.dev.painelOnline.entities.Transacao;
 import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.services.AutocompletarService;
+import com.web.dev.painelOnline.services.ImportacaoTransacaoService;
 import com.web.dev.painelOnline.services.TransacaoService;
+import com.web.dev.painelOnline.services.VencimentoTransacaoService;
+import com.web.dev.painelOnline.services.VerificacaoResumoItensService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,9 +37,23 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class TransacaoController {
 
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
     @Autowired
     private TransacaoService transacaoService;
 
+    @Autowired
+    private ImportacaoTransacaoService importacaoTransacaoService;
+
+    @Autowired
+    private VencimentoTransacaoService vencimentoTransacaoService;
+
+    @Autowired
+    private AutocompletarService autocompletarService;
+
+    @Autowired
+    private VerificacaoResumoItensService verificacaoResumoItensService;
+
     // Cria uma nova transação
     @PostMapping
     public ResponseEntity<Transacao> criarTransacao(@RequestBody Transacao transacao) {
@@ -33,30 +65,58 @@ public class TransacaoController {
         }
     }
 
-    // Cria uma transação com itens para débitos à prazo
+    // Cria uma transação com itens para débitos à prazo; a resposta traz os itens com os ids gerados
     @PostMapping("/com-itens")
-    public ResponseEntity<Transacao> criarTransacaoComItens(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> criarTransacaoComItens(@RequestBody TransacaoComItensDTO request) {
+        if (request.getTransacao() == null) {
+            return erroResponse(new IllegalArgumentException("Campo transacao é obrigatório."));
+        }
+        List<ItemNota> itens = request.getItens() != null ? request.getItens() : new ArrayList<>();
         try {
-
-            Object transacaoObj = request.get("transacao");
-            Object itensObj = request.get("itens");
-
-            Transacao transacao = (Transacao) transacaoObj;
-            @SuppressWarnings("unchecked")
-            List<ItemNota> itens = (List<ItemNota>) itensObj;
-
-            Transacao novaTransacao = transacaoService.criarTransacaoComItens(transacao, itens);
-            return ResponseEntity.status(HttpStatus.CREATED).body(novaTransacao);
+            Transacao novaTransacao = transacaoService.criarTransacaoComItens(request.getTransacao(), itens);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TransacaoResumoDTO.de(novaTransacao, itens.stream().map(ItemNotaDTO::de).toList()));
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
-    // Busca todas as transações
+    // Importa transações em lote a partir de um array JSON, lido em fluxo
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importarJson(InputStream corpo) {
+        try {
+            ResultadoImportacaoDTO resultado = importacaoTransacaoService.importarJson(corpo);
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
+    // Importa transações em lote a partir de um CSV com cabeçalho
+    @PostMapping(value = "/importar", consumes = "text/csv")
+    public ResponseEntity<?> importarCsv(InputStream corpo) {
+        try {
+            ResultadoImportacaoDTO resultado = importacaoTransacaoService.importarCsv(corpo);
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
+    // Busca todas as transações (ordem data, id). Sem cursor nem tamanho vem a lista inteira; com eles,
+    // uma página por vez, e o cursor da próxima vem no cabeçalho X-Proximo-Cursor (sem o cabeçalho, é a última).
+    // Cada transação traz quantidadeItens e totalItens; incluirItens=true traz também a lista de itens.
     @GetMapping
-    public ResponseEntity<List<Transacao>> buscarTodasTransacoes() {
-        List<Transacao> transacoes = transacaoService.buscarTodasTransacoes();
-        return ResponseEntity.ok(transacoes);
+    public ResponseEntity<?> buscarTodasTransacoes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "false") boolean incluirItens) {
+        try {
+            return paginaResponse(transacaoService.buscarPaginaTransacoes(cursor, tamanho, incluirItens));
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
     }
 
     // Busca a transação por ID
@@ -84,28 +144,41 @@ public class TransacaoController {
 
     // Busca as transações por período
     @GetMapping("/periodo")
-    public ResponseEntity<List<Transacao>> buscarTransacoesPorPeriodo(
+    public ResponseEntity<?> buscarTransacoesPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
-        List<Transacao> transacoes = transacaoService.buscarTransacoesPorPeriodo(dataInicio, dataFim);
-        return ResponseEntity.ok(transacoes);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "false") boolean incluirItens) {
+        try {
+            return paginaResponse(transacaoService.buscarPaginaTransacoesPorPeriodo(dataInicio, dataFim, cursor, tamanho, incluirItens));
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
     }
 
-    // Busca as transações do mes
+    // Busca as transações do mes, da mais recente para a mais antiga (paginável como a listagem geral)
     @GetMapping("/mes/{ano}/{mes}")
-    public ResponseEntity<List<Transacao>> buscarTransacoesMes(
+    public ResponseEntity<?> buscarTransacoesMes(
             @PathVariable int ano,
-            @PathVariable int mes) {
-        List<Transacao> transacoes = transacaoService.buscarTransacoesMes(ano, mes);
-        return ResponseEntity.ok(transacoes);
+            @PathVariable int mes,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "false") boolean incluirItens) {
+        try {
+            return paginaResponse(transacaoService.buscarPaginaTransacoesMes(ano, mes, cursor, tamanho, incluirItens));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return erroResponse(e);
+        }
     }
 
     // Busca débitos à prazo do mes
     @GetMapping("/debitos-prazo/{ano}/{mes}")
-    public ResponseEntity<List<Transacao>> buscarDebitosAPrazoMes(
+    public ResponseEntity<List<TransacaoResumoDTO>> buscarDebitosAPrazoMes(
             @PathVariable int ano,
-            @PathVariable int mes) {
-        List<Transacao> debitos = transacaoService.buscarDebitosAPrazoMes(ano, mes);
+            @PathVariable int mes,
+            @RequestParam(defaultValue = "false") boolean incluirItens) {
+        List<TransacaoResumoDTO> debitos = transacaoService.buscarResumoDebitosAPrazoMes(ano, mes, incluirItens);
         return ResponseEntity.ok(debitos);
     }
 
@@ -124,9 +197,38 @@ public class TransacaoController {
         }
     }
 
+    // Muda o status de várias transações de uma vez (lista de ids ou filtro por período)
+    @PutMapping("/status")
+    public ResponseEntity<?> atualizarStatusEmLote(@RequestBody AtualizacaoStatusDTO request) {
+        try {
+            ResultadoAtualizacaoStatusDTO resultado = transacaoService.atualizarStatusEmLote(request);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
+    // Resultado da última execução da rotina de vencimento
+    @GetMapping("/vencimentos/ultima-execucao")
+    public ResponseEntity<?> ultimaExecucaoVencimento() {
+        ExecucaoVencimentoDTO execucao = vencimentoTransacaoService.getUltimaExecucao();
+        if (execucao == null) {
+            Map<String, String> erro = new HashMap<>();
+            erro.put("erro", "A rotina de vencimento ainda não foi executada.");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(erro);
+        }
+        return ResponseEntity.ok(execucao);
+    }
+
+    // Executa a rotina de vencimento agora, sem esperar o horário agendado
+    @PostMapping("/vencimentos/executar")
+    public ResponseEntity<ExecucaoVencimentoDTO> executarVencimento() {
+        return ResponseEntity.ok(vencimentoTransacaoService.marcarVencidas(LocalDate.now()));
+    }
+
     // Atualiza a quantidade de itens de uma transação
     @PutMapping("/{id}/atualizar-quantidade-itens")
-    public ResponseEntity<Transacao> atualizarQuantidadeItens(
+    public ResponseEntity<TransacaoResumoDTO> atualizarQuantidadeItens(
             @PathVariable Long id,
             @RequestBody Map<String, Integer> request) {
         try {
@@ -135,7 +237,7 @@ public class TransacaoController {
                 return ResponseEntity.badRequest().build();
             }
 
-            Transacao transacaoAtualizada = transacaoService.atualizarQuantidadeItens(id, novaQuantidade);
+            TransacaoResumoDTO transacaoAtualizada = transacaoService.atualizarQuantidadeItens(id, novaQuantidade);
             return ResponseEntity.ok(transacaoAtualizada);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -155,6 +257,30 @@ public class TransacaoController {
         return ResponseEntity.ok(transacoes);
     }
 
+    // Confere quantidade e soma dos itens gravadas nas transações contra os itens e corrige as divergentes
+    @PostMapping("/itens/verificar")
+    public ResponseEntity<Map<String, Object>> verificarResumoItens() {
+        int corrigidas = verificacaoResumoItensService.verificar();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("corrigidas", corrigidas);
+        response.put("consistente", corrigidas == 0);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Características já usadas que começam com o prefixo, das mais usadas para as menos
+    @GetMapping("/sugestoes")
+    public ResponseEntity<?> sugerirCaracteristicas(@RequestParam String prefixo,
+                                                    @RequestParam(defaultValue = "10") int limite) {
+        try {
+            List<SugestaoDTO> sugestoes = autocompletarService.sugerirCaracteristicas(prefixo, limite);
+            return ResponseEntity.ok(sugestoes);
+        } catch (IllegalArgumentException e) {
+            return erroResponse(e);
+        }
+    }
+
     // Exclui a  transação
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluirTransacao(@PathVariable Long id) {
@@ -165,4 +291,19 @@ public class TransacaoController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    // Corpo continua sendo o array de transações; o cursor vai no cabeçalho
+    private ResponseEntity<List<TransacaoResumoDTO>> paginaResponse(PaginaDTO<TransacaoResumoDTO> pagina) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getItens());
+    }
+
+    private ResponseEntity<Map<String, String>> erroResponse(RuntimeException e) {
+        Map<String, String> erro = new HashMap<>();
+        erro.put("erro", e.getMessage());
+        return ResponseEntity.badRequest().body(erro);
+    }
+}
@@ -0,0 +1,17 @@
+package com.web.dev.painelOnline.Enum;
+
+public enum ModoAtualizacaoExtrato {
+    INCREMENTAL("Incremental"),
+    COMPLETO("Completo"),
+    ASSINCRONO("Assíncrono");
+
+    private final String descricao;
+
+    ModoAtualizacaoExtrato(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
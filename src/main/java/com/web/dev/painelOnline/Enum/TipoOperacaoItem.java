@@ -0,0 +1,7 @@
+package com.web.dev.painelOnline.Enum;
+
+public enum TipoOperacaoItem {
+    CRIAR,
+    ATUALIZAR,
+    EXCLUIR
+}
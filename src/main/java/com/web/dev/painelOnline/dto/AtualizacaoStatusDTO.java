@@ -0,0 +1,38 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Corpo de PUT /api/transacoes/status: novoStatus para as transações de ids, ou para as do
+// filtro (período [dataInicio, dataFim] e, opcionalmente, status atual e tipo de pagamento)
+public class AtualizacaoStatusDTO {
+    private StatusPagamento novoStatus;
+    private List<Long> ids;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private StatusPagamento statusAtual;
+    private TipoPagamento tipoPagamento;
+
+    public AtualizacaoStatusDTO() {}
+
+    public StatusPagamento getNovoStatus() { return novoStatus; }
+    public void setNovoStatus(StatusPagamento novoStatus) { this.novoStatus = novoStatus; }
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public LocalDate getDataInicio() { return dataInicio; }
+    public void setDataInicio(LocalDate dataInicio) { this.dataInicio = dataInicio; }
+
+    public LocalDate getDataFim() { return dataFim; }
+    public void setDataFim(LocalDate dataFim) { this.dataFim = dataFim; }
+
+    public StatusPagamento getStatusAtual() { return statusAtual; }
+    public void setStatusAtual(StatusPagamento statusAtual) { this.statusAtual = statusAtual; }
+
+    public TipoPagamento getTipoPagamento() { return tipoPagamento; }
+    public void setTipoPagamento(TipoPagamento tipoPagamento) { this.tipoPagamento = tipoPagamento; }
+}
@@ -0,0 +1,20 @@
+package com.web.dev.painelOnline.dto;
+
+// Id e característica de uma transação, para a carga do índice de busca
+public class CaracteristicaDTO {
+    private Long id;
+    private String caracteristica;
+
+    public CaracteristicaDTO() {}
+
+    public CaracteristicaDTO(Long id, String caracteristica) {
+        this.id = id;
+        this.caracteristica = caracteristica;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCaracteristica() { return caracteristica; }
+    public void setCaracteristica(String caracteristica) { this.caracteristica = caracteristica; }
+}
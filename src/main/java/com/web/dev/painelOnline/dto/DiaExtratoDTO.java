@@ -0,0 +1,44 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Posição de um dia no ranking do extrato (cópia dos valores, sem vínculo com a sessão JPA)
+public class DiaExtratoDTO {
+    private LocalDate data;
+    private BigDecimal totalCreditos;
+    private BigDecimal totalDebitos;
+    private BigDecimal saldoDia;
+    private BigDecimal movimentoTotal;
+
+    public DiaExtratoDTO() {}
+
+    public DiaExtratoDTO(LocalDate data, BigDecimal totalCreditos, BigDecimal totalDebitos) {
+        this.data = data;
+        this.totalCreditos = totalCreditos != null ? totalCreditos : BigDecimal.ZERO;
+        this.totalDebitos = totalDebitos != null ? totalDebitos : BigDecimal.ZERO;
+        this.saldoDia = this.totalCreditos.subtract(this.totalDebitos);
+        this.movimentoTotal = this.totalCreditos.add(this.totalDebitos);
+    }
+
+    public static DiaExtratoDTO de(ExtratoFinanceiro extrato) {
+        return new DiaExtratoDTO(extrato.getData(), extrato.getTotalCreditosDolares(), extrato.getTotalDebitosDolares());
+    }
+
+    public LocalDate getData() { return data; }
+    public void setData(LocalDate data) { this.data = data; }
+
+    public BigDecimal getTotalCreditos() { return totalCreditos; }
+    public void setTotalCreditos(BigDecimal totalCreditos) { this.totalCreditos = totalCreditos; }
+
+    public BigDecimal getTotalDebitos() { return totalDebitos; }
+    public void setTotalDebitos(BigDecimal totalDebitos) { this.totalDebitos = totalDebitos; }
+
+    public BigDecimal getSaldoDia() { return saldoDia; }
+    public void setSaldoDia(BigDecimal saldoDia) { this.saldoDia = saldoDia; }
+
+    public BigDecimal getMovimentoTotal() { return movimentoTotal; }
+    public void setMovimentoTotal(BigDecimal movimentoTotal) { this.movimentoTotal = movimentoTotal; }
+}
@@ -0,0 +1,44 @@
+package com.web.dev.painelOnline.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Resultado de uma execução da rotina de vencimento
+public class ExecucaoVencimentoDTO {
+    private LocalDate referencia;
+    private LocalDateTime inicio;
+    private long duracaoMs;
+    private int atualizadas;
+    private int lotes;
+    private int diasAfetados;
+    // Preenchido quando a execução parou por falha; os lotes anteriores continuam gravados
+    private String erro;
+
+    public ExecucaoVencimentoDTO() {}
+
+    public ExecucaoVencimentoDTO(LocalDate referencia, LocalDateTime inicio) {
+        this.referencia = referencia;
+        this.inicio = inicio;
+    }
+
+    public LocalDate getReferencia() { return referencia; }
+    public void setReferencia(LocalDate referencia) { this.referencia = referencia; }
+
+    public LocalDateTime getInicio() { return inicio; }
+    public void setInicio(LocalDateTime inicio) { this.inicio = inicio; }
+
+    public long getDuracaoMs() { return duracaoMs; }
+    public void setDuracaoMs(long duracaoMs) { this.duracaoMs = duracaoMs; }
+
+    public int getAtualizadas() { return atualizadas; }
+    public void setAtualizadas(int atualizadas) { this.atualizadas = atualizadas; }
+
+    public int getLotes() { return lotes; }
+    public void setLotes(int lotes) { this.lotes = lotes; }
+
+    public int getDiasAfetados() { return diasAfetados; }
+    public void setDiasAfetados(int diasAfetados) { this.diasAfetados = diasAfetados; }
+
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
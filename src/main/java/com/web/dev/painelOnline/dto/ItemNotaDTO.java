@@ -1,5 +1,7 @@
 package com.web.dev.painelOnline.dto;
 
+import com.web.dev.painelOnline.entities.ItemNota;
+
 import java.math.BigDecimal;
 
 public class ItemNotaDTO {
@@ -22,6 +24,11 @@ public class ItemNotaDTO {
         this.transacaoId = transacaoId;
     }
 
+    public static ItemNotaDTO de(ItemNota item) {
+        return new ItemNotaDTO(item.getId(), item.getDescricao(), item.getQuantidade(), item.getValorUnitario(),
+                item.getValorTotal(), item.getTransacao() != null ? item.getTransacao().getId() : null);
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
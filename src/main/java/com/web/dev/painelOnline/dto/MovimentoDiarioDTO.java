@@ -0,0 +1,27 @@
+package com.web.dev.painelOnline.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class MovimentoDiarioDTO {
+    private LocalDate data;
+    private BigDecimal totalCreditos;
+    private BigDecimal totalDebitos;
+
+    public MovimentoDiarioDTO() {}
+
+    public MovimentoDiarioDTO(LocalDate data, BigDecimal totalCreditos, BigDecimal totalDebitos) {
+        this.data = data;
+        this.totalCreditos = totalCreditos != null ? totalCreditos : BigDecimal.ZERO;
+        this.totalDebitos = totalDebitos != null ? totalDebitos : BigDecimal.ZERO;
+    }
+
+    public LocalDate getData() { return data; }
+    public void setData(LocalDate data) { this.data = data; }
+
+    public BigDecimal getTotalCreditos() { return totalCreditos; }
+    public void setTotalCreditos(BigDecimal totalCreditos) { this.totalCreditos = totalCreditos; }
+
+    public BigDecimal getTotalDebitos() { return totalDebitos; }
+    public void setTotalDebitos(BigDecimal totalDebitos) { this.totalDebitos = totalDebitos; }
+}
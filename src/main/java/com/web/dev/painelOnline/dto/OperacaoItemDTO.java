@@ -0,0 +1,46 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.Enum.TipoOperacaoItem;
+
+import java.math.BigDecimal;
+
+// Uma operação do lote de itens. CRIAR usa transacaoId, descricao, quantidade e valorUnitario;
+// ATUALIZAR usa id e só os campos informados (transacaoId move o item); EXCLUIR usa só id.
+public class OperacaoItemDTO {
+    private TipoOperacaoItem tipo;
+    private Long id;
+    private Long transacaoId;
+    private String descricao;
+    private Integer quantidade;
+    private BigDecimal valorUnitario;
+
+    public OperacaoItemDTO() {}
+
+    public OperacaoItemDTO(TipoOperacaoItem tipo, Long id, Long transacaoId, String descricao,
+                           Integer quantidade, BigDecimal valorUnitario) {
+        this.tipo = tipo;
+        this.id = id;
+        this.transacaoId = transacaoId;
+        this.descricao = descricao;
+        this.quantidade = quantidade;
+        this.valorUnitario = valorUnitario;
+    }
+
+    public TipoOperacaoItem getTipo() { return tipo; }
+    public void setTipo(TipoOperacaoItem tipo) { this.tipo = tipo; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getTransacaoId() { return transacaoId; }
+    public void setTransacaoId(Long transacaoId) { this.transacaoId = transacaoId; }
+
+    public String getDescricao() { return descricao; }
+    public void setDescricao(String descricao) { this.descricao = descricao; }
+
+    public Integer getQuantidade() { return quantidade; }
+    public void setQuantidade(Integer quantidade) { this.quantidade = quantidade; }
+
+    public BigDecimal getValorUnitario() { return valorUnitario; }
+    public void setValorUnitario(BigDecimal valorUnitario) { this.valorUnitario = valorUnitario; }
+}
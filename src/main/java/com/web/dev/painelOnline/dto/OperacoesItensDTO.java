@@ -0,0 +1,17 @@
+package com.web.dev.painelOnline.dto;
+
+import java.util.List;
+
+// Corpo de POST /api/itens-nota/lote: {"operacoes": [{"tipo": "CRIAR", ...}, {"tipo": "EXCLUIR", "id": 7}, ...]}
+public class OperacoesItensDTO {
+    private List<OperacaoItemDTO> operacoes;
+
+    public OperacoesItensDTO() {}
+
+    public OperacoesItensDTO(List<OperacaoItemDTO> operacoes) {
+        this.operacoes = operacoes;
+    }
+
+    public List<OperacaoItemDTO> getOperacoes() { return operacoes; }
+    public void setOperacoes(List<OperacaoItemDTO> operacoes) { this.operacoes = operacoes; }
+}
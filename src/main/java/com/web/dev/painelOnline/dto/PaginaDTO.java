@@ -0,0 +1,22 @@
+package com.web.dev.painelOnline.dto;
+
+import java.util.List;
+
+// Uma página de uma listagem por cursor; proximoCursor é null na última página
+public class PaginaDTO<T> {
+    private List<T> itens;
+    private String proximoCursor;
+
+    public PaginaDTO() {}
+
+    public PaginaDTO(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+    public void setItens(List<T> itens) { this.itens = itens; }
+
+    public String getProximoCursor() { return proximoCursor; }
+    public void setProximoCursor(String proximoCursor) { this.proximoCursor = proximoCursor; }
+}
@@ -0,0 +1,53 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.entities.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Uma parcela de um parcelamento (transação PARCELADO), sem os campos repetidos do plano
+public class ParcelaDTO {
+    private Long id;
+    private Integer numeroParcela;
+    private LocalDate data;
+    private LocalDate dataVencimento;
+    private BigDecimal valorReais;
+    private BigDecimal valorDolares;
+    private StatusPagamento statusPagamento;
+
+    public ParcelaDTO() {}
+
+    public static ParcelaDTO de(Transacao transacao) {
+        ParcelaDTO parcela = new ParcelaDTO();
+        parcela.id = transacao.getId();
+        parcela.numeroParcela = transacao.getNumeroParcela();
+        parcela.data = transacao.getData();
+        parcela.dataVencimento = transacao.getDataVencimento();
+        parcela.valorReais = transacao.getValorReais();
+        parcela.valorDolares = transacao.getValorDolares();
+        parcela.statusPagamento = transacao.getStatusPagamento();
+        return parcela;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getNumeroParcela() { return numeroParcela; }
+    public void setNumeroParcela(Integer numeroParcela) { this.numeroParcela = numeroParcela; }
+
+    public LocalDate getData() { return data; }
+    public void setData(LocalDate data) { this.data = data; }
+
+    public LocalDate getDataVencimento() { return dataVencimento; }
+    public void setDataVencimento(LocalDate dataVencimento) { this.dataVencimento = dataVencimento; }
+
+    public BigDecimal getValorReais() { return valorReais; }
+    public void setValorReais(BigDecimal valorReais) { this.valorReais = valorReais; }
+
+    public BigDecimal getValorDolares() { return valorDolares; }
+    public void setValorDolares(BigDecimal valorDolares) { this.valorDolares = valorDolares; }
+
+    public StatusPagamento getStatusPagamento() { return statusPagamento; }
+    public void setStatusPagamento(StatusPagamento statusPagamento) { this.statusPagamento = statusPagamento; }
+}
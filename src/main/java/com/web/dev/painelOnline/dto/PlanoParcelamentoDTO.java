@@ -0,0 +1,24 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.entities.Parcelamento;
+
+import java.util.List;
+
+// Parcelamento com as parcelas em ordem
+public class PlanoParcelamentoDTO {
+    private Parcelamento parcelamento;
+    private List<ParcelaDTO> parcelas;
+
+    public PlanoParcelamentoDTO() {}
+
+    public PlanoParcelamentoDTO(Parcelamento parcelamento, List<ParcelaDTO> parcelas) {
+        this.parcelamento = parcelamento;
+        this.parcelas = parcelas;
+    }
+
+    public Parcelamento getParcelamento() { return parcelamento; }
+    public void setParcelamento(Parcelamento parcelamento) { this.parcelamento = parcelamento; }
+
+    public List<ParcelaDTO> getParcelas() { return parcelas; }
+    public void setParcelas(List<ParcelaDTO> parcelas) { this.parcelas = parcelas; }
+}
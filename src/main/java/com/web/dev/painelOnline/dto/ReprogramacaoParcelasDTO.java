@@ -0,0 +1,13 @@
+package com.web.dev.painelOnline.dto;
+
+import java.time.LocalDate;
+
+// Nova data da próxima parcela em aberto; as seguintes andam o mesmo número de dias
+public class ReprogramacaoParcelasDTO {
+    private LocalDate novaDataProximaParcela;
+
+    public ReprogramacaoParcelasDTO() {}
+
+    public LocalDate getNovaDataProximaParcela() { return novaDataProximaParcela; }
+    public void setNovaDataProximaParcela(LocalDate novaDataProximaParcela) { this.novaDataProximaParcela = novaDataProximaParcela; }
+}
@@ -0,0 +1,20 @@
+package com.web.dev.painelOnline.dto;
+
+public class ResultadoAtualizacaoStatusDTO {
+    private int atualizadas;
+    // Dias distintos das transações alteradas, revisados uma vez cada no extrato
+    private int diasAfetados;
+
+    public ResultadoAtualizacaoStatusDTO() {}
+
+    public ResultadoAtualizacaoStatusDTO(int atualizadas, int diasAfetados) {
+        this.atualizadas = atualizadas;
+        this.diasAfetados = diasAfetados;
+    }
+
+    public int getAtualizadas() { return atualizadas; }
+    public void setAtualizadas(int atualizadas) { this.atualizadas = atualizadas; }
+
+    public int getDiasAfetados() { return diasAfetados; }
+    public void setDiasAfetados(int diasAfetados) { this.diasAfetados = diasAfetados; }
+}
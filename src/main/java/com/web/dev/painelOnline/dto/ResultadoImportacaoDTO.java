@@ -0,0 +1,35 @@
+package com.web.dev.painelOnline.dto;
+
+import java.time.LocalDate;
+
+public class ResultadoImportacaoDTO {
+    private int importadas;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    // false quando as transações foram gravadas mas a regeneração do extrato falhou (refazer por /api/extratos/regenerar)
+    private boolean extratoAtualizado;
+    private String erroExtrato;
+
+    public ResultadoImportacaoDTO() {}
+
+    public ResultadoImportacaoDTO(int importadas, LocalDate dataInicio, LocalDate dataFim) {
+        this.importadas = importadas;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+    }
+
+    public int getImportadas() { return importadas; }
+    public void setImportadas(int importadas) { this.importadas = importadas; }
+
+    public LocalDate getDataInicio() { return dataInicio; }
+    public void setDataInicio(LocalDate dataInicio) { this.dataInicio = dataInicio; }
+
+    public LocalDate getDataFim() { return dataFim; }
+    public void setDataFim(LocalDate dataFim) { this.dataFim = dataFim; }
+
+    public boolean isExtratoAtualizado() { return extratoAtualizado; }
+    public void setExtratoAtualizado(boolean extratoAtualizado) { this.extratoAtualizado = extratoAtualizado; }
+
+    public String getErroExtrato() { return erroExtrato; }
+    public void setErroExtrato(String erroExtrato) { this.erroExtrato = erroExtrato; }
+}
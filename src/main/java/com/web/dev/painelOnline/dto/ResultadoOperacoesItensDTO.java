@@ -0,0 +1,39 @@
+package com.web.dev.painelOnline.dto;
+
+import java.util.List;
+
+public class ResultadoOperacoesItensDTO {
+    private int criados;
+    private int atualizados;
+    private int excluidos;
+    // Dias distintos das transações tocadas, revisados uma vez cada no extrato
+    private int diasAfetados;
+    // Itens criados e atualizados, na ordem das operações, já com os ids gerados
+    private List<ItemNotaDTO> itens;
+
+    public ResultadoOperacoesItensDTO() {}
+
+    public ResultadoOperacoesItensDTO(int criados, int atualizados, int excluidos, int diasAfetados,
+                                      List<ItemNotaDTO> itens) {
+        this.criados = criados;
+        this.atualizados = atualizados;
+        this.excluidos = excluidos;
+        this.diasAfetados = diasAfetados;
+        this.itens = itens;
+    }
+
+    public int getCriados() { return criados; }
+    public void setCriados(int criados) { this.criados = criados; }
+
+    public int getAtualizados() { return atualizados; }
+    public void setAtualizados(int atualizados) { this.atualizados = atualizados; }
+
+    public int getExcluidos() { return excluidos; }
+    public void setExcluidos(int excluidos) { this.excluidos = excluidos; }
+
+    public int getDiasAfetados() { return diasAfetados; }
+    public void setDiasAfetados(int diasAfetados) { this.diasAfetados = diasAfetados; }
+
+    public List<ItemNotaDTO> getItens() { return itens; }
+    public void setItens(List<ItemNotaDTO> itens) { this.itens = itens; }
+}
@@ -0,0 +1,20 @@
+package com.web.dev.painelOnline.dto;
+
+// Valor sugerido no autocompletar e quantas vezes ele está gravado
+public class SugestaoDTO {
+    private String valor;
+    private long frequencia;
+
+    public SugestaoDTO() {}
+
+    public SugestaoDTO(String valor, long frequencia) {
+        this.valor = valor;
+        this.frequencia = frequencia;
+    }
+
+    public String getValor() { return valor; }
+    public void setValor(String valor) { this.valor = valor; }
+
+    public long getFrequencia() { return frequencia; }
+    public void setFrequencia(long frequencia) { this.frequencia = frequencia; }
+}
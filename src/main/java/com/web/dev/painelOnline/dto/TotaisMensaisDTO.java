@@ -0,0 +1,31 @@
+package com.web.dev.painelOnline.dto;
+
+import java.math.BigDecimal;
+
+public class TotaisMensaisDTO {
+    private Integer ano;
+    private Integer mes;
+    private BigDecimal totalCreditos;
+    private BigDecimal totalDebitos;
+
+    public TotaisMensaisDTO() {}
+
+    public TotaisMensaisDTO(Integer ano, Integer mes, BigDecimal totalCreditos, BigDecimal totalDebitos) {
+        this.ano = ano;
+        this.mes = mes;
+        this.totalCreditos = totalCreditos != null ? totalCreditos : BigDecimal.ZERO;
+        this.totalDebitos = totalDebitos != null ? totalDebitos : BigDecimal.ZERO;
+    }
+
+    public Integer getAno() { return ano; }
+    public void setAno(Integer ano) { this.ano = ano; }
+
+    public Integer getMes() { return mes; }
+    public void setMes(Integer mes) { this.mes = mes; }
+
+    public BigDecimal getTotalCreditos() { return totalCreditos; }
+    public void setTotalCreditos(BigDecimal totalCreditos) { this.totalCreditos = totalCreditos; }
+
+    public BigDecimal getTotalDebitos() { return totalDebitos; }
+    public void setTotalDebitos(BigDecimal totalDebitos) { this.totalDebitos = totalDebitos; }
+}
@@ -0,0 +1,25 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.entities.Transacao;
+
+import java.util.List;
+
+// Corpo de POST /api/transacoes/com-itens: {"transacao": {...}, "itens": [{...}, ...]}
+public class TransacaoComItensDTO {
+    private Transacao transacao;
+    private List<ItemNota> itens;
+
+    public TransacaoComItensDTO() {}
+
+    public TransacaoComItensDTO(Transacao transacao, List<ItemNota> itens) {
+        this.transacao = transacao;
+        this.itens = itens;
+    }
+
+    public Transacao getTransacao() { return transacao; }
+    public void setTransacao(Transacao transacao) { this.transacao = transacao; }
+
+    public List<ItemNota> getItens() { return itens; }
+    public void setItens(List<ItemNota> itens) { this.itens = itens; }
+}
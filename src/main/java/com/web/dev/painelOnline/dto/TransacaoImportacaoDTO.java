@@ -0,0 +1,46 @@
+package com.web.dev.painelOnline.dto;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Uma linha da importação em lote (item do array JSON ou linha do CSV)
+public class TransacaoImportacaoDTO {
+    private LocalDate data;
+    private String caracteristica;
+    private BigDecimal valorReais;
+    private BigDecimal taxaCambio;
+    private TipoTransacao tipoTransacao;
+    private StatusPagamento statusPagamento;
+    private TipoPagamento tipoPagamento;
+    private LocalDate dataVencimento;
+
+    public TransacaoImportacaoDTO() {}
+
+    public LocalDate getData() { return data; }
+    public void setData(LocalDate data) { this.data = data; }
+
+    public String getCaracteristica() { return caracteristica; }
+    public void setCaracteristica(String caracteristica) { this.caracteristica = caracteristica; }
+
+    public BigDecimal getValorReais() { return valorReais; }
+    public void setValorReais(BigDecimal valorReais) { this.valorReais = valorReais; }
+
+    public BigDecimal getTaxaCambio() { return taxaCambio; }
+    public void setTaxaCambio(BigDecimal taxaCambio) { this.taxaCambio = taxaCambio; }
+
+    public TipoTransacao getTipoTransacao() { return tipoTransacao; }
+    public void setTipoTransacao(TipoTransacao tipoTransacao) { this.tipoTransacao = tipoTransacao; }
+
+    public StatusPagamento getStatusPagamento() { return statusPagamento; }
+    public void setStatusPagamento(StatusPagamento statusPagamento) { this.statusPagamento = statusPagamento; }
+
+    public TipoPagamento getTipoPagamento() { return tipoPagamento; }
+    public void setTipoPagamento(TipoPagamento tipoPagamento) { this.tipoPagamento = tipoPagamento; }
+
+    public LocalDate getDataVencimento() { return dataVencimento; }
+    public void setDataVencimento(LocalDate dataVencimento) { this.dataVencimento = dataVencimento; }
+}
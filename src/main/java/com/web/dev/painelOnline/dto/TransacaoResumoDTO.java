@@ -0,0 +1,117 @@
+package com.web.dev.painelOnline.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.util.Centavos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Transação das listagens, montada direto na consulta (sem entidade gerenciada nem coleção lazy).
+// quantidadeItens e totalItens vêm das colunas de resumo da transação; itens só é preenchido quando pedido.
+public class TransacaoResumoDTO {
+    private Long id;
+    private LocalDate data;
+    private String caracteristica;
+    private BigDecimal valorReais;
+    private BigDecimal taxaCambio;
+    private BigDecimal valorDolares;
+    private TipoTransacao tipoTransacao;
+    private StatusPagamento statusPagamento;
+    private TipoPagamento tipoPagamento;
+    private LocalDate dataVencimento;
+    private LocalDateTime dataCriacao;
+    private LocalDateTime dataAtualizacao;
+    private long quantidadeItens;
+    private BigDecimal totalItens;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ItemNotaDTO> itens;
+
+    public TransacaoResumoDTO() {}
+
+    public TransacaoResumoDTO(Long id, LocalDate data, String caracteristica, BigDecimal valorReais,
+                              BigDecimal taxaCambio, BigDecimal valorDolares, TipoTransacao tipoTransacao,
+                              StatusPagamento statusPagamento, TipoPagamento tipoPagamento,
+                              LocalDate dataVencimento, LocalDateTime dataCriacao, LocalDateTime dataAtualizacao,
+                              Integer quantidadeItens, BigDecimal totalItens) {
+        this.id = id;
+        this.data = data;
+        this.caracteristica = caracteristica;
+        this.valorReais = valorReais;
+        this.taxaCambio = taxaCambio;
+        this.valorDolares = valorDolares;
+        this.tipoTransacao = tipoTransacao;
+        this.statusPagamento = statusPagamento;
+        this.tipoPagamento = tipoPagamento;
+        this.dataVencimento = dataVencimento;
+        this.dataCriacao = dataCriacao;
+        this.dataAtualizacao = dataAtualizacao;
+        this.quantidadeItens = quantidadeItens != null ? quantidadeItens : 0L;
+        this.totalItens = totalItens != null ? totalItens : BigDecimal.ZERO;
+    }
+
+    // Resumo de uma transação recém-gravada com a lista de itens já conhecida (sem nova consulta)
+    public static TransacaoResumoDTO de(Transacao transacao, List<ItemNotaDTO> itens) {
+        long total = 0L;
+        for (ItemNotaDTO item : itens) {
+            total = Centavos.somar(total, Centavos.de(item.getValorTotal()));
+        }
+        TransacaoResumoDTO resumo = new TransacaoResumoDTO(transacao.getId(), transacao.getData(),
+                transacao.getCaracteristica(), transacao.getValorReais(), transacao.getTaxaCambio(),
+                transacao.getValorDolares(), transacao.getTipoTransacao(), transacao.getStatusPagamento(),
+                transacao.getTipoPagamento(), transacao.getDataVencimento(), transacao.getDataCriacao(), transacao.getDataAtualizacao(),
+                itens.size(), Centavos.paraBigDecimal(total));
+        resumo.setItens(itens);
+        return resumo;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getData() { return data; }
+    public void setData(LocalDate data) { this.data = data; }
+
+    public String getCaracteristica() { return caracteristica; }
+    public void setCaracteristica(String caracteristica) { this.caracteristica = caracteristica; }
+
+    public BigDecimal getValorReais() { return valorReais; }
+    public void setValorReais(BigDecimal valorReais) { this.valorReais = valorReais; }
+
+    public BigDecimal getTaxaCambio() { return taxaCambio; }
+    public void setTaxaCambio(BigDecimal taxaCambio) { this.taxaCambio = taxaCambio; }
+
+    public BigDecimal getValorDolares() { return valorDolares; }
+    public void setValorDolares(BigDecimal valorDolares) { this.valorDolares = valorDolares; }
+
+    public TipoTransacao getTipoTransacao() { return tipoTransacao; }
+    public void setTipoTransacao(TipoTransacao tipoTransacao) { this.tipoTransacao = tipoTransacao; }
+
+    public StatusPagamento getStatusPagamento() { return statusPagamento; }
+    public void setStatusPagamento(StatusPagamento statusPagamento) { this.statusPagamento = statusPagamento; }
+
+    public TipoPagamento getTipoPagamento() { return tipoPagamento; }
+    public void setTipoPagamento(TipoPagamento tipoPagamento) { this.tipoPagamento = tipoPagamento; }
+
+    public LocalDate getDataVencimento() { return dataVencimento; }
+    public void setDataVencimento(LocalDate dataVencimento) { this.dataVencimento = dataVencimento; }
+
+    public LocalDateTime getDataCriacao() { return dataCriacao; }
+    public void setDataCriacao(LocalDateTime dataCriacao) { this.dataCriacao = dataCriacao; }
+
+    public LocalDateTime getDataAtualizacao() { return dataAtualizacao; }
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) { this.dataAtualizacao = dataAtualizacao; }
+
+    public long getQuantidadeItens() { return quantidadeItens; }
+    public void setQuantidadeItens(long quantidadeItens) { this.quantidadeItens = quantidadeItens; }
+
+    public BigDecimal getTotalItens() { return totalItens; }
+    public void setTotalItens(BigDecimal totalItens) { this.totalItens = totalItens; }
+
+    public List<ItemNotaDTO> getItens() { return itens; }
+    public void setItens(List<ItemNotaDTO> itens) { this.itens = itens; }
+}
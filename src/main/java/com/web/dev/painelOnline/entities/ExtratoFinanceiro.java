@@ -1,5 +1,6 @@
 package com.web.dev.painelOnline.entities;
 
+import com.web.dev.painelOnline.util.Centavos;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -8,6 +9,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "extrato_financeiro", uniqueConstraints = {
         @UniqueConstraint(columnNames = "data")
+}, indexes = {
+        // Dias de maior movimento, lidos do topo do índice
+        @Index(name = "idx_extrato_movimento_total", columnList = "movimento_total, data"),
+        // Dias de saldo negativo, do mais negativo em diante
+        @Index(name = "idx_extrato_saldo_dia", columnList = "saldo_dia_dolares, data")
 })
 public class ExtratoFinanceiro {
 
@@ -30,28 +36,48 @@ public class ExtratoFinanceiro {
     @Column(name = "saldo_acumulado_dolares", nullable = false, precision = 15, scale = 2)
     private BigDecimal saldoAcumuladoDolares;
 
+    // Créditos + débitos do dia, gravado para a ordenação por movimento usar índice
+    @Column(name = "movimento_total", nullable = false, precision = 15, scale = 2,
+            columnDefinition = "decimal(15,2) default 0")
+    private BigDecimal movimentoTotal;
+
     @Column(name = "data_criacao", nullable = false)
     private LocalDateTime dataCriacao;
 
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
 
+    // Controle otimista: duas transações que leram a mesma versão do dia não gravam as duas
+    @Version
+    @Column(name = "versao", nullable = false, columnDefinition = "bigint default 0")
+    private Long versao;
+
     @PrePersist
     protected void onCreate() {
         this.dataCriacao = LocalDateTime.now();
         this.dataAtualizacao = LocalDateTime.now();
         calculateSaldoDia();
+        calculateMovimentoTotal();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.dataAtualizacao = LocalDateTime.now();
         calculateSaldoDia();
+        calculateMovimentoTotal();
     }
 
     private void calculateSaldoDia() {
         if (this.totalCreditosDolares != null && this.totalDebitosDolares != null) {
-            this.saldoDiaDolares = this.totalCreditosDolares.subtract(this.totalDebitosDolares);
+            this.saldoDiaDolares = Centavos.paraBigDecimal(
+                    Centavos.subtrair(Centavos.de(this.totalCreditosDolares), Centavos.de(this.totalDebitosDolares)));
+        }
+    }
+
+    private void calculateMovimentoTotal() {
+        if (this.totalCreditosDolares != null && this.totalDebitosDolares != null) {
+            this.movimentoTotal = Centavos.paraBigDecimal(
+                    Centavos.somar(Centavos.de(this.totalCreditosDolares), Centavos.de(this.totalDebitosDolares)));
         }
     }
 
@@ -60,6 +86,7 @@ public class ExtratoFinanceiro {
         this.totalDebitosDolares = BigDecimal.ZERO;
         this.saldoDiaDolares = BigDecimal.ZERO;
         this.saldoAcumuladoDolares = BigDecimal.ZERO;
+        this.movimentoTotal = BigDecimal.ZERO;
     }
 
     public ExtratoFinanceiro(LocalDate data) {
@@ -100,4 +127,10 @@ public class ExtratoFinanceiro {
     public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
         this.dataAtualizacao = dataAtualizacao;
     }
+
+    public BigDecimal getMovimentoTotal() { return movimentoTotal; }
+    public void setMovimentoTotal(BigDecimal movimentoTotal) { this.movimentoTotal = movimentoTotal; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
 }
@@ -0,0 +1,88 @@
+package com.web.dev.painelOnline.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Totais do mês mantidos junto com o extrato diário, para consultas mensais sem agregar os dias
+@Entity
+@Table(name = "extrato_mensal", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"ano", "mes"})
+})
+public class ExtratoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer ano;
+
+    @Column(nullable = false)
+    private Integer mes;
+
+    @Column(name = "total_creditos_dolares", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalCreditosDolares;
+
+    @Column(name = "total_debitos_dolares", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalDebitosDolares;
+
+    @Column(name = "saldo_dolares", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoDolares;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.dataAtualizacao = LocalDateTime.now();
+        this.saldoDolares = this.totalCreditosDolares.subtract(this.totalDebitosDolares);
+    }
+
+    public ExtratoMensal() {
+        this.totalCreditosDolares = BigDecimal.ZERO;
+        this.totalDebitosDolares = BigDecimal.ZERO;
+        this.saldoDolares = BigDecimal.ZERO;
+    }
+
+    public ExtratoMensal(int ano, int mes) {
+        this();
+        this.ano = ano;
+        this.mes = mes;
+    }
+
+    // Soma as diferenças de créditos e débitos aos totais do mês
+    public void somar(BigDecimal deltaCreditos, BigDecimal deltaDebitos) {
+        this.totalCreditosDolares = this.totalCreditosDolares.add(deltaCreditos);
+        this.totalDebitosDolares = this.totalDebitosDolares.add(deltaDebitos);
+        this.saldoDolares = this.totalCreditosDolares.subtract(this.totalDebitosDolares);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getAno() { return ano; }
+    public void setAno(Integer ano) { this.ano = ano; }
+
+    public Integer getMes() { return mes; }
+    public void setMes(Integer mes) { this.mes = mes; }
+
+    public BigDecimal getTotalCreditosDolares() { return totalCreditosDolares; }
+    public void setTotalCreditosDolares(BigDecimal totalCreditosDolares) {
+        this.totalCreditosDolares = totalCreditosDolares;
+    }
+
+    public BigDecimal getTotalDebitosDolares() { return totalDebitosDolares; }
+    public void setTotalDebitosDolares(BigDecimal totalDebitosDolares) {
+        this.totalDebitosDolares = totalDebitosDolares;
+    }
+
+    public BigDecimal getSaldoDolares() { return saldoDolares; }
+    public void setSaldoDolares(BigDecimal saldoDolares) { this.saldoDolares = saldoDolares; }
+
+    public LocalDateTime getDataAtualizacao() { return dataAtualizacao; }
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+        this.dataAtualizacao = dataAtualizacao;
+    }
+}
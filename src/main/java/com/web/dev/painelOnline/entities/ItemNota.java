@@ -2,11 +2,15 @@ package com.web.dev.painelOnline.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.web.dev.painelOnline.util.Centavos;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "itens_nota")
+@Table(name = "itens_nota", indexes = {
+        // Itens de uma transação, já ordenáveis por valor total
+        @Index(name = "idx_itens_nota_transacao", columnList = "transacao_id, valor_total")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class ItemNota {
 
@@ -35,7 +39,7 @@ public class ItemNota {
     @PreUpdate
     protected void calculateTotal() {
         if (this.quantidade != null && this.valorUnitario != null) {
-            this.valorTotal = this.valorUnitario.multiply(BigDecimal.valueOf(this.quantidade));
+            this.valorTotal = Centavos.paraBigDecimal(Centavos.multiplicar(Centavos.de(this.valorUnitario), this.quantidade));
         }
     }
 
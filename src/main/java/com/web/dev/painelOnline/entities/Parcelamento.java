@@ -0,0 +1,83 @@
+package com.web.dev.painelOnline.entities;
+
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Plano de uma compra ou recebimento parcelado. As parcelas são transações PARCELADO com
+// parcelamento_id apontando para cá; o extrato só enxerga as parcelas, nunca o valor total.
+@Entity
+@Table(name = "parcelamentos")
+public class Parcelamento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String caracteristica;
+
+    @Column(name = "valor_total_reais", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valorTotalReais;
+
+    @Column(name = "taxa_cambio", nullable = false, precision = 10, scale = 4)
+    private BigDecimal taxaCambio;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_transacao", nullable = false)
+    private TipoTransacao tipoTransacao;
+
+    @Column(name = "quantidade_parcelas", nullable = false)
+    private Integer quantidadeParcelas;
+
+    @Column(name = "data_primeira_parcela", nullable = false)
+    private LocalDate dataPrimeiraParcela;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    @PrePersist
+    protected void onCreate() {
+        this.dataCriacao = LocalDateTime.now();
+        this.dataAtualizacao = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.dataAtualizacao = LocalDateTime.now();
+    }
+
+    public Parcelamento() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCaracteristica() { return caracteristica; }
+    public void setCaracteristica(String caracteristica) { this.caracteristica = caracteristica; }
+
+    public BigDecimal getValorTotalReais() { return valorTotalReais; }
+    public void setValorTotalReais(BigDecimal valorTotalReais) { this.valorTotalReais = valorTotalReais; }
+
+    public BigDecimal getTaxaCambio() { return taxaCambio; }
+    public void setTaxaCambio(BigDecimal taxaCambio) { this.taxaCambio = taxaCambio; }
+
+    public TipoTransacao getTipoTransacao() { return tipoTransacao; }
+    public void setTipoTransacao(TipoTransacao tipoTransacao) { this.tipoTransacao = tipoTransacao; }
+
+    public Integer getQuantidadeParcelas() { return quantidadeParcelas; }
+    public void setQuantidadeParcelas(Integer quantidadeParcelas) { this.quantidadeParcelas = quantidadeParcelas; }
+
+    public LocalDate getDataPrimeiraParcela() { return dataPrimeiraParcela; }
+    public void setDataPrimeiraParcela(LocalDate dataPrimeiraParcela) { this.dataPrimeiraParcela = dataPrimeiraParcela; }
+
+    public LocalDateTime getDataCriacao() { return dataCriacao; }
+    public void setDataCriacao(LocalDateTime dataCriacao) { this.dataCriacao = dataCriacao; }
+
+    public LocalDateTime getDataAtualizacao() { return dataAtualizacao; }
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) { this.dataAtualizacao = dataAtualizacao; }
+}
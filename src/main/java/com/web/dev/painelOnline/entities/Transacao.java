@@ -1,17 +1,32 @@
 package com.web.dev.painelOnline.entities;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.web.dev.painelOnline.Enum.TipoTransacao;
 import com.web.dev.painelOnline.Enum.StatusPagamento;
 import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.util.Centavos;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "transacoes")
+@Table(name = "transacoes", indexes = {
+        // Período, ordenação e agrupamento por dia; o id desempata a paginação por cursor (data, id)
+        @Index(name = "idx_transacoes_data_id", columnList = "data, id"),
+        // Somas de créditos/débitos por dia ou período; valor_dolares deixa o índice cobrir a soma
+        @Index(name = "idx_transacoes_tipo_data", columnList = "tipo_transacao, data, valor_dolares"),
+        // Filtros por status (pagamentos do mês, status no período)
+        @Index(name = "idx_transacoes_status_data", columnList = "status_pagamento, data"),
+        // Filtros por tipo de pagamento (débitos à prazo do mês)
+        @Index(name = "idx_transacoes_pagamento_data", columnList = "tipo_pagamento, data"),
+        // Rotina de vencimento: pendentes com vencimento anterior a hoje, em ordem de vencimento
+        @Index(name = "idx_transacoes_status_vencimento", columnList = "status_pagamento, data_vencimento, id"),
+        // Parcelas de um parcelamento, em ordem
+        @Index(name = "idx_transacoes_parcelamento", columnList = "parcelamento_id, numero_parcela")
+})
 public class Transacao {
 
     @Id
@@ -45,6 +60,29 @@ public class Transacao {
     @Column(name = "tipo_pagamento", nullable = false)
     private TipoPagamento tipoPagamento;
 
+    // Só A_PRAZO e PARCELADO têm vencimento; sem valor informado vale data + prazo padrão
+    @Column(name = "data_vencimento")
+    private LocalDate dataVencimento;
+
+    // Preenchidos só nas parcelas geradas por um Parcelamento
+    @Column(name = "parcelamento_id")
+    private Long parcelamentoId;
+
+    @Column(name = "numero_parcela")
+    private Integer numeroParcela;
+
+    // Quantidade e soma dos itens, para as listagens não agregarem itens_nota. Depois da inserção só mudam
+    // por UPDATE com delta (somarResumoItens); updatable = false impede o flush de regravar um valor antigo.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "quantidade_itens", nullable = false, updatable = false)
+    private Integer quantidadeItens = 0;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "valor_itens", nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal valorItens = BigDecimal.ZERO;
+
     @Column(name = "data_criacao", nullable = false)
     private LocalDateTime dataCriacao;
 
@@ -58,18 +96,29 @@ public class Transacao {
     protected void onCreate() {
         this.dataCriacao = LocalDateTime.now();
         this.dataAtualizacao = LocalDateTime.now();
-        // Calcula valor em dólares de forma segura
-        if (this.valorReais != null && this.taxaCambio != null) {
-            this.valorDolares = this.valorReais.divide(this.taxaCambio, 2, RoundingMode.HALF_UP);
-        }
+        recalcularValorDolares();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.dataAtualizacao = LocalDateTime.now();
-        // Recalcula valor em dólares
+        recalcularValorDolares();
+    }
+
+    // Calcula valor em dólares de forma segura (também usado pelos serviços antes do flush)
+    public void recalcularValorDolares() {
         if (this.valorReais != null && this.taxaCambio != null) {
-            this.valorDolares = this.valorReais.divide(this.taxaCambio, 2, RoundingMode.HALF_UP);
+            long centavos = Centavos.dividirPorTaxa(Centavos.de(this.valorReais), Centavos.taxaDe(this.taxaCambio));
+            this.valorDolares = Centavos.paraBigDecimal(centavos);
+        }
+    }
+
+    // Preenche o vencimento padrão de transações a prazo sem vencimento; à vista não vence
+    public void definirVencimentoPadrao(int prazoDias) {
+        if (this.tipoPagamento == null || this.tipoPagamento == TipoPagamento.A_VISTA) {
+            this.dataVencimento = null;
+        } else if (this.dataVencimento == null && this.data != null) {
+            this.dataVencimento = this.data.plusDays(prazoDias);
         }
     }
 
@@ -115,6 +164,21 @@ public class Transacao {
     public TipoPagamento getTipoPagamento() { return tipoPagamento; }
     public void setTipoPagamento(TipoPagamento tipoPagamento) { this.tipoPagamento = tipoPagamento; }
 
+    public LocalDate getDataVencimento() { return dataVencimento; }
+    public void setDataVencimento(LocalDate dataVencimento) { this.dataVencimento = dataVencimento; }
+
+    public Long getParcelamentoId() { return parcelamentoId; }
+    public void setParcelamentoId(Long parcelamentoId) { this.parcelamentoId = parcelamentoId; }
+
+    public Integer getNumeroParcela() { return numeroParcela; }
+    public void setNumeroParcela(Integer numeroParcela) { this.numeroParcela = numeroParcela; }
+
+    public Integer getQuantidadeItens() { return quantidadeItens; }
+    public void setQuantidadeItens(Integer quantidadeItens) { this.quantidadeItens = quantidadeItens; }
+
+    public BigDecimal getValorItens() { return valorItens; }
+    public void setValorItens(BigDecimal valorItens) { this.valorItens = valorItens; }
+
     public LocalDateTime getDataCriacao() { return dataCriacao; }
     public void setDataCriacao(LocalDateTime dataCriacao) { this.dataCriacao = dataCriacao; }
 
@@ -136,6 +200,7 @@ public class Transacao {
                 ", tipoTransacao=" + tipoTransacao +
                 ", statusPagamento=" + statusPagamento +
                 ", tipoPagamento=" + tipoPagamento +
+                ", dataVencimento=" + dataVencimento +
                 ", dataCriacao=" + dataCriacao +
                 ", dataAtualizacao=" + dataAtualizacao +
                 ", itens=" + itens +
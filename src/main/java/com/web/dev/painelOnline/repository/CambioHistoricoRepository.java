@@ -29,17 +29,23 @@ public interface CambioHistoricoRepository extends JpaRepository<CambioHistorico
     // Verifica se existe taxa para uma data
     boolean existsByData(LocalDate data);
 
-    // Busca as taxas do mes
+    // Busca as taxas do período [inicio, fim); intervalo meio-aberto para usar o índice em data
     @Query("SELECT c FROM CambioHistorico c WHERE " +
-            "YEAR(c.data) = :ano AND MONTH(c.data) = :mes " +
+            "c.data >= :inicio AND c.data < :fim " +
             "ORDER BY c.data ASC")
-    List<CambioHistorico> findTaxasPorMes(@Param("ano") int ano, @Param("mes") int mes);
+    List<CambioHistorico> findTaxasNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Busca as taxas do mes
+    default List<CambioHistorico> findTaxasPorMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return findTaxasNoIntervalo(inicio, inicio.plusMonths(1));
+    }
 
     // Busca as taxas do ano
-    @Query("SELECT c FROM CambioHistorico c WHERE " +
-            "YEAR(c.data) = :ano " +
-            "ORDER BY c.data ASC")
-    List<CambioHistorico> findTaxasPorAno(@Param("ano") int  ano);
+    default List<CambioHistorico> findTaxasPorAno(int ano) {
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        return findTaxasNoIntervalo(inicio, inicio.plusYears(1));
+    }
 
     // Busca as primeiras N taxas mais recentes
     @Query("SELECT c FROM CambioHistorico c ORDER BY c.data DESC")
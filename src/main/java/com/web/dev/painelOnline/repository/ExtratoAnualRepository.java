@@ -0,0 +1,21 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.entities.ExtratoAnual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface ExtratoAnualRepository extends JpaRepository<ExtratoAnual, Long> {
+
+    // Busca os totais de um ano
+    Optional<ExtratoAnual> findByAno(Integer ano);
+
+    // Remove os anos de um intervalo antes de reconstruir
+    @Modifying
+    @Query("DELETE FROM ExtratoAnual a WHERE a.ano BETWEEN :anoInicio AND :anoFim")
+    int excluirAnos(@Param("anoInicio") int anoInicio, @Param("anoFim") int anoFim);
+}
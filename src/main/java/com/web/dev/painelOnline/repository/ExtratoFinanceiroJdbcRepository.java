@@ -0,0 +1,64 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Escritas em lote do extrato via JDBC, para operações que tocam muitos dias de uma vez
+@Repository
+public class ExtratoFinanceiroJdbcRepository {
+
+    private static final String UPSERT_EXTRATO =
+            "INSERT INTO extrato_financeiro (data, total_creditos_dolares, total_debitos_dolares, " +
+            "saldo_dia_dolares, saldo_acumulado_dolares, movimento_total, versao, data_criacao, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_creditos_dolares = VALUES(total_creditos_dolares), " +
+            "total_debitos_dolares = VALUES(total_debitos_dolares), " +
+            "saldo_dia_dolares = VALUES(saldo_dia_dolares), " +
+            "movimento_total = VALUES(movimento_total), " +
+            "saldo_acumulado_dolares = VALUES(saldo_acumulado_dolares), " +
+            "versao = versao + 1, " +
+            "data_atualizacao = VALUES(data_atualizacao)";
+
+    // Cria o dia zerado se ainda não existir; se outra transação criou antes, não faz nada
+    // (a linha já existente fica travada até o fim desta transação)
+    private static final String INSERIR_DIA_SE_AUSENTE =
+            "INSERT INTO extrato_financeiro (data, total_creditos_dolares, total_debitos_dolares, " +
+            "saldo_dia_dolares, saldo_acumulado_dolares, movimento_total, versao, data_criacao, data_atualizacao) " +
+            "VALUES (?, 0, 0, 0, ?, 0, 0, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE data = data";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Insere ou atualiza os extratos (chave única: data) em lotes de JDBC
+    public void salvarEmLote(List<ExtratoFinanceiro> extratos, int tamanhoLote) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(UPSERT_EXTRATO, extratos, tamanhoLote, (ps, extrato) -> {
+            ps.setDate(1, Date.valueOf(extrato.getData()));
+            ps.setBigDecimal(2, extrato.getTotalCreditosDolares());
+            ps.setBigDecimal(3, extrato.getTotalDebitosDolares());
+            ps.setBigDecimal(4, extrato.getSaldoDiaDolares());
+            ps.setBigDecimal(5, extrato.getSaldoAcumuladoDolares());
+            ps.setBigDecimal(6, extrato.getTotalCreditosDolares().add(extrato.getTotalDebitosDolares()));
+            ps.setTimestamp(7, agora);
+            ps.setTimestamp(8, agora);
+        });
+    }
+
+    // Garante a linha do dia sem violar a chave única quando dois escritores criam a mesma data
+    public void inserirDiaSeAusente(LocalDate data, BigDecimal saldoAcumuladoAnterior) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERIR_DIA_SE_AUSENTE, Date.valueOf(data), saldoAcumuladoAnterior, agora, agora);
+    }
+}
@@ -1,14 +1,23 @@
 package com.web.dev.painelOnline.repository;
 
+import com.web.dev.painelOnline.dto.TotaisMensaisDTO;
 import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExtratoFinanceiroRepository extends JpaRepository<ExtratoFinanceiro, Long> {
@@ -22,17 +31,36 @@ public interface ExtratoFinanceiroRepository extends JpaRepository<ExtratoFinanc
     // Verifica se existe extrato para uma data
     boolean existsByData(LocalDate data);
 
-    // Busca os extratos do mes
+    // Os filtros de mês e ano usam intervalos de data meio-abertos (data >= inicio AND data < fim)
+    // em vez de YEAR()/MONTH(), para que o índice único em data seja usado.
+
+    // Busca os extratos do período [inicio, fim)
     @Query("SELECT e FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano AND MONTH(e.data) = :mes " +
+            "e.data >= :inicio AND e.data < :fim " +
             "ORDER BY e.data ASC")
-    List<ExtratoFinanceiro> findExtratosPorMes(@Param("ano") int ano, @Param("mes") int mes);
+    List<ExtratoFinanceiro> findExtratosNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    // Busca os extratos do ano
+    // Extratos do período [inicio, fim) lidos em fluxo para exportação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("SELECT e FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano " +
+            "e.data >= :inicio AND e.data < :fim " +
             "ORDER BY e.data ASC")
-    List<ExtratoFinanceiro> findExtratosPorAno(@Param("ano") int ano);
+    Stream<ExtratoFinanceiro> streamNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Busca os extratos do mes
+    default List<ExtratoFinanceiro> findExtratosPorMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return findExtratosNoIntervalo(inicio, inicio.plusMonths(1));
+    }
+
+    // Busca os extratos do ano
+    default List<ExtratoFinanceiro> findExtratosPorAno(int ano) {
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        return findExtratosNoIntervalo(inicio, inicio.plusYears(1));
+    }
 
     // ── CORRIGIDO ─────────────────────────────────────────
     // Busca o saldoAcumuladoDolares da última entrada disponível até a data.
@@ -45,6 +73,35 @@ public interface ExtratoFinanceiroRepository extends JpaRepository<ExtratoFinanc
             ")")
     BigDecimal calcularSaldoAcumuladoAteData(@Param("data") LocalDate data);
 
+    // Desloca o saldo acumulado de todos os dias posteriores à data em um único UPDATE.
+    // A versão sobe junto, para que quem leu esses dias antes do deslocamento não grave por cima.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ExtratoFinanceiro e SET " +
+            "e.saldoAcumuladoDolares = e.saldoAcumuladoDolares + :delta, " +
+            "e.versao = e.versao + 1, " +
+            "e.dataAtualizacao = :agora " +
+            "WHERE e.data > :data")
+    int deslocarSaldoAcumuladoApos(
+            @Param("data") LocalDate data,
+            @Param("delta") BigDecimal delta,
+            @Param("agora") LocalDateTime agora
+    );
+
+    // Mesmo deslocamento, só para os dias entre duas datas (exclusivas); usado ao registrar
+    // várias datas de uma vez, cada faixa entre elas recebe a diferença acumulada até ali
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ExtratoFinanceiro e SET " +
+            "e.saldoAcumuladoDolares = e.saldoAcumuladoDolares + :delta, " +
+            "e.versao = e.versao + 1, " +
+            "e.dataAtualizacao = :agora " +
+            "WHERE e.data > :depoisDe AND e.data < :antesDe")
+    int deslocarSaldoAcumuladoEntre(
+            @Param("depoisDe") LocalDate depoisDe,
+            @Param("antesDe") LocalDate antesDe,
+            @Param("delta") BigDecimal delta,
+            @Param("agora") LocalDateTime agora
+    );
+
     // Busca o último extrato disponível
     @Query("SELECT e FROM ExtratoFinanceiro e ORDER BY e.data DESC")
     List<ExtratoFinanceiro> findUltimoExtrato();
@@ -53,41 +110,97 @@ public interface ExtratoFinanceiroRepository extends JpaRepository<ExtratoFinanc
     @Query("SELECT e FROM ExtratoFinanceiro e WHERE e.data <= :data ORDER BY e.data DESC")
     List<ExtratoFinanceiro> findExtratoMaisRecenteAteData(@Param("data") LocalDate data);
 
-    // Calcula o total de créditos do mes
+    // Calcula o total de créditos do período [inicio, fim)
     @Query("SELECT COALESCE(SUM(e.totalCreditosDolares), 0) FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano AND MONTH(e.data) = :mes")
-    BigDecimal calcularTotalCreditosMes(@Param("ano") int ano, @Param("mes") int mes);
+            "e.data >= :inicio AND e.data < :fim")
+    BigDecimal calcularTotalCreditosNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    // Calcula o total de débitos do mes
+    // Calcula o total de débitos do período [inicio, fim)
     @Query("SELECT COALESCE(SUM(e.totalDebitosDolares), 0) FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano AND MONTH(e.data) = :mes")
-    BigDecimal calcularTotalDebitosMes(@Param("ano") int ano, @Param("mes") int mes);
+            "e.data >= :inicio AND e.data < :fim")
+    BigDecimal calcularTotalDebitosNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    // Calcula o saldo do mes
+    // Calcula o saldo do período [inicio, fim)
     @Query("SELECT COALESCE(SUM(e.saldoDiaDolares), 0) FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano AND MONTH(e.data) = :mes")
-    BigDecimal calcularSaldoMes(@Param("ano") int ano, @Param("mes") int mes);
+            "e.data >= :inicio AND e.data < :fim")
+    BigDecimal calcularSaldoNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Calcula o total de créditos do mes
+    default BigDecimal calcularTotalCreditosMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return calcularTotalCreditosNoIntervalo(inicio, inicio.plusMonths(1));
+    }
+
+    // Calcula o total de débitos do mes
+    default BigDecimal calcularTotalDebitosMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return calcularTotalDebitosNoIntervalo(inicio, inicio.plusMonths(1));
+    }
+
+    // Calcula o saldo do mes
+    default BigDecimal calcularSaldoMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return calcularSaldoNoIntervalo(inicio, inicio.plusMonths(1));
+    }
 
     // Calcula o total de créditos do ano
-    @Query("SELECT COALESCE(SUM(e.totalCreditosDolares), 0) FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano")
-    BigDecimal calcularTotalCreditosAno(@Param("ano") int ano);
+    default BigDecimal calcularTotalCreditosAno(int ano) {
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        return calcularTotalCreditosNoIntervalo(inicio, inicio.plusYears(1));
+    }
 
     // Calcula o total de débitos do ano
-    @Query("SELECT COALESCE(SUM(e.totalDebitosDolares), 0) FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano")
-    BigDecimal calcularTotalDebitosAno(@Param("ano") int ano);
+    default BigDecimal calcularTotalDebitosAno(int ano) {
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        return calcularTotalDebitosNoIntervalo(inicio, inicio.plusYears(1));
+    }
 
     // Calcula o saldo do ano
-    @Query("SELECT COALESCE(SUM(e.saldoDiaDolares), 0) FROM ExtratoFinanceiro e WHERE " +
-            "YEAR(e.data) = :ano")
-    BigDecimal calcularSaldoAno(@Param("ano") int ano);
+    default BigDecimal calcularSaldoAno(int ano) {
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        return calcularSaldoNoIntervalo(inicio, inicio.plusYears(1));
+    }
+
+    // Soma os extratos diários por mês, usado para reconstruir os totais mensais e anuais
+    @Query("SELECT new com.web.dev.painelOnline.dto.TotaisMensaisDTO(" +
+            "YEAR(e.data), MONTH(e.data), SUM(e.totalCreditosDolares), SUM(e.totalDebitosDolares)) " +
+            "FROM ExtratoFinanceiro e WHERE e.data BETWEEN :dataInicio AND :dataFim " +
+            "GROUP BY YEAR(e.data), MONTH(e.data) " +
+            "ORDER BY YEAR(e.data), MONTH(e.data)")
+    List<TotaisMensaisDTO> somarTotaisPorMes(
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    // Primeira e última data com extrato
+    @Query("SELECT MIN(e.data) FROM ExtratoFinanceiro e")
+    LocalDate findPrimeiraData();
+
+    @Query("SELECT MAX(e.data) FROM ExtratoFinanceiro e")
+    LocalDate findUltimaData();
 
     // Busca os dias com saldo negativo
     @Query("SELECT e FROM ExtratoFinanceiro e WHERE e.saldoDiaDolares < 0 ORDER BY e.data DESC")
     List<ExtratoFinanceiro> findDiasComSaldoNegativo();
 
     // Busca os dias com maior movimento (créditos + débitos)
-    @Query("SELECT e FROM ExtratoFinanceiro e ORDER BY (e.totalCreditosDolares + e.totalDebitosDolares) DESC")
+    @Query("SELECT e FROM ExtratoFinanceiro e ORDER BY e.movimentoTotal DESC, e.data DESC")
     List<ExtratoFinanceiro> findDiasComMaiorMovimento();
+
+    // Página dos dias de maior movimento, percorrendo idx_extrato_movimento_total do fim para o início
+    @Query("SELECT e FROM ExtratoFinanceiro e WHERE e.movimentoTotal > 0 " +
+            "ORDER BY e.movimentoTotal DESC, e.data DESC")
+    List<ExtratoFinanceiro> findMaioresMovimentos(Pageable pageable);
+
+    // Página dos dias de saldo negativo, do mais negativo em diante (idx_extrato_saldo_dia)
+    @Query("SELECT e FROM ExtratoFinanceiro e WHERE e.saldoDiaDolares < 0 " +
+            "ORDER BY e.saldoDiaDolares ASC, e.data ASC")
+    List<ExtratoFinanceiro> findPioresSaldosDia(Pageable pageable);
+
+    // Preenche movimento_total nas linhas gravadas antes da coluna existir
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExtratoFinanceiro e SET e.movimentoTotal = e.totalCreditosDolares + e.totalDebitosDolares " +
+            "WHERE e.movimentoTotal <> e.totalCreditosDolares + e.totalDebitosDolares")
+    int preencherMovimentoTotal();
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.entities.ExtratoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExtratoMensalRepository extends JpaRepository<ExtratoMensal, Long> {
+
+    // Busca os totais de um mês
+    Optional<ExtratoMensal> findByAnoAndMes(Integer ano, Integer mes);
+
+    // Busca os meses de um ano
+    List<ExtratoMensal> findByAnoOrderByMesAsc(Integer ano);
+
+    // Remove os meses de um intervalo de anos antes de reconstruir
+    @Modifying
+    @Query("DELETE FROM ExtratoMensal m WHERE m.ano BETWEEN :anoInicio AND :anoFim")
+    int excluirAnos(@Param("anoInicio") int anoInicio, @Param("anoFim") int anoFim);
+}
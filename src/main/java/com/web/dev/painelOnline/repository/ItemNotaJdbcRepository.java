@@ -0,0 +1,99 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.entities.Transacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Inserção (e regravação) dos itens de uma nota em lote via JDBC. Com IDENTITY o Hibernate grava item por item;
+// aqui o driver (rewriteBatchedStatements) envia cada lote como um INSERT de várias linhas
+// e os ids gerados pelo AUTO_INCREMENT voltam para os itens.
+@Repository
+public class ItemNotaJdbcRepository {
+
+    private static final String ATUALIZAR_ITEM =
+            "UPDATE itens_nota SET descricao = ?, quantidade = ?, valor_unitario = ?, valor_total = ?, transacao_id = ? " +
+            "WHERE id = ?";
+
+    private static final String INSERIR_ITEM =
+            "INSERT INTO itens_nota (descricao, quantidade, valor_unitario, valor_total, transacao_id) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Insere os itens (já validados e com valorTotal calculado) da transação já gravada
+    public void inserirEmLote(Transacao transacao, List<ItemNota> itens, int tamanhoLote) {
+        if (itens.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (PreparedStatement ps = conexao.prepareStatement(INSERIR_ITEM, Statement.RETURN_GENERATED_KEYS)) {
+                int inicioLote = 0;
+                for (int i = 0; i < itens.size(); i++) {
+                    ItemNota item = itens.get(i);
+                    ps.setString(1, item.getDescricao());
+                    ps.setInt(2, item.getQuantidade());
+                    ps.setBigDecimal(3, item.getValorUnitario());
+                    ps.setBigDecimal(4, item.getValorTotal());
+                    ps.setLong(5, transacao.getId());
+                    ps.addBatch();
+                    item.setTransacao(transacao);
+
+                    if (i + 1 - inicioLote == tamanhoLote || i == itens.size() - 1) {
+                        ps.executeBatch();
+                        atribuirIds(ps, itens, inicioLote);
+                        inicioLote = i + 1;
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // Regrava os itens (já validados e com valorTotal calculado) num lote de UPDATEs por chave primária
+    // e devolve quantos o banco informou que não encontrou (contagem zero). Lote reescrito pelo driver
+    // (rewriteBatchedStatements) responde SUCCESS_NO_INFO, que não confirma nem nega a linha: quem
+    // garante que ela existe é a trava tomada na leitura dos itens.
+    public int atualizarEmLote(List<ItemNotaDTO> itens, int tamanhoLote) {
+        if (itens.isEmpty()) {
+            return 0;
+        }
+        int[][] contagens = jdbcTemplate.batchUpdate(ATUALIZAR_ITEM, itens, tamanhoLote, (ps, item) -> {
+            ps.setString(1, item.getDescricao());
+            ps.setInt(2, item.getQuantidade());
+            ps.setBigDecimal(3, item.getValorUnitario());
+            ps.setBigDecimal(4, item.getValorTotal());
+            ps.setLong(5, item.getTransacaoId());
+            ps.setLong(6, item.getId());
+        });
+        int naoEncontrados = 0;
+        for (int[] lote : contagens) {
+            for (int contagem : lote) {
+                if (contagem == 0) {
+                    naoEncontrados++;
+                }
+            }
+        }
+        return naoEncontrados;
+    }
+
+    // Ids gerados chegam na mesma ordem dos itens do lote
+    private void atribuirIds(PreparedStatement ps, List<ItemNota> itens, int inicio) throws SQLException {
+        try (ResultSet chaves = ps.getGeneratedKeys()) {
+            int posicao = inicio;
+            while (chaves.next()) {
+                itens.get(posicao++).setId(chaves.getLong(1));
+            }
+        }
+    }
+}
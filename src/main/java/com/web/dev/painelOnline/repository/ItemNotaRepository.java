@@ -1,37 +1,128 @@
 package com.web.dev.painelOnline.repository;
 
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.SugestaoDTO;
 import com.web.dev.painelOnline.entities.ItemNota;
 import com.web.dev.painelOnline.entities.Transacao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemNotaRepository extends JpaRepository<ItemNota, Long> {
 
-    // Busca todos os itens com transação carregada
-    @Query("SELECT i FROM ItemNota i LEFT JOIN FETCH i.transacao")
-    List<ItemNota> findAllWithTransacao();
+    // Projeção da listagem de itens: transacaoId vem da própria FK (transacao_id), sem join com transacoes
+    String SELECT_DTO = "SELECT new com.web.dev.painelOnline.dto.ItemNotaDTO(i.id, i.descricao, i.quantidade, " +
+            "i.valorUnitario, i.valorTotal, i.transacao.id) FROM ItemNota i ";
+
+    // Faixa opcional de valor total; limite null não filtra
+    String FILTRO_VALOR = "(:valorMinimo IS NULL OR i.valorTotal >= :valorMinimo) AND " +
+            "(:valorMaximo IS NULL OR i.valorTotal <= :valorMaximo) ";
+
+    // Página de itens depois de um id, em ordem de id (chave primária)
+    @Query(SELECT_DTO + "WHERE i.id > :depoisDeId AND " + FILTRO_VALOR + "ORDER BY i.id")
+    List<ItemNotaDTO> findPaginaDtos(@Param("depoisDeId") Long depoisDeId,
+                                     @Param("valorMinimo") BigDecimal valorMinimo,
+                                     @Param("valorMaximo") BigDecimal valorMaximo,
+                                     Pageable pageable);
+
+    // Página dos itens de uma transação depois de um id, pelo índice da FK
+    @Query(SELECT_DTO + "WHERE i.transacao.id = :transacaoId AND i.id > :depoisDeId AND " + FILTRO_VALOR + "ORDER BY i.id")
+    List<ItemNotaDTO> findPaginaDtosDaTransacao(@Param("transacaoId") Long transacaoId,
+                                                @Param("depoisDeId") Long depoisDeId,
+                                                @Param("valorMinimo") BigDecimal valorMinimo,
+                                                @Param("valorMaximo") BigDecimal valorMaximo,
+                                                Pageable pageable);
+
+    // Todos os itens em ordem de id, lidos em fluxo (cursor do banco) para a listagem NDJSON
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_DTO + "WHERE " + FILTRO_VALOR + "ORDER BY i.id")
+    Stream<ItemNotaDTO> streamDtos(@Param("valorMinimo") BigDecimal valorMinimo,
+                                   @Param("valorMaximo") BigDecimal valorMaximo);
 
     // Busca itens por transação
     List<ItemNota> findByTransacao(Transacao transacao);
 
-    // Busca itens por ID da transação
-    List<ItemNota> findByTransacaoId(Long transacaoId);
+    // Busca itens por ID da transação (filtra pela FK, sem join com transacoes)
+    @Query("SELECT i FROM ItemNota i WHERE i.transacao.id = :transacaoId")
+    List<ItemNota> findByTransacaoId(@Param("transacaoId") Long transacaoId);
+
+    // Itens de várias transações de uma vez (uma consulta IN para a página inteira)
+    @Query("SELECT new com.web.dev.painelOnline.dto.ItemNotaDTO(i.id, i.descricao, i.quantidade, " +
+            "i.valorUnitario, i.valorTotal, i.transacao.id) FROM ItemNota i " +
+            "WHERE i.transacao.id IN :transacaoIds ORDER BY i.transacao.id, i.id")
+    List<ItemNotaDTO> findDtosPorTransacaoIds(@Param("transacaoIds") Collection<Long> transacaoIds);
+
+    // Item travado (SELECT ... FOR UPDATE) até o fim da transação: o delta do resumo sai do valor gravado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ItemNota i WHERE i.id = :id")
+    Optional<ItemNota> findByIdParaAtualizar(@Param("id") Long id);
+
+    // Estado atual de vários itens pela chave primária, sem carregar entidades. As linhas ficam travadas
+    // até o fim da transação e são travadas em ordem de id, a mesma para todo lote (sem deadlock entre lotes)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(SELECT_DTO + "WHERE i.id IN :ids ORDER BY i.id")
+    List<ItemNotaDTO> findDtosPorIdsParaAtualizar(@Param("ids") Collection<Long> ids);
+
+    // Itens de uma transação em ordem de id, travados até o fim da transação: o índice da FK fica travado
+    // junto, então nenhum item entra ou sai da transação entre a leitura e o ajuste do resumo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(SELECT_DTO + "WHERE i.transacao.id = :transacaoId ORDER BY i.id")
+    List<ItemNotaDTO> findDtosDaTransacaoParaAtualizar(@Param("transacaoId") Long transacaoId);
+
+    // Remove os itens pela chave primária e devolve quantos saíram
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ItemNota i WHERE i.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+
+    // Remove de uma vez os itens da transação posteriores a um id (os últimos adicionados)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ItemNota i WHERE i.transacao.id = :transacaoId AND i.id > :depoisDeId")
+    int excluirItensApos(@Param("transacaoId") Long transacaoId, @Param("depoisDeId") Long depoisDeId);
+
+    // Itens das transações do período [inicio, fim), com a transação já carregada, lidos em fluxo para exportação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM ItemNota i JOIN FETCH i.transacao t WHERE " +
+            "t.data >= :inicio AND t.data < :fim " +
+            "ORDER BY t.data, t.id, i.id")
+    Stream<ItemNota> streamNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
     // Busca itens por descrição
     @Query("SELECT i FROM ItemNota i WHERE LOWER(i.descricao) LIKE LOWER(CONCAT('%', :descricao, '%'))")
     List<ItemNota> findByDescricaoContaining(@Param("descricao") String descricao);
 
+    // Carga do autocompletar: cada descrição distinta e quantos itens a usam
+    @Query("SELECT new com.web.dev.painelOnline.dto.SugestaoDTO(i.descricao, COUNT(i)) " +
+            "FROM ItemNota i WHERE i.descricao IS NOT NULL GROUP BY i.descricao")
+    List<SugestaoDTO> contarDescricoes();
+
     // Calcula o valor total dos itens de uma transação
     @Query("SELECT COALESCE(SUM(i.valorTotal), 0) FROM ItemNota i WHERE i.transacao.id = :transacaoId")
     BigDecimal calcularValorTotalPorTransacao(@Param("transacaoId") Long transacaoId);
 
-    // Conta os itens por transação
-    Long countByTransacaoId(Long transacaoId);
+    // Conta os itens por transação (filtra pela FK, sem join com transacoes)
+    @Query("SELECT COUNT(i) FROM ItemNota i WHERE i.transacao.id = :transacaoId")
+    Long countByTransacaoId(@Param("transacaoId") Long transacaoId);
 
     // Busca os itens com valor acima de um determinado valor
     @Query("SELECT i FROM ItemNota i WHERE i.valorUnitario >= :valorMinimo")
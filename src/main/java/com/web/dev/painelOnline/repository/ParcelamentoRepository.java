@@ -0,0 +1,9 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.entities.Parcelamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ParcelamentoRepository extends JpaRepository<Parcelamento, Long> {
+}
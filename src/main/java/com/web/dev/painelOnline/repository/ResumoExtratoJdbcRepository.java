@@ -0,0 +1,49 @@
+package com.web.dev.painelOnline.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Soma as diferenças nos totais mensais e anuais com um único comando por linha.
+// Escritores de dias diferentes do mesmo mês não fazem leitura-alteração-gravação da linha do mês:
+// o banco soma direto e só segura a trava da linha até o fim da transação.
+@Repository
+public class ResumoExtratoJdbcRepository {
+
+    private static final String SOMAR_MES =
+            "INSERT INTO extrato_mensal (ano, mes, total_creditos_dolares, total_debitos_dolares, " +
+            "saldo_dolares, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_creditos_dolares = total_creditos_dolares + VALUES(total_creditos_dolares), " +
+            "total_debitos_dolares = total_debitos_dolares + VALUES(total_debitos_dolares), " +
+            "saldo_dolares = saldo_dolares + VALUES(saldo_dolares), " +
+            "data_atualizacao = VALUES(data_atualizacao)";
+
+    private static final String SOMAR_ANO =
+            "INSERT INTO extrato_anual (ano, total_creditos_dolares, total_debitos_dolares, " +
+            "saldo_dolares, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_creditos_dolares = total_creditos_dolares + VALUES(total_creditos_dolares), " +
+            "total_debitos_dolares = total_debitos_dolares + VALUES(total_debitos_dolares), " +
+            "saldo_dolares = saldo_dolares + VALUES(saldo_dolares), " +
+            "data_atualizacao = VALUES(data_atualizacao)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void somarNoMes(int ano, int mes, BigDecimal deltaCreditos, BigDecimal deltaDebitos) {
+        jdbcTemplate.update(SOMAR_MES, ano, mes, deltaCreditos, deltaDebitos,
+                deltaCreditos.subtract(deltaDebitos), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public void somarNoAno(int ano, BigDecimal deltaCreditos, BigDecimal deltaDebitos) {
+        jdbcTemplate.update(SOMAR_ANO, ano, deltaCreditos, deltaDebitos,
+                deltaCreditos.subtract(deltaDebitos), Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.entities.Transacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Inserções de transações em lote via JDBC. Com IDENTITY o Hibernate não agrupa inserts;
+// aqui o driver (rewriteBatchedStatements) transforma cada lote em INSERTs de várias linhas
+// e os ids continuam vindo do AUTO_INCREMENT.
+@Repository
+public class TransacaoJdbcRepository {
+
+    private static final String INSERIR_TRANSACAO =
+            "INSERT INTO transacoes (data, caracteristica, valor_reais, taxa_cambio, valor_dolares, " +
+            "tipo_transacao, status_pagamento, tipo_pagamento, data_vencimento, parcelamento_id, numero_parcela, " +
+            "quantidade_itens, valor_itens, data_criacao, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Insere as transações já validadas e com valor em dólares calculado
+    public void inserirEmLote(List<Transacao> transacoes, int tamanhoLote) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERIR_TRANSACAO, transacoes, tamanhoLote, (ps, transacao) -> {
+            ps.setDate(1, Date.valueOf(transacao.getData()));
+            ps.setString(2, transacao.getCaracteristica());
+            ps.setBigDecimal(3, transacao.getValorReais());
+            ps.setBigDecimal(4, transacao.getTaxaCambio());
+            ps.setBigDecimal(5, transacao.getValorDolares());
+            ps.setString(6, transacao.getTipoTransacao().name());
+            ps.setString(7, transacao.getStatusPagamento().name());
+            ps.setString(8, transacao.getTipoPagamento().name());
+            ps.setDate(9, transacao.getDataVencimento() != null ? Date.valueOf(transacao.getDataVencimento()) : null);
+            ps.setObject(10, transacao.getParcelamentoId(), Types.BIGINT);
+            ps.setObject(11, transacao.getNumeroParcela(), Types.INTEGER);
+            ps.setInt(12, transacao.getQuantidadeItens());
+            ps.setBigDecimal(13, transacao.getValorItens());
+            ps.setTimestamp(14, agora);
+            ps.setTimestamp(15, agora);
+        });
+    }
+}
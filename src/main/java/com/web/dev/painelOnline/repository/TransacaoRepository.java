@@ -1,20 +1,43 @@
 package com.web.dev.painelOnline.repository;
 
+import com.web.dev.painelOnline.dto.CaracteristicaDTO;
+import com.web.dev.painelOnline.dto.MovimentoDiarioDTO;
+import com.web.dev.painelOnline.dto.SugestaoDTO;
+import com.web.dev.painelOnline.dto.TransacaoResumoDTO;
 import com.web.dev.painelOnline.entities.Transacao;
 import com.web.dev.painelOnline.Enum.TipoTransacao;
 import com.web.dev.painelOnline.Enum.StatusPagamento;
 import com.web.dev.painelOnline.Enum.TipoPagamento;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
 
+    // Projeção das listagens: colunas da transação mais quantidade e soma dos itens, lidas das colunas
+    // quantidade_itens e valor_itens da própria transação (sem tocar em itens_nota)
+    String SELECT_RESUMO = "SELECT new com.web.dev.painelOnline.dto.TransacaoResumoDTO(" +
+            "t.id, t.data, t.caracteristica, t.valorReais, t.taxaCambio, t.valorDolares, " +
+            "t.tipoTransacao, t.statusPagamento, t.tipoPagamento, t.dataVencimento, t.dataCriacao, t.dataAtualizacao, " +
+            "t.quantidadeItens, t.valorItens) " +
+            "FROM Transacao t ";
+
 
     List<Transacao> findByData(LocalDate data);
 
@@ -43,23 +66,179 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
             StatusPagamento statusPagamento
     );
 
-    // Busca débitos à prazo do mes
+    // Os filtros de mês e ano usam intervalos de data meio-abertos (data >= inicio AND data < fim)
+    // em vez de YEAR()/MONTH(), para que o índice em data seja usado.
+
+    // Busca débitos à prazo do período [inicio, fim)
     @Query("SELECT t FROM Transacao t WHERE " +
-            "YEAR(t.data) = :ano AND MONTH(t.data) = :mes AND " +
-            "t.tipoTransacao = 'DEBITO' AND t.tipoPagamento = 'A_PRAZO'")
-    List<Transacao> findDebitosAPrazoPorMes(@Param("ano") int ano, @Param("mes") int mes);
+            "t.tipoPagamento = 'A_PRAZO' AND t.data >= :inicio AND t.data < :fim AND " +
+            "t.tipoTransacao = 'DEBITO'")
+    List<Transacao> findDebitosAPrazoNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    // Busca transações do mes
+    // Busca débitos à prazo do mes
+    default List<Transacao> findDebitosAPrazoPorMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return findDebitosAPrazoNoIntervalo(inicio, inicio.plusMonths(1));
+    }
+
+    // Busca transações do período [inicio, fim)
     @Query("SELECT t FROM Transacao t WHERE " +
-            "YEAR(t.data) = :ano AND MONTH(t.data) = :mes " +
+            "t.data >= :inicio AND t.data < :fim " +
             "ORDER BY t.data DESC")
-    List<Transacao> findTransacoesPorMes(@Param("ano") int ano, @Param("mes") int mes);
+    List<Transacao> findTransacoesNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    // Busca transações do ano
+    // Página de transações do período [inicio, fim) ordenada por (data, id), a partir da posição (depoisDe, depoisDeId) exclusiva.
+    // Usa o índice (data, id) como busca por faixa, então o custo não cresce com a profundidade da página.
+    @Query(SELECT_RESUMO + "WHERE " +
+            "t.data >= :inicio AND t.data < :fim AND " +
+            "(t.data > :depoisDe OR (t.data = :depoisDe AND t.id > :depoisDeId)) " +
+            "ORDER BY t.data, t.id")
+    List<TransacaoResumoDTO> findPaginaNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                                                   @Param("depoisDe") LocalDate depoisDe, @Param("depoisDeId") Long depoisDeId,
+                                                   Pageable pageable);
+
+    // Mesma página em ordem (data, id) decrescente, a partir da posição (antesDe, antesDeId) exclusiva.
+    // O índice (data, id) é percorrido de trás para frente.
+    @Query(SELECT_RESUMO + "WHERE " +
+            "t.data >= :inicio AND t.data < :fim AND " +
+            "(t.data < :antesDe OR (t.data = :antesDe AND t.id < :antesDeId)) " +
+            "ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResumoDTO> findPaginaNoIntervaloDecrescente(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                                                              @Param("antesDe") LocalDate antesDe, @Param("antesDeId") Long antesDeId,
+                                                              Pageable pageable);
+
+    // Resumo dos débitos à prazo do período [inicio, fim)
+    @Query(SELECT_RESUMO + "WHERE " +
+            "t.tipoPagamento = 'A_PRAZO' AND t.data >= :inicio AND t.data < :fim AND " +
+            "t.tipoTransacao = 'DEBITO' " +
+            "ORDER BY t.data, t.id")
+    List<TransacaoResumoDTO> findResumoDebitosAPrazoNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Transações do período [inicio, fim) lidas em fluxo por cursor no servidor, para exportação.
+    // Precisa de transação aberta e o Stream deve ser fechado por quem consome.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("SELECT t FROM Transacao t WHERE " +
-            "YEAR(t.data) = :ano " +
-            "ORDER BY t.data DESC")
-    List<Transacao> findTransacoesPorAno(@Param("ano") int ano);
+            "t.data >= :inicio AND t.data < :fim " +
+            "ORDER BY t.data, t.id")
+    Stream<Transacao> streamNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Mudança de status em lote. Só toca as linhas que ainda não estão no novo status;
+    // as datas distintas dessas linhas são lidas antes com as mesmas condições.
+    @Query("SELECT DISTINCT t.data FROM Transacao t WHERE t.id IN :ids AND t.statusPagamento <> :novoStatus")
+    List<LocalDate> findDatasParaStatusPorIds(@Param("ids") Collection<Long> ids,
+                                              @Param("novoStatus") StatusPagamento novoStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transacao t SET t.statusPagamento = :novoStatus, t.dataAtualizacao = :agora " +
+            "WHERE t.id IN :ids AND t.statusPagamento <> :novoStatus")
+    int atualizarStatusPorIds(@Param("ids") Collection<Long> ids, @Param("novoStatus") StatusPagamento novoStatus,
+                              @Param("agora") LocalDateTime agora);
+
+    // Filtro do período [inicio, fim); statusAtual e tipoPagamento nulos não filtram
+    @Query("SELECT DISTINCT t.data FROM Transacao t WHERE " +
+            "t.data >= :inicio AND t.data < :fim AND t.statusPagamento <> :novoStatus AND " +
+            "(:statusAtual IS NULL OR t.statusPagamento = :statusAtual) AND " +
+            "(:tipoPagamento IS NULL OR t.tipoPagamento = :tipoPagamento)")
+    List<LocalDate> findDatasParaStatusNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                                                   @Param("statusAtual") StatusPagamento statusAtual,
+                                                   @Param("tipoPagamento") TipoPagamento tipoPagamento,
+                                                   @Param("novoStatus") StatusPagamento novoStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transacao t SET t.statusPagamento = :novoStatus, t.dataAtualizacao = :agora WHERE " +
+            "t.data >= :inicio AND t.data < :fim AND t.statusPagamento <> :novoStatus AND " +
+            "(:statusAtual IS NULL OR t.statusPagamento = :statusAtual) AND " +
+            "(:tipoPagamento IS NULL OR t.tipoPagamento = :tipoPagamento)")
+    int atualizarStatusNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                                   @Param("statusAtual") StatusPagamento statusAtual,
+                                   @Param("tipoPagamento") TipoPagamento tipoPagamento,
+                                   @Param("novoStatus") StatusPagamento novoStatus,
+                                   @Param("agora") LocalDateTime agora);
+
+    // Vencimento: ids das pendentes vencidas antes de hoje, pelo índice (status_pagamento, data_vencimento, id)
+    @Query("SELECT t.id FROM Transacao t WHERE " +
+            "t.statusPagamento = 'PENDENTE' AND t.dataVencimento < :hoje " +
+            "ORDER BY t.dataVencimento, t.id")
+    List<Long> findIdsPendentesVencidas(@Param("hoje") LocalDate hoje, Pageable pageable);
+
+    // Repete as condições da seleção: uma transação paga entre a leitura dos ids e o UPDATE não é tocada
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transacao t SET t.statusPagamento = 'VENCIDO', t.dataAtualizacao = :agora WHERE " +
+            "t.id IN :ids AND t.statusPagamento = 'PENDENTE' AND t.dataVencimento < :hoje")
+    int marcarVencidas(@Param("ids") Collection<Long> ids, @Param("hoje") LocalDate hoje,
+                       @Param("agora") LocalDateTime agora);
+
+    // Vencimento padrão das transações a prazo gravadas antes da coluna existir
+    @Modifying
+    @Query("UPDATE Transacao t SET t.dataVencimento = t.data + (:prazoDias) day WHERE " +
+            "t.tipoPagamento IN ('A_PRAZO', 'PARCELADO') AND t.dataVencimento IS NULL")
+    int preencherDataVencimento(@Param("prazoDias") int prazoDias);
+
+    // Transação travada (SELECT ... FOR UPDATE) até o fim da transação: o movimento anterior que sai do
+    // extrato é o gravado, e outra alteração da mesma transação espera o commit desta para ler
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transacao t WHERE t.id = :id")
+    Optional<Transacao> findByIdParaAtualizar(@Param("id") Long id);
+
+    // Soma deltas ao resumo de itens da transação, no próprio UPDATE (sem ler e regravar)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Transacao t SET t.quantidadeItens = t.quantidadeItens + :quantidade, " +
+            "t.valorItens = t.valorItens + :valor WHERE t.id = :id")
+    int somarResumoItens(@Param("id") Long id, @Param("quantidade") int quantidade, @Param("valor") BigDecimal valor);
+
+    // Maior id gravado, limite da verificação do resumo de itens
+    @Query("SELECT MAX(t.id) FROM Transacao t")
+    Long findMaiorId();
+
+    // Regrava quantidade e soma dos itens das transações de (depoisDeId, ateId] onde o resumo diverge
+    @Modifying
+    @Query("UPDATE Transacao t SET " +
+            "t.quantidadeItens = (SELECT COUNT(i) FROM ItemNota i WHERE i.transacao.id = t.id), " +
+            "t.valorItens = (SELECT COALESCE(SUM(i.valorTotal), 0) FROM ItemNota i WHERE i.transacao.id = t.id) " +
+            "WHERE t.id > :depoisDeId AND t.id <= :ateId AND (" +
+            "t.quantidadeItens <> (SELECT COUNT(i) FROM ItemNota i WHERE i.transacao.id = t.id) OR " +
+            "t.valorItens <> (SELECT COALESCE(SUM(i.valorTotal), 0) FROM ItemNota i WHERE i.transacao.id = t.id))")
+    int corrigirResumoItens(@Param("depoisDeId") Long depoisDeId, @Param("ateId") Long ateId);
+
+    // Parcelas de um parcelamento em ordem, pelo índice (parcelamento_id, numero_parcela)
+    List<Transacao> findByParcelamentoIdOrderByNumeroParcela(Long parcelamentoId);
+
+    // Parcelas ainda em aberto (pendentes ou vencidas) de um parcelamento, travadas até o fim da transação:
+    // nenhuma é paga ou alterada entre a leitura e o UPDATE que reprograma ou cancela as abertas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transacao t WHERE t.parcelamentoId = :parcelamentoId AND " +
+            "t.statusPagamento IN ('PENDENTE', 'VENCIDO') ORDER BY t.numeroParcela")
+    List<Transacao> findParcelasEmAberto(@Param("parcelamentoId") Long parcelamentoId);
+
+    // Cancela de uma vez as parcelas em aberto
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transacao t SET t.statusPagamento = 'CANCELADO', t.dataAtualizacao = :agora WHERE " +
+            "t.parcelamentoId = :parcelamentoId AND t.statusPagamento IN ('PENDENTE', 'VENCIDO')")
+    int cancelarParcelasEmAberto(@Param("parcelamentoId") Long parcelamentoId, @Param("agora") LocalDateTime agora);
+
+    // Desloca data e vencimento das parcelas em aberto pelo mesmo número de dias; voltam a PENDENTE
+    // e a rotina de vencimento marca de novo as que continuarem vencidas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transacao t SET t.data = t.data + (:dias) day, t.dataVencimento = t.dataVencimento + (:dias) day, " +
+            "t.statusPagamento = 'PENDENTE', t.dataAtualizacao = :agora WHERE " +
+            "t.parcelamentoId = :parcelamentoId AND t.statusPagamento IN ('PENDENTE', 'VENCIDO')")
+    int reprogramarParcelasEmAberto(@Param("parcelamentoId") Long parcelamentoId, @Param("dias") int dias,
+                                    @Param("agora") LocalDateTime agora);
+
+    // Busca transações do mes
+    default List<Transacao> findTransacoesPorMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return findTransacoesNoIntervalo(inicio, inicio.plusMonths(1));
+    }
+
+    // Busca transações do ano
+    default List<Transacao> findTransacoesPorAno(int ano) {
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        return findTransacoesNoIntervalo(inicio, inicio.plusYears(1));
+    }
 
     // Calcula total de créditos em dólares por período
     @Query("SELECT COALESCE(SUM(t.valorDolares), 0) FROM Transacao t WHERE " +
@@ -87,23 +266,63 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
             "t.data = :data AND t.tipoTransacao = 'DEBITO'")
     BigDecimal calcularTotalDebitosPorData(@Param("data") LocalDate data);
 
+    // Soma créditos e débitos em dólares de cada dia do período em uma única consulta agrupada
+    @Query("SELECT new com.web.dev.painelOnline.dto.MovimentoDiarioDTO(t.data, " +
+            "SUM(CASE WHEN t.tipoTransacao = 'CREDITO' THEN t.valorDolares ELSE 0 END), " +
+            "SUM(CASE WHEN t.tipoTransacao = 'DEBITO' THEN t.valorDolares ELSE 0 END)) " +
+            "FROM Transacao t WHERE t.data BETWEEN :dataInicio AND :dataFim " +
+            "GROUP BY t.data ORDER BY t.data")
+    List<MovimentoDiarioDTO> somarMovimentosPorDia(
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    // Primeira e última data com transação
+    @Query("SELECT MIN(t.data) FROM Transacao t")
+    LocalDate findPrimeiraData();
+
+    @Query("SELECT MAX(t.data) FROM Transacao t")
+    LocalDate findUltimaData();
+
     // Busca transações com itens
     @Query("SELECT DISTINCT t FROM Transacao t LEFT JOIN FETCH t.itens WHERE t.id = :id")
     Transacao findTransacaoComItens(@Param("id") Long id);
 
+    // Carga do índice de busca por característica: id e texto em páginas pela chave primária
+    @Query("SELECT new com.web.dev.painelOnline.dto.CaracteristicaDTO(t.id, t.caracteristica) " +
+            "FROM Transacao t WHERE t.id > :depoisDeId ORDER BY t.id")
+    List<CaracteristicaDTO> findCaracteristicasAposId(@Param("depoisDeId") Long depoisDeId, Pageable pageable);
+
+    // Carga do autocompletar: cada característica distinta e quantas transações a usam
+    @Query("SELECT new com.web.dev.painelOnline.dto.SugestaoDTO(t.caracteristica, COUNT(t)) " +
+            "FROM Transacao t WHERE t.caracteristica IS NOT NULL GROUP BY t.caracteristica")
+    List<SugestaoDTO> contarCaracteristicas();
+
     // Busca transações por característica
     @Query("SELECT t FROM Transacao t WHERE LOWER(t.caracteristica) LIKE LOWER(CONCAT('%', :caracteristica, '%'))")
     List<Transacao> findByCaracteristicaContaining(@Param("caracteristica") String caracteristica);
 
+    // Dashboard: Total de pagamentos em dólares do período [inicio, fim)
+    @Query("SELECT COALESCE(SUM(t.valorDolares), 0) FROM Transacao t WHERE " +
+            "t.statusPagamento = 'PAGO' AND t.data >= :inicio AND t.data < :fim AND " +
+            "t.tipoTransacao = 'CREDITO'")
+    BigDecimal calcularTotalPagamentosNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
     // Dashboard: Total de pagamentos em dólares do mes
+    default BigDecimal calcularTotalPagamentosMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return calcularTotalPagamentosNoIntervalo(inicio, inicio.plusMonths(1));
+    }
+
+    // Dashboard: Total de débitos à prazo do período [inicio, fim)
     @Query("SELECT COALESCE(SUM(t.valorDolares), 0) FROM Transacao t WHERE " +
-            "YEAR(t.data) = :ano AND MONTH(t.data) = :mes AND " +
-            "t.tipoTransacao = 'CREDITO' AND t.statusPagamento = 'PAGO'")
-    BigDecimal calcularTotalPagamentosMes(@Param("ano") int ano, @Param("mes") int mes);
+            "t.tipoPagamento = 'A_PRAZO' AND t.data >= :inicio AND t.data < :fim AND " +
+            "t.tipoTransacao = 'DEBITO'")
+    BigDecimal calcularTotalDebitosPrazoNoIntervalo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
     // Dashboard: Total de débitos à prazo do mes
-    @Query("SELECT COALESCE(SUM(t.valorDolares), 0) FROM Transacao t WHERE " +
-            "YEAR(t.data) = :ano AND MONTH(t.data) = :mes AND " +
-            "t.tipoTransacao = 'DEBITO' AND t.tipoPagamento = 'A_PRAZO'")
-    BigDecimal calcularTotalDebitosPrazoMes(@Param("ano") int ano, @Param("mes") int mes);
+    default BigDecimal calcularTotalDebitosPrazoMes(int ano, int mes) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return calcularTotalDebitosPrazoNoIntervalo(inicio, inicio.plusMonths(1));
+    }
 }
\ No newline at end of file
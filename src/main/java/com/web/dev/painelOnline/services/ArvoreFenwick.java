@@ -0,0 +1,56 @@
+package com.web.dev.painelOnline.services;
+
+// Árvore de Fenwick (binary indexed tree) sobre long: soma em um ponto e soma de prefixo em O(log n).
+// Posições começam em 0.
+final class ArvoreFenwick {
+
+    private final long[] arvore;
+
+    ArvoreFenwick(int tamanho) {
+        this.arvore = new long[tamanho + 1];
+    }
+
+    // Monta a árvore a partir dos valores de cada posição em O(n)
+    static ArvoreFenwick de(long[] valores) {
+        ArvoreFenwick fenwick = new ArvoreFenwick(valores.length);
+        long[] arvore = fenwick.arvore;
+        System.arraycopy(valores, 0, arvore, 1, valores.length);
+        for (int i = 1; i < arvore.length; i++) {
+            int pai = i + (i & -i);
+            if (pai < arvore.length) {
+                arvore[pai] += arvore[i];
+            }
+        }
+        return fenwick;
+    }
+
+    int tamanho() {
+        return arvore.length - 1;
+    }
+
+    void somar(int posicao, long delta) {
+        for (int i = posicao + 1; i < arvore.length; i += i & -i) {
+            arvore[i] += delta;
+        }
+    }
+
+    // Soma das posições 0..posicao; posições fora da árvore são limitadas às pontas
+    long prefixo(int posicao) {
+        if (posicao < 0) {
+            return 0L;
+        }
+        long soma = 0L;
+        for (int i = Math.min(posicao + 1, arvore.length - 1); i > 0; i -= i & -i) {
+            soma += arvore[i];
+        }
+        return soma;
+    }
+
+    // Soma das posições inicio..fim, inclusive
+    long intervalo(int inicio, int fim) {
+        if (fim < inicio) {
+            return 0L;
+        }
+        return prefixo(fim) - prefixo(inicio - 1);
+    }
+}
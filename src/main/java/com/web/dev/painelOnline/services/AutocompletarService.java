@@ -0,0 +1,199 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.SugestaoDTO;
+import com.web.dev.painelOnline.repository.ItemNotaRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Autocompletar de descrições de itens e características de transações. Cada dicionário guarda os
+// valores distintos, normalizados como na busca (sem acentos, minúsculas), em ordem, com quantas vezes
+// cada um está gravado. A busca por prefixo lê só a faixa ordenada que começa no prefixo e devolve os
+// mais usados. Carregado na inicialização e atualizado após o commit de cada escrita; a recarga
+// reaplica no dicionário novo as alterações commitadas depois do snapshot lido, sem contar nada duas vezes.
+@Service
+public class AutocompletarService {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    // Mais usado primeiro; empate em ordem alfabética do valor normalizado
+    private static final Comparator<Entrada> ORDEM = Comparator
+            .comparingLong((Entrada e) -> e.frequencia).reversed()
+            .thenComparing(e -> e.chave);
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private ItemNotaRepository itemNotaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Dicionario descricoes = new Dicionario(() -> itemNotaRepository.contarDescricoes());
+    private final Dicionario caracteristicas = new Dicionario(() -> transacaoRepository.contarCaracteristicas());
+
+    @PostConstruct
+    public void carregar() {
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            // Sem os dicionários as sugestões voltam vazias até a próxima recarga
+            System.out.println("Dicionários de autocompletar não carregados: " + e.getMessage());
+        }
+    }
+
+    public void recarregar() {
+        descricoes.recarregar(transactionTemplate, transacaoRepository::findMaiorId);
+        caracteristicas.recarregar(transactionTemplate, transacaoRepository::findMaiorId);
+    }
+
+    // Relê só as características (ex.: após importação em lote, que não grava itens)
+    public void recarregarCaracteristicas() {
+        caracteristicas.recarregar(transactionTemplate, transacaoRepository::findMaiorId);
+    }
+
+    public List<SugestaoDTO> sugerirDescricoes(String prefixo, int limite) {
+        return descricoes.sugerir(prefixo, limite);
+    }
+
+    public List<SugestaoDTO> sugerirCaracteristicas(String prefixo, int limite) {
+        return caracteristicas.sugerir(prefixo, limite);
+    }
+
+    // Troca de descrição de um item (anterior null na criação, atual null na exclusão)
+    public void registrarDescricao(String anterior, String atual) {
+        descricoes.aposCommit(() -> descricoes.trocar(anterior, atual));
+    }
+
+    // Descrições de vários itens gravados ou excluídos de uma vez
+    public void registrarDescricoes(Collection<String> anteriores, Collection<String> atuais) {
+        List<String> removidas = new ArrayList<>(anteriores);
+        List<String> incluidas = new ArrayList<>(atuais);
+        descricoes.aposCommit(() -> {
+            for (String descricao : removidas) {
+                descricoes.trocar(descricao, null);
+            }
+            for (String descricao : incluidas) {
+                descricoes.trocar(null, descricao);
+            }
+        });
+    }
+
+    // Troca de característica de uma transação (anterior null na criação, atual null na exclusão)
+    public void registrarCaracteristica(String anterior, String atual) {
+        caracteristicas.aposCommit(() -> caracteristicas.trocar(anterior, atual));
+    }
+
+    private static String chave(String valor) {
+        return valor == null ? "" : IndiceCaracteristicaService.normalizar(valor.trim());
+    }
+
+    // Valor normalizado, a forma gravada mostrada na sugestão e a contagem
+    private static final class Entrada {
+        private final String chave;
+        private String valor;
+        private long frequencia;
+
+        private Entrada(String chave, String valor) {
+            this.chave = chave;
+            this.valor = valor;
+        }
+    }
+
+    private static final class Dicionario {
+        private final Supplier<List<SugestaoDTO>> consulta;
+        private final RecargaIndice recarga = new RecargaIndice();
+        private TreeMap<String, Entrada> entradas = new TreeMap<>();
+        // false até a primeira carga; antes disso as alterações são ignoradas (a carga reaplica as que ficaram fora dela)
+        private boolean pronto = false;
+
+        private Dicionario(Supplier<List<SugestaoDTO>> consulta) {
+            this.consulta = consulta;
+        }
+
+        private void recarregar(TransactionTemplate transactionTemplate, Runnable abertura) {
+            recarga.recarregar(transactionTemplate, abertura, this::ler, novas -> {
+                synchronized (this) {
+                    entradas = novas;
+                    pronto = true;
+                }
+            });
+        }
+
+        private TreeMap<String, Entrada> ler() {
+            TreeMap<String, Entrada> novas = new TreeMap<>();
+            for (SugestaoDTO linha : consulta.get()) {
+                String chave = chave(linha.getValor());
+                if (chave.isEmpty()) {
+                    continue;
+                }
+                Entrada entrada = novas.computeIfAbsent(chave, c -> new Entrada(c, linha.getValor().trim()));
+                entrada.frequencia += linha.getFrequencia();
+            }
+            return novas;
+        }
+
+        private void aposCommit(Runnable acao) {
+            recarga.aposCommit(acao);
+        }
+
+        private synchronized void trocar(String anterior, String atual) {
+            if (!pronto) {
+                return;
+            }
+            String chaveAnterior = chave(anterior);
+            String chaveAtual = chave(atual);
+            if (chaveAnterior.equals(chaveAtual)) {
+                return;
+            }
+            if (!chaveAnterior.isEmpty()) {
+                Entrada entrada = entradas.get(chaveAnterior);
+                if (entrada != null && --entrada.frequencia <= 0) {
+                    entradas.remove(chaveAnterior);
+                }
+            }
+            if (!chaveAtual.isEmpty()) {
+                entradas.computeIfAbsent(chaveAtual, c -> new Entrada(c, atual.trim())).frequencia++;
+            }
+        }
+
+        private synchronized List<SugestaoDTO> sugerir(String prefixo, int limite) {
+            if (limite < 1 || limite > LIMITE_MAXIMO) {
+                throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+            }
+            String inicio = chave(prefixo);
+            if (inicio.isEmpty()) {
+                return List.of();
+            }
+            // Faixa [prefixo, prefixo + maior char): todas as chaves que começam com o prefixo
+            Map<String, Entrada> faixa = entradas.subMap(inicio, true, inicio + Character.MAX_VALUE, false);
+            // Heap com os melhores até aqui; o pior fica no topo para sair primeiro
+            PriorityQueue<Entrada> melhores = new PriorityQueue<>(limite + 1, ORDEM.reversed());
+            for (Entrada entrada : faixa.values()) {
+                melhores.add(entrada);
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+            List<Entrada> ordenadas = new ArrayList<>(melhores);
+            ordenadas.sort(ORDEM);
+            List<SugestaoDTO> sugestoes = new ArrayList<>(ordenadas.size());
+            for (Entrada entrada : ordenadas) {
+                sugestoes.add(new SugestaoDTO(entrada.valor, entrada.frequencia));
+            }
+            return sugestoes;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.web.dev.painelOnline.services;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+// Travas em memória por dia do extrato, divididas em faixas (dia epoch módulo quantidade de faixas).
+// Só escritores do mesmo dia (ou de dias na mesma faixa) esperam uns pelos outros; os demais seguem em paralelo.
+// A trava fica com a transação até o commit ou rollback, para o próximo escritor já ler o dia confirmado.
+// Entre instâncias da aplicação quem protege o dia é a versão do ExtratoFinanceiro.
+@Service
+public class BloqueioExtratoService {
+
+    @Value("${extrato.bloqueio.faixas:256}")
+    private int quantidadeFaixas = 256;
+
+    // Tempo máximo esperando uma faixa; ao esgotar, a transação é refeita como conflito
+    @Value("${extrato.bloqueio.espera-ms:5000}")
+    private long esperaMs = 5000;
+
+    private ReentrantLock[] faixas;
+
+    @PostConstruct
+    void iniciar() {
+        if (quantidadeFaixas <= 0) {
+            throw new IllegalArgumentException("extrato.bloqueio.faixas deve ser maior que zero.");
+        }
+        faixas = new ReentrantLock[quantidadeFaixas];
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+    }
+
+    // Trava os dias até o fim da transação corrente. Fora de transação não há até quando segurar, então não trava.
+    public void bloquearAteFimDaTransacao(Collection<LocalDate> datas) {
+        if (datas.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        // Faixas sempre em ordem crescente, para dois escritores de vários dias não se travarem em cruz
+        bloquearFaixas(datas.stream().mapToInt(this::faixa).distinct().sorted().toArray());
+    }
+
+    // Trava todas as faixas até o fim da transação. Para quem grava dias inteiros a partir de uma leitura e
+    // desloca o saldo acumulado dos dias seguintes (regeneração): nenhum escritor incremental, de dia algum,
+    // pode commitar entre a leitura e a gravação.
+    public void bloquearTudoAteFimDaTransacao() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        bloquearFaixas(IntStream.range(0, faixas.length).toArray());
+    }
+
+    private void bloquearFaixas(int[] indices) {
+        List<ReentrantLock> obtidas = new ArrayList<>(indices.length);
+        try {
+            for (int indice : indices) {
+                ReentrantLock trava = faixas[indice];
+                if (!trava.tryLock(esperaMs, TimeUnit.MILLISECONDS)) {
+                    throw new CannotAcquireLockException("Tempo esgotado aguardando a trava do extrato do dia.");
+                }
+                obtidas.add(trava);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar(obtidas);
+            throw new CannotAcquireLockException("Interrompido aguardando a trava do extrato do dia.", e);
+        } catch (RuntimeException e) {
+            liberar(obtidas);
+            throw e;
+        }
+
+        // afterCompletion roda na mesma thread que obteve as travas
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                liberar(obtidas);
+            }
+        });
+    }
+
+    int faixa(LocalDate data) {
+        return (int) Math.floorMod(data.toEpochDay(), (long) faixas.length);
+    }
+
+    // Quantas faixas a thread atual segura (reentradas contam uma vez por faixa)
+    int faixasSeguradas() {
+        int total = 0;
+        for (ReentrantLock trava : faixas) {
+            if (trava.isHeldByCurrentThread()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private void liberar(List<ReentrantLock> travas) {
+        for (int i = travas.size() - 1; i >= 0; i--) {
+            travas.get(i).unlock();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.web.dev.painelOnline.services;
 
+import com.web.dev.painelOnline.entities.ExtratoAnual;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,10 +36,8 @@ public class DashboardService {
         // Total de débitos à prazo em dólares no mes
         BigDecimal totalDebitosPrazo = transacaoService.calcularTotalDebitosPrazoMes(ano, mes);
 
-        // Totais mensais do extrato
-        BigDecimal totalCreditosMes = extratoFinanceiroService.calcularTotalCreditosMes(ano, mes);
-        BigDecimal totalDebitosMes = extratoFinanceiroService.calcularTotalDebitosMes(ano, mes);
-        BigDecimal saldoMes = extratoFinanceiroService.calcularSaldoMes(ano, mes);
+        // Totais mensais do extrato (uma linha de extrato_mensal)
+        ExtratoMensal resumoMes = extratoFinanceiroService.buscarResumoMes(ano, mes);
 
         // Saldo acumulado até o final do mês
         LocalDate ultimoDiaMes = LocalDate.of(ano, mes, 1).plusMonths(1).minusDays(1);
@@ -45,9 +45,9 @@ public class DashboardService {
 
         dashboard.put("totalPagamentosMes", totalPagamentos);
         dashboard.put("totalDebitosPrazoMes", totalDebitosPrazo);
-        dashboard.put("totalCreditosMes", totalCreditosMes);
-        dashboard.put("totalDebitosMes", totalDebitosMes);
-        dashboard.put("saldoMes", saldoMes);
+        dashboard.put("totalCreditosMes", resumoMes.getTotalCreditosDolares());
+        dashboard.put("totalDebitosMes", resumoMes.getTotalDebitosDolares());
+        dashboard.put("saldoMes", resumoMes.getSaldoDolares());
         dashboard.put("saldoAcumulado", saldoAcumulado);
         dashboard.put("ano", ano);
         dashboard.put("mes", mes);
@@ -59,18 +59,16 @@ public class DashboardService {
     public Map<String, Object> obterDadosDashboardAno(int ano) {
         Map<String, Object> dashboard = new HashMap<>();
 
-        // Totais anuais do extrato
-        BigDecimal totalCreditosAno = extratoFinanceiroService.calcularTotalCreditosAno(ano);
-        BigDecimal totalDebitosAno = extratoFinanceiroService.calcularTotalDebitosAno(ano);
-        BigDecimal saldoAno = extratoFinanceiroService.calcularSaldoAno(ano);
+        // Totais anuais do extrato (uma linha de extrato_anual)
+        ExtratoAnual resumoAno = extratoFinanceiroService.buscarResumoAno(ano);
 
         // Saldo acumulado até o final do ano
         LocalDate ultimoDiaAno = LocalDate.of(ano, 12, 31);
         BigDecimal saldoAcumulado = extratoFinanceiroService.calcularSaldoAcumuladoAteData(ultimoDiaAno);
 
-        dashboard.put("totalCreditosAno", totalCreditosAno);
-        dashboard.put("totalDebitosAno", totalDebitosAno);
-        dashboard.put("saldoAno", saldoAno);
+        dashboard.put("totalCreditosAno", resumoAno.getTotalCreditosDolares());
+        dashboard.put("totalDebitosAno", resumoAno.getTotalDebitosDolares());
+        dashboard.put("saldoAno", resumoAno.getSaldoDolares());
         dashboard.put("saldoAcumulado", saldoAcumulado);
         dashboard.put("ano", ano);
 
@@ -0,0 +1,212 @@
+package com.web.dev.painelOnline.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.Enum.FormatoExportacao;
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import com.web.dev.painelOnline.repository.ItemNotaRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.util.Csv;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Exportação por período em NDJSON (um objeto por linha) ou CSV, escrita direto na saída enquanto as
+// linhas chegam do cursor do banco. Nada é acumulado: a memória usada não depende do tamanho do período.
+// As colunas do CSV de transações têm os mesmos nomes aceitos pela importação em lote.
+@Service
+public class ExportacaoService {
+
+    private static final char SEPARADOR_CSV = ',';
+
+    private static final Map<String, Function<Transacao, Object>> COLUNAS_TRANSACAO = new LinkedHashMap<>();
+    private static final Map<String, Function<ItemNota, Object>> COLUNAS_ITEM = new LinkedHashMap<>();
+    private static final Map<String, Function<ExtratoFinanceiro, Object>> COLUNAS_EXTRATO = new LinkedHashMap<>();
+
+    static {
+        COLUNAS_TRANSACAO.put("id", Transacao::getId);
+        COLUNAS_TRANSACAO.put("data", Transacao::getData);
+        COLUNAS_TRANSACAO.put("caracteristica", Transacao::getCaracteristica);
+        COLUNAS_TRANSACAO.put("valorReais", Transacao::getValorReais);
+        COLUNAS_TRANSACAO.put("taxaCambio", Transacao::getTaxaCambio);
+        COLUNAS_TRANSACAO.put("valorDolares", Transacao::getValorDolares);
+        COLUNAS_TRANSACAO.put("tipoTransacao", Transacao::getTipoTransacao);
+        COLUNAS_TRANSACAO.put("statusPagamento", Transacao::getStatusPagamento);
+        COLUNAS_TRANSACAO.put("tipoPagamento", Transacao::getTipoPagamento);
+        COLUNAS_TRANSACAO.put("dataVencimento", Transacao::getDataVencimento);
+
+        COLUNAS_ITEM.put("id", ItemNota::getId);
+        COLUNAS_ITEM.put("transacaoId", i -> i.getTransacao().getId());
+        COLUNAS_ITEM.put("dataTransacao", i -> i.getTransacao().getData());
+        COLUNAS_ITEM.put("descricao", ItemNota::getDescricao);
+        COLUNAS_ITEM.put("quantidade", ItemNota::getQuantidade);
+        COLUNAS_ITEM.put("valorUnitario", ItemNota::getValorUnitario);
+        COLUNAS_ITEM.put("valorTotal", ItemNota::getValorTotal);
+
+        COLUNAS_EXTRATO.put("data", ExtratoFinanceiro::getData);
+        COLUNAS_EXTRATO.put("totalCreditosDolares", ExtratoFinanceiro::getTotalCreditosDolares);
+        COLUNAS_EXTRATO.put("totalDebitosDolares", ExtratoFinanceiro::getTotalDebitosDolares);
+        COLUNAS_EXTRATO.put("saldoDiaDolares", ExtratoFinanceiro::getSaldoDiaDolares);
+        COLUNAS_EXTRATO.put("saldoAcumuladoDolares", ExtratoFinanceiro::getSaldoAcumuladoDolares);
+        COLUNAS_EXTRATO.put("movimentoTotal", ExtratoFinanceiro::getMovimentoTotal);
+    }
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private ItemNotaRepository itemNotaRepository;
+
+    @Autowired
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A cada quantas linhas o contexto de persistência é limpo, para as entidades já escritas serem coletadas
+    @Value("${exportacao.linhas-por-limpeza:500}")
+    private int linhasPorLimpeza = 500;
+
+    // Confere o período antes de a resposta começar, enquanto ainda dá para responder 400
+    public void validarPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio == null || dataFim == null) {
+            throw new IllegalArgumentException("Data inicial e data final são obrigatórias.");
+        }
+        if (dataInicio.isAfter(dataFim)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+        }
+    }
+
+    // Transações de [dataInicio, dataFim], ordenadas por (data, id)
+    @Transactional(readOnly = true)
+    public int exportarTransacoes(LocalDate dataInicio, LocalDate dataFim, FormatoExportacao formato,
+                                  OutputStream saida) throws IOException {
+        validarPeriodo(dataInicio, dataFim);
+        try (Stream<Transacao> linhas = transacaoRepository.streamNoIntervalo(dataInicio, dataFim.plusDays(1))) {
+            return escrever(linhas, COLUNAS_TRANSACAO, formato, saida);
+        }
+    }
+
+    // Itens das transações de [dataInicio, dataFim], com id e data da transação
+    @Transactional(readOnly = true)
+    public int exportarItens(LocalDate dataInicio, LocalDate dataFim, FormatoExportacao formato,
+                             OutputStream saida) throws IOException {
+        validarPeriodo(dataInicio, dataFim);
+        try (Stream<ItemNota> linhas = itemNotaRepository.streamNoIntervalo(dataInicio, dataFim.plusDays(1))) {
+            return escrever(linhas, COLUNAS_ITEM, formato, saida);
+        }
+    }
+
+    // Extratos diários de [dataInicio, dataFim]
+    @Transactional(readOnly = true)
+    public int exportarExtratos(LocalDate dataInicio, LocalDate dataFim, FormatoExportacao formato,
+                                OutputStream saida) throws IOException {
+        validarPeriodo(dataInicio, dataFim);
+        try (Stream<ExtratoFinanceiro> linhas = extratoFinanceiroRepository.streamNoIntervalo(dataInicio, dataFim.plusDays(1))) {
+            return escrever(linhas, COLUNAS_EXTRATO, formato, saida);
+        }
+    }
+
+    private <T> int escrever(Stream<T> linhas, Map<String, Function<T, Object>> colunas,
+                             FormatoExportacao formato, OutputStream saida) throws IOException {
+        return formato == FormatoExportacao.CSV
+                ? escreverCsv(linhas.iterator(), colunas, saida)
+                : escreverNdjson(linhas.iterator(), colunas, saida);
+    }
+
+    private <T> int escreverNdjson(Iterator<T> linhas, Map<String, Function<T, Object>> colunas,
+                                   OutputStream saida) throws IOException {
+        int total = 0;
+        // O gerador não fecha a saída; quem fecha é o chamador (resposta HTTP ou gzip)
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+            while (linhas.hasNext()) {
+                T linha = linhas.next();
+                gerador.writeStartObject();
+                for (Map.Entry<String, Function<T, Object>> coluna : colunas.entrySet()) {
+                    gerador.writeFieldName(coluna.getKey());
+                    escreverValor(gerador, coluna.getValue().apply(linha));
+                }
+                gerador.writeEndObject();
+                gerador.writeRaw('\n');
+                linhaEscrita(++total);
+            }
+        }
+        return total;
+    }
+
+    private <T> int escreverCsv(Iterator<T> linhas, Map<String, Function<T, Object>> colunas,
+                                OutputStream saida) throws IOException {
+        int total = 0;
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escritor.write(String.join(String.valueOf(SEPARADOR_CSV), colunas.keySet()));
+        escritor.write("\r\n");
+        while (linhas.hasNext()) {
+            T linha = linhas.next();
+            boolean primeira = true;
+            for (Function<T, Object> coluna : colunas.values()) {
+                if (!primeira) {
+                    escritor.write(SEPARADOR_CSV);
+                }
+                primeira = false;
+                Object valor = coluna.apply(linha);
+                escritor.write(Csv.escapar(valor != null ? textoCsv(valor) : null, SEPARADOR_CSV));
+            }
+            escritor.write("\r\n");
+            linhaEscrita(++total);
+        }
+        // Só esvazia o buffer; a saída é fechada pelo chamador
+        escritor.flush();
+        return total;
+    }
+
+    private void escreverValor(JsonGenerator gerador, Object valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNull();
+        } else if (valor instanceof BigDecimal decimal) {
+            gerador.writeNumber(decimal);
+        } else if (valor instanceof Long numero) {
+            gerador.writeNumber(numero);
+        } else if (valor instanceof Integer numero) {
+            gerador.writeNumber(numero);
+        } else {
+            // Datas em ISO-8601 e enums pelo nome, como no JSON das demais rotas
+            gerador.writeString(valor.toString());
+        }
+    }
+
+    private String textoCsv(Object valor) {
+        return valor instanceof BigDecimal decimal ? decimal.toPlainString() : valor.toString();
+    }
+
+    // Entidades já escritas saem do contexto de persistência, senão o período inteiro ficaria na sessão
+    private void linhaEscrita(int total) {
+        if (total % linhasPorLimpeza == 0) {
+            entityManager.clear();
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.web.dev.painelOnline.services;
 
+import com.web.dev.painelOnline.Config.RepetirEmConflito;
+import com.web.dev.painelOnline.Enum.ModoAtualizacaoExtrato;
+import com.web.dev.painelOnline.dto.DiaExtratoDTO;
+import com.web.dev.painelOnline.entities.ExtratoAnual;
 import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroJdbcRepository;
 import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
 import com.web.dev.painelOnline.repository.TransacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 @Transactional
@@ -19,14 +30,66 @@ public class ExtratoFinanceiroService {
     @Autowired
     private ExtratoFinanceiroRepository extratoFinanceiroRepository;
 
+    @Autowired
+    private ExtratoFinanceiroJdbcRepository extratoFinanceiroJdbcRepository;
+
     @Autowired
     private TransacaoRepository transacaoRepository;
 
-    // Atualiza extrato de um dia específico
+    @Autowired
+    private RegeneracaoExtratoService regeneracaoExtratoService;
+
+    @Autowired
+    private FilaExtratoService filaExtratoService;
+
+    @Autowired
+    private ResumoExtratoService resumoExtratoService;
+
+    @Autowired
+    private IndiceMovimentosService indiceMovimentosService;
+
+    @Autowired
+    private BloqueioExtratoService bloqueioExtratoService;
+
+    @Autowired
+    private RankingExtratoService rankingExtratoService;
+
+    // INCREMENTAL aplica só a diferença da transação alterada; COMPLETO refaz as somas do dia;
+    // ASSINCRONO marca o dia como pendente e o recálculo fica com o ProcessadorFilaExtrato
+    @Value("${extrato.atualizacao.modo:INCREMENTAL}")
+    private ModoAtualizacaoExtrato modoAtualizacao = ModoAtualizacaoExtrato.INCREMENTAL;
+
+    // Atualiza extrato de um dia específico e repassa a diferença de saldo aos dias seguintes
+    @RepetirEmConflito
     public ExtratoFinanceiro atualizarExtratoDia(LocalDate data) {
-        // Busca ou cria extrato do dia
-        Optional<ExtratoFinanceiro> extratoExistente = extratoFinanceiroRepository.findByData(data);
-        ExtratoFinanceiro extrato = extratoExistente.orElse(new ExtratoFinanceiro(data));
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(data));
+
+        // Dia novo nasce com o saldo acumulado do dia anterior, então a diferença sai igual nos dois casos
+        ExtratoFinanceiro extrato = buscarOuCriarDia(data);
+        BigDecimal saldoAcumuladoAntes = extrato.getSaldoAcumuladoDolares();
+
+        ExtratoFinanceiro salvo = recalcularDia(data, extrato);
+
+        propagarSaldoAcumulado(data, salvo.getSaldoAcumuladoDolares().subtract(saldoAcumuladoAntes));
+        return salvo;
+    }
+
+    // Busca o extrato do dia; se não existir, cria a linha no banco antes de carregar.
+    // Dois escritores criando a mesma data não violam a chave única: o segundo encontra a linha do primeiro.
+    private ExtratoFinanceiro buscarOuCriarDia(LocalDate data) {
+        Optional<ExtratoFinanceiro> existente = extratoFinanceiroRepository.findByData(data);
+        if (existente.isPresent()) {
+            return existente.get();
+        }
+        extratoFinanceiroJdbcRepository.inserirDiaSeAusente(data, saldoAcumuladoNoBanco(data.minusDays(1)));
+        return extratoFinanceiroRepository.findByData(data)
+                .orElseThrow(() -> new RuntimeException("Extrato não encontrado após criação para a data: " + data));
+    }
+
+    // Recalcula as somas do dia sem mexer nos dias seguintes
+    private ExtratoFinanceiro recalcularDia(LocalDate data, ExtratoFinanceiro extrato) {
+        BigDecimal creditosAntes = extrato.getTotalCreditosDolares();
+        BigDecimal debitosAntes = extrato.getTotalDebitosDolares();
 
         // Calcula totais do dia
         BigDecimal totalCreditos = transacaoRepository.calcularTotalCreditosPorData(data);
@@ -41,15 +104,272 @@ public class ExtratoFinanceiroService {
         extrato.setSaldoDiaDolares(saldoDia);
 
         // Calcula e define o saldo acumulado
-        BigDecimal saldoAcumuladoAnterior = calcularSaldoAcumuladoAteData(data.minusDays(1));
+        BigDecimal saldoAcumuladoAnterior = saldoAcumuladoNoBanco(data.minusDays(1));
         extrato.setSaldoAcumuladoDolares(saldoAcumuladoAnterior.add(saldoDia));
 
-        return extratoFinanceiroRepository.save(extrato);
+        resumoExtratoService.registrarDelta(data,
+                totalCreditos.subtract(creditosAntes), totalDebitos.subtract(debitosAntes));
+        ExtratoFinanceiro salvo = extratoFinanceiroRepository.save(extrato);
+        rankingExtratoService.registrarDia(salvo);
+        return salvo;
+    }
+
+    // Registra no extrato a alteração de uma transação.
+    // anterior é null na criação e atual é null na exclusão.
+    public void registrarAlteracao(MovimentoExtrato anterior, MovimentoExtrato atual) {
+        indiceMovimentosService.registrarAlteracao(anterior, atual);
+        Map<LocalDate, BigDecimal[]> deltas = datasAfetadas(anterior, atual);
+
+        if (modoAtualizacao == ModoAtualizacaoExtrato.ASSINCRONO) {
+            for (LocalDate data : deltas.keySet()) {
+                filaExtratoService.marcarPendente(data);
+            }
+            return;
+        }
+
+        // Trava as duas datas (mudança de data) de uma vez, na ordem das faixas
+        bloqueioExtratoService.bloquearAteFimDaTransacao(deltas.keySet());
+
+        if (modoAtualizacao == ModoAtualizacaoExtrato.COMPLETO) {
+            for (LocalDate data : deltas.keySet()) {
+                atualizarExtratoDia(data);
+            }
+            return;
+        }
+
+        // Soma as diferenças por dia: estorna o movimento anterior e aplica o atual
+        acumularDelta(deltas, anterior, BigDecimal.ONE.negate());
+        acumularDelta(deltas, atual, BigDecimal.ONE);
+
+        for (Map.Entry<LocalDate, BigDecimal[]> entrada : deltas.entrySet()) {
+            BigDecimal deltaCreditos = entrada.getValue()[0];
+            BigDecimal deltaDebitos = entrada.getValue()[1];
+            if (deltaCreditos.signum() != 0 || deltaDebitos.signum() != 0) {
+                aplicarDelta(entrada.getKey(), deltaCreditos, deltaDebitos);
+            }
+        }
+    }
+
+    // Registra de uma vez as alterações de várias transações (ex.: parcelas de um parcelamento).
+    // Os dias afetados são percorridos em ordem crescente e os dias entre eles recebem, por faixa, a
+    // diferença de saldo acumulada até ali: cada dia posterior é deslocado uma vez, não uma vez por transação.
+    public void registrarAlteracoes(List<MovimentoExtrato> anteriores, List<MovimentoExtrato> atuais) {
+        for (MovimentoExtrato anterior : anteriores) {
+            indiceMovimentosService.registrarAlteracao(anterior, null);
+        }
+        for (MovimentoExtrato atual : atuais) {
+            indiceMovimentosService.registrarAlteracao(null, atual);
+        }
+
+        Map<LocalDate, BigDecimal[]> deltas = new TreeMap<>();
+        for (MovimentoExtrato movimento : anteriores) {
+            deltas.putIfAbsent(movimento.getData(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+        for (MovimentoExtrato movimento : atuais) {
+            deltas.putIfAbsent(movimento.getData(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        if (modoAtualizacao == ModoAtualizacaoExtrato.ASSINCRONO) {
+            for (LocalDate data : deltas.keySet()) {
+                filaExtratoService.marcarPendente(data);
+            }
+            return;
+        }
+
+        bloqueioExtratoService.bloquearAteFimDaTransacao(deltas.keySet());
+
+        for (MovimentoExtrato anterior : anteriores) {
+            acumularDelta(deltas, anterior, BigDecimal.ONE.negate());
+        }
+        for (MovimentoExtrato atual : atuais) {
+            acumularDelta(deltas, atual, BigDecimal.ONE);
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDate dataAnterior = null;
+        BigDecimal deslocamento = BigDecimal.ZERO;
+        for (Map.Entry<LocalDate, BigDecimal[]> entrada : deltas.entrySet()) {
+            LocalDate data = entrada.getKey();
+            // Dias entre a data anterior e esta recebem o que já mudou antes deles
+            if (dataAnterior != null && deslocamento.signum() != 0) {
+                extratoFinanceiroRepository.deslocarSaldoAcumuladoEntre(dataAnterior, data, deslocamento, agora);
+            }
+
+            // Dia novo já nasce do saldo corrigido do dia anterior; dia existente recebe o deslocamento aqui
+            Optional<ExtratoFinanceiro> existente = extratoFinanceiroRepository.findByData(data);
+            ExtratoFinanceiro extrato;
+            if (existente.isPresent()) {
+                extrato = existente.get();
+                extrato.setSaldoAcumuladoDolares(extrato.getSaldoAcumuladoDolares().add(deslocamento));
+            } else {
+                extrato = buscarOuCriarDia(data);
+            }
+            BigDecimal saldoDiaAntes = extrato.getSaldoDiaDolares();
+
+            ExtratoFinanceiro salvo = modoAtualizacao == ModoAtualizacaoExtrato.COMPLETO
+                    ? recalcularDia(data, extrato)
+                    : somarDelta(data, extrato, entrada.getValue()[0], entrada.getValue()[1]);
+
+            deslocamento = deslocamento.add(salvo.getSaldoDiaDolares().subtract(saldoDiaAntes));
+            dataAnterior = data;
+        }
+        propagarSaldoAcumulado(dataAnterior, deslocamento);
     }
 
+    // Revisa o dia após alterações que não mudam o valor das transações (ex.: itens da nota).
+    // No modo incremental não há diferença a aplicar; no modo completo o dia é recalculado.
+    public void revisarExtratoDia(LocalDate data) {
+        if (modoAtualizacao == ModoAtualizacaoExtrato.COMPLETO) {
+            atualizarExtratoDia(data);
+        } else if (modoAtualizacao == ModoAtualizacaoExtrato.ASSINCRONO) {
+            filaExtratoService.marcarPendente(data);
+        }
+    }
+
+    // Revisa vários dias na mesma transação. No modo completo as faixas de todos os dias são travadas numa
+    // só chamada, em ordem de faixa, antes da primeira revisão; travadas dia a dia, dois escritores com os
+    // mesmos dias em ordens diferentes esperariam um pelo outro até esgotar o tempo da trava.
+    public void revisarExtratoDias(Collection<LocalDate> datas) {
+        if (modoAtualizacao == ModoAtualizacaoExtrato.COMPLETO) {
+            bloqueioExtratoService.bloquearAteFimDaTransacao(datas);
+        }
+        for (LocalDate data : datas) {
+            revisarExtratoDia(data);
+        }
+    }
+
+    // Recalcula na hora um dia pendente na fila assíncrona, para leituras logo após a escrita.
+    // Se o processador já retirou o dia, espera o recálculo dele ser confirmado.
+    // Retorna true se o dia estava pendente ou em processamento.
+    @RepetirEmConflito
+    public boolean sincronizarExtratoDia(LocalDate data) {
+        if (!filaExtratoService.retirar(data)) {
+            if (!filaExtratoService.aguardarProcessamento(data)) {
+                return false;
+            }
+            // Se o processador falhou, a data voltou para a fila e o recálculo é feito aqui
+            if (!filaExtratoService.retirar(data)) {
+                return true;
+            }
+        }
+        atualizarExtratoDia(data);
+        return true;
+    }
+
+    // Soma as diferenças de créditos e débitos diretamente no extrato do dia
+    public ExtratoFinanceiro aplicarDelta(LocalDate data, BigDecimal deltaCreditos, BigDecimal deltaDebitos) {
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(data));
+        ExtratoFinanceiro extrato = buscarOuCriarDia(data);
+
+        ExtratoFinanceiro salvo = somarDelta(data, extrato, deltaCreditos, deltaDebitos);
+        propagarSaldoAcumulado(data, deltaCreditos.subtract(deltaDebitos));
+        return salvo;
+    }
+
+    // Soma as diferenças no extrato do dia sem mexer nos dias seguintes
+    private ExtratoFinanceiro somarDelta(LocalDate data, ExtratoFinanceiro extrato,
+                                         BigDecimal deltaCreditos, BigDecimal deltaDebitos) {
+        BigDecimal totalCreditos = extrato.getTotalCreditosDolares().add(deltaCreditos);
+        BigDecimal totalDebitos = extrato.getTotalDebitosDolares().add(deltaDebitos);
+        BigDecimal deltaSaldo = deltaCreditos.subtract(deltaDebitos);
+
+        extrato.setTotalCreditosDolares(totalCreditos);
+        extrato.setTotalDebitosDolares(totalDebitos);
+        extrato.setSaldoDiaDolares(totalCreditos.subtract(totalDebitos));
+        extrato.setSaldoAcumuladoDolares(extrato.getSaldoAcumuladoDolares().add(deltaSaldo));
+
+        ExtratoFinanceiro salvo = extratoFinanceiroRepository.save(extrato);
+        resumoExtratoService.registrarDelta(data, deltaCreditos, deltaDebitos);
+        rankingExtratoService.registrarDia(salvo);
+        return salvo;
+    }
+
+    // Ajusta o saldo acumulado de todos os dias após a data com um único UPDATE em lote,
+    // evitando recalcular dia a dia depois de lançamentos retroativos
+    public int propagarSaldoAcumulado(LocalDate data, BigDecimal delta) {
+        if (delta == null || delta.signum() == 0) {
+            return 0;
+        }
+        return extratoFinanceiroRepository.deslocarSaldoAcumuladoApos(data, delta, LocalDateTime.now());
+    }
+
+    // Confere o extrato do dia contra as transações e recalcula se houver divergência.
+    // Retorna true quando o extrato já estava consistente.
+    @RepetirEmConflito
+    public boolean verificarExtratoDia(LocalDate data) {
+        BigDecimal totalCreditos = transacaoRepository.calcularTotalCreditosPorData(data);
+        BigDecimal totalDebitos = transacaoRepository.calcularTotalDebitosPorData(data);
+
+        Optional<ExtratoFinanceiro> extrato = extratoFinanceiroRepository.findByData(data);
+        boolean consistente = extrato
+                .map(e -> e.getTotalCreditosDolares().compareTo(totalCreditos) == 0
+                        && e.getTotalDebitosDolares().compareTo(totalDebitos) == 0)
+                .orElse(totalCreditos.signum() == 0 && totalDebitos.signum() == 0);
+
+        if (!consistente) {
+            atualizarExtratoDia(data);
+        }
+        return consistente;
+    }
+
+    private Map<LocalDate, BigDecimal[]> datasAfetadas(MovimentoExtrato anterior, MovimentoExtrato atual) {
+        Map<LocalDate, BigDecimal[]> datas = new TreeMap<>();
+        if (anterior != null) {
+            datas.put(anterior.getData(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+        if (atual != null) {
+            datas.putIfAbsent(atual.getData(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+        return datas;
+    }
+
+    private void acumularDelta(Map<LocalDate, BigDecimal[]> deltas, MovimentoExtrato movimento, BigDecimal sinal) {
+        if (movimento == null) {
+            return;
+        }
+        BigDecimal[] delta = deltas.get(movimento.getData());
+        delta[0] = delta[0].add(movimento.getCreditos().multiply(sinal));
+        delta[1] = delta[1].add(movimento.getDebitos().multiply(sinal));
+    }
+
+    // Usa o índice em memória quando carregado; senão consulta o extrato
     @Transactional(readOnly = true)
     public BigDecimal calcularSaldoAcumuladoAteData(LocalDate data) {
-        return extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(data);
+        if (indiceMovimentosService.isPronto()) {
+            return indiceMovimentosService.calcularSaldoAteData(data);
+        }
+        return saldoAcumuladoNoBanco(data);
+    }
+
+    // Dentro das escritas o saldo vem do banco, que já enxerga as alterações ainda não confirmadas
+    private BigDecimal saldoAcumuladoNoBanco(LocalDate data) {
+        // Sem nenhum extrato até a data a consulta não retorna linha
+        BigDecimal saldo = extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(data);
+        return saldo != null ? saldo : BigDecimal.ZERO;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal calcularTotalCreditosPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (indiceMovimentosService.isPronto()) {
+            return indiceMovimentosService.calcularTotalCreditosPorPeriodo(dataInicio, dataFim);
+        }
+        return transacaoRepository.calcularTotalCreditosPorPeriodo(dataInicio, dataFim);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal calcularTotalDebitosPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (indiceMovimentosService.isPronto()) {
+            return indiceMovimentosService.calcularTotalDebitosPorPeriodo(dataInicio, dataFim);
+        }
+        return transacaoRepository.calcularTotalDebitosPorPeriodo(dataInicio, dataFim);
+    }
+
+    // Relê o índice em memória a partir das transações
+    public void recarregarIndiceMovimentos() {
+        indiceMovimentosService.recarregar();
     }
 
     @Transactional(readOnly = true)
@@ -72,43 +392,78 @@ public class ExtratoFinanceiroService {
         return extratoFinanceiroRepository.findExtratosPorAno(ano);
     }
 
+    // Totais do mês lidos de extrato_mensal
+    @Transactional(readOnly = true)
+    public ExtratoMensal buscarResumoMes(int ano, int mes) {
+        return resumoExtratoService.buscarMes(ano, mes);
+    }
+
+    // Totais do ano lidos de extrato_anual
+    @Transactional(readOnly = true)
+    public ExtratoAnual buscarResumoAno(int ano) {
+        return resumoExtratoService.buscarAno(ano);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExtratoMensal> buscarResumosMensaisAno(int ano) {
+        return resumoExtratoService.buscarMesesDoAno(ano);
+    }
+
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalCreditosMes(int ano, int mes) {
-        return extratoFinanceiroRepository.calcularTotalCreditosMes(ano, mes);
+        return buscarResumoMes(ano, mes).getTotalCreditosDolares();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalDebitosMes(int ano, int mes) {
-        return extratoFinanceiroRepository.calcularTotalDebitosMes(ano, mes);
+        return buscarResumoMes(ano, mes).getTotalDebitosDolares();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal calcularSaldoMes(int ano, int mes) {
-        return extratoFinanceiroRepository.calcularSaldoMes(ano, mes);
+        return buscarResumoMes(ano, mes).getSaldoDolares();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalCreditosAno(int ano) {
-        return extratoFinanceiroRepository.calcularTotalCreditosAno(ano);
+        return buscarResumoAno(ano).getTotalCreditosDolares();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalDebitosAno(int ano) {
-        return extratoFinanceiroRepository.calcularTotalDebitosAno(ano);
+        return buscarResumoAno(ano).getTotalDebitosDolares();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal calcularSaldoAno(int ano) {
-        return extratoFinanceiroRepository.calcularSaldoAno(ano);
+        return buscarResumoAno(ano).getSaldoDolares();
     }
 
-    // Regenera extratos de um período
-    public void regenerarExtratosPeriodo(LocalDate dataInicio, LocalDate dataFim) {
-        LocalDate dataAtual = dataInicio;
+    // Dias de maior movimento (créditos + débitos), do maior para o menor
+    @Transactional(readOnly = true)
+    public List<DiaExtratoDTO> buscarDiasMaiorMovimento(int pagina, int tamanho) {
+        return rankingExtratoService.buscarMaioresMovimentos(pagina, tamanho);
+    }
+
+    // Dias de saldo negativo, do mais negativo para o menos negativo
+    @Transactional(readOnly = true)
+    public List<DiaExtratoDTO> buscarDiasSaldoNegativo(int pagina, int tamanho) {
+        return rankingExtratoService.buscarPioresSaldos(pagina, tamanho);
+    }
 
-        while (!dataAtual.isAfter(dataFim)) {
-            atualizarExtratoDia(dataAtual);
-            dataAtual = dataAtual.plusDays(1);
+    // Reconstrói os totais mensais e anuais a partir do extrato diário; sem anos informados, refaz todos
+    public int reconstruirResumos(Integer anoInicio, Integer anoFim) {
+        if (anoInicio == null || anoFim == null) {
+            return resumoExtratoService.reconstruirTodos();
         }
+        return resumoExtratoService.reconstruir(anoInicio, anoFim);
+    }
+
+    // Regenera extratos de um período com uma consulta agrupada e gravação em lote
+    public void regenerarExtratosPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        regeneracaoExtratoService.regenerar(dataInicio, dataFim);
+        // A gravação em lote não passa pelo registrarDelta; refaz os anos tocados
+        resumoExtratoService.reconstruir(dataInicio.getYear(), dataFim.getYear());
+        rankingExtratoService.invalidar();
     }
 }
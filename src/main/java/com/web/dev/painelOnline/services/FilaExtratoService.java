@@ -0,0 +1,101 @@
+package com.web.dev.painelOnline.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Datas com extrato pendente de recálculo no modo assíncrono.
+// Várias alterações no mesmo dia viram uma única entrada. Datas retiradas pelo processador ficam
+// "em processamento" até o recálculo terminar, para quem sincroniza o dia esperar o commit dele.
+@Service
+public class FilaExtratoService {
+
+    private final ConcurrentSkipListSet<LocalDate> datasPendentes = new ConcurrentSkipListSet<>();
+
+    // Protegido pelo monitor da fila: uma data retirada nunca fica fora dos dois conjuntos ao mesmo tempo
+    private final Set<LocalDate> datasEmProcessamento = new HashSet<>();
+
+    // Tempo máximo esperando o processador terminar um dia; ao esgotar, a sincronização é refeita como conflito
+    @Value("${extrato.assincrono.espera-ms:5000}")
+    private long esperaMs = 5000;
+
+    // Marca a data como pendente só depois do commit, para o processamento não ler dados não confirmados
+    public void marcarPendente(LocalDate data) {
+        if (data == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    datasPendentes.add(data);
+                }
+            });
+        } else {
+            datasPendentes.add(data);
+        }
+    }
+
+    // Remove e devolve todas as datas pendentes em ordem crescente, marcadas como em processamento.
+    // Quem retira precisa chamar concluir(data) para cada uma ao terminar, com sucesso ou não.
+    public synchronized List<LocalDate> retirarPendentes() {
+        List<LocalDate> datas = new ArrayList<>();
+        LocalDate data;
+        while ((data = datasPendentes.pollFirst()) != null) {
+            datas.add(data);
+            datasEmProcessamento.add(data);
+        }
+        return datas;
+    }
+
+    // Fim do recálculo (já confirmado ou devolvido à fila) de uma data retirada com retirarPendentes
+    public synchronized void concluir(LocalDate data) {
+        if (datasEmProcessamento.remove(data)) {
+            notifyAll();
+        }
+    }
+
+    // Remove uma data da fila; retorna true se ela estava pendente
+    public synchronized boolean retirar(LocalDate data) {
+        return datasPendentes.remove(data);
+    }
+
+    // Espera o processador terminar a data, se ela estiver em processamento; retorna true se esperou
+    public synchronized boolean aguardarProcessamento(LocalDate data) {
+        if (!datasEmProcessamento.contains(data)) {
+            return false;
+        }
+        long limite = System.nanoTime() + esperaMs * 1_000_000L;
+        try {
+            while (datasEmProcessamento.contains(data)) {
+                long restanteMs = (limite - System.nanoTime()) / 1_000_000L;
+                if (restanteMs <= 0) {
+                    throw new CannotAcquireLockException("Tempo esgotado aguardando o recálculo assíncrono do extrato do dia.");
+                }
+                wait(restanteMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrompido aguardando o recálculo assíncrono do extrato do dia.", e);
+        }
+        return true;
+    }
+
+    // Devolve uma data à fila imediatamente (ex.: falha no processamento)
+    public void devolver(LocalDate data) {
+        datasPendentes.add(data);
+    }
+
+    public int quantidadePendentes() {
+        return datasPendentes.size();
+    }
+}
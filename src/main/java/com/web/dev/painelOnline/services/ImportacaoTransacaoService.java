@@ -0,0 +1,313 @@
+package com.web.dev.painelOnline.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.dto.ResultadoImportacaoDTO;
+import com.web.dev.painelOnline.dto.TransacaoImportacaoDTO;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.TransacaoJdbcRepository;
+import com.web.dev.painelOnline.util.Csv;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Importação em lote de transações (array JSON ou CSV), lida em fluxo e gravada em lotes JDBC.
+// Tudo ou nada: a primeira linha inválida desfaz a importação inteira.
+// O extrato não é atualizado por linha; depois do commit o intervalo importado é regenerado uma vez.
+@Service
+public class ImportacaoTransacaoService {
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final String[] COLUNAS = {
+            "data", "caracteristica", "valorreais", "taxacambio", "tipotransacao", "statuspagamento", "tipopagamento"
+    };
+
+    @Autowired
+    private TransacaoJdbcRepository transacaoJdbcRepository;
+
+    @Autowired
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Autowired
+    private IndiceMovimentosService indiceMovimentosService;
+
+    @Autowired
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @Autowired
+    private AutocompletarService autocompletarService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${transacao.importacao.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+
+    @Value("${transacao.vencimento.prazo-padrao-dias:30}")
+    private int prazoVencimentoDias = 30;
+
+    // Corpo no formato [{"data": "2024-01-31", "caracteristica": ..., ...}, ...]
+    public ResultadoImportacaoDTO importarJson(InputStream entrada) {
+        Lote lote = transactionTemplate.execute(status -> {
+            Lote novo = new Lote();
+            lerJson(entrada, novo);
+            novo.gravarPendentes();
+            return novo;
+        });
+        return concluir(lote);
+    }
+
+    // Primeira linha com os nomes das colunas (mesmos campos do JSON, em qualquer ordem), separador ',' ou ';'.
+    // dataVencimento é opcional; sem ela as transações a prazo vencem no prazo padrão.
+    public ResultadoImportacaoDTO importarCsv(InputStream entrada) {
+        Lote lote = transactionTemplate.execute(status -> {
+            Lote novo = new Lote();
+            lerCsv(entrada, novo);
+            novo.gravarPendentes();
+            return novo;
+        });
+        return concluir(lote);
+    }
+
+    private void lerJson(InputStream entrada, Lote lote) {
+        try (JsonParser parser = objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON de transações.");
+            }
+            int item = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                item++;
+                TransacaoImportacaoDTO linha;
+                try {
+                    linha = parser.readValueAs(TransacaoImportacaoDTO.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Item " + item + ": " + e.getOriginalMessage());
+                }
+                lote.adicionar(linha, "Item " + item);
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Item " + (item + 1) + ": esperado um objeto de transação.");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void lerCsv(InputStream entrada, Lote lote) {
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String cabecalho = leitor.readLine();
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("CSV vazio.");
+            }
+            // BOM de arquivos salvos pelo Excel
+            if (cabecalho.startsWith("\uFEFF")) {
+                cabecalho = cabecalho.substring(1);
+            }
+            char separador = Csv.detectarSeparador(cabecalho);
+            Map<String, Integer> posicoes = posicoesColunas(Csv.separar(cabecalho, separador));
+
+            String linha;
+            int numero = 1;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                String referencia = "Linha " + numero;
+                TransacaoImportacaoDTO dto;
+                try {
+                    dto = paraDto(Csv.separar(linha, separador), posicoes);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    throw new IllegalArgumentException(referencia + ": " + e.getMessage());
+                }
+                lote.adicionar(dto, referencia);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Integer> posicoesColunas(List<String> cabecalho) {
+        Map<String, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            posicoes.put(cabecalho.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        for (String coluna : COLUNAS) {
+            if (!posicoes.containsKey(coluna)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + coluna);
+            }
+        }
+        return posicoes;
+    }
+
+    private TransacaoImportacaoDTO paraDto(List<String> campos, Map<String, Integer> posicoes) {
+        TransacaoImportacaoDTO dto = new TransacaoImportacaoDTO();
+        dto.setData(lerData(campo(campos, posicoes, "data")));
+        dto.setCaracteristica(campo(campos, posicoes, "caracteristica"));
+        dto.setValorReais(lerValor(campo(campos, posicoes, "valorreais"), "valorReais"));
+        dto.setTaxaCambio(lerValor(campo(campos, posicoes, "taxacambio"), "taxaCambio"));
+        dto.setTipoTransacao(lerEnum(TipoTransacao.class, campo(campos, posicoes, "tipotransacao"), "tipoTransacao"));
+        dto.setStatusPagamento(lerEnum(StatusPagamento.class, campo(campos, posicoes, "statuspagamento"), "statusPagamento"));
+        dto.setTipoPagamento(lerEnum(TipoPagamento.class, campo(campos, posicoes, "tipopagamento"), "tipoPagamento"));
+        if (posicoes.containsKey("datavencimento")) {
+            dto.setDataVencimento(lerData(campo(campos, posicoes, "datavencimento")));
+        }
+        return dto;
+    }
+
+    private String campo(List<String> campos, Map<String, Integer> posicoes, String coluna) {
+        int posicao = posicoes.get(coluna);
+        if (posicao >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(posicao).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Aceita 2024-01-31 ou 31/01/2024
+    private LocalDate lerData(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        return valor.indexOf('/') >= 0 ? LocalDate.parse(valor, DATA_BR) : LocalDate.parse(valor);
+    }
+
+    // Aceita ponto ou vírgula como separador decimal (1234.56 ou 1234,56)
+    private BigDecimal lerValor(String valor, String nome) {
+        if (valor == null) {
+            return null;
+        }
+        String normalizado = valor.indexOf('.') < 0 ? valor.replace(',', '.') : valor;
+        try {
+            return new BigDecimal(normalizado);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(nome + " inválido: " + valor);
+        }
+    }
+
+    private <E extends Enum<E>> E lerEnum(Class<E> tipo, String valor, String nome) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(tipo, valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(nome + " inválido: " + valor);
+        }
+    }
+
+    // Com as transações já confirmadas, refaz índices e extrato uma vez para o intervalo importado
+    private ResultadoImportacaoDTO concluir(Lote lote) {
+        ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO(lote.total, lote.dataInicio, lote.dataFim);
+        if (lote.total == 0) {
+            resultado.setExtratoAtualizado(true);
+            return resultado;
+        }
+
+        indiceMovimentosService.recarregar();
+        // O lote JDBC não devolve os ids; o índice de busca é relido
+        indiceCaracteristicaService.recarregar();
+        autocompletarService.recarregarCaracteristicas();
+        try {
+            extratoFinanceiroService.regenerarExtratosPeriodo(lote.dataInicio, lote.dataFim);
+            resultado.setExtratoAtualizado(true);
+        } catch (RuntimeException e) {
+            System.out.println("Transações importadas, mas o extrato de " + lote.dataInicio + " a "
+                    + lote.dataFim + " não foi regenerado: " + e.getMessage());
+            resultado.setErroExtrato(e.getMessage());
+        }
+        return resultado;
+    }
+
+    static void validar(TransacaoImportacaoDTO linha) {
+        if (linha.getData() == null) {
+            throw new IllegalArgumentException("data é obrigatória.");
+        }
+        if (linha.getCaracteristica() == null || linha.getCaracteristica().isBlank()) {
+            throw new IllegalArgumentException("caracteristica é obrigatória.");
+        }
+        if (linha.getCaracteristica().length() > 500) {
+            throw new IllegalArgumentException("caracteristica excede 500 caracteres.");
+        }
+        if (linha.getValorReais() == null || linha.getValorReais().signum() < 0) {
+            throw new IllegalArgumentException("valorReais é obrigatório e não pode ser negativo.");
+        }
+        if (linha.getTaxaCambio() == null || linha.getTaxaCambio().signum() <= 0) {
+            throw new IllegalArgumentException("taxaCambio é obrigatória e deve ser maior que zero.");
+        }
+        if (linha.getTipoTransacao() == null || linha.getStatusPagamento() == null || linha.getTipoPagamento() == null) {
+            throw new IllegalArgumentException("tipoTransacao, statusPagamento e tipoPagamento são obrigatórios.");
+        }
+    }
+
+    // Acumula as linhas válidas e grava a cada tamanhoLote; guarda o intervalo de datas importado
+    private final class Lote {
+        private final List<Transacao> pendentes = new ArrayList<>(tamanhoLote);
+        private int total;
+        private LocalDate dataInicio;
+        private LocalDate dataFim;
+
+        private void adicionar(TransacaoImportacaoDTO linha, String referencia) {
+            try {
+                validar(linha);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(referencia + ": " + e.getMessage());
+            }
+
+            Transacao transacao = new Transacao(linha.getData(), linha.getCaracteristica().trim(),
+                    linha.getValorReais(), linha.getTaxaCambio(), linha.getTipoTransacao(),
+                    linha.getStatusPagamento(), linha.getTipoPagamento());
+            transacao.setDataVencimento(linha.getDataVencimento());
+            transacao.definirVencimentoPadrao(prazoVencimentoDias);
+            transacao.recalcularValorDolares();
+            pendentes.add(transacao);
+            total++;
+
+            if (dataInicio == null || linha.getData().isBefore(dataInicio)) {
+                dataInicio = linha.getData();
+            }
+            if (dataFim == null || linha.getData().isAfter(dataFim)) {
+                dataFim = linha.getData();
+            }
+            if (pendentes.size() >= tamanhoLote) {
+                gravarPendentes();
+            }
+        }
+
+        private void gravarPendentes() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            transacaoJdbcRepository.inserirEmLote(pendentes, tamanhoLote);
+            pendentes.clear();
+        }
+    }
+}
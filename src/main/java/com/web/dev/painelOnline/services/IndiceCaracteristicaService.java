@@ -0,0 +1,284 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.CaracteristicaDTO;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido em memória de trigramas da característica das transações, para a busca por
+// trecho sem LIKE '%...%' (varredura da tabela). O texto é normalizado sem acentos e em minúsculas;
+// cada trigrama guarda os ids em ordem num long[]. A busca cruza as listas dos trigramas do termo e
+// confere o trecho no texto normalizado, então não há falso positivo. Carregado na inicialização e
+// atualizado após o commit de cada escrita, como o índice de movimentos (inclusive na recarga, que
+// reaplica no índice novo as alterações commitadas depois do snapshot lido).
+@Service
+public class IndiceCaracteristicaService {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final long[] NENHUM = new long[0];
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Linhas por consulta na carga inicial
+    @Value("${transacao.busca.tamanho-carga:5000}")
+    private int tamanhoCarga = 5000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RecargaIndice recarga = new RecargaIndice();
+
+    // Trigrama (três chars em 48 bits) -> ids em ordem crescente
+    private Map<Long, Postagens> trigramas = new HashMap<>();
+    // Id -> característica normalizada, para conferir o trecho e remover na alteração
+    private Map<Long, String> textos = new HashMap<>();
+
+    private volatile boolean pronto = false;
+
+    @PostConstruct
+    public void carregar() {
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            // Sem o índice a busca continua indo ao banco
+            System.out.println("Índice de características não carregado, usando consultas no banco: " + e.getMessage());
+        }
+    }
+
+    // Relê id e característica de todas as transações, em páginas pela chave primária, num único snapshot
+    public void recarregar() {
+        recarga.recarregar(transactionTemplate, transacaoRepository::findMaiorId, this::lerCaracteristicas, novo -> {
+            lock.writeLock().lock();
+            try {
+                trigramas = novo.trigramas;
+                textos = novo.textos;
+                pronto = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    // Indexa (ou reindexa) a característica da transação depois do commit
+    public void registrar(Long id, String caracteristica) {
+        recarga.aposCommit(() -> {
+            if (!pronto) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                desindexar(id);
+                indexar(trigramas, textos, id, caracteristica);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Retira a transação do índice depois do commit
+    public void remover(Long id) {
+        recarga.aposCommit(() -> {
+            if (!pronto) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                desindexar(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Ids (em ordem crescente) das transações cuja característica contém o termo, ignorando acentos e caixa
+    public long[] buscar(String termo) {
+        String normalizado = normalizar(termo);
+        lock.readLock().lock();
+        try {
+            // Termo curto demais para trigramas: confere os textos em memória
+            if (normalizado.length() < 3) {
+                return filtrarTextos(normalizado);
+            }
+
+            long[] chaves = chaves(normalizado);
+            Postagens[] listas = new Postagens[chaves.length];
+            for (int i = 0; i < chaves.length; i++) {
+                listas[i] = trigramas.get(chaves[i]);
+                if (listas[i] == null) {
+                    return NENHUM;
+                }
+            }
+            // Começa pela lista mais curta; as demais só são consultadas por busca binária
+            Arrays.sort(listas, (a, b) -> Integer.compare(a.tamanho, b.tamanho));
+            Postagens menor = listas[0];
+            long[] encontrados = new long[menor.tamanho];
+            int total = 0;
+            for (int i = 0; i < menor.tamanho; i++) {
+                long id = menor.ids[i];
+                boolean emTodas = true;
+                for (int j = 1; j < listas.length && emTodas; j++) {
+                    emTodas = listas[j].contem(id);
+                }
+                // Os trigramas podem estar em posições diferentes; o trecho inteiro é conferido no texto
+                if (emTodas && textos.get(id).contains(normalizado)) {
+                    encontrados[total++] = id;
+                }
+            }
+            return Arrays.copyOf(encontrados, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sem acentos (NFD sem marcas combinantes) e em minúsculas
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private long[] filtrarTextos(String normalizado) {
+        long[] encontrados = new long[textos.size()];
+        int total = 0;
+        for (Map.Entry<Long, String> texto : textos.entrySet()) {
+            if (texto.getValue().contains(normalizado)) {
+                encontrados[total++] = texto.getKey();
+            }
+        }
+        long[] resultado = Arrays.copyOf(encontrados, total);
+        Arrays.sort(resultado);
+        return resultado;
+    }
+
+    private void indexar(Map<Long, Postagens> destino, Map<Long, String> textosDestino, Long id, String caracteristica) {
+        String normalizado = normalizar(caracteristica);
+        textosDestino.put(id, normalizado);
+        for (long chave : chaves(normalizado)) {
+            destino.computeIfAbsent(chave, c -> new Postagens()).adicionar(id);
+        }
+    }
+
+    private void desindexar(Long id) {
+        String anterior = textos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (long chave : chaves(anterior)) {
+            Postagens postagens = trigramas.get(chave);
+            if (postagens != null && postagens.remover(id) && postagens.tamanho == 0) {
+                trigramas.remove(chave);
+            }
+        }
+    }
+
+    // Trigramas distintos do texto, cada um com os três chars num long
+    private static long[] chaves(String texto) {
+        if (texto.length() < 3) {
+            return NENHUM;
+        }
+        long[] chaves = new long[texto.length() - 2];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        Arrays.sort(chaves);
+        int distintos = 0;
+        for (int i = 0; i < chaves.length; i++) {
+            if (i == 0 || chaves[i] != chaves[i - 1]) {
+                chaves[distintos++] = chaves[i];
+            }
+        }
+        return Arrays.copyOf(chaves, distintos);
+    }
+
+    private Carga lerCaracteristicas() {
+        Carga carga = new Carga();
+        long ultimoId = 0L;
+        while (true) {
+            List<CaracteristicaDTO> pagina = transacaoRepository.findCaracteristicasAposId(ultimoId, PageRequest.of(0, tamanhoCarga));
+            for (CaracteristicaDTO linha : pagina) {
+                indexar(carga.trigramas, carga.textos, linha.getId(), linha.getCaracteristica());
+                ultimoId = linha.getId();
+            }
+            if (pagina.size() < tamanhoCarga) {
+                break;
+            }
+        }
+        for (Postagens postagens : carga.trigramas.values()) {
+            postagens.compactar();
+        }
+        return carga;
+    }
+
+    private static final class Carga {
+        private final Map<Long, Postagens> trigramas = new HashMap<>();
+        private final Map<Long, String> textos = new HashMap<>();
+    }
+
+    // Lista de ids em ordem crescente num long[] que cresce por dobra; ids novos quase sempre vão para o fim
+    private static final class Postagens {
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        private void adicionar(long id) {
+            if (tamanho > 0 && ids[tamanho - 1] >= id) {
+                int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+                if (posicao >= 0) {
+                    return;
+                }
+                inserirEm(-posicao - 1, id);
+                return;
+            }
+            inserirEm(tamanho, id);
+        }
+
+        private void inserirEm(int posicao, long id) {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        private boolean remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        private boolean contem(long id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id) >= 0;
+        }
+
+        // Depois da carga, devolve a folga do crescimento por dobra
+        private void compactar() {
+            if (ids.length > tamanho) {
+                ids = Arrays.copyOf(ids, tamanho);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.MovimentoDiarioDTO;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.util.Centavos;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice em memória dos créditos e débitos por dia, em centavos, em duas árvores de Fenwick
+// indexadas pelo dia (epoch day). Responde saldo acumulado e totais de período em O(log n)
+// sem ir ao banco. É carregado na inicialização e atualizado após o commit de cada transação;
+// a recarga é ordenada com esses commits por RecargaIndice, para nenhum movimento contar duas vezes.
+@Service
+public class IndiceMovimentosService {
+
+    // Folga de dias criada ao redor do intervalo carregado, para evitar realocar a cada data nova
+    private static final int FOLGA_DIAS = 366;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final RecargaIndice recarga = new RecargaIndice();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Epoch day da posição 0
+    private long diaBase;
+    private long[] creditosDia = new long[0];
+    private long[] debitosDia = new long[0];
+    private ArvoreFenwick creditos = new ArvoreFenwick(0);
+    private ArvoreFenwick debitos = new ArvoreFenwick(0);
+
+    private volatile boolean pronto = false;
+
+    @PostConstruct
+    public void carregar() {
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            // Sem o índice as consultas continuam indo ao banco
+            System.out.println("Índice de movimentos não carregado, usando consultas no banco: " + e.getMessage());
+        }
+    }
+
+    // Relê os movimentos diários do banco e reconstrói as árvores
+    public void recarregar() {
+        recarga.recarregar(transactionTemplate, transacaoRepository::findMaiorId, this::lerMovimentos, carga -> {
+            lock.writeLock().lock();
+            try {
+                diaBase = carga.diaBase;
+                creditosDia = carga.creditosDia;
+                debitosDia = carga.debitosDia;
+                creditos = ArvoreFenwick.de(creditosDia);
+                debitos = ArvoreFenwick.de(debitosDia);
+                pronto = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Aplica a alteração de uma transação depois do commit; anterior é null na criação e atual na exclusão
+    public void registrarAlteracao(MovimentoExtrato anterior, MovimentoExtrato atual) {
+        recarga.aposCommit(() -> aplicar(anterior, atual));
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    // Saldo (créditos - débitos) de todas as transações até a data, inclusive
+    public BigDecimal calcularSaldoAteData(LocalDate data) {
+        lock.readLock().lock();
+        try {
+            int posicao = posicaoLimitada(data);
+            return Centavos.paraBigDecimal(creditos.prefixo(posicao) - debitos.prefixo(posicao));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BigDecimal calcularTotalCreditosPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        lock.readLock().lock();
+        try {
+            return Centavos.paraBigDecimal(creditos.intervalo(posicaoLimitada(dataInicio.minusDays(1)) + 1, posicaoLimitada(dataFim)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BigDecimal calcularTotalDebitosPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        lock.readLock().lock();
+        try {
+            return Centavos.paraBigDecimal(debitos.intervalo(posicaoLimitada(dataInicio.minusDays(1)) + 1, posicaoLimitada(dataFim)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(MovimentoExtrato anterior, MovimentoExtrato atual) {
+        if (!pronto) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            somar(anterior, -1);
+            somar(atual, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void somar(MovimentoExtrato movimento, int sinal) {
+        if (movimento == null) {
+            return;
+        }
+        garantirPosicao(movimento.getData());
+        int posicao = (int) (movimento.getData().toEpochDay() - diaBase);
+
+        long deltaCreditos = sinal * Centavos.de(movimento.getCreditos());
+        long deltaDebitos = sinal * Centavos.de(movimento.getDebitos());
+        if (deltaCreditos != 0) {
+            creditosDia[posicao] += deltaCreditos;
+            creditos.somar(posicao, deltaCreditos);
+        }
+        if (deltaDebitos != 0) {
+            debitosDia[posicao] += deltaDebitos;
+            debitos.somar(posicao, deltaDebitos);
+        }
+    }
+
+    // Realoca as árvores quando a data cai fora do intervalo coberto
+    private void garantirPosicao(LocalDate data) {
+        long dia = data.toEpochDay();
+        long fimAtual = diaBase + creditosDia.length;
+        if (dia >= diaBase && dia < fimAtual) {
+            return;
+        }
+
+        long novoInicio = Math.min(diaBase, dia - FOLGA_DIAS);
+        long novoFim = Math.max(fimAtual, dia + FOLGA_DIAS);
+        int deslocamento = (int) (diaBase - novoInicio);
+        long[] novosCreditos = new long[(int) (novoFim - novoInicio)];
+        long[] novosDebitos = new long[novosCreditos.length];
+        System.arraycopy(creditosDia, 0, novosCreditos, deslocamento, creditosDia.length);
+        System.arraycopy(debitosDia, 0, novosDebitos, deslocamento, debitosDia.length);
+
+        diaBase = novoInicio;
+        creditosDia = novosCreditos;
+        debitosDia = novosDebitos;
+        creditos = ArvoreFenwick.de(creditosDia);
+        debitos = ArvoreFenwick.de(debitosDia);
+    }
+
+    // Monta os valores por dia fora da trava; as leituras seguem respondendo pelas árvores atuais
+    private Carga lerMovimentos() {
+        LocalDate primeiraData = transacaoRepository.findPrimeiraData();
+        LocalDate ultimaData = transacaoRepository.findUltimaData();
+        if (primeiraData == null || ultimaData == null) {
+            LocalDate hoje = LocalDate.now();
+            return new Carga(hoje.toEpochDay() - FOLGA_DIAS, 2 * FOLGA_DIAS);
+        }
+
+        long inicio = primeiraData.toEpochDay() - FOLGA_DIAS;
+        Carga carga = new Carga(inicio, (int) (ultimaData.toEpochDay() - inicio) + 1 + FOLGA_DIAS);
+        for (MovimentoDiarioDTO movimento : transacaoRepository.somarMovimentosPorDia(primeiraData, ultimaData)) {
+            int posicao = (int) (movimento.getData().toEpochDay() - inicio);
+            carga.creditosDia[posicao] += Centavos.de(movimento.getTotalCreditos());
+            carga.debitosDia[posicao] += Centavos.de(movimento.getTotalDebitos());
+        }
+        return carga;
+    }
+
+    private static final class Carga {
+        private final long diaBase;
+        private final long[] creditosDia;
+        private final long[] debitosDia;
+
+        private Carga(long diaBase, int tamanho) {
+            this.diaBase = diaBase;
+            this.creditosDia = new long[tamanho];
+            this.debitosDia = new long[tamanho];
+        }
+    }
+
+    // Posição da data na árvore; datas antes do início viram -1 e depois do fim viram a última posição
+    private int posicaoLimitada(LocalDate data) {
+        long posicao = data.toEpochDay() - diaBase;
+        if (posicao < 0) {
+            return -1;
+        }
+        return (int) Math.min(posicao, creditosDia.length - 1L);
+    }
+}
@@ -1,17 +1,45 @@
 package com.web.dev.painelOnline.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.Config.RepetirEmConflito;
+import com.web.dev.painelOnline.Enum.TipoOperacaoItem;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.OperacaoItemDTO;
+import com.web.dev.painelOnline.dto.OperacoesItensDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoOperacoesItensDTO;
 import com.web.dev.painelOnline.entities.ItemNota;
 import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ItemNotaJdbcRepository;
 import com.web.dev.painelOnline.repository.ItemNotaRepository;
 import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.util.Centavos;
+import com.web.dev.painelOnline.util.CursorItemNota;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -26,9 +54,34 @@ public class ItemNotaService {
     @Autowired
     private ExtratoFinanceiroService extratoFinanceiroService;
 
+    @Autowired
+    private AutocompletarService autocompletarService;
+
+    @Autowired
+    private ItemNotaJdbcRepository itemNotaJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Operações aceitas num lote de itens
+    static final int MAXIMO_OPERACOES = 1000;
+
+    // Linhas por lote JDBC nas escritas do lote de itens
+    @Value("${transacao.itens.tamanho-lote:1000}")
+    private int tamanhoLoteItens = 1000;
+
+    // Mesmos limites de página da listagem de transações
+    @Value("${transacao.paginacao.tamanho-padrao:100}")
+    private int tamanhoPaginaPadrao = 100;
+
+    @Value("${transacao.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo = 500;
+
     // Cria item validando os dados e associando a transacao gerenciada
+    @RepetirEmConflito
     public ItemNota criarItem(ItemNota item) {
         validarItemBasico(item);
+        item.setId(null);
 
         if (item.getTransacao() == null || item.getTransacao().getId() == null) {
             throw new IllegalArgumentException("Campo 'transacao.id' é obrigatório.");
@@ -47,23 +100,30 @@ public class ItemNotaService {
         item.setValorTotal(calcularValorTotalItem(item));
 
         ItemNota salvo = itemNotaRepository.save(item);
+        transacaoRepository.somarResumoItens(transacao.getId(), 1, salvo.getValorTotal());
+        autocompletarService.registrarDescricao(null, salvo.getDescricao());
 
         // Atualiza extrato do dia da transacao
         LocalDate dataTransacao = transacao.getData();
-        extratoFinanceiroService.atualizarExtratoDia(dataTransacao);
+        extratoFinanceiroService.revisarExtratoDia(dataTransacao);
 
         return salvo;
     }
 
+    @RepetirEmConflito
     public ItemNota atualizarItem(Long id, ItemNota item) {
-        Optional<ItemNota> existingOpt = itemNotaRepository.findById(id);
+        Optional<ItemNota> existingOpt = itemNotaRepository.findByIdParaAtualizar(id);
         if (!existingOpt.isPresent()) {
             throw new RuntimeException("ItemNota não encontrada com id: " + id);
         }
 
         ItemNota existente = existingOpt.get();
+        String descricaoAnterior = existente.getDescricao();
+        BigDecimal valorAnterior = existente.getValorTotal();
+        Long transacaoAnteriorId = null;
         LocalDate dataTransacaoAnterior = null;
         if (existente.getTransacao() != null) {
+            transacaoAnteriorId = existente.getTransacao().getId();
             dataTransacaoAnterior = existente.getTransacao().getData();
         }
 
@@ -83,22 +143,43 @@ public class ItemNotaService {
         existente.setValorTotal(calcularValorTotalItem(existente));
 
         ItemNota atualizado = itemNotaRepository.save(existente);
+        autocompletarService.registrarDescricao(descricaoAnterior, atualizado.getDescricao());
+
+        // Resumo de itens: o item sai da transação anterior e entra na atual (ou só muda de valor)
+        Long transacaoAtualId = atualizado.getTransacao() != null ? atualizado.getTransacao().getId() : null;
+        if (transacaoAnteriorId != null && transacaoAnteriorId.equals(transacaoAtualId)) {
+            BigDecimal delta = atualizado.getValorTotal().subtract(valorAnterior);
+            if (delta.signum() != 0) {
+                transacaoRepository.somarResumoItens(transacaoAtualId, 0, delta);
+            }
+        } else {
+            if (transacaoAnteriorId != null) {
+                transacaoRepository.somarResumoItens(transacaoAnteriorId, -1, valorAnterior.negate());
+            }
+            if (transacaoAtualId != null) {
+                transacaoRepository.somarResumoItens(transacaoAtualId, 1, atualizado.getValorTotal());
+            }
+        }
 
         // Atualiza extratos
         LocalDate dataTransacaoAtual = atualizado.getTransacao() != null ? atualizado.getTransacao().getData() : null;
 
+        // Item que muda de dia revisa os dois numa chamada só, com as duas faixas travadas juntas
+        Set<LocalDate> dias = new TreeSet<>();
         if (dataTransacaoAnterior != null) {
-            extratoFinanceiroService.atualizarExtratoDia(dataTransacaoAnterior);
+            dias.add(dataTransacaoAnterior);
         }
-        if (dataTransacaoAtual != null && !dataTransacaoAtual.equals(dataTransacaoAnterior)) {
-            extratoFinanceiroService.atualizarExtratoDia(dataTransacaoAtual);
+        if (dataTransacaoAtual != null) {
+            dias.add(dataTransacaoAtual);
         }
+        extratoFinanceiroService.revisarExtratoDias(dias);
 
         return atualizado;
     }
 
+    @RepetirEmConflito
     public void excluirItem(Long id) {
-        Optional<ItemNota> existingOpt = itemNotaRepository.findById(id);
+        Optional<ItemNota> existingOpt = itemNotaRepository.findByIdParaAtualizar(id);
         if (!existingOpt.isPresent()) {
             throw new RuntimeException("ItemNota não encontrada com id: " + id);
         }
@@ -106,17 +187,207 @@ public class ItemNotaService {
         ItemNota existente = existingOpt.get();
         LocalDate dataTransacao = existente.getTransacao() != null ? existente.getTransacao().getData() : null;
 
+        Long transacaoId = existente.getTransacao() != null ? existente.getTransacao().getId() : null;
+
         itemNotaRepository.deleteById(id);
+        autocompletarService.registrarDescricao(existente.getDescricao(), null);
+        if (transacaoId != null) {
+            transacaoRepository.somarResumoItens(transacaoId, -1, existente.getValorTotal().negate());
+        }
 
         // Atualiza extrato do dia da transacao
         if (dataTransacao != null) {
-            extratoFinanceiroService.atualizarExtratoDia(dataTransacao);
+            extratoFinanceiroService.revisarExtratoDia(dataTransacao);
+        }
+    }
+
+    // Aplica criações, alterações e exclusões de itens numa só transação: uma leitura dos itens e uma das
+    // transações envolvidas, um lote JDBC por tipo de escrita, um UPDATE de resumo por transação tocada e
+    // uma revisão do extrato por dia. Qualquer operação inválida desfaz o lote inteiro.
+    @RepetirEmConflito
+    public ResultadoOperacoesItensDTO aplicarOperacoes(OperacoesItensDTO request) {
+        List<OperacaoItemDTO> operacoes = request != null ? request.getOperacoes() : null;
+        if (operacoes == null || operacoes.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma operação.");
+        }
+        if (operacoes.size() > MAXIMO_OPERACOES) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_OPERACOES + " operações por lote.");
+        }
+
+        // Valida o formato de cada operação e junta os ids para ler tudo de uma vez
+        Set<Long> idsItens = new HashSet<>();
+        Set<Long> idsTransacoes = new HashSet<>();
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoItemDTO operacao = operacoes.get(i);
+            try {
+                validarOperacao(operacao, idsItens);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Operação " + (i + 1) + ": " + e.getMessage());
+            }
+            if (operacao.getTransacaoId() != null && operacao.getTipo() != TipoOperacaoItem.EXCLUIR) {
+                idsTransacoes.add(operacao.getTransacaoId());
+            }
+        }
+
+        Map<Long, ItemNotaDTO> atuais = new HashMap<>();
+        if (!idsItens.isEmpty()) {
+            for (ItemNotaDTO item : itemNotaRepository.findDtosPorIdsParaAtualizar(idsItens)) {
+                atuais.put(item.getId(), item);
+                idsTransacoes.add(item.getTransacaoId());
+            }
+        }
+        Map<Long, Transacao> transacoes = new HashMap<>();
+        for (Transacao transacao : transacaoRepository.findAllById(idsTransacoes)) {
+            transacoes.put(transacao.getId(), transacao);
+        }
+
+        Map<Long, List<ItemNota>> novosPorTransacao = new LinkedHashMap<>();
+        List<ItemNotaDTO> alterados = new ArrayList<>();
+        List<Long> excluidos = new ArrayList<>();
+        // Por transação: {delta de quantidade, delta de valor em centavos}; em ordem de id, a mesma em que
+        // as linhas de transacoes são travadas pelos UPDATEs de resumo
+        Map<Long, long[]> deltas = new TreeMap<>();
+        Set<LocalDate> dias = new TreeSet<>();
+        List<String> descricoesRemovidas = new ArrayList<>();
+        List<String> descricoesIncluidas = new ArrayList<>();
+        // Resultado de cada operação, preenchido depois dos lotes (os ids dos novos só existem após o INSERT)
+        Object[] resultados = new Object[operacoes.size()];
+
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoItemDTO operacao = operacoes.get(i);
+            ItemNotaDTO atual = null;
+            if (operacao.getTipo() != TipoOperacaoItem.CRIAR) {
+                atual = atuais.get(operacao.getId());
+                if (atual == null) {
+                    throw new IllegalArgumentException("Operação " + (i + 1) + ": ItemNota não encontrada com id: " + operacao.getId());
+                }
+                // O item sai da transação em que está (na alteração volta logo abaixo)
+                somarDelta(deltas, atual.getTransacaoId(), -1, -Centavos.de(atual.getValorTotal()));
+                dias.add(transacoes.get(atual.getTransacaoId()).getData());
+                descricoesRemovidas.add(atual.getDescricao());
+            }
+
+            if (operacao.getTipo() == TipoOperacaoItem.EXCLUIR) {
+                excluidos.add(atual.getId());
+                continue;
+            }
+
+            Long transacaoId = operacao.getTransacaoId() != null ? operacao.getTransacaoId() : atual.getTransacaoId();
+            Transacao transacao = transacoes.get(transacaoId);
+            if (transacao == null) {
+                throw new IllegalArgumentException("Operação " + (i + 1) + ": Transacao não encontrada para id: " + transacaoId);
+            }
+            String descricao = operacao.getDescricao() != null ? operacao.getDescricao() : atual.getDescricao();
+            Integer quantidade = operacao.getQuantidade() != null ? operacao.getQuantidade() : atual.getQuantidade();
+            BigDecimal valorUnitario = operacao.getValorUnitario() != null ? operacao.getValorUnitario() : atual.getValorUnitario();
+            long valorTotal = Centavos.multiplicar(Centavos.de(valorUnitario), quantidade);
+
+            somarDelta(deltas, transacaoId, 1, valorTotal);
+            dias.add(transacao.getData());
+            descricoesIncluidas.add(descricao);
+
+            if (operacao.getTipo() == TipoOperacaoItem.CRIAR) {
+                ItemNota novo = new ItemNota(descricao, quantidade, valorUnitario, transacao);
+                novo.setValorTotal(Centavos.paraBigDecimal(valorTotal));
+                novosPorTransacao.computeIfAbsent(transacaoId, id -> new ArrayList<>()).add(novo);
+                resultados[i] = novo;
+            } else {
+                ItemNotaDTO alterado = new ItemNotaDTO(atual.getId(), descricao, quantidade, valorUnitario,
+                        Centavos.paraBigDecimal(valorTotal), transacaoId);
+                alterados.add(alterado);
+                resultados[i] = alterado;
+            }
+        }
+
+        // Um lote por tipo de escrita (inserções agrupadas por transação)
+        for (Map.Entry<Long, List<ItemNota>> novos : novosPorTransacao.entrySet()) {
+            itemNotaJdbcRepository.inserirEmLote(transacoes.get(novos.getKey()), novos.getValue(), tamanhoLoteItens);
+        }
+        // Os itens estão travados desde a leitura, que já conferiu cada id pedido contra as linhas travadas.
+        // O lote de UPDATEs nem sempre informa a contagem por item, então só a falta confirmada de uma linha
+        // (ou uma exclusão com contagem diferente) desfaz o lote, e o @RepetirEmConflito tenta de novo
+        if (itemNotaJdbcRepository.atualizarEmLote(alterados, tamanhoLoteItens) > 0) {
+            throw new ConcurrencyFailureException("Itens alterados por outra operação durante o lote.");
+        }
+        if (!excluidos.isEmpty() && itemNotaRepository.excluirPorIds(excluidos) != excluidos.size()) {
+            throw new ConcurrencyFailureException("Itens excluídos por outra operação durante o lote.");
+        }
+
+        // Resumo de itens: um UPDATE por transação com a soma dos deltas do lote
+        for (Map.Entry<Long, long[]> delta : deltas.entrySet()) {
+            long[] valores = delta.getValue();
+            if (valores[0] != 0 || valores[1] != 0) {
+                transacaoRepository.somarResumoItens(delta.getKey(), (int) valores[0], Centavos.paraBigDecimal(valores[1]));
+            }
+        }
+        extratoFinanceiroService.revisarExtratoDias(dias);
+        autocompletarService.registrarDescricoes(descricoesRemovidas, descricoesIncluidas);
+
+        List<ItemNotaDTO> itens = new ArrayList<>();
+        for (Object resultado : resultados) {
+            if (resultado instanceof ItemNota novo) {
+                itens.add(ItemNotaDTO.de(novo));
+            } else if (resultado instanceof ItemNotaDTO alterado) {
+                itens.add(alterado);
+            }
         }
+        int criados = 0;
+        for (List<ItemNota> novos : novosPorTransacao.values()) {
+            criados += novos.size();
+        }
+        return new ResultadoOperacoesItensDTO(criados, alterados.size(), excluidos.size(), dias.size(), itens);
     }
 
+    // Página de itens em ordem de id, opcionalmente de uma transação e numa faixa de valor total.
+    // Projeção direta para DTO pela FK, sem carregar entidades nem a transação.
     @Transactional(readOnly = true)
-    public List<ItemNota> buscarTodosItens() {
-        return itemNotaRepository.findAllWithTransacao();
+    public PaginaDTO<ItemNotaDTO> buscarPaginaItens(Long transacaoId, BigDecimal valorMinimo, BigDecimal valorMaximo,
+                                                    String cursor, Integer tamanho) {
+        int limite = tamanho != null ? tamanho : tamanhoPaginaPadrao;
+        if (limite < 1 || limite > tamanhoPaginaMaximo) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + tamanhoPaginaMaximo + ".");
+        }
+        validarFaixaValor(valorMinimo, valorMaximo);
+
+        // Sem cursor começa antes do primeiro item (ids são sempre positivos)
+        long depoisDeId = cursor != null && !cursor.isBlank() ? CursorItemNota.decodificar(cursor).getId() : 0L;
+
+        // Um registro a mais só para saber se existe próxima página
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<ItemNotaDTO> itens = transacaoId != null
+                ? itemNotaRepository.findPaginaDtosDaTransacao(transacaoId, depoisDeId, valorMinimo, valorMaximo, pagina)
+                : itemNotaRepository.findPaginaDtos(depoisDeId, valorMinimo, valorMaximo, pagina);
+
+        String proximoCursor = null;
+        if (itens.size() > limite) {
+            itens = new ArrayList<>(itens.subList(0, limite));
+            proximoCursor = new CursorItemNota(itens.get(limite - 1).getId()).codificar();
+        }
+        return new PaginaDTO<>(itens, proximoCursor);
+    }
+
+    // Escreve os itens filtrados em NDJSON (um objeto por linha) enquanto chegam do cursor do banco
+    @Transactional(readOnly = true)
+    public int escreverItens(Long transacaoId, BigDecimal valorMinimo, BigDecimal valorMaximo,
+                             OutputStream saida) throws IOException {
+        validarFaixaValor(valorMinimo, valorMaximo);
+        // Os itens de uma transação são poucos e saem pelo índice da FK; a listagem geral vem em fluxo
+        Stream<ItemNotaDTO> linhas = transacaoId != null
+                ? itemNotaRepository.findPaginaDtosDaTransacao(transacaoId, 0L, valorMinimo, valorMaximo, Pageable.unpaged()).stream()
+                : itemNotaRepository.streamDtos(valorMinimo, valorMaximo);
+        int total = 0;
+        try (linhas; JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            // O gerador não fecha a saída; quem fecha é a resposta HTTP
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+            Iterator<ItemNotaDTO> iterador = linhas.iterator();
+            while (iterador.hasNext()) {
+                gerador.writeObject(iterador.next());
+                gerador.writeRaw('\n');
+                total++;
+            }
+        }
+        return total;
     }
 
     @Transactional(readOnly = true)
@@ -134,6 +405,52 @@ public class ItemNotaService {
         return itemNotaRepository.findByDescricaoContaining(descricao);
     }
 
+    // Campos obrigatórios por tipo; o mesmo item não pode aparecer em duas operações do lote
+    private void validarOperacao(OperacaoItemDTO operacao, Set<Long> idsItens) {
+        if (operacao == null || operacao.getTipo() == null) {
+            throw new IllegalArgumentException("Campo 'tipo' é obrigatório (CRIAR, ATUALIZAR ou EXCLUIR).");
+        }
+        if (operacao.getTipo() == TipoOperacaoItem.CRIAR) {
+            if (operacao.getTransacaoId() == null) {
+                throw new IllegalArgumentException("Campo 'transacaoId' é obrigatório.");
+            }
+            if (operacao.getDescricao() == null || operacao.getDescricao().trim().isEmpty()) {
+                throw new IllegalArgumentException("Campo 'descricao' é obrigatório.");
+            }
+            if (operacao.getQuantidade() == null) {
+                throw new IllegalArgumentException("Campo 'quantidade' deve ser maior que zero.");
+            }
+            if (operacao.getValorUnitario() == null) {
+                throw new IllegalArgumentException("Campo 'valorUnitario' é obrigatório.");
+            }
+        } else {
+            if (operacao.getId() == null) {
+                throw new IllegalArgumentException("Campo 'id' é obrigatório.");
+            }
+            if (!idsItens.add(operacao.getId())) {
+                throw new IllegalArgumentException("Item " + operacao.getId() + " aparece em mais de uma operação.");
+            }
+        }
+        if (operacao.getQuantidade() != null && operacao.getQuantidade() <= 0) {
+            throw new IllegalArgumentException("Campo 'quantidade' deve ser maior que zero.");
+        }
+        if (operacao.getDescricao() != null && operacao.getDescricao().trim().isEmpty()) {
+            throw new IllegalArgumentException("Campo 'descricao' não pode ser vazio.");
+        }
+    }
+
+    private static void somarDelta(Map<Long, long[]> deltas, Long transacaoId, int quantidade, long centavos) {
+        long[] delta = deltas.computeIfAbsent(transacaoId, id -> new long[2]);
+        delta[0] += quantidade;
+        delta[1] = Centavos.somar(delta[1], centavos);
+    }
+
+    private void validarFaixaValor(BigDecimal valorMinimo, BigDecimal valorMaximo) {
+        if (valorMinimo != null && valorMaximo != null && valorMinimo.compareTo(valorMaximo) > 0) {
+            throw new IllegalArgumentException("valorMinimo não pode ser maior que valorMaximo.");
+        }
+    }
+
     private void validarItemBasico(ItemNota item) {
         if (item.getDescricao() == null || item.getDescricao().trim().isEmpty()) {
             throw new IllegalArgumentException("Campo 'descricao' é obrigatório.");
@@ -150,6 +467,6 @@ public class ItemNotaService {
         if (item.getValorUnitario() == null || item.getQuantidade() == null) {
             return BigDecimal.ZERO;
         }
-        return item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade()));
+        return Centavos.paraBigDecimal(Centavos.multiplicar(Centavos.de(item.getValorUnitario()), item.getQuantidade()));
     }
 }
\ No newline at end of file
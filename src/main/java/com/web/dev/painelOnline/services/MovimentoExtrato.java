@@ -0,0 +1,43 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.entities.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Retrato do que uma transação representa no extrato (data, tipo e valor em dólares)
+public final class MovimentoExtrato {
+
+    private final LocalDate data;
+    private final TipoTransacao tipoTransacao;
+    private final BigDecimal valorDolares;
+
+    public MovimentoExtrato(LocalDate data, TipoTransacao tipoTransacao, BigDecimal valorDolares) {
+        this.data = data;
+        this.tipoTransacao = tipoTransacao;
+        this.valorDolares = valorDolares != null ? valorDolares : BigDecimal.ZERO;
+    }
+
+    // Retorna null quando a transação não tem data (não entra no extrato)
+    public static MovimentoExtrato de(Transacao transacao) {
+        if (transacao == null || transacao.getData() == null) {
+            return null;
+        }
+        return new MovimentoExtrato(transacao.getData(), transacao.getTipoTransacao(), transacao.getValorDolares());
+    }
+
+    public BigDecimal getCreditos() {
+        return tipoTransacao == TipoTransacao.CREDITO ? valorDolares : BigDecimal.ZERO;
+    }
+
+    public BigDecimal getDebitos() {
+        return tipoTransacao == TipoTransacao.DEBITO ? valorDolares : BigDecimal.ZERO;
+    }
+
+    public LocalDate getData() { return data; }
+
+    public TipoTransacao getTipoTransacao() { return tipoTransacao; }
+
+    public BigDecimal getValorDolares() { return valorDolares; }
+}
@@ -0,0 +1,208 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.Config.RepetirEmConflito;
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.dto.ParcelaDTO;
+import com.web.dev.painelOnline.dto.PlanoParcelamentoDTO;
+import com.web.dev.painelOnline.entities.Parcelamento;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ParcelamentoRepository;
+import com.web.dev.painelOnline.repository.TransacaoJdbcRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.util.Centavos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+// Parcelamentos: um plano gera N transações PARCELADO mensais, gravadas num único lote JDBC,
+// e o extrato dos dias das parcelas é atualizado numa só passada. Reprogramar e cancelar
+// mexem só nas parcelas em aberto (pendentes ou vencidas), cada operação com um UPDATE.
+@Service
+@Transactional
+public class ParcelamentoService {
+
+    public static final int MAXIMO_PARCELAS = 360;
+
+    @Autowired
+    private ParcelamentoRepository parcelamentoRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransacaoJdbcRepository transacaoJdbcRepository;
+
+    @Autowired
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Autowired
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @Autowired
+    private AutocompletarService autocompletarService;
+
+    // Cria o plano e todas as parcelas
+    @RepetirEmConflito
+    public PlanoParcelamentoDTO criar(Parcelamento parcelamento) {
+        validar(parcelamento);
+        parcelamento.setId(null);
+        parcelamento.setCaracteristica(parcelamento.getCaracteristica().trim());
+        Parcelamento salvo = parcelamentoRepository.save(parcelamento);
+
+        List<Transacao> parcelas = gerarParcelas(salvo);
+        transacaoJdbcRepository.inserirEmLote(parcelas, parcelas.size());
+
+        List<MovimentoExtrato> movimentos = new ArrayList<>(parcelas.size());
+        for (Transacao parcela : parcelas) {
+            movimentos.add(MovimentoExtrato.de(parcela));
+        }
+        extratoFinanceiroService.registrarAlteracoes(List.of(), movimentos);
+
+        // Relê pelo índice do parcelamento para ter os ids gerados
+        List<Transacao> gravadas = transacaoRepository.findByParcelamentoIdOrderByNumeroParcela(salvo.getId());
+        for (Transacao parcela : gravadas) {
+            indiceCaracteristicaService.registrar(parcela.getId(), parcela.getCaracteristica());
+            autocompletarService.registrarCaracteristica(null, parcela.getCaracteristica());
+        }
+        return new PlanoParcelamentoDTO(salvo, paraParcelas(gravadas));
+    }
+
+    @Transactional(readOnly = true)
+    public PlanoParcelamentoDTO buscarPorId(Long id) {
+        return montarPlano(buscarParcelamento(id));
+    }
+
+    // Move a próxima parcela em aberto para a nova data e as seguintes pelo mesmo número de dias
+    @RepetirEmConflito
+    public PlanoParcelamentoDTO reprogramar(Long id, LocalDate novaDataProximaParcela) {
+        if (novaDataProximaParcela == null) {
+            throw new IllegalArgumentException("novaDataProximaParcela é obrigatória.");
+        }
+        Parcelamento parcelamento = buscarParcelamento(id);
+        List<Transacao> abertas = transacaoRepository.findParcelasEmAberto(id);
+        if (abertas.isEmpty()) {
+            throw new IllegalArgumentException("O parcelamento não tem parcelas em aberto.");
+        }
+
+        long dias = ChronoUnit.DAYS.between(abertas.get(0).getData(), novaDataProximaParcela);
+        if (dias == 0) {
+            return montarPlano(parcelamento);
+        }
+
+        List<MovimentoExtrato> anteriores = new ArrayList<>(abertas.size());
+        List<MovimentoExtrato> atuais = new ArrayList<>(abertas.size());
+        for (Transacao parcela : abertas) {
+            anteriores.add(MovimentoExtrato.de(parcela));
+            atuais.add(new MovimentoExtrato(parcela.getData().plusDays(dias),
+                    parcela.getTipoTransacao(), parcela.getValorDolares()));
+        }
+        // As parcelas estão travadas desde a leitura; contagem diferente é escrita que escapou da trava e
+        // deixaria o extrato movendo valores de parcelas que o UPDATE não moveu
+        if (transacaoRepository.reprogramarParcelasEmAberto(id, Math.toIntExact(dias), LocalDateTime.now()) != abertas.size()) {
+            throw new ConcurrencyFailureException("Parcelas alteradas por outra operação durante a reprogramação.");
+        }
+        extratoFinanceiroService.registrarAlteracoes(anteriores, atuais);
+
+        return montarPlano(parcelamento);
+    }
+
+    // Cancela as parcelas em aberto; as pagas ficam como estão
+    @RepetirEmConflito
+    public PlanoParcelamentoDTO cancelar(Long id) {
+        Parcelamento parcelamento = buscarParcelamento(id);
+        List<Transacao> abertas = transacaoRepository.findParcelasEmAberto(id);
+        if (!abertas.isEmpty()) {
+            TreeSet<LocalDate> datas = new TreeSet<>();
+            for (Transacao parcela : abertas) {
+                datas.add(parcela.getData());
+            }
+            if (transacaoRepository.cancelarParcelasEmAberto(id, LocalDateTime.now()) != abertas.size()) {
+                throw new ConcurrencyFailureException("Parcelas alteradas por outra operação durante o cancelamento.");
+            }
+            // O status não entra nas somas do extrato; como na mudança de status em lote, os dias são revisados
+            // uma vez cada, com as faixas travadas juntas
+            extratoFinanceiroService.revisarExtratoDias(datas);
+        }
+        return montarPlano(parcelamento);
+    }
+
+    // Divide o total em centavos; a última parcela fica com o resto da divisão
+    List<Transacao> gerarParcelas(Parcelamento parcelamento) {
+        int quantidade = parcelamento.getQuantidadeParcelas();
+        long total = Centavos.de(parcelamento.getValorTotalReais());
+        long valorParcela = total / quantidade;
+        long valorUltima = Centavos.subtrair(total, valorParcela * (quantidade - 1));
+
+        List<Transacao> parcelas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int numero = i + 1;
+            // Sempre a partir da primeira data, para o dia 31 não ir encolhendo mês a mês
+            LocalDate data = parcelamento.getDataPrimeiraParcela().plusMonths(i);
+            Transacao parcela = new Transacao(data, caracteristicaParcela(parcelamento.getCaracteristica(), numero, quantidade),
+                    Centavos.paraBigDecimal(numero == quantidade ? valorUltima : valorParcela),
+                    parcelamento.getTaxaCambio(), parcelamento.getTipoTransacao(),
+                    StatusPagamento.PENDENTE, TipoPagamento.PARCELADO);
+            parcela.setDataVencimento(data);
+            parcela.setParcelamentoId(parcelamento.getId());
+            parcela.setNumeroParcela(numero);
+            parcela.recalcularValorDolares();
+            parcelas.add(parcela);
+        }
+        return parcelas;
+    }
+
+    private String caracteristicaParcela(String caracteristica, int numero, int quantidade) {
+        String sufixo = " (" + numero + "/" + quantidade + ")";
+        int limite = 500 - sufixo.length();
+        return (caracteristica.length() > limite ? caracteristica.substring(0, limite) : caracteristica) + sufixo;
+    }
+
+    private void validar(Parcelamento parcelamento) {
+        if (parcelamento.getCaracteristica() == null || parcelamento.getCaracteristica().isBlank()) {
+            throw new IllegalArgumentException("caracteristica é obrigatória.");
+        }
+        if (parcelamento.getCaracteristica().trim().length() > 500) {
+            throw new IllegalArgumentException("caracteristica excede 500 caracteres.");
+        }
+        if (parcelamento.getTipoTransacao() == null || parcelamento.getDataPrimeiraParcela() == null) {
+            throw new IllegalArgumentException("tipoTransacao e dataPrimeiraParcela são obrigatórios.");
+        }
+        if (parcelamento.getTaxaCambio() == null || parcelamento.getTaxaCambio().signum() <= 0) {
+            throw new IllegalArgumentException("taxaCambio é obrigatória e deve ser maior que zero.");
+        }
+        Integer quantidade = parcelamento.getQuantidadeParcelas();
+        if (quantidade == null || quantidade < 2 || quantidade > MAXIMO_PARCELAS) {
+            throw new IllegalArgumentException("quantidadeParcelas deve estar entre 2 e " + MAXIMO_PARCELAS + ".");
+        }
+        if (parcelamento.getValorTotalReais() == null || Centavos.de(parcelamento.getValorTotalReais()) < quantidade) {
+            throw new IllegalArgumentException("valorTotalReais deve ter ao menos um centavo por parcela.");
+        }
+    }
+
+    private Parcelamento buscarParcelamento(Long id) {
+        return parcelamentoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Parcelamento não encontrado com ID: " + id));
+    }
+
+    private PlanoParcelamentoDTO montarPlano(Parcelamento parcelamento) {
+        return new PlanoParcelamentoDTO(parcelamento,
+                paraParcelas(transacaoRepository.findByParcelamentoIdOrderByNumeroParcela(parcelamento.getId())));
+    }
+
+    private List<ParcelaDTO> paraParcelas(List<Transacao> transacoes) {
+        List<ParcelaDTO> parcelas = new ArrayList<>(transacoes.size());
+        for (Transacao parcela : transacoes) {
+            parcelas.add(ParcelaDTO.de(parcela));
+        }
+        return parcelas;
+    }
+}
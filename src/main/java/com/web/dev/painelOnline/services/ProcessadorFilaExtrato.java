@@ -0,0 +1,47 @@
+package com.web.dev.painelOnline.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Recalcula periodicamente as datas marcadas pelo modo assíncrono.
+// Cada data é recalculada uma vez por ciclo, em sua própria transação.
+@Component
+public class ProcessadorFilaExtrato {
+
+    @Autowired
+    private FilaExtratoService filaExtratoService;
+
+    @Autowired
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Scheduled(fixedDelayString = "${extrato.assincrono.intervalo-ms:2000}")
+    public synchronized int processarPendentes() {
+        // Ordem crescente: cada dia parte do saldo acumulado já corrigido do dia anterior
+        List<LocalDate> datas = filaExtratoService.retirarPendentes();
+        int processadas = 0;
+        for (LocalDate data : datas) {
+            try {
+                extratoFinanceiroService.atualizarExtratoDia(data);
+                processadas++;
+            } catch (RuntimeException e) {
+                System.out.println("Falha ao recalcular extrato de " + data + ", nova tentativa no próximo ciclo: " + e.getMessage());
+                filaExtratoService.devolver(data);
+            } finally {
+                // Depois do commit (ou da devolução): libera quem está sincronizando o dia
+                filaExtratoService.concluir(data);
+            }
+        }
+        return processadas;
+    }
+
+    // Não perde as datas pendentes ao desligar a aplicação
+    @PreDestroy
+    public void esvaziarAoEncerrar() {
+        processarPendentes();
+    }
+}
@@ -0,0 +1,201 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.DiaExtratoDTO;
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Ranking em memória dos dias do extrato: os K dias de maior movimento e os K de saldo mais negativo.
+// Atualizado após o commit de cada escrita no extrato, então a primeira página sai sem ir ao banco.
+// Quando uma alteração tira um dia do topo e o próximo colocado não está em memória, o ranking
+// é relido do banco (consulta limitada pelo índice) na leitura seguinte.
+@Service
+public class RankingExtratoService {
+
+    public static final int TAMANHO_MAXIMO_PAGINA = 500;
+
+    // Maior movimento primeiro; empate fica com o dia mais recente (mesma ordem de findMaioresMovimentos)
+    static final Comparator<DiaExtratoDTO> ORDEM_MOVIMENTO = Comparator
+            .comparing(DiaExtratoDTO::getMovimentoTotal).reversed()
+            .thenComparing(DiaExtratoDTO::getData, Comparator.reverseOrder());
+
+    // Saldo mais negativo primeiro; empate fica com o dia mais antigo (mesma ordem de findPioresSaldosDia)
+    static final Comparator<DiaExtratoDTO> ORDEM_SALDO = Comparator
+            .comparing(DiaExtratoDTO::getSaldoDia)
+            .thenComparing(DiaExtratoDTO::getData);
+
+    @Autowired
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    // Quantos dias cada ranking guarda em memória
+    @Value("${extrato.ranking.tamanho:50}")
+    private int tamanho = 50;
+
+    private final Ranking maiorMovimento = new Ranking(ORDEM_MOVIMENTO,
+            dia -> dia.getMovimentoTotal().signum() > 0,
+            pagina -> extratoFinanceiroRepository.findMaioresMovimentos(pagina));
+
+    private final Ranking saldoNegativo = new Ranking(ORDEM_SALDO,
+            dia -> dia.getSaldoDia().signum() < 0,
+            pagina -> extratoFinanceiroRepository.findPioresSaldosDia(pagina));
+
+    @PostConstruct
+    public void carregar() {
+        try {
+            int preenchidos = extratoFinanceiroRepository.preencherMovimentoTotal();
+            if (preenchidos > 0) {
+                System.out.println("movimento_total preenchido em " + preenchidos + " dias do extrato");
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Não foi possível preencher movimento_total: " + e.getMessage());
+        }
+        // Os rankings são lidos do banco na primeira consulta
+        invalidar();
+    }
+
+    // Dias de maior movimento; a primeira página até o tamanho do ranking vem da memória
+    public List<DiaExtratoDTO> buscarMaioresMovimentos(int pagina, int tamanhoPagina) {
+        return maiorMovimento.buscar(pagina, tamanhoPagina);
+    }
+
+    // Dias de saldo negativo, do mais negativo em diante
+    public List<DiaExtratoDTO> buscarPioresSaldos(int pagina, int tamanhoPagina) {
+        return saldoNegativo.buscar(pagina, tamanhoPagina);
+    }
+
+    // Registra os totais gravados de um dia; vale após o commit da transação
+    public void registrarDia(ExtratoFinanceiro extrato) {
+        DiaExtratoDTO dia = DiaExtratoDTO.de(extrato);
+        aposCommit(() -> {
+            maiorMovimento.atualizar(dia);
+            saldoNegativo.atualizar(dia);
+        });
+    }
+
+    // Descarta os rankings (ex.: regeneração em lote); a próxima leitura relê do banco
+    public void invalidar() {
+        aposCommit(() -> {
+            maiorMovimento.invalidar();
+            saldoNegativo.invalidar();
+        });
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    // Os K primeiros dias de uma ordem, com a data de cada um para achar a posição ao atualizar
+    private final class Ranking {
+        private final Comparator<DiaExtratoDTO> ordem;
+        private final Predicate<DiaExtratoDTO> participa;
+        private final Function<Pageable, List<ExtratoFinanceiro>> consulta;
+
+        private final TreeSet<DiaExtratoDTO> topo;
+        private final Map<LocalDate, DiaExtratoDTO> porData = new HashMap<>();
+        // true quando topo tem exatamente os K primeiros do banco (ou todos, se houver menos de K)
+        private boolean completo = false;
+
+        private Ranking(Comparator<DiaExtratoDTO> ordem, Predicate<DiaExtratoDTO> participa,
+                        Function<Pageable, List<ExtratoFinanceiro>> consulta) {
+            this.ordem = ordem;
+            this.participa = participa;
+            this.consulta = consulta;
+            this.topo = new TreeSet<>(ordem);
+        }
+
+        private List<DiaExtratoDTO> buscar(int pagina, int tamanhoPagina) {
+            if (pagina < 0 || tamanhoPagina < 1 || tamanhoPagina > TAMANHO_MAXIMO_PAGINA) {
+                throw new IllegalArgumentException("Página deve ser >= 0 e tamanho entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+            }
+            if (pagina == 0 && tamanhoPagina <= tamanho) {
+                synchronized (this) {
+                    if (!completo) {
+                        recarregar();
+                    }
+                    List<DiaExtratoDTO> primeiros = new ArrayList<>(Math.min(tamanhoPagina, topo.size()));
+                    for (DiaExtratoDTO dia : topo) {
+                        if (primeiros.size() == tamanhoPagina) {
+                            break;
+                        }
+                        primeiros.add(dia);
+                    }
+                    return primeiros;
+                }
+            }
+            return paraDias(consulta.apply(PageRequest.of(pagina, tamanhoPagina)));
+        }
+
+        private void recarregar() {
+            topo.clear();
+            porData.clear();
+            for (DiaExtratoDTO dia : paraDias(consulta.apply(PageRequest.of(0, tamanho)))) {
+                topo.add(dia);
+                porData.put(dia.getData(), dia);
+            }
+            completo = true;
+        }
+
+        private synchronized void atualizar(DiaExtratoDTO dia) {
+            if (!completo) {
+                return;
+            }
+            boolean cheio = topo.size() >= tamanho;
+            DiaExtratoDTO ultimo = cheio ? topo.last() : null;
+            DiaExtratoDTO anterior = porData.remove(dia.getData());
+            if (anterior != null) {
+                topo.remove(anterior);
+            }
+
+            // Comparar com o último de antes da remoção: dias de fora do topo estão todos depois dele
+            boolean entra = participa.test(dia) && (!cheio || ordem.compare(dia, ultimo) <= 0);
+            if (entra) {
+                topo.add(dia);
+                porData.put(dia.getData(), dia);
+                if (topo.size() > tamanho) {
+                    porData.remove(topo.pollLast().getData());
+                }
+            } else if (anterior != null && cheio) {
+                // O dia saiu do topo cheio; quem ocupa a última posição agora só o banco sabe
+                completo = false;
+            }
+        }
+
+        private synchronized void invalidar() {
+            completo = false;
+        }
+
+        private List<DiaExtratoDTO> paraDias(List<ExtratoFinanceiro> extratos) {
+            List<DiaExtratoDTO> dias = new ArrayList<>(extratos.size());
+            for (ExtratoFinanceiro extrato : extratos) {
+                dias.add(DiaExtratoDTO.de(extrato));
+            }
+            return dias;
+        }
+    }
+}
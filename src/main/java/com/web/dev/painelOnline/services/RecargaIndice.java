@@ -0,0 +1,114 @@
+package com.web.dev.painelOnline.services;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Ordena a recarga de um índice em memória em relação às alterações aplicadas após o commit das escritas.
+// Cada escrita segura o portão (leitura) do beforeCommit até o fim da transação, então entre o commit e a
+// aplicação no índice. A recarga fecha o portão só para abrir o snapshot do banco (REPEATABLE READ): o que
+// commitou antes já está no snapshot; o que commitar depois não está e é reaplicado na estrutura nova,
+// logo depois da troca. Assim nenhuma alteração é contada duas vezes nem perdida.
+final class RecargaIndice {
+
+    private final ReentrantReadWriteLock portao = new ReentrantReadWriteLock();
+    // Uma recarga por vez
+    private final ReentrantLock carga = new ReentrantLock();
+    // Alterações aplicadas depois do snapshot da recarga em andamento; null fora de recarga
+    private List<Runnable> posSnapshot;
+
+    // Aplica a alteração depois do commit da transação corrente (ou já, fora de transação)
+    void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            portao.readLock().lock();
+            try {
+                aplicar(acao);
+            } finally {
+                portao.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean segurando = false;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                portao.readLock().lock();
+                segurando = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                aplicar(acao);
+            }
+
+            // Roda na mesma thread do beforeCommit, também no rollback
+            @Override
+            public void afterCompletion(int status) {
+                if (segurando) {
+                    segurando = false;
+                    portao.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    // abertura é a primeira leitura da transação, a que fixa o snapshot; leitura monta a estrutura nova
+    // a partir dele e troca a coloca no lugar da atual
+    <T> void recarregar(TransactionTemplate transactionTemplate, Runnable abertura,
+                        Supplier<T> leitura, Consumer<T> troca) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+
+        carga.lock();
+        try {
+            T dados;
+            try {
+                dados = snapshot.execute(status -> {
+                    portao.writeLock().lock();
+                    try {
+                        abertura.run();
+                        synchronized (this) {
+                            posSnapshot = new ArrayList<>();
+                        }
+                    } finally {
+                        portao.writeLock().unlock();
+                    }
+                    return leitura.get();
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    posSnapshot = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                troca.accept(dados);
+                for (Runnable acao : posSnapshot) {
+                    acao.run();
+                }
+                posSnapshot = null;
+            }
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    // Durante a recarga a alteração vale na estrutura atual e fica guardada para a nova
+    private synchronized void aplicar(Runnable acao) {
+        if (posSnapshot != null) {
+            posSnapshot.add(acao);
+        }
+        acao.run();
+    }
+}
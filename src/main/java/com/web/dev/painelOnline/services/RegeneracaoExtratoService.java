@@ -0,0 +1,201 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.MovimentoDiarioDTO;
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroJdbcRepository;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.util.Centavos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Regenera o extrato de um período dividido em partições mensais.
+// Cada mês é somado em paralelo com saldo local começando em zero; depois uma soma de prefixos
+// sobre o saldo final de cada mês encadeia as partições, que são gravadas em um lote cada.
+// Todas as faixas do BloqueioExtratoService ficam travadas até o commit, antes de qualquer leitura,
+// para nenhum delta incremental commitar entre as somas e a gravação e ser sobrescrito.
+@Service
+@Transactional
+public class RegeneracaoExtratoService {
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @Autowired
+    private ExtratoFinanceiroJdbcRepository extratoFinanceiroJdbcRepository;
+
+    @Autowired
+    private BloqueioExtratoService bloqueioExtratoService;
+
+    @Value("${extrato.regeneracao.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    // Threads do cálculo quando extrato.regeneracao.paralelismo não é informado
+    private static final int PARALELISMO_PADRAO = 4;
+
+    // Limite de threads do cálculo; cada thread usa uma conexão do pool durante a consulta
+    @Value("${extrato.regeneracao.paralelismo:0}")
+    private int paralelismo = 0;
+
+    // A transação de quem chama já segura uma conexão; as threads nunca passam do restante do pool
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int tamanhoPool = 10;
+
+    // Retorna a quantidade de dias gravados
+    public int regenerar(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio == null || dataFim == null || dataInicio.isAfter(dataFim)) {
+            throw new IllegalArgumentException("Período inválido: dataInicio deve ser anterior ou igual a dataFim.");
+        }
+
+        // Escritores já travados terminam (e ficam visíveis às partições); os próximos esperam o commit
+        bloqueioExtratoService.bloquearTudoAteFimDaTransacao();
+
+        long saldoInicial = Centavos.de(saldoAte(dataInicio.minusDays(1)));
+        long saldoFinalAntes = Centavos.de(saldoAte(dataFim));
+
+        List<Particao> particoes = calcularParticoes(particionarPorMes(dataInicio, dataFim));
+
+        // Soma de prefixos: cada partição começa no saldo final da anterior
+        long deslocamento = saldoInicial;
+        int dias = 0;
+        for (Particao particao : particoes) {
+            for (int i = 0; i < particao.extratos.size(); i++) {
+                long saldoAcumulado = Centavos.somar(deslocamento, particao.saldosLocais[i]);
+                particao.extratos.get(i).setSaldoAcumuladoDolares(Centavos.paraBigDecimal(saldoAcumulado));
+            }
+            deslocamento = Centavos.somar(deslocamento, particao.saldoLocal());
+
+            // Gravação na thread da transação, para o período inteiro ser confirmado ou desfeito junto
+            extratoFinanceiroJdbcRepository.salvarEmLote(particao.extratos, tamanhoLote);
+            dias += particao.extratos.size();
+        }
+
+        // Dias depois do período continuam encadeados com um único deslocamento
+        long delta = Centavos.subtrair(deslocamento, saldoFinalAntes);
+        if (delta != 0) {
+            extratoFinanceiroRepository.deslocarSaldoAcumuladoApos(dataFim, Centavos.paraBigDecimal(delta), LocalDateTime.now());
+        }
+
+        return dias;
+    }
+
+    // Divide o período em meses de calendário (o primeiro e o último podem ser parciais)
+    static List<LocalDate[]> particionarPorMes(LocalDate dataInicio, LocalDate dataFim) {
+        List<LocalDate[]> meses = new ArrayList<>();
+        LocalDate inicio = dataInicio;
+        while (!inicio.isAfter(dataFim)) {
+            LocalDate fimMes = inicio.with(TemporalAdjusters.lastDayOfMonth());
+            LocalDate fim = fimMes.isAfter(dataFim) ? dataFim : fimMes;
+            meses.add(new LocalDate[]{inicio, fim});
+            inicio = fim.plusDays(1);
+        }
+        return meses;
+    }
+
+    private List<Particao> calcularParticoes(List<LocalDate[]> meses) {
+        if (meses.size() == 1) {
+            return List.of(calcularParticao(meses.get(0)[0], meses.get(0)[1]));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(threads(), meses.size()));
+        try {
+            List<Callable<Particao>> tarefas = new ArrayList<>(meses.size());
+            for (LocalDate[] mes : meses) {
+                tarefas.add(() -> calcularParticao(mes[0], mes[1]));
+            }
+
+            // invokeAll devolve os resultados na ordem das tarefas, ou seja, em ordem cronológica
+            List<Particao> particoes = new ArrayList<>(meses.size());
+            for (Future<Particao> futuro : pool.invokeAll(tarefas)) {
+                particoes.add(futuro.get());
+            }
+            return particoes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Regeneração do extrato interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException("Erro ao regenerar extrato: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    int threads() {
+        int threads = paralelismo > 0
+                ? paralelismo
+                : Math.min(PARALELISMO_PADRAO, Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Math.min(threads, tamanhoPool - 1));
+    }
+
+    // Soma os dias de uma partição com saldo acumulado local em centavos, partindo de zero
+    private Particao calcularParticao(LocalDate inicio, LocalDate fim) {
+        List<MovimentoDiarioDTO> movimentos = transacaoRepository.somarMovimentosPorDia(inicio, fim);
+        Iterator<MovimentoDiarioDTO> iterator = movimentos.iterator();
+        MovimentoDiarioDTO proximo = iterator.hasNext() ? iterator.next() : null;
+
+        // Todo dia da partição ganha uma linha; dias sem movimento repetem o saldo acumulado
+        int totalDias = (int) ChronoUnit.DAYS.between(inicio, fim) + 1;
+        List<ExtratoFinanceiro> extratos = new ArrayList<>(totalDias);
+        long[] saldosLocais = new long[totalDias];
+        long saldoLocal = 0L;
+        int i = 0;
+        for (LocalDate data = inicio; !data.isAfter(fim); data = data.plusDays(1), i++) {
+            ExtratoFinanceiro extrato = new ExtratoFinanceiro(data);
+
+            if (proximo != null && proximo.getData().equals(data)) {
+                long saldoDia = Centavos.subtrair(Centavos.de(proximo.getTotalCreditos()), Centavos.de(proximo.getTotalDebitos()));
+                extrato.setTotalCreditosDolares(proximo.getTotalCreditos());
+                extrato.setTotalDebitosDolares(proximo.getTotalDebitos());
+                extrato.setSaldoDiaDolares(Centavos.paraBigDecimal(saldoDia));
+                saldoLocal = Centavos.somar(saldoLocal, saldoDia);
+                proximo = iterator.hasNext() ? iterator.next() : null;
+            }
+
+            saldosLocais[i] = saldoLocal;
+            extratos.add(extrato);
+        }
+
+        return new Particao(extratos, saldosLocais);
+    }
+
+    private BigDecimal saldoAte(LocalDate data) {
+        BigDecimal saldo = extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(data);
+        return saldo != null ? saldo : BigDecimal.ZERO;
+    }
+
+    private static final class Particao {
+        private final List<ExtratoFinanceiro> extratos;
+        // Saldo acumulado de cada dia desde o início da partição, em centavos
+        private final long[] saldosLocais;
+
+        private Particao(List<ExtratoFinanceiro> extratos, long[] saldosLocais) {
+            this.extratos = extratos;
+            this.saldosLocais = saldosLocais;
+        }
+
+        private long saldoLocal() {
+            return saldosLocais.length == 0 ? 0L : saldosLocais[saldosLocais.length - 1];
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.TotaisMensaisDTO;
+import com.web.dev.painelOnline.entities.ExtratoAnual;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
+import com.web.dev.painelOnline.repository.ExtratoAnualRepository;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import com.web.dev.painelOnline.repository.ExtratoMensalRepository;
+import com.web.dev.painelOnline.repository.ResumoExtratoJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Mantém os totais mensais e anuais do extrato (extrato_mensal e extrato_anual).
+// As diferenças são aplicadas na mesma transação que altera o extrato diário. Na inicialização os
+// totais são conferidos contra o extrato diário e os anos vazios ou divergentes são refeitos.
+@Service
+@Transactional
+public class ResumoExtratoService {
+
+    @Autowired
+    private ExtratoMensalRepository extratoMensalRepository;
+
+    @Autowired
+    private ExtratoAnualRepository extratoAnualRepository;
+
+    @Autowired
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @Autowired
+    private ResumoExtratoJdbcRepository resumoExtratoJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void conferirNaInicializacao() {
+        try {
+            Integer anos = transactionTemplate.execute(status -> reconstruirDivergentes());
+            if (anos != null && anos > 0) {
+                System.out.println("Totais mensais e anuais do extrato refeitos em " + anos + " anos");
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Não foi possível conferir os totais mensais e anuais do extrato: " + e.getMessage());
+        }
+    }
+
+    // Soma a diferença de créditos e débitos de um dia ao seu mês e ao seu ano.
+    // A soma é feita no banco (insere ou soma), então dias diferentes do mesmo mês não disputam a linha.
+    public void registrarDelta(LocalDate data, BigDecimal deltaCreditos, BigDecimal deltaDebitos) {
+        if (deltaCreditos.signum() == 0 && deltaDebitos.signum() == 0) {
+            return;
+        }
+
+        resumoExtratoJdbcRepository.somarNoMes(data.getYear(), data.getMonthValue(), deltaCreditos, deltaDebitos);
+        resumoExtratoJdbcRepository.somarNoAno(data.getYear(), deltaCreditos, deltaDebitos);
+    }
+
+    // Refaz os totais dos anos informados a partir do extrato diário. Retorna a quantidade de meses gravados.
+    public int reconstruir(int anoInicio, int anoFim) {
+        if (anoInicio > anoFim) {
+            throw new IllegalArgumentException("Período inválido: anoInicio deve ser anterior ou igual a anoFim.");
+        }
+
+        extratoMensalRepository.excluirAnos(anoInicio, anoFim);
+        extratoAnualRepository.excluirAnos(anoInicio, anoFim);
+
+        List<TotaisMensaisDTO> totais = extratoFinanceiroRepository.somarTotaisPorMes(
+                LocalDate.of(anoInicio, 1, 1), LocalDate.of(anoFim, 12, 31));
+
+        List<ExtratoMensal> mensais = new ArrayList<>(totais.size());
+        Map<Integer, ExtratoAnual> anuais = new TreeMap<>();
+        for (TotaisMensaisDTO total : totais) {
+            ExtratoMensal mensal = new ExtratoMensal(total.getAno(), total.getMes());
+            mensal.somar(total.getTotalCreditos(), total.getTotalDebitos());
+            mensais.add(mensal);
+
+            anuais.computeIfAbsent(total.getAno(), ExtratoAnual::new)
+                    .somar(total.getTotalCreditos(), total.getTotalDebitos());
+        }
+
+        extratoMensalRepository.saveAll(mensais);
+        extratoAnualRepository.saveAll(anuais.values());
+        return mensais.size();
+    }
+
+    // Refaz os totais de todos os anos com extrato
+    public int reconstruirTodos() {
+        LocalDate primeiraData = extratoFinanceiroRepository.findPrimeiraData();
+        LocalDate ultimaData = extratoFinanceiroRepository.findUltimaData();
+        if (primeiraData == null || ultimaData == null) {
+            return 0;
+        }
+        return reconstruir(primeiraData.getYear(), ultimaData.getYear());
+    }
+
+    // Compara os totais gravados com os do extrato diário e refaz os anos em que algum mês ou o próprio
+    // ano falta, sobra ou difere (inclusive os extratos gravados antes das tabelas de totais existirem).
+    // Retorna a quantidade de anos refeitos.
+    public int reconstruirDivergentes() {
+        Map<String, BigDecimal[]> esperados = new HashMap<>();
+        LocalDate primeiraData = extratoFinanceiroRepository.findPrimeiraData();
+        LocalDate ultimaData = extratoFinanceiroRepository.findUltimaData();
+        if (primeiraData != null && ultimaData != null) {
+            for (TotaisMensaisDTO total : extratoFinanceiroRepository.somarTotaisPorMes(primeiraData, ultimaData)) {
+                somarEsperado(esperados, total.getAno() + "-" + total.getMes(), total);
+                somarEsperado(esperados, String.valueOf(total.getAno()), total);
+            }
+        }
+
+        Map<String, Integer> anoPorChave = new HashMap<>();
+        Set<Integer> divergentes = new TreeSet<>();
+        for (ExtratoMensal mensal : extratoMensalRepository.findAll()) {
+            String chave = mensal.getAno() + "-" + mensal.getMes();
+            anoPorChave.put(chave, mensal.getAno());
+            if (!confere(esperados.get(chave), mensal.getTotalCreditosDolares(), mensal.getTotalDebitosDolares())) {
+                divergentes.add(mensal.getAno());
+            }
+        }
+        for (ExtratoAnual anual : extratoAnualRepository.findAll()) {
+            String chave = String.valueOf(anual.getAno());
+            anoPorChave.put(chave, anual.getAno());
+            if (!confere(esperados.get(chave), anual.getTotalCreditosDolares(), anual.getTotalDebitosDolares())) {
+                divergentes.add(anual.getAno());
+            }
+        }
+        // Meses e anos com extrato diário mas sem linha de totais
+        for (String chave : esperados.keySet()) {
+            if (!anoPorChave.containsKey(chave)) {
+                divergentes.add(Integer.valueOf(chave.split("-")[0]));
+            }
+        }
+
+        for (Integer ano : divergentes) {
+            reconstruir(ano, ano);
+        }
+        return divergentes.size();
+    }
+
+    private static void somarEsperado(Map<String, BigDecimal[]> esperados, String chave, TotaisMensaisDTO total) {
+        BigDecimal[] valores = esperados.computeIfAbsent(chave, c -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        valores[0] = valores[0].add(total.getTotalCreditos());
+        valores[1] = valores[1].add(total.getTotalDebitos());
+    }
+
+    // Linha sem extrato diário correspondente só confere se estiver zerada
+    private static boolean confere(BigDecimal[] esperado, BigDecimal creditos, BigDecimal debitos) {
+        BigDecimal creditosEsperados = esperado != null ? esperado[0] : BigDecimal.ZERO;
+        BigDecimal debitosEsperados = esperado != null ? esperado[1] : BigDecimal.ZERO;
+        return creditosEsperados.compareTo(Objects.requireNonNullElse(creditos, BigDecimal.ZERO)) == 0
+                && debitosEsperados.compareTo(Objects.requireNonNullElse(debitos, BigDecimal.ZERO)) == 0;
+    }
+
+    // Totais do mês; meses sem movimento retornam zerados
+    @Transactional(readOnly = true)
+    public ExtratoMensal buscarMes(int ano, int mes) {
+        return extratoMensalRepository.findByAnoAndMes(ano, mes)
+                .orElseGet(() -> new ExtratoMensal(ano, mes));
+    }
+
+    // Totais do ano; anos sem movimento retornam zerados
+    @Transactional(readOnly = true)
+    public ExtratoAnual buscarAno(int ano) {
+        return extratoAnualRepository.findByAno(ano)
+                .orElseGet(() -> new ExtratoAnual(ano));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExtratoMensal> buscarMesesDoAno(int ano) {
+        return extratoMensalRepository.findByAnoOrderByMesAsc(ano);
+    }
+}
@@ -1,18 +1,38 @@
 package com.web.dev.painelOnline.services;
 
+import com.web.dev.painelOnline.Config.RepetirEmConflito;
+import com.web.dev.painelOnline.dto.AtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoAtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.TransacaoResumoDTO;
 import com.web.dev.painelOnline.entities.Transacao;
 import com.web.dev.painelOnline.entities.ItemNota;
 import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.repository.ItemNotaJdbcRepository;
 import com.web.dev.painelOnline.repository.ItemNotaRepository;
+import com.web.dev.painelOnline.util.Centavos;
+import com.web.dev.painelOnline.util.CursorTransacao;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @Transactional
@@ -24,55 +44,106 @@ public class TransacaoService {
     @Autowired
     private ItemNotaRepository itemNotaRepository;
 
+    @Autowired
+    private ItemNotaJdbcRepository itemNotaJdbcRepository;
+
     @Autowired
     private ExtratoFinanceiroService extratoFinanceiroService;
 
+    @Autowired
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @Autowired
+    private AutocompletarService autocompletarService;
+
+    // Itens por INSERT em lote na criação de transação com itens
+    @Value("${transacao.itens.tamanho-lote:1000}")
+    private int tamanhoLoteItens = 1000;
+
+    // Vencimento de transações a prazo que não informam dataVencimento
+    @Value("${transacao.vencimento.prazo-padrao-dias:30}")
+    private int prazoVencimentoDias = 30;
+
+    // Ids por consulta ao ler as transações encontradas na busca
+    private static final int TAMANHO_LOTE_IDS = 1000;
+
+    // Limites de DATE no MySQL; usados como período da listagem sem filtro
+    static final LocalDate DATA_MINIMA = LocalDate.of(1000, 1, 1);
+    static final LocalDate DATA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    // Tamanho da página de transações quando o cliente não informa, e o máximo aceito
+    @Value("${transacao.paginacao.tamanho-padrao:100}")
+    private int tamanhoPaginaPadrao = 100;
+
+    @Value("${transacao.paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo = 500;
+
     // Cria nova transação simples
+    @RepetirEmConflito
     public Transacao criarTransacao(Transacao transacao) {
+        // Criação sempre gera id novo, inclusive ao refazer após um conflito
+        transacao.setId(null);
+        transacao.definirVencimentoPadrao(prazoVencimentoDias);
         Transacao transacaoSalva = transacaoRepository.save(transacao);
 
         // Atualiza o extrato financeiro do dia
-        extratoFinanceiroService.atualizarExtratoDia(transacao.getData());
+        extratoFinanceiroService.registrarAlteracao(null, MovimentoExtrato.de(transacaoSalva));
+        indiceCaracteristicaService.registrar(transacaoSalva.getId(), transacaoSalva.getCaracteristica());
+        autocompletarService.registrarCaracteristica(null, transacaoSalva.getCaracteristica());
 
         return transacaoSalva;
     }
 
     // Cria transação com itens
+    @RepetirEmConflito
     public Transacao criarTransacaoComItens(Transacao transacao, List<ItemNota> itens) {
-        // valida os itens
-        BigDecimal valorTotal = BigDecimal.ZERO;
+        transacao.setId(null);
+        // Itens só entram pelo lote abaixo; se viessem também em transacao.itens o cascade gravaria um por um
+        transacao.setItens(null);
+        // valida os itens e soma em centavos
+        long valorTotal = 0L;
         for (ItemNota item : itens) {
             if (item.getValorUnitario() == null || item.getQuantidade() == null) {
                 throw new IllegalArgumentException("Itens devem conter valorUnitario e quantidade.");
             }
-            BigDecimal valorItem = item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade()));
-            item.setValorTotal(valorItem);
-            valorTotal = valorTotal.add(valorItem);
+            if (item.getDescricao() == null || item.getDescricao().isBlank()) {
+                throw new IllegalArgumentException("Itens devem conter descricao.");
+            }
+            item.setId(null);
+            long valorItem = Centavos.multiplicar(Centavos.de(item.getValorUnitario()), item.getQuantidade());
+            item.setValorTotal(Centavos.paraBigDecimal(valorItem));
+            valorTotal = Centavos.somar(valorTotal, valorItem);
         }
 
-        transacao.setValorReais(valorTotal);
+        transacao.setValorReais(Centavos.paraBigDecimal(valorTotal));
+        transacao.setQuantidadeItens(itens.size());
+        transacao.setValorItens(Centavos.paraBigDecimal(valorTotal));
+        transacao.definirVencimentoPadrao(prazoVencimentoDias);
         // salva transacao antes para ter id
         Transacao transacaoSalva = transacaoRepository.save(transacao);
 
-        // Associa itens a transação e salva
-        for (ItemNota item : itens) {
-            item.setTransacao(transacaoSalva);
-            itemNotaRepository.save(item);
-        }
+        // Itens em INSERTs de várias linhas, um por lote, em vez de um round trip por item
+        itemNotaJdbcRepository.inserirEmLote(transacaoSalva, itens, tamanhoLoteItens);
 
         // Atualiza extrato financeiro do dia
-        extratoFinanceiroService.atualizarExtratoDia(transacao.getData());
+        extratoFinanceiroService.registrarAlteracao(null, MovimentoExtrato.de(transacaoSalva));
+        indiceCaracteristicaService.registrar(transacaoSalva.getId(), transacaoSalva.getCaracteristica());
+        autocompletarService.registrarCaracteristica(null, transacaoSalva.getCaracteristica());
+        autocompletarService.registrarDescricoes(List.of(), descricoes(itens));
 
         return transacaoSalva;
     }
 
     // Atualiza transacao
+    @RepetirEmConflito
     public Transacao atualizarTransacao(Long id, Transacao transacaoAtualizada) {
-        Optional<Transacao> transacaoExistente = transacaoRepository.findById(id);
+        // Travada até o commit: duas alterações da mesma transação não estornam o mesmo valor anterior
+        Optional<Transacao> transacaoExistente = transacaoRepository.findByIdParaAtualizar(id);
 
         if (transacaoExistente.isPresent()) {
             Transacao transacao = transacaoExistente.get();
-            LocalDate dataAnterior = transacao.getData();
+            MovimentoExtrato movimentoAnterior = MovimentoExtrato.de(transacao);
+            String caracteristicaAnterior = transacao.getCaracteristica();
 
             // Atualiza campos
             transacao.setData(transacaoAtualizada.getData());
@@ -82,14 +153,16 @@ public class TransacaoService {
             transacao.setTipoTransacao(transacaoAtualizada.getTipoTransacao());
             transacao.setStatusPagamento(transacaoAtualizada.getStatusPagamento());
             transacao.setTipoPagamento(transacaoAtualizada.getTipoPagamento());
+            transacao.setDataVencimento(transacaoAtualizada.getDataVencimento());
+            transacao.definirVencimentoPadrao(prazoVencimentoDias);
+            transacao.recalcularValorDolares();
 
             Transacao transacaoSalva = transacaoRepository.save(transacao);
 
             // Atualiza o extrato da data anterior e nova data
-            extratoFinanceiroService.atualizarExtratoDia(dataAnterior);
-            if (!dataAnterior.equals(transacao.getData())) {
-                extratoFinanceiroService.atualizarExtratoDia(transacao.getData());
-            }
+            extratoFinanceiroService.registrarAlteracao(movimentoAnterior, MovimentoExtrato.de(transacaoSalva));
+            indiceCaracteristicaService.registrar(transacaoSalva.getId(), transacaoSalva.getCaracteristica());
+            autocompletarService.registrarCaracteristica(caracteristicaAnterior, transacaoSalva.getCaracteristica());
 
             return transacaoSalva;
         }
@@ -97,8 +170,10 @@ public class TransacaoService {
         throw new RuntimeException("Transação não encontrada com ID: " + id);
     }
 
-    // Atualiza a quantidade de itens de uma transação
-    public Transacao atualizarQuantidadeItens(Long id, Integer novaQuantidade) {
+    // Atualiza a quantidade de itens de uma transação: completa com itens vazios ou remove os últimos
+    // adicionados (maiores ids). Lê os itens uma vez, grava com um lote ou um DELETE e devolve a lista resultante.
+    @RepetirEmConflito
+    public TransacaoResumoDTO atualizarQuantidadeItens(Long id, Integer novaQuantidade) {
         Optional<Transacao> transacaoExistente = transacaoRepository.findById(id);
 
         if (!transacaoExistente.isPresent()) {
@@ -107,52 +182,226 @@ public class TransacaoService {
 
         Transacao transacao = transacaoExistente.get();
 
-        // Busca todos os itens atuais da transação
-        List<ItemNota> itensAtuais = itemNotaRepository.findByTransacaoId(id);
+        // Itens atuais em ordem de id, como DTO (sem entidades gerenciadas), travados até o fim da transação:
+        // os deltas do resumo saem desta lista
+        List<ItemNotaDTO> itensAtuais = itemNotaRepository.findDtosDaTransacaoParaAtualizar(id);
         int quantidadeAtual = itensAtuais.size();
+        List<ItemNotaDTO> itensResultado = new ArrayList<>(itensAtuais);
 
         if (novaQuantidade > quantidadeAtual) {
-            // Adiciona novos itens vazios
+            // Adiciona novos itens vazios num único lote
             int quantidadeParaAdicionar = novaQuantidade - quantidadeAtual;
+            List<ItemNota> novosItens = new ArrayList<>(quantidadeParaAdicionar);
             for (int i = 0; i < quantidadeParaAdicionar; i++) {
                 ItemNota novoItem = new ItemNota();
-                novoItem.setTransacao(transacao);
                 novoItem.setDescricao("Item " + (quantidadeAtual + i + 1));
                 novoItem.setQuantidade(0);
                 novoItem.setValorUnitario(BigDecimal.ZERO);
                 novoItem.setValorTotal(BigDecimal.ZERO);
-                itemNotaRepository.save(novoItem);
+                novosItens.add(novoItem);
+            }
+            itemNotaJdbcRepository.inserirEmLote(transacao, novosItens, tamanhoLoteItens);
+            // Itens vazios: só a quantidade muda
+            transacaoRepository.somarResumoItens(id, quantidadeParaAdicionar, BigDecimal.ZERO);
+            autocompletarService.registrarDescricoes(List.of(), descricoes(novosItens));
+            for (ItemNota novoItem : novosItens) {
+                itensResultado.add(ItemNotaDTO.de(novoItem));
             }
         } else if (novaQuantidade < quantidadeAtual) {
-            // Remove itens os últimos adicionados
-            int quantidadeParaRemover = quantidadeAtual - novaQuantidade;
-            List<ItemNota> itensParaRemover = itensAtuais.subList(
-                    itensAtuais.size() - quantidadeParaRemover,
-                    itensAtuais.size()
-            );
-            for (ItemNota item : itensParaRemover) {
-                itemNotaRepository.delete(item);
+            // Remove os últimos adicionados: tudo depois do id do último item que fica
+            long ultimoMantido = novaQuantidade > 0 ? itensAtuais.get(novaQuantidade - 1).getId() : 0L;
+            // Contagem diferente é item gravado por outra operação depois da leitura; o delta do resumo
+            // não o inclui, então desfaz e o @RepetirEmConflito tenta de novo
+            if (itemNotaRepository.excluirItensApos(id, ultimoMantido) != quantidadeAtual - novaQuantidade) {
+                throw new ConcurrencyFailureException("Itens da transação alterados por outra operação.");
             }
+            List<String> removidas = new ArrayList<>(quantidadeAtual - novaQuantidade);
+            long valorRemovido = 0L;
+            for (ItemNotaDTO removido : itensAtuais.subList(novaQuantidade, quantidadeAtual)) {
+                removidas.add(removido.getDescricao());
+                valorRemovido = Centavos.somar(valorRemovido, Centavos.de(removido.getValorTotal()));
+            }
+            transacaoRepository.somarResumoItens(id, novaQuantidade - quantidadeAtual,
+                    Centavos.paraBigDecimal(valorRemovido).negate());
+            autocompletarService.registrarDescricoes(removidas, List.of());
+            itensResultado = new ArrayList<>(itensAtuais.subList(0, novaQuantidade));
         }
 
-        // Retorna a transação atualizada com os itens
-        return transacaoRepository.findTransacaoComItens(id);
+        return TransacaoResumoDTO.de(transacao, itensResultado);
+    }
+
+    // Muda o status de várias transações com um único UPDATE (por ids ou por filtro) e revisa o extrato
+    // uma vez por dia afetado. O status não entra nas somas do extrato, então no modo incremental a revisão
+    // não grava nada; nos modos completo e assíncrono cada dia é recalculado ou enfileirado uma só vez.
+    @RepetirEmConflito
+    public ResultadoAtualizacaoStatusDTO atualizarStatusEmLote(AtualizacaoStatusDTO request) {
+        if (request.getNovoStatus() == null) {
+            throw new IllegalArgumentException("novoStatus é obrigatório.");
+        }
+        boolean porIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean porFiltro = request.getDataInicio() != null || request.getDataFim() != null
+                || request.getStatusAtual() != null || request.getTipoPagamento() != null;
+        if (porIds == porFiltro) {
+            throw new IllegalArgumentException("Informe ids ou um filtro por período, não ambos.");
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<LocalDate> datas;
+        int atualizadas;
+        if (porIds) {
+            Set<Long> ids = new HashSet<>(request.getIds());
+            datas = transacaoRepository.findDatasParaStatusPorIds(ids, request.getNovoStatus());
+            atualizadas = transacaoRepository.atualizarStatusPorIds(ids, request.getNovoStatus(), agora);
+        } else {
+            if (request.getDataInicio() == null || request.getDataFim() == null) {
+                throw new IllegalArgumentException("O filtro precisa de dataInicio e dataFim.");
+            }
+            if (request.getDataInicio().isAfter(request.getDataFim())) {
+                throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+            }
+            LocalDate fim = request.getDataFim().plusDays(1);
+            datas = transacaoRepository.findDatasParaStatusNoIntervalo(request.getDataInicio(), fim,
+                    request.getStatusAtual(), request.getTipoPagamento(), request.getNovoStatus());
+            atualizadas = transacaoRepository.atualizarStatusNoIntervalo(request.getDataInicio(), fim,
+                    request.getStatusAtual(), request.getTipoPagamento(), request.getNovoStatus(), agora);
+        }
+
+        Set<LocalDate> dias = new TreeSet<>(datas);
+        if (atualizadas > 0) {
+            extratoFinanceiroService.revisarExtratoDias(dias);
+        }
+        return new ResultadoAtualizacaoStatusDTO(atualizadas, atualizadas > 0 ? dias.size() : 0);
     }
 
+    @RepetirEmConflito
     public void excluirTransacao(Long id) {
-        Optional<Transacao> transacao = transacaoRepository.findById(id);
+        Optional<Transacao> transacao = transacaoRepository.findByIdParaAtualizar(id);
 
         if (transacao.isPresent()) {
-            LocalDate data = transacao.get().getData();
+            MovimentoExtrato movimento = MovimentoExtrato.de(transacao.get());
+            // Os itens saem junto pelo cascade, que os carrega de qualquer forma
+            List<String> descricoesItens = transacao.get().getItens() != null
+                    ? descricoes(transacao.get().getItens()) : List.of();
+            String caracteristica = transacao.get().getCaracteristica();
             transacaoRepository.deleteById(id);
 
             // Atualiza extrato financeiro do dia
-            extratoFinanceiroService.atualizarExtratoDia(data);
+            extratoFinanceiroService.registrarAlteracao(movimento, null);
+            indiceCaracteristicaService.remover(id);
+            autocompletarService.registrarCaracteristica(caracteristica, null);
+            autocompletarService.registrarDescricoes(descricoesItens, List.of());
         } else {
             throw new RuntimeException("Transação não encontrada com ID: " + id);
         }
     }
 
+    // Página de todas as transações, ordenadas por (data, id); com incluirItens os itens vêm junto.
+    // Sem cursor e sem tamanho devolve a lista inteira, como antes da paginação.
+    @Transactional(readOnly = true)
+    public PaginaDTO<TransacaoResumoDTO> buscarPaginaTransacoes(String cursor, Integer tamanho, boolean incluirItens) {
+        return buscarPagina(DATA_MINIMA, DATA_MAXIMA.plusDays(1), false, cursor, tamanho, incluirItens);
+    }
+
+    // Página das transações do período [dataInicio, dataFim] (inclusivo, como buscarTransacoesPorPeriodo)
+    @Transactional(readOnly = true)
+    public PaginaDTO<TransacaoResumoDTO> buscarPaginaTransacoesPorPeriodo(LocalDate dataInicio, LocalDate dataFim,
+                                                                         String cursor, Integer tamanho, boolean incluirItens) {
+        return buscarPagina(dataInicio, dataFim.plusDays(1), false, cursor, tamanho, incluirItens);
+    }
+
+    // Página das transações do mês, da mais recente para a mais antiga (mesma ordem de buscarTransacoesMes)
+    @Transactional(readOnly = true)
+    public PaginaDTO<TransacaoResumoDTO> buscarPaginaTransacoesMes(int ano, int mes, String cursor, Integer tamanho,
+                                                                  boolean incluirItens) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return buscarPagina(inicio, inicio.plusMonths(1), true, cursor, tamanho, incluirItens);
+    }
+
+    // Resumo dos débitos à prazo do mês
+    @Transactional(readOnly = true)
+    public List<TransacaoResumoDTO> buscarResumoDebitosAPrazoMes(int ano, int mes, boolean incluirItens) {
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        List<TransacaoResumoDTO> debitos = transacaoRepository.findResumoDebitosAPrazoNoIntervalo(inicio, inicio.plusMonths(1));
+        if (incluirItens) {
+            carregarItens(debitos);
+        }
+        return debitos;
+    }
+
+    // Paginação por cursor (keyset): cada página continua depois do (data, id) da anterior,
+    // sem OFFSET, então ir fundo no histórico custa o mesmo que a primeira página.
+    // Sem cursor e sem tamanho a consulta não tem limite e não há próxima página: quem não lê
+    // X-Proximo-Cursor continua recebendo tudo.
+    private PaginaDTO<TransacaoResumoDTO> buscarPagina(LocalDate inicio, LocalDate fim, boolean decrescente,
+                                                       String cursor, Integer tamanho, boolean incluirItens) {
+        boolean semCursor = cursor == null || cursor.isBlank();
+        if (semCursor && tamanho == null) {
+            if (inicio.isAfter(fim)) {
+                throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+            }
+            List<TransacaoResumoDTO> transacoes = decrescente
+                    ? transacaoRepository.findPaginaNoIntervaloDecrescente(inicio, fim, fim, Long.MAX_VALUE, Pageable.unpaged())
+                    : transacaoRepository.findPaginaNoIntervalo(inicio, fim, inicio, 0L, Pageable.unpaged());
+            if (incluirItens) {
+                carregarItens(transacoes);
+            }
+            return new PaginaDTO<>(transacoes, null);
+        }
+
+        int limite = tamanho != null ? tamanho : tamanhoPaginaPadrao;
+        if (limite < 1 || limite > tamanhoPaginaMaximo) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + tamanhoPaginaMaximo + ".");
+        }
+        if (inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+        }
+
+        // Sem cursor começa antes da primeira transação do período (ids são sempre positivos);
+        // na ordem decrescente, depois da última (fim é exclusivo)
+        CursorTransacao posicao;
+        if (!semCursor) {
+            posicao = CursorTransacao.decodificar(cursor);
+        } else {
+            posicao = decrescente ? new CursorTransacao(fim, Long.MAX_VALUE) : new CursorTransacao(inicio, 0L);
+        }
+
+        // Um registro a mais só para saber se existe próxima página
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<TransacaoResumoDTO> transacoes = decrescente
+                ? transacaoRepository.findPaginaNoIntervaloDecrescente(inicio, fim, posicao.getData(), posicao.getId(), pagina)
+                : transacaoRepository.findPaginaNoIntervalo(inicio, fim, posicao.getData(), posicao.getId(), pagina);
+
+        String proximoCursor = null;
+        if (transacoes.size() > limite) {
+            transacoes = new ArrayList<>(transacoes.subList(0, limite));
+            proximoCursor = CursorTransacao.de(transacoes.get(limite - 1)).codificar();
+        }
+        if (incluirItens) {
+            carregarItens(transacoes);
+        }
+        return new PaginaDTO<>(transacoes, proximoCursor);
+    }
+
+    // Itens de todas as transações da lista em consultas IN de até uma página máxima de ids, distribuídos por transacaoId
+    private void carregarItens(List<TransacaoResumoDTO> transacoes) {
+        Map<Long, List<ItemNotaDTO>> itensPorTransacao = new HashMap<>();
+        for (TransacaoResumoDTO transacao : transacoes) {
+            List<ItemNotaDTO> itens = new ArrayList<>();
+            transacao.setItens(itens);
+            if (transacao.getQuantidadeItens() > 0) {
+                itensPorTransacao.put(transacao.getId(), itens);
+            }
+        }
+        // A listagem sem paginação pode trazer muitas transações; o IN não cresce sem limite
+        List<Long> ids = new ArrayList<>(itensPorTransacao.keySet());
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoPaginaMaximo) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + tamanhoPaginaMaximo, ids.size()));
+            for (ItemNotaDTO item : itemNotaRepository.findDtosPorTransacaoIds(lote)) {
+                itensPorTransacao.get(item.getTransacaoId()).add(item);
+            }
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<Transacao> buscarTodasTransacoes() {
         return transacaoRepository.findAll();
@@ -193,8 +442,32 @@ public class TransacaoService {
         return transacaoRepository.calcularTotalDebitosPrazoMes(ano, mes);
     }
 
+    // Busca por trecho da característica, sem diferenciar acentos e caixa. Os ids vêm do índice de
+    // trigramas e só as transações encontradas são lidas, pela chave primária; sem índice usa o LIKE.
     @Transactional(readOnly = true)
     public List<Transacao> buscarPorCaracteristica(String caracteristica) {
-        return transacaoRepository.findByCaracteristicaContaining(caracteristica);
+        if (!indiceCaracteristicaService.isPronto()) {
+            return transacaoRepository.findByCaracteristicaContaining(caracteristica);
+        }
+        long[] ids = indiceCaracteristicaService.buscar(caracteristica);
+        List<Transacao> transacoes = new ArrayList<>(ids.length);
+        for (int inicio = 0; inicio < ids.length; inicio += TAMANHO_LOTE_IDS) {
+            List<Long> lote = new ArrayList<>(Math.min(TAMANHO_LOTE_IDS, ids.length - inicio));
+            for (int i = inicio; i < Math.min(inicio + TAMANHO_LOTE_IDS, ids.length); i++) {
+                lote.add(ids[i]);
+            }
+            transacoes.addAll(transacaoRepository.findAllById(lote));
+        }
+        // findAllById não garante ordem; devolve na ordem dos ids
+        transacoes.sort(Comparator.comparing(Transacao::getId));
+        return transacoes;
+    }
+
+    private static List<String> descricoes(List<ItemNota> itens) {
+        List<String> descricoes = new ArrayList<>(itens.size());
+        for (ItemNota item : itens) {
+            descricoes.add(item.getDescricao());
+        }
+        return descricoes;
     }
-}
\ No newline at end of file
+}
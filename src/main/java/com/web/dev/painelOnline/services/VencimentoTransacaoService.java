@@ -0,0 +1,114 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.dto.ExecucaoVencimentoDTO;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Rotina diária que passa para VENCIDO as transações PENDENTE com vencimento anterior a hoje.
+// Lê os ids pelo índice (status_pagamento, data_vencimento, id) em lotes e muda cada lote com um
+// único UPDATE, cada um na sua transação: uma falha no meio não desfaz os lotes já gravados.
+@Service
+public class VencimentoTransacaoService {
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Dias entre a data e o vencimento quando a transação a prazo não informa vencimento
+    @Value("${transacao.vencimento.prazo-padrao-dias:30}")
+    private int prazoPadraoDias = 30;
+
+    @Value("${transacao.vencimento.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+
+    private volatile ExecucaoVencimentoDTO ultimaExecucao;
+
+    @PostConstruct
+    public void preencherVencimentos() {
+        try {
+            Integer preenchidas = transactionTemplate.execute(status -> transacaoRepository.preencherDataVencimento(prazoPadraoDias));
+            if (preenchidas != null && preenchidas > 0) {
+                System.out.println("data_vencimento preenchida em " + preenchidas + " transações a prazo");
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Não foi possível preencher data_vencimento: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${transacao.vencimento.cron:0 5 0 * * *}")
+    public void executarAgendado() {
+        marcarVencidas(LocalDate.now());
+    }
+
+    // Marca como vencidas as pendentes com vencimento anterior a hoje
+    public synchronized ExecucaoVencimentoDTO marcarVencidas(LocalDate hoje) {
+        long inicioNanos = System.nanoTime();
+        ExecucaoVencimentoDTO execucao = new ExecucaoVencimentoDTO(hoje, LocalDateTime.now());
+        Set<LocalDate> dias = new TreeSet<>();
+        try {
+            while (true) {
+                int[] lote = transactionTemplate.execute(status -> marcarLote(hoje, dias));
+                if (lote[0] == 0) {
+                    break;
+                }
+                execucao.setLotes(execucao.getLotes() + 1);
+                execucao.setAtualizadas(execucao.getAtualizadas() + lote[1]);
+                // Lote incompleto: não restou pendente vencida
+                if (lote[0] < tamanhoLote) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Rotina de vencimento interrompida após " + execucao.getAtualizadas()
+                    + " transações: " + e.getMessage());
+            execucao.setErro(e.getMessage());
+        }
+        execucao.setDiasAfetados(dias.size());
+        execucao.setDuracaoMs((System.nanoTime() - inicioNanos) / 1_000_000);
+        ultimaExecucao = execucao;
+        return execucao;
+    }
+
+    public ExecucaoVencimentoDTO getUltimaExecucao() {
+        return ultimaExecucao;
+    }
+
+    // Um lote: ids lidos, linhas alteradas. As linhas alteradas saem da faixa PENDENTE do índice,
+    // então o próximo lote começa de novo do início sem precisar de cursor.
+    private int[] marcarLote(LocalDate hoje, Set<LocalDate> dias) {
+        List<Long> ids = transacaoRepository.findIdsPendentesVencidas(hoje, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        List<LocalDate> datas = transacaoRepository.findDatasParaStatusPorIds(ids, StatusPagamento.VENCIDO);
+        int atualizadas = transacaoRepository.marcarVencidas(ids, hoje, LocalDateTime.now());
+
+        // O status não entra nas somas do extrato; a revisão só recalcula ou enfileira nos modos completo e assíncrono.
+        // Os dias novos do lote vão numa chamada só, para as faixas do extrato serem travadas juntas.
+        Set<LocalDate> novos = new TreeSet<>(datas);
+        novos.removeAll(dias);
+        if (!novos.isEmpty()) {
+            dias.addAll(novos);
+            extratoFinanceiroService.revisarExtratoDias(novos);
+        }
+        return new int[]{ids.size(), atualizadas};
+    }
+}
@@ -0,0 +1,53 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Confere quantidade_itens e valor_itens das transações contra itens_nota e corrige as divergentes.
+// Percorre a tabela em faixas de id, cada faixa num UPDATE e numa transação própria. Roda na
+// inicialização (preenche as transações gravadas antes das colunas existirem) e sob demanda.
+@Service
+public class VerificacaoResumoItensService {
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Ids por faixa verificada
+    @Value("${transacao.itens.verificacao-lote:5000}")
+    private int tamanhoFaixa = 5000;
+
+    @PostConstruct
+    public void verificarNaInicializacao() {
+        try {
+            int corrigidas = verificar();
+            if (corrigidas > 0) {
+                System.out.println("Resumo de itens corrigido em " + corrigidas + " transações");
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Não foi possível verificar o resumo de itens: " + e.getMessage());
+        }
+    }
+
+    // Quantidade de transações cujo resumo de itens estava divergente e foi regravado
+    public synchronized int verificar() {
+        Long maiorId = transacaoRepository.findMaiorId();
+        if (maiorId == null) {
+            return 0;
+        }
+        int corrigidas = 0;
+        for (long inicio = 0L; inicio < maiorId; inicio += tamanhoFaixa) {
+            long depoisDeId = inicio;
+            long ateId = Math.min(inicio + tamanhoFaixa, maiorId);
+            Integer faixa = transactionTemplate.execute(status -> transacaoRepository.corrigirResumoItens(depoisDeId, ateId));
+            corrigidas += faixa != null ? faixa : 0;
+        }
+        return corrigidas;
+    }
+}
@@ -0,0 +1,67 @@
+package com.web.dev.painelOnline.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Aritmética de ponto fixo em long para os laços de agregação.
+// Valores monetários ficam em centavos (escala 2) e taxas de câmbio em décimos de milésimo (escala 4),
+// as mesmas escalas das colunas. A conversão para BigDecimal só acontece na gravação ou no JSON.
+// Todo arredondamento é HALF_UP; estouro de long lança ArithmeticException.
+public final class Centavos {
+
+    public static final int ESCALA_VALOR = 2;
+    public static final int ESCALA_TAXA = 4;
+
+    private static final long UNIDADE_TAXA = 10_000L;
+
+    private Centavos() {}
+
+    // BigDecimal -> centavos; null vira zero
+    public static long de(BigDecimal valor) {
+        if (valor == null) {
+            return 0L;
+        }
+        return valor.setScale(ESCALA_VALOR, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // BigDecimal -> taxa com 4 casas (ex.: 5.4321 -> 54321)
+    public static long taxaDe(BigDecimal taxa) {
+        return taxa.setScale(ESCALA_TAXA, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Centavos -> BigDecimal com escala 2
+    public static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA_VALOR);
+    }
+
+    public static long somar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtrair(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    // Valor unitário x quantidade
+    public static long multiplicar(long centavos, long quantidade) {
+        return Math.multiplyExact(centavos, quantidade);
+    }
+
+    // Valor em centavos dividido pela taxa de 4 casas, com resultado em centavos (HALF_UP)
+    public static long dividirPorTaxa(long centavos, long taxa) {
+        if (taxa == 0) {
+            throw new ArithmeticException("Taxa de câmbio igual a zero");
+        }
+        return dividirArredondando(Math.multiplyExact(centavos, UNIDADE_TAXA), taxa);
+    }
+
+    // Divisão inteira com arredondamento HALF_UP (meio afasta do zero)
+    static long dividirArredondando(long dividendo, long divisor) {
+        long quociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (resto != 0 && Math.abs(resto) >= Math.abs(divisor) - Math.abs(resto)) {
+            quociente += (dividendo < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quociente;
+    }
+}
@@ -0,0 +1,58 @@
+package com.web.dev.painelOnline.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitura e escrita de linhas CSV (RFC 4180; a leitura não aceita quebra de linha dentro de campo):
+// campos entre aspas podem conter o separador e aspas duplicadas ("") viram uma aspa
+public final class Csv {
+
+    private Csv() {}
+
+    // Cabeçalhos com ';' (planilhas em português) usam ';'; os demais usam ','
+    public static char detectarSeparador(String cabecalho) {
+        return cabecalho.indexOf(';') >= 0 ? ';' : ',';
+    }
+
+    public static List<String> separar(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha.");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Campo pronto para escrita: entre aspas só quando contém separador, aspas ou quebra de linha
+    public static String escapar(String valor, char separador) {
+        if (valor == null) {
+            return "";
+        }
+        boolean precisaAspas = valor.indexOf(separador) >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        return precisaAspas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.web.dev.painelOnline.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Id do último item entregue numa página, serializado como texto opaco (Base64 URL), como CursorTransacao
+public final class CursorItemNota {
+
+    private final long id;
+
+    public CursorItemNota(long id) {
+        this.id = id;
+    }
+
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorItemNota decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new CursorItemNota(Long.parseLong(texto));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException também é IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+    }
+
+    public long getId() { return id; }
+}
@@ -0,0 +1,48 @@
+package com.web.dev.painelOnline.util;
+
+import com.web.dev.painelOnline.dto.TransacaoResumoDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Posição (data, id) da última transação entregue numa página, serializada como texto opaco (Base64 URL).
+// O cliente só devolve o valor recebido; o formato interno pode mudar sem quebrar a API.
+public final class CursorTransacao {
+
+    private final LocalDate data;
+    private final long id;
+
+    public CursorTransacao(LocalDate data, long id) {
+        this.data = data;
+        this.id = id;
+    }
+
+    public static CursorTransacao de(TransacaoResumoDTO transacao) {
+        return new CursorTransacao(transacao.getData(), transacao.getId());
+    }
+
+    public String codificar() {
+        String texto = data + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorTransacao decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.indexOf(':');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+            return new CursorTransacao(LocalDate.parse(texto.substring(0, separador)),
+                    Long.parseLong(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+    }
+
+    public LocalDate getData() { return data; }
+
+    public long getId() { return id; }
+}
@@ -0,0 +1,87 @@
+package com.web.dev.painelOnline.Config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepeticaoConflitoAspectTest {
+
+    // Falha com conflito nas primeiras chamadas
+    static class Escritor {
+        int chamadas;
+        int falhas;
+
+        @RepetirEmConflito
+        public String gravar() {
+            chamadas++;
+            if (chamadas <= falhas) {
+                throw new ObjectOptimisticLockingFailureException("ExtratoFinanceiro", 1L);
+            }
+            return "ok";
+        }
+
+        @RepetirEmConflito
+        public void violar() {
+            chamadas++;
+            throw new DataIntegrityViolationException("duplicado");
+        }
+    }
+
+    private Escritor alvo;
+    private Escritor proxy;
+
+    @BeforeEach
+    void setUp() {
+        RepeticaoConflitoAspect aspect = new RepeticaoConflitoAspect();
+        ReflectionTestUtils.setField(aspect, "esperaMs", 0L);
+
+        alvo = new Escritor();
+        AspectJProxyFactory factory = new AspectJProxyFactory(alvo);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void conflito_refazAteConseguir() {
+        alvo.falhas = 2;
+
+        assertEquals("ok", proxy.gravar());
+        assertEquals(3, alvo.chamadas);
+    }
+
+    @Test
+    void conflito_esgotaTentativas_repassaExcecao() {
+        alvo.falhas = 5;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, proxy::gravar);
+        assertEquals(3, alvo.chamadas);
+    }
+
+    @Test
+    void outraFalha_naoRefaz() {
+        assertThrows(DataIntegrityViolationException.class, proxy::violar);
+        assertEquals(1, alvo.chamadas);
+    }
+
+    @Test
+    void dentroDeTransacaoAberta_naoRefaz() {
+        alvo.falhas = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, proxy::gravar);
+        assertEquals(1, alvo.chamadas);
+    }
+}
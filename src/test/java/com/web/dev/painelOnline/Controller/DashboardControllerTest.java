@@ -2,9 +2,11 @@ package com.web.dev.painelOnline.Controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.web.dev.painelOnline.services.DashboardService;
+import com.web.dev.painelOnline.services.JwtUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,6 +18,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
+@AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(DashboardController.class)
 class DashboardControllerTest {
 
@@ -25,6 +28,9 @@ class DashboardControllerTest {
     @MockBean
     private DashboardService dashboardService;
 
+    @MockBean
+    private JwtUtils jwtUtils;
+
     @Test
     void obterDashboardAtual_ok() throws Exception {
         Mockito.when(dashboardService.obterDadosDashboard()).thenReturn(Map.of("key","value"));
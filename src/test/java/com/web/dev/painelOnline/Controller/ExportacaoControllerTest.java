@@ -0,0 +1,69 @@
+package com.web.dev.painelOnline.Controller;
+
+import com.web.dev.painelOnline.Enum.FormatoExportacao;
+import com.web.dev.painelOnline.services.ExportacaoService;
+import com.web.dev.painelOnline.services.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(ExportacaoController.class)
+class ExportacaoControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ExportacaoService exportacaoService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    @Test
+    void exportarTransacoes_csv_streams() throws Exception {
+        Mockito.when(exportacaoService.exportarTransacoes(any(), any(), eq(FormatoExportacao.CSV), any())).thenAnswer(inv -> {
+            OutputStream saida = inv.getArgument(3);
+            saida.write("id,data\r\n1,2025-01-01\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1;
+        });
+
+        MvcResult resultado = mvc.perform(get("/api/exportacao/transacoes")
+                        .param("dataInicio", "2025-01-01")
+                        .param("dataFim", "2025-01-31")
+                        .param("formato", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transacoes_2025-01-01_2025-01-31.csv\""))
+                .andExpect(content().string("id,data\r\n1,2025-01-01\r\n"));
+    }
+
+    @Test
+    void exportar_periodoInvalido_returnsBadRequest() throws Exception {
+        Mockito.doThrow(new IllegalArgumentException("Data inicial não pode ser posterior à data final."))
+                .when(exportacaoService).validarPeriodo(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1));
+
+        mvc.perform(get("/api/exportacao/extratos")
+                        .param("dataInicio", "2025-02-01")
+                        .param("dataFim", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").exists());
+    }
+}
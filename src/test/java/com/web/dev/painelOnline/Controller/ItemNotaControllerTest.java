@@ -1,17 +1,27 @@
 package com.web.dev.painelOnline.Controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoOperacoesItensDTO;
+import com.web.dev.painelOnline.dto.SugestaoDTO;
 import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.services.AutocompletarService;
 import com.web.dev.painelOnline.services.ItemNotaService;
+import com.web.dev.painelOnline.services.JwtUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -19,6 +29,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
+@AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(ItemNotaController.class)
 class ItemNotaControllerTest {
 
@@ -28,6 +39,12 @@ class ItemNotaControllerTest {
     @MockBean
     private ItemNotaService itemNotaService;
 
+    @MockBean
+    private AutocompletarService autocompletarService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -138,4 +155,74 @@ class ItemNotaControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].descricao").value("abc"));
     }
+
+    @Test
+    void sugerirDescricoes_ok_and_badRequest() throws Exception {
+        Mockito.when(autocompletarService.sugerirDescricoes("ca", 10))
+                .thenReturn(List.of(new SugestaoDTO("Café", 12), new SugestaoDTO("Caderno", 3)));
+        mvc.perform(get("/api/itens-nota/sugestoes").param("prefixo", "ca"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].valor").value("Café"))
+                .andExpect(jsonPath("$[0].frequencia").value(12))
+                .andExpect(jsonPath("$[1].valor").value("Caderno"));
+
+        Mockito.when(autocompletarService.sugerirDescricoes("ca", 500))
+                .thenThrow(new IllegalArgumentException("Limite deve estar entre 1 e 50."));
+        mvc.perform(get("/api/itens-nota/sugestoes").param("prefixo", "ca").param("limite", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("Limite deve estar entre 1 e 50."));
+    }
+
+    @Test
+    void buscarTodosItens_paginaComCursorNoCabecalho() throws Exception {
+        ItemNotaDTO dto = new ItemNotaDTO(4L, "X", 1, BigDecimal.ONE, BigDecimal.ONE, 9L);
+        Mockito.when(itemNotaService.buscarPaginaItens(eq(9L), isNull(), isNull(), isNull(), eq(1)))
+                .thenReturn(new PaginaDTO<>(List.of(dto), "NA"));
+
+        mvc.perform(get("/api/itens-nota").param("transacaoId", "9").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TransacaoController.CABECALHO_PROXIMO_CURSOR, "NA"))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[0].transacaoId").value(9));
+    }
+
+    @Test
+    void buscarItensEmFluxo_ndjson_and_badRequest() throws Exception {
+        Mockito.doAnswer(inv -> {
+            OutputStream saida = inv.getArgument(3);
+            saida.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1;
+        }).when(itemNotaService).escreverItens(eq(5L), any(), any(), any());
+
+        MvcResult resultado = mvc.perform(get("/api/itens-nota/fluxo").param("transacaoId", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        mvc.perform(get("/api/itens-nota/fluxo")
+                        .param("valorMinimo", "10")
+                        .param("valorMaximo", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").exists());
+    }
+
+    @Test
+    void aplicarOperacoes_ok_and_badRequest() throws Exception {
+        Mockito.when(itemNotaService.aplicarOperacoes(any()))
+                .thenReturn(new ResultadoOperacoesItensDTO(1, 0, 1, 1, List.of()));
+        String corpo = "{\"operacoes\":[{\"tipo\":\"CRIAR\",\"transacaoId\":1,\"descricao\":\"A\"," +
+                "\"quantidade\":1,\"valorUnitario\":2.5},{\"tipo\":\"EXCLUIR\",\"id\":7}]}";
+        mvc.perform(post("/api/itens-nota/lote").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados").value(1))
+                .andExpect(jsonPath("$.excluidos").value(1));
+
+        Mockito.when(itemNotaService.aplicarOperacoes(any()))
+                .thenThrow(new IllegalArgumentException("Informe ao menos uma operação."));
+        mvc.perform(post("/api/itens-nota/lote").contentType(MediaType.APPLICATION_JSON).content("{\"operacoes\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("Informe ao menos uma operação."));
+    }
 }
@@ -0,0 +1,86 @@
+package com.web.dev.painelOnline.Controller;
+
+import com.web.dev.painelOnline.dto.ParcelaDTO;
+import com.web.dev.painelOnline.dto.PlanoParcelamentoDTO;
+import com.web.dev.painelOnline.entities.Parcelamento;
+import com.web.dev.painelOnline.services.JwtUtils;
+import com.web.dev.painelOnline.services.ParcelamentoService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(ParcelamentoController.class)
+class ParcelamentoControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ParcelamentoService parcelamentoService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    private static PlanoParcelamentoDTO plano(int parcelas) {
+        Parcelamento parcelamento = new Parcelamento();
+        parcelamento.setId(7L);
+        parcelamento.setQuantidadeParcelas(parcelas);
+        List<ParcelaDTO> lista = new ArrayList<>();
+        for (int i = 1; i <= parcelas; i++) {
+            ParcelaDTO parcela = new ParcelaDTO();
+            parcela.setNumeroParcela(i);
+            lista.add(parcela);
+        }
+        return new PlanoParcelamentoDTO(parcelamento, lista);
+    }
+
+    @Test
+    void criar_created_and_badRequest() throws Exception {
+        Mockito.when(parcelamentoService.criar(any())).thenReturn(plano(3));
+
+        mvc.perform(post("/api/parcelamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"caracteristica\":\"Notebook\",\"valorTotalReais\":100.00,\"taxaCambio\":5.0," +
+                                "\"tipoTransacao\":\"DEBITO\",\"quantidadeParcelas\":3,\"dataPrimeiraParcela\":\"2025-01-31\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.parcelamento.id").value(7))
+                .andExpect(jsonPath("$.parcelas.length()").value(3));
+
+        Mockito.when(parcelamentoService.criar(any()))
+                .thenThrow(new IllegalArgumentException("quantidadeParcelas deve estar entre 2 e 360."));
+
+        mvc.perform(post("/api/parcelamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantidadeParcelas\":1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("quantidadeParcelas deve estar entre 2 e 360."));
+    }
+
+    @Test
+    void reprogramar_e_cancelar() throws Exception {
+        Mockito.when(parcelamentoService.reprogramar(7L, LocalDate.of(2025, 5, 10))).thenReturn(plano(3));
+        Mockito.when(parcelamentoService.cancelar(8L)).thenThrow(new RuntimeException("Parcelamento não encontrado com ID: 8"));
+
+        mvc.perform(put("/api/parcelamentos/{id}/reprogramar", 7L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"novaDataProximaParcela\":\"2025-05-10\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(put("/api/parcelamentos/{id}/cancelar", 8L))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,16 +1,30 @@
 package com.web.dev.painelOnline.Controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.dto.ExecucaoVencimentoDTO;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoAtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.SugestaoDTO;
+import com.web.dev.painelOnline.dto.TransacaoResumoDTO;
+import com.web.dev.painelOnline.entities.ItemNota;
 import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.services.AutocompletarService;
+import com.web.dev.painelOnline.services.ImportacaoTransacaoService;
+import com.web.dev.painelOnline.services.JwtUtils;
 import com.web.dev.painelOnline.services.TransacaoService;
+import com.web.dev.painelOnline.services.VencimentoTransacaoService;
+import com.web.dev.painelOnline.services.VerificacaoResumoItensService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +33,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+@AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(TransacaoController.class)
 class TransacaoControllerTest {
 
@@ -28,9 +43,30 @@ class TransacaoControllerTest {
     @MockBean
     private TransacaoService transacaoService;
 
+    @MockBean
+    private ImportacaoTransacaoService importacaoTransacaoService;
+
+    @MockBean
+    private VencimentoTransacaoService vencimentoTransacaoService;
+
+    @MockBean
+    private AutocompletarService autocompletarService;
+
+    @MockBean
+    private VerificacaoResumoItensService verificacaoResumoItensService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static TransacaoResumoDTO resumo(Long id) {
+        TransacaoResumoDTO resumo = new TransacaoResumoDTO();
+        resumo.setId(id);
+        return resumo;
+    }
+
     @Test
     void criarTransacao_created_and_badRequest() throws Exception {
         Transacao in = new Transacao();
@@ -51,15 +87,47 @@ class TransacaoControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void criarTransacaoComItens_jsonTipado_created() throws Exception {
+        Mockito.when(transacaoService.criarTransacaoComItens(any(), anyList())).thenAnswer(inv -> {
+            Transacao t = inv.getArgument(0);
+            t.setId(31L);
+            List<ItemNota> itens = inv.getArgument(1);
+            itens.get(0).setId(7L);
+            itens.get(0).setValorTotal(new BigDecimal("4.00"));
+            itens.get(0).setTransacao(t);
+            return t;
+        });
+
+        String corpo = "{\"transacao\": {\"data\": \"2025-01-10\", \"caracteristica\": \"Nota\", \"taxaCambio\": 5.0, " +
+                "\"tipoTransacao\": \"DEBITO\", \"statusPagamento\": \"PENDENTE\", \"tipoPagamento\": \"A_PRAZO\"}, " +
+                "\"itens\": [{\"descricao\": \"Cabo\", \"quantidade\": 2, \"valorUnitario\": 2.00}]}";
+
+        mvc.perform(post("/api/transacoes/com-itens")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(31))
+                .andExpect(jsonPath("$.quantidadeItens").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(7))
+                .andExpect(jsonPath("$.itens[0].transacaoId").value(31));
+
+        mvc.perform(post("/api/transacoes/com-itens")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itens\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void buscarTodas_e_porId_found_and_notFound() throws Exception {
         Transacao t = new Transacao();
         t.setId(2L);
-        Mockito.when(transacaoService.buscarTodasTransacoes()).thenReturn(List.of(t));
+        Mockito.when(transacaoService.buscarPaginaTransacoes(null, null, false)).thenReturn(new PaginaDTO<>(List.of(resumo(2L)), null));
 
         mvc.perform(get("/api/transacoes"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(2));
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(header().doesNotExist(TransacaoController.CABECALHO_PROXIMO_CURSOR));
 
         Mockito.when(transacaoService.buscarTransacaoPorId(2L)).thenReturn(Optional.of(t));
         mvc.perform(get("/api/transacoes/{id}", 2L))
@@ -88,17 +156,17 @@ class TransacaoControllerTest {
 
     @Test
     void periodo_mes_debitos_aprazo_endpoints_ok() throws Exception {
-        Mockito.when(transacaoService.buscarTransacoesPorPeriodo(any(), any())).thenReturn(List.of());
+        Mockito.when(transacaoService.buscarPaginaTransacoesPorPeriodo(any(), any(), any(), any(), anyBoolean())).thenReturn(new PaginaDTO<>(List.of(), null));
         mvc.perform(get("/api/transacoes/periodo")
                         .param("dataInicio", LocalDate.of(2025, 1, 1).toString())
                         .param("dataFim", LocalDate.of(2025, 1, 31).toString()))
                 .andExpect(status().isOk());
 
-        Mockito.when(transacaoService.buscarTransacoesMes(anyInt(), anyInt())).thenReturn(List.of());
+        Mockito.when(transacaoService.buscarPaginaTransacoesMes(anyInt(), anyInt(), any(), any(), anyBoolean())).thenReturn(new PaginaDTO<>(List.of(), null));
         mvc.perform(get("/api/transacoes/mes/{ano}/{mes}", 2025, 1))
                 .andExpect(status().isOk());
 
-        Mockito.when(transacaoService.buscarDebitosAPrazoMes(anyInt(), anyInt())).thenReturn(List.of());
+        Mockito.when(transacaoService.buscarResumoDebitosAPrazoMes(anyInt(), anyInt(), anyBoolean())).thenReturn(List.of());
         mvc.perform(get("/api/transacoes/debitos-prazo/{ano}/{mes}", 2025, 1))
                 .andExpect(status().isOk());
     }
@@ -136,11 +204,65 @@ class TransacaoControllerTest {
     void buscarTodasTransacoes_ok() throws Exception {
         Transacao t = new Transacao();
         t.setId(100L);
-        Mockito.when(transacaoService.buscarTodasTransacoes()).thenReturn(List.of(t));
+        TransacaoResumoDTO resumo = resumo(t.getId());
+        resumo.setItens(List.of(new ItemNotaDTO(5L, "Item", 1, BigDecimal.ONE, BigDecimal.ONE, 100L)));
+        Mockito.when(transacaoService.buscarPaginaTransacoes("abc", 1, true)).thenReturn(new PaginaDTO<>(List.of(resumo), "prox"));
 
-        mvc.perform(get("/api/transacoes"))
+        mvc.perform(get("/api/transacoes").param("cursor", "abc").param("tamanho", "1").param("incluirItens", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(100))
+                .andExpect(jsonPath("$[0].itens[0].id").value(5))
+                .andExpect(header().string(TransacaoController.CABECALHO_PROXIMO_CURSOR, "prox"));
+    }
+
+    @Test
+    void buscarTodasTransacoes_cursorInvalido_returnsBadRequest() throws Exception {
+        Mockito.when(transacaoService.buscarPaginaTransacoes("x", null, false)).thenThrow(new IllegalArgumentException("Cursor inválido."));
+
+        mvc.perform(get("/api/transacoes").param("cursor", "x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("Cursor inválido."));
+    }
+
+    @Test
+    void atualizarStatusEmLote_ok_and_badRequest() throws Exception {
+        Mockito.when(transacaoService.atualizarStatusEmLote(any())).thenReturn(new ResultadoAtualizacaoStatusDTO(3, 2));
+
+        mvc.perform(put("/api/transacoes/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"novoStatus\":\"PAGO\",\"ids\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atualizadas").value(3))
+                .andExpect(jsonPath("$.diasAfetados").value(2));
+
+        Mockito.when(transacaoService.atualizarStatusEmLote(any()))
+                .thenThrow(new IllegalArgumentException("novoStatus é obrigatório."));
+
+        mvc.perform(put("/api/transacoes/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("novoStatus é obrigatório."));
+    }
+
+    @Test
+    void vencimentos_executar_e_ultimaExecucao() throws Exception {
+        Mockito.when(vencimentoTransacaoService.getUltimaExecucao()).thenReturn(null);
+        mvc.perform(get("/api/transacoes/vencimentos/ultima-execucao"))
+                .andExpect(status().isNotFound());
+
+        ExecucaoVencimentoDTO execucao = new ExecucaoVencimentoDTO(LocalDate.now(), null);
+        execucao.setAtualizadas(7);
+        execucao.setLotes(1);
+        Mockito.when(vencimentoTransacaoService.marcarVencidas(any())).thenReturn(execucao);
+        Mockito.when(vencimentoTransacaoService.getUltimaExecucao()).thenReturn(execucao);
+
+        mvc.perform(post("/api/transacoes/vencimentos/executar"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(100));
+                .andExpect(jsonPath("$.atualizadas").value(7));
+        mvc.perform(get("/api/transacoes/vencimentos/ultima-execucao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lotes").value(1));
     }
 
     @Test
@@ -170,4 +292,23 @@ class TransacaoControllerTest {
                         .param("dataFim", "invalid-date"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void sugerirCaracteristicas_ok() throws Exception {
+        Mockito.when(autocompletarService.sugerirCaracteristicas("mer", 5))
+                .thenReturn(List.of(new SugestaoDTO("Mercado", 40)));
+        mvc.perform(get("/api/transacoes/sugestoes").param("prefixo", "mer").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].valor").value("Mercado"))
+                .andExpect(jsonPath("$[0].frequencia").value(40));
+    }
+
+    @Test
+    void verificarResumoItens_informaCorrigidas() throws Exception {
+        Mockito.when(verificacaoResumoItensService.verificar()).thenReturn(3);
+        mvc.perform(post("/api/transacoes/itens/verificar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.corrigidas").value(3))
+                .andExpect(jsonPath("$.consistente").value(false));
+    }
 }
@@ -39,6 +39,23 @@ class TransacaoTest {
         assertEquals(BigDecimal.valueOf(50.00).setScale(2), t.getValorDolares().setScale(2));
     }
 
+    @Test
+    void definirVencimentoPadrao_soParaPagamentoAPrazo() {
+        Transacao prazo = new Transacao(LocalDate.of(2025, 1, 10), "descr", BigDecimal.TEN, BigDecimal.ONE,
+                TipoTransacao.DEBITO, StatusPagamento.PENDENTE, TipoPagamento.A_PRAZO);
+        prazo.definirVencimentoPadrao(30);
+        assertEquals(LocalDate.of(2025, 2, 9), prazo.getDataVencimento());
+
+        // Vencimento informado é mantido
+        prazo.setDataVencimento(LocalDate.of(2025, 1, 20));
+        prazo.definirVencimentoPadrao(30);
+        assertEquals(LocalDate.of(2025, 1, 20), prazo.getDataVencimento());
+
+        prazo.setTipoPagamento(TipoPagamento.A_VISTA);
+        prazo.definirVencimentoPadrao(30);
+        assertNull(prazo.getDataVencimento());
+    }
+
     @Test
     void toString_containsFields() {
         Transacao t = new Transacao();
@@ -0,0 +1,28 @@
+package com.web.dev.painelOnline.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Guarda o SQL gerado pelo Hibernate para o PlanoConsultasTest rodar EXPLAIN sobre ele
+public class CapturaSql implements StatementInspector {
+
+    private static final List<String> comandos = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (comandos) {
+            comandos.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> retirar() {
+        synchronized (comandos) {
+            List<String> capturados = new ArrayList<>(comandos);
+            comandos.clear();
+            return capturados;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.entities.Transacao;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Roda EXPLAIN (H2) sobre o SQL de cada consulta declarada nos repositórios e falha
+// quando alguma tabela é lida sem condição de índice (varredura completa).
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.web.dev.painelOnline.repository.CapturaSql",
+        "spring.jpa.show-sql=false"
+})
+class PlanoConsultasTest {
+
+    // Consultas que leem a tabela inteira por definição (listagens sem filtro, LIKE com curinga
+    // no início, ordenação por expressão). Cada entrada precisa de motivo.
+    private static final Set<String> VARREDURA_ESPERADA = Set.of(
+            "ItemNotaRepository.streamDtos",                            // listagem completa em fluxo
+            "ItemNotaRepository.findByDescricaoContaining",             // LIKE '%...%'
+            "ItemNotaRepository.findByValorUnitarioGreaterThanEqual",   // faixa de valor sem índice
+            "ItemNotaRepository.contarDescricoes",                      // carga do autocompletar na inicialização
+            "TransacaoRepository.findByCaracteristicaContaining",       // LIKE '%...%'
+            "TransacaoRepository.contarCaracteristicas",                // carga do autocompletar na inicialização
+            "CambioHistoricoRepository.findUltimaTaxa",                 // listagem completa ordenada
+            "CambioHistoricoRepository.findTopNByOrderByDataDesc",      // listagem completa ordenada
+            "ExtratoFinanceiroRepository.findUltimoExtrato",            // listagem completa ordenada
+            "ExtratoFinanceiroRepository.findDiasComSaldoNegativo",     // filtro em saldo, sem índice
+            "ExtratoFinanceiroRepository.findDiasComMaiorMovimento",    // listagem completa ordenada
+            "ExtratoFinanceiroRepository.preencherMovimentoTotal",      // correção única na inicialização
+            "UsuarioRepository.findByAtivo"                             // tabela pequena
+    );
+
+    // Comentário de acesso do plano do H2: /* PUBLIC.INDICE: condições */ ou /* PUBLIC.TABELA.tableScan */,
+    // seguido de /* direct lookup */ quando MIN/MAX é lido direto na ponta do índice
+    private static final Pattern ACESSO = Pattern.compile(
+            "/\\* (PUBLIC\\.[^:*]+?)(:[^*]*)? \\*/(\\s*/\\* direct lookup \\*/)?");
+
+    @Autowired private TransacaoRepository transacaoRepository;
+    @Autowired private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+    @Autowired private CambioHistoricoRepository cambioHistoricoRepository;
+    @Autowired private ItemNotaRepository itemNotaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private ExtratoMensalRepository extratoMensalRepository;
+    @Autowired private ExtratoAnualRepository extratoAnualRepository;
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private DataSource dataSource;
+
+    @Test
+    void consultasDosRepositorios_naoFazemVarreduraCompleta() throws Exception {
+        Transacao transacao = new Transacao(LocalDate.of(2025, 1, 10), "Teste", BigDecimal.TEN,
+                BigDecimal.ONE, TipoTransacao.CREDITO, StatusPagamento.PAGO, TipoPagamento.A_VISTA);
+        entityManager.persist(transacao);
+        entityManager.flush();
+
+        Map<Class<?>, Object> repositorios = Map.of(
+                TransacaoRepository.class, transacaoRepository,
+                ExtratoFinanceiroRepository.class, extratoFinanceiroRepository,
+                CambioHistoricoRepository.class, cambioHistoricoRepository,
+                ItemNotaRepository.class, itemNotaRepository,
+                UsuarioRepository.class, usuarioRepository,
+                ExtratoMensalRepository.class, extratoMensalRepository,
+                ExtratoAnualRepository.class, extratoAnualRepository
+        );
+
+        List<String> falhas = new ArrayList<>();
+        int consultas = 0;
+        for (Map.Entry<Class<?>, Object> repositorio : repositorios.entrySet()) {
+            for (Method metodo : repositorio.getKey().getDeclaredMethods()) {
+                // Métodos default só delegam para as consultas declaradas
+                if (metodo.isDefault() || Modifier.isStatic(metodo.getModifiers())) {
+                    continue;
+                }
+                String nome = repositorio.getKey().getSimpleName() + "." + metodo.getName();
+
+                CapturaSql.retirar();
+                invocar(metodo, repositorio.getValue(), transacao);
+                entityManager.clear();
+
+                for (String sql : CapturaSql.retirar()) {
+                    consultas++;
+                    String plano = explicar(sql);
+                    List<String> varreduras = varreduras(plano);
+                    if (!varreduras.isEmpty() && !VARREDURA_ESPERADA.contains(nome)) {
+                        falhas.add(nome + " lê sem índice " + varreduras + "\n" + plano);
+                    }
+                }
+            }
+        }
+
+        assertTrue(consultas > 0);
+        assertTrue(falhas.isEmpty(), String.join("\n\n", falhas));
+    }
+
+    private void invocar(Method metodo, Object repositorio, Transacao transacao) throws Exception {
+        Class<?>[] tipos = metodo.getParameterTypes();
+        Object[] argumentos = new Object[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            argumentos[i] = exemplo(tipos[i], transacao);
+        }
+        try {
+            Object resultado = metodo.invoke(repositorio, argumentos);
+            // Consultas em fluxo mantêm o cursor aberto até o Stream ser fechado
+            if (resultado instanceof AutoCloseable fluxo) {
+                fluxo.close();
+            }
+        } catch (InvocationTargetException e) {
+            throw new AssertionError("Falha ao executar " + metodo, e.getCause());
+        }
+    }
+
+    private Object exemplo(Class<?> tipo, Transacao transacao) {
+        if (tipo == LocalDate.class) return LocalDate.of(2025, 1, 1);
+        if (tipo == LocalDateTime.class) return LocalDateTime.of(2025, 1, 1, 0, 0);
+        if (tipo == int.class || tipo == Integer.class) return 2025;
+        if (tipo == long.class || tipo == Long.class) return transacao.getId();
+        if (tipo == BigDecimal.class) return BigDecimal.ONE;
+        if (tipo == String.class) return "teste";
+        if (tipo == Boolean.class || tipo == boolean.class) return Boolean.TRUE;
+        if (tipo == Transacao.class) return transacao;
+        if (tipo.isEnum()) return tipo.getEnumConstants()[0];
+        if (tipo == Pageable.class) return PageRequest.of(0, 20);
+        if (tipo == Collection.class) return List.of(transacao.getId());
+        throw new IllegalArgumentException("Sem valor de exemplo para " + tipo);
+    }
+
+    private String explicar(String sql) throws Exception {
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = conexao.prepareStatement("EXPLAIN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            StringBuilder plano = new StringBuilder();
+            while (rs.next()) {
+                plano.append(rs.getString(1)).append('\n');
+            }
+            return plano.toString();
+        } finally {
+            DataSourceUtils.releaseConnection(conexao, dataSource);
+        }
+    }
+
+    // Acessos a tabela sem nenhuma condição de índice
+    private List<String> varreduras(String plano) {
+        List<String> varreduras = new ArrayList<>();
+        Matcher matcher = ACESSO.matcher(plano);
+        while (matcher.find()) {
+            String acesso = matcher.group(1);
+            boolean semCondicao = matcher.group(2) == null && matcher.group(3) == null;
+            if (acesso.endsWith("tableScan") || semCondicao) {
+                varreduras.add(acesso);
+            }
+        }
+        return varreduras;
+    }
+}
@@ -0,0 +1,84 @@
+package com.web.dev.painelOnline.repository;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.entities.Transacao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Duas alterações simultâneas da mesma transação: com a leitura travada, a segunda só lê o valor
+// anterior depois do commit da primeira, e o estorno no extrato sai do valor que estava gravado.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TravaTransacaoTest {
+
+    @Autowired private TransacaoRepository transacaoRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void findByIdParaAtualizar_alteracoesConcorrentes_segundaLeValorGravadoPelaPrimeira() throws Exception {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        Long id = template.execute(status -> transacaoRepository.save(new Transacao(LocalDate.of(2025, 3, 5),
+                "Concorrente", new BigDecimal("100.00"), BigDecimal.ONE, TipoTransacao.DEBITO,
+                StatusPagamento.PAGO, TipoPagamento.A_VISTA)).getId());
+
+        CountDownLatch primeiraLeu = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BigDecimal> primeira = executor.submit(() -> template.execute(status -> {
+                Transacao t = transacaoRepository.findByIdParaAtualizar(id).orElseThrow();
+                BigDecimal anterior = t.getValorReais();
+                primeiraLeu.countDown();
+                pausar(300);
+                t.setValorReais(anterior.add(BigDecimal.TEN));
+                return anterior;
+            }));
+            Future<BigDecimal> segunda = executor.submit(() -> {
+                primeiraLeu.await(5, TimeUnit.SECONDS);
+                return template.execute(status -> {
+                    Transacao t = transacaoRepository.findByIdParaAtualizar(id).orElseThrow();
+                    BigDecimal anterior = t.getValorReais();
+                    t.setValorReais(anterior.add(BigDecimal.TEN));
+                    return anterior;
+                });
+            });
+
+            assertEquals(0, new BigDecimal("100.00").compareTo(primeira.get(10, TimeUnit.SECONDS)));
+            // Sem a trava a segunda leria 100 também, e um dos deltas se perderia
+            assertEquals(0, new BigDecimal("110.00").compareTo(segunda.get(10, TimeUnit.SECONDS)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal gravado = transacaoRepository.findById(id).orElseThrow().getValorReais();
+        assertEquals(0, new BigDecimal("120.00").compareTo(gravado));
+        transacaoRepository.deleteById(id);
+    }
+
+    private static void pausar(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
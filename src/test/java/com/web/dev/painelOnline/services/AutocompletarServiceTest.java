@@ -0,0 +1,125 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.SugestaoDTO;
+import com.web.dev.painelOnline.repository.ItemNotaRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AutocompletarServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ItemNotaRepository itemNotaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AutocompletarService autocompletarService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(autocompletarService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        when(itemNotaRepository.contarDescricoes()).thenReturn(List.of(
+                new SugestaoDTO("Café", 5),
+                new SugestaoDTO("cafe", 2),
+                new SugestaoDTO("Caderno", 9),
+                new SugestaoDTO("Cabo USB", 1),
+                new SugestaoDTO("Pão", 20)));
+        when(transacaoRepository.contarCaracteristicas()).thenReturn(List.of(
+                new SugestaoDTO("Mercado", 3),
+                new SugestaoDTO("Mecânico", 1)));
+        autocompletarService.carregar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static List<String> valores(List<SugestaoDTO> sugestoes) {
+        return sugestoes.stream().map(SugestaoDTO::getValor).toList();
+    }
+
+    @Test
+    void sugerir_porPrefixoOrdenadoPorFrequencia() {
+        List<SugestaoDTO> sugestoes = autocompletarService.sugerirDescricoes("CA", 10);
+
+        // "Café" e "cafe" são o mesmo valor normalizado e somam as contagens
+        assertEquals(List.of("Caderno", "Café", "Cabo USB"), valores(sugestoes));
+        assertEquals(7, sugestoes.get(1).getFrequencia());
+        assertEquals(List.of("Caderno", "Café"), valores(autocompletarService.sugerirDescricoes("ca", 2)));
+        assertEquals(List.of("Pão"), valores(autocompletarService.sugerirDescricoes("pa", 10)));
+        assertEquals(List.of("Mercado", "Mecânico"), valores(autocompletarService.sugerirCaracteristicas("me", 10)));
+        assertTrue(autocompletarService.sugerirDescricoes("x", 10).isEmpty());
+        assertTrue(autocompletarService.sugerirDescricoes("  ", 10).isEmpty());
+    }
+
+    @Test
+    void sugerir_limiteForaDaFaixa_lancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> autocompletarService.sugerirDescricoes("ca", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> autocompletarService.sugerirDescricoes("ca", AutocompletarService.LIMITE_MAXIMO + 1));
+    }
+
+    @Test
+    void registrar_ajustaContagensERemoveValoresSemUso() {
+        autocompletarService.registrarCaracteristica(null, "Mecânico");
+        autocompletarService.registrarCaracteristica(null, "Mecanico");
+        autocompletarService.registrarCaracteristica("Mercado", "Mesa");
+
+        List<SugestaoDTO> sugestoes = autocompletarService.sugerirCaracteristicas("me", 10);
+        assertEquals(List.of("Mecânico", "Mercado", "Mesa"), valores(sugestoes));
+        assertEquals(3, sugestoes.get(0).getFrequencia());
+
+        autocompletarService.registrarDescricoes(List.of("Cabo USB"), List.of("Cabide"));
+        assertEquals(List.of("Caderno", "Café", "Cabide"), valores(autocompletarService.sugerirDescricoes("ca", 10)));
+    }
+
+    @Test
+    void registrar_dentroDeTransacao_soAplicaAposCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        autocompletarService.registrarDescricao(null, "Pastel");
+        assertEquals(List.of("Pão"), valores(autocompletarService.sugerirDescricoes("pa", 10)));
+
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacao.afterCommit();
+        }
+        assertEquals(List.of("Pão", "Pastel"), valores(autocompletarService.sugerirDescricoes("pa", 10)));
+    }
+
+    @Test
+    void recarregar_reaplicaContagensCommitadasDepoisDoSnapshot() {
+        // A consulta já leu as contagens quando mais uma transação "Mercado" é commitada
+        when(transacaoRepository.contarCaracteristicas()).thenAnswer(inv -> {
+            autocompletarService.registrarCaracteristica(null, "Mercado");
+            autocompletarService.registrarCaracteristica("Mecânico", null);
+            return List.of(new SugestaoDTO("Mercado", 3), new SugestaoDTO("Mecânico", 1));
+        });
+
+        autocompletarService.recarregarCaracteristicas();
+
+        List<SugestaoDTO> sugestoes = autocompletarService.sugerirCaracteristicas("me", 10);
+        assertEquals(List.of("Mercado"), valores(sugestoes));
+        assertEquals(4, sugestoes.get(0).getFrequencia());
+    }
+}
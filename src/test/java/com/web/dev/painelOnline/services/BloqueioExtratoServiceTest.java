@@ -0,0 +1,128 @@
+package com.web.dev.painelOnline.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloqueioExtratoServiceTest {
+
+    private BloqueioExtratoService bloqueioExtratoService;
+    private ExecutorService outraThread;
+
+    private final LocalDate d1 = LocalDate.of(2025, 5, 1);
+    private final LocalDate d2 = LocalDate.of(2025, 5, 2);
+
+    @BeforeEach
+    void setUp() {
+        bloqueioExtratoService = new BloqueioExtratoService();
+        ReflectionTestUtils.setField(bloqueioExtratoService, "quantidadeFaixas", 16);
+        ReflectionTestUtils.setField(bloqueioExtratoService, "esperaMs", 50L);
+        bloqueioExtratoService.iniciar();
+        outraThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        outraThread.shutdownNow();
+    }
+
+    // Outra transação, em outra thread, tentando travar os dias
+    private CompletableFuture<Void> bloquearEmOutraTransacao(LocalDate data) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(data));
+                concluir(TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }, outraThread);
+    }
+
+    private static void concluir(int status) {
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacao.afterCompletion(status);
+        }
+    }
+
+    @Test
+    void semTransacao_naoTrava() {
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(d1));
+
+        assertEquals(0, bloqueioExtratoService.faixasSeguradas());
+    }
+
+    @Test
+    void mesmoDia_esperaAteFimDaTransacao() {
+        TransactionSynchronizationManager.initSynchronization();
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(d1));
+
+        CompletableFuture<Void> concorrente = bloquearEmOutraTransacao(d1);
+        Exception erro = assertThrows(Exception.class, concorrente::join);
+        assertInstanceOf(CannotAcquireLockException.class, erro.getCause());
+
+        // Depois do commit a faixa é liberada para o próximo escritor
+        concluir(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, bloqueioExtratoService.faixasSeguradas());
+        assertDoesNotThrow(() -> bloquearEmOutraTransacao(d1).join());
+    }
+
+    @Test
+    void diasEmFaixasDiferentes_naoEsperam() {
+        assertNotEquals(bloqueioExtratoService.faixa(d1), bloqueioExtratoService.faixa(d2));
+
+        TransactionSynchronizationManager.initSynchronization();
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(d1));
+
+        assertDoesNotThrow(() -> bloquearEmOutraTransacao(d2).join());
+        concluir(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    @Test
+    void rollback_tambemLibera_eReentradaNaMesmaTransacaoNaoTrava() {
+        TransactionSynchronizationManager.initSynchronization();
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(d1, d2));
+        bloqueioExtratoService.bloquearAteFimDaTransacao(List.of(d1));
+        assertEquals(2, bloqueioExtratoService.faixasSeguradas());
+
+        concluir(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, bloqueioExtratoService.faixasSeguradas());
+    }
+
+    @Test
+    void bloquearTudo_seguraTodasAsFaixasAteFimDaTransacao() {
+        TransactionSynchronizationManager.initSynchronization();
+        bloqueioExtratoService.bloquearTudoAteFimDaTransacao();
+        assertEquals(16, bloqueioExtratoService.faixasSeguradas());
+
+        Exception erro = assertThrows(Exception.class, () -> bloquearEmOutraTransacao(LocalDate.of(1999, 12, 31)).join());
+        assertInstanceOf(CannotAcquireLockException.class, erro.getCause());
+
+        concluir(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, bloqueioExtratoService.faixasSeguradas());
+        assertDoesNotThrow(() -> bloquearEmOutraTransacao(d2).join());
+    }
+
+    @Test
+    void faixa_diasAntesDaEpocaNaoFicamNegativos() {
+        int faixa = bloqueioExtratoService.faixa(LocalDate.of(1960, 1, 1));
+
+        assertTrue(faixa >= 0 && faixa < 16);
+    }
+}
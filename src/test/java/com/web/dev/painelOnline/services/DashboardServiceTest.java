@@ -1,5 +1,7 @@
 package com.web.dev.painelOnline.services;
 
+import com.web.dev.painelOnline.entities.ExtratoAnual;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -31,23 +33,25 @@ class DashboardServiceTest {
     void obterDadosDashboardMes_populatesMap() {
         when(transacaoService.calcularTotalPagamentosMes(2025, 1)).thenReturn(BigDecimal.TEN);
         when(transacaoService.calcularTotalDebitosPrazoMes(2025, 1)).thenReturn(BigDecimal.valueOf(2));
-        when(extratoFinanceiroService.calcularTotalCreditosMes(2025, 1)).thenReturn(BigDecimal.valueOf(3));
-        when(extratoFinanceiroService.calcularTotalDebitosMes(2025, 1)).thenReturn(BigDecimal.valueOf(1));
-        when(extratoFinanceiroService.calcularSaldoMes(2025, 1)).thenReturn(BigDecimal.valueOf(2));
+        ExtratoMensal mensal = new ExtratoMensal(2025, 1);
+        mensal.somar(BigDecimal.valueOf(3), BigDecimal.valueOf(1));
+        when(extratoFinanceiroService.buscarResumoMes(2025, 1)).thenReturn(mensal);
         when(extratoFinanceiroService.calcularSaldoAcumuladoAteData(any())).thenReturn(BigDecimal.valueOf(20));
 
         Map<String, Object> map = dashboardService.obterDadosDashboardMes(2025, 1);
         assertEquals(BigDecimal.TEN, map.get("totalPagamentosMes"));
         assertEquals(2025, map.get("ano"));
         assertEquals(1, map.get("mes"));
+        assertEquals(BigDecimal.valueOf(2), map.get("saldoMes"));
         assertEquals(BigDecimal.valueOf(20), map.get("saldoAcumulado"));
+        verify(extratoFinanceiroService, times(1)).buscarResumoMes(2025, 1);
     }
 
     @Test
     void obterDadosDashboardAno_populatesMap() {
-        when(extratoFinanceiroService.calcularTotalCreditosAno(2024)).thenReturn(BigDecimal.valueOf(100));
-        when(extratoFinanceiroService.calcularTotalDebitosAno(2024)).thenReturn(BigDecimal.valueOf(50));
-        when(extratoFinanceiroService.calcularSaldoAno(2024)).thenReturn(BigDecimal.valueOf(50));
+        ExtratoAnual anual = new ExtratoAnual(2024);
+        anual.somar(BigDecimal.valueOf(100), BigDecimal.valueOf(50));
+        when(extratoFinanceiroService.buscarResumoAno(2024)).thenReturn(anual);
         when(extratoFinanceiroService.calcularSaldoAcumuladoAteData(any())).thenReturn(BigDecimal.valueOf(200));
 
         Map<String, Object> map = dashboardService.obterDadosDashboardAno(2024);
@@ -61,9 +65,7 @@ class DashboardServiceTest {
 
         when(transacaoService.calcularTotalPagamentosMes(anyInt(), anyInt())).thenReturn(BigDecimal.ZERO);
         when(transacaoService.calcularTotalDebitosPrazoMes(anyInt(), anyInt())).thenReturn(BigDecimal.ZERO);
-        when(extratoFinanceiroService.calcularTotalCreditosMes(anyInt(), anyInt())).thenReturn(BigDecimal.ZERO);
-        when(extratoFinanceiroService.calcularTotalDebitosMes(anyInt(), anyInt())).thenReturn(BigDecimal.ZERO);
-        when(extratoFinanceiroService.calcularSaldoMes(anyInt(), anyInt())).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroService.buscarResumoMes(anyInt(), anyInt())).thenReturn(new ExtratoMensal());
         when(extratoFinanceiroService.calcularSaldoAcumuladoAteData(any())).thenReturn(BigDecimal.ZERO);
 
         Map<String, Object> map = dashboardService.obterDadosDashboard();
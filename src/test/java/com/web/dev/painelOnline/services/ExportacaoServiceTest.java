@@ -0,0 +1,146 @@
+package com.web.dev.painelOnline.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.Enum.FormatoExportacao;
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.entities.ItemNota;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import com.web.dev.painelOnline.repository.ItemNotaRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportacaoServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ItemNotaRepository itemNotaRepository;
+
+    @Mock
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportacaoService exportacaoService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(exportacaoService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(exportacaoService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(exportacaoService, "linhasPorLimpeza", 2);
+    }
+
+    private static Transacao transacao(long id, String caracteristica) {
+        Transacao t = new Transacao(LocalDate.of(2024, 3, 5), caracteristica, new BigDecimal("50.00"),
+                new BigDecimal("5.0000"), TipoTransacao.DEBITO, StatusPagamento.PAGO, TipoPagamento.A_VISTA);
+        t.setId(id);
+        t.recalcularValorDolares();
+        return t;
+    }
+
+    @Test
+    void exportarTransacoes_ndjson_umObjetoPorLinha_eFimExclusivo() throws Exception {
+        AtomicBoolean fechado = new AtomicBoolean();
+        when(transacaoRepository.streamNoIntervalo(INICIO, FIM.plusDays(1)))
+                .thenReturn(Stream.of(transacao(1L, "Mercado"), transacao(2L, "Farmácia")).onClose(() -> fechado.set(true)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int total = exportacaoService.exportarTransacoes(INICIO, FIM, FormatoExportacao.NDJSON, saida);
+
+        assertEquals(2, total);
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        JsonNode primeira = objectMapper.readTree(linhas[0]);
+        assertEquals(1, primeira.get("id").asLong());
+        assertEquals("2024-03-05", primeira.get("data").asText());
+        assertEquals("Mercado", primeira.get("caracteristica").asText());
+        assertEquals(0, new BigDecimal("10.00").compareTo(primeira.get("valorDolares").decimalValue()));
+        assertEquals("DEBITO", primeira.get("tipoTransacao").asText());
+        assertFalse(primeira.has("itens"));
+        assertEquals("Farmácia", objectMapper.readTree(linhas[1]).get("caracteristica").asText());
+        assertTrue(fechado.get(), "o Stream do cursor deve ser fechado");
+    }
+
+    @Test
+    void exportarTransacoes_csv_cabecalhoIgualAoDaImportacao_eCamposEscapados() throws Exception {
+        when(transacaoRepository.streamNoIntervalo(any(), any()))
+                .thenReturn(Stream.of(transacao(7L, "Loja, \"Centro\"")));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        exportacaoService.exportarTransacoes(INICIO, FIM, FormatoExportacao.CSV, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,data,caracteristica,valorReais,taxaCambio,valorDolares,tipoTransacao,statusPagamento,tipoPagamento,dataVencimento", linhas[0]);
+        assertEquals("7,2024-03-05,\"Loja, \"\"Centro\"\"\",50.00,5.0000,10.00,DEBITO,PAGO,A_VISTA,", linhas[1]);
+    }
+
+    @Test
+    void exportarItens_incluiTransacao() throws Exception {
+        ItemNota item = new ItemNota("Parafuso", 3, new BigDecimal("1.50"), transacao(9L, "Obra"));
+        item.setId(4L);
+        item.setValorTotal(new BigDecimal("4.50"));
+        when(itemNotaRepository.streamNoIntervalo(any(), any())).thenReturn(Stream.of(item));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        exportacaoService.exportarItens(INICIO, FIM, FormatoExportacao.NDJSON, saida);
+
+        JsonNode linha = objectMapper.readTree(saida.toString(StandardCharsets.UTF_8).trim());
+        assertEquals(9, linha.get("transacaoId").asLong());
+        assertEquals("2024-03-05", linha.get("dataTransacao").asText());
+        assertEquals(3, linha.get("quantidade").asInt());
+    }
+
+    @Test
+    void exportarExtratos_limpaContextoACadaLote() throws Exception {
+        when(extratoFinanceiroRepository.streamNoIntervalo(any(), any())).thenReturn(IntStream.range(0, 5).mapToObj(i -> {
+            ExtratoFinanceiro e = new ExtratoFinanceiro();
+            e.setData(INICIO.plusDays(i));
+            return e;
+        }));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int total = exportacaoService.exportarExtratos(INICIO, FIM, FormatoExportacao.CSV, saida);
+
+        assertEquals(5, total);
+        assertEquals(6, saida.toString(StandardCharsets.UTF_8).split("\r\n").length);
+        // linhasPorLimpeza = 2: limpa depois da 2ª e da 4ª linha
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void periodoInvalido_throwsSemConsultar() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exportacaoService.exportarTransacoes(FIM, INICIO, FormatoExportacao.CSV, new ByteArrayOutputStream()));
+        assertThrows(IllegalArgumentException.class, () -> exportacaoService.validarPeriodo(null, FIM));
+        verifyNoInteractions(transacaoRepository);
+    }
+}
@@ -1,16 +1,24 @@
 package com.web.dev.painelOnline.services;
 
+import com.web.dev.painelOnline.Enum.ModoAtualizacaoExtrato;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.entities.ExtratoAnual;
 import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroJdbcRepository;
 import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
 import com.web.dev.painelOnline.repository.TransacaoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +31,27 @@ class ExtratoFinanceiroServiceTest {
     @Mock
     private TransacaoRepository transacaoRepository;
 
+    @Mock
+    private RegeneracaoExtratoService regeneracaoExtratoService;
+
+    @Mock
+    private FilaExtratoService filaExtratoService;
+
+    @Mock
+    private ResumoExtratoService resumoExtratoService;
+
+    @Mock
+    private IndiceMovimentosService indiceMovimentosService;
+
+    @Mock
+    private ExtratoFinanceiroJdbcRepository extratoFinanceiroJdbcRepository;
+
+    @Mock
+    private BloqueioExtratoService bloqueioExtratoService;
+
+    @Mock
+    private RankingExtratoService rankingExtratoService;
+
     @InjectMocks
     private ExtratoFinanceiroService extratoFinanceiroService;
 
@@ -31,11 +60,22 @@ class ExtratoFinanceiroServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    // findByData não encontra o dia até o insert; depois devolve a linha criada com o saldo do dia anterior
+    private void diaAusenteAteInserir(LocalDate d) {
+        ExtratoFinanceiro[] criado = new ExtratoFinanceiro[1];
+        doAnswer(inv -> {
+            criado[0] = new ExtratoFinanceiro(d);
+            criado[0].setSaldoAcumuladoDolares(inv.getArgument(1));
+            return null;
+        }).when(extratoFinanceiroJdbcRepository).inserirDiaSeAusente(eq(d), any());
+        when(extratoFinanceiroRepository.findByData(d)).thenAnswer(inv -> Optional.ofNullable(criado[0]));
+    }
+
     @Test
     void atualizarExtratoDia_createsWhenNotExists_andSaves() {
         LocalDate d = LocalDate.of(2025,6,6);
 
-        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.empty());
+        diaAusenteAteInserir(d);
         when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.valueOf(100));
         when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.valueOf(30));
         when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d.minusDays(1))).thenReturn(BigDecimal.ZERO);
@@ -127,14 +167,13 @@ class ExtratoFinanceiroServiceTest {
     }
 
     @Test
-    void calcularTotaisMesEAno_andSaldoMethods() {
-        when(extratoFinanceiroRepository.calcularTotalCreditosMes(2025, 4)).thenReturn(BigDecimal.valueOf(1000));
-        when(extratoFinanceiroRepository.calcularTotalDebitosMes(2025, 4)).thenReturn(BigDecimal.valueOf(400));
-        when(extratoFinanceiroRepository.calcularSaldoMes(2025, 4)).thenReturn(BigDecimal.valueOf(600));
-
-        when(extratoFinanceiroRepository.calcularTotalCreditosAno(2025)).thenReturn(BigDecimal.valueOf(5000));
-        when(extratoFinanceiroRepository.calcularTotalDebitosAno(2025)).thenReturn(BigDecimal.valueOf(2000));
-        when(extratoFinanceiroRepository.calcularSaldoAno(2025)).thenReturn(BigDecimal.valueOf(3000));
+    void calcularTotaisMesEAno_lidosDosResumos() {
+        ExtratoMensal mensal = new ExtratoMensal(2025, 4);
+        mensal.somar(BigDecimal.valueOf(1000), BigDecimal.valueOf(400));
+        ExtratoAnual anual = new ExtratoAnual(2025);
+        anual.somar(BigDecimal.valueOf(5000), BigDecimal.valueOf(2000));
+        when(resumoExtratoService.buscarMes(2025, 4)).thenReturn(mensal);
+        when(resumoExtratoService.buscarAno(2025)).thenReturn(anual);
 
         assertEquals(BigDecimal.valueOf(1000), extratoFinanceiroService.calcularTotalCreditosMes(2025, 4));
         assertEquals(BigDecimal.valueOf(400), extratoFinanceiroService.calcularTotalDebitosMes(2025, 4));
@@ -144,31 +183,414 @@ class ExtratoFinanceiroServiceTest {
         assertEquals(BigDecimal.valueOf(2000), extratoFinanceiroService.calcularTotalDebitosAno(2025));
         assertEquals(BigDecimal.valueOf(3000), extratoFinanceiroService.calcularSaldoAno(2025));
 
-        verify(extratoFinanceiroRepository).calcularTotalCreditosMes(2025, 4);
-        verify(extratoFinanceiroRepository).calcularTotalDebitosMes(2025, 4);
-        verify(extratoFinanceiroRepository).calcularSaldoMes(2025, 4);
-
-        verify(extratoFinanceiroRepository).calcularTotalCreditosAno(2025);
-        verify(extratoFinanceiroRepository).calcularTotalDebitosAno(2025);
-        verify(extratoFinanceiroRepository).calcularSaldoAno(2025);
+        verify(extratoFinanceiroRepository, never()).calcularTotalCreditosMes(anyInt(), anyInt());
+        verify(extratoFinanceiroRepository, never()).calcularSaldoAno(anyInt());
     }
 
     @Test
-    void regenerarExtratosPeriodo_iteratesAndCallsUpdate() {
+    void regenerarExtratosPeriodo_delegatesToEngine() {
         LocalDate start = LocalDate.of(2025,1,1);
         LocalDate end = LocalDate.of(2025,1,3);
 
-        ExtratoFinanceiro e = new ExtratoFinanceiro(start);
+        extratoFinanceiroService.regenerarExtratosPeriodo(start, end);
+
+        verify(regeneracaoExtratoService).regenerar(start, end);
+        verify(resumoExtratoService).reconstruir(2025, 2025);
+        verify(extratoFinanceiroRepository, never()).findByData(any());
+    }
+
+    @Test
+    void registrarAlteracao_incremental_criacaoSomaDeltaSemReagregar() {
+        LocalDate d = LocalDate.of(2025, 6, 10);
+        ExtratoFinanceiro existing = new ExtratoFinanceiro(d);
+        existing.setTotalCreditosDolares(BigDecimal.valueOf(100));
+        existing.setTotalDebitosDolares(BigDecimal.valueOf(40));
+        existing.setSaldoDiaDolares(BigDecimal.valueOf(60));
+        existing.setSaldoAcumuladoDolares(BigDecimal.valueOf(500));
+
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(existing));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.registrarAlteracao(null,
+                new MovimentoExtrato(d, TipoTransacao.CREDITO, BigDecimal.valueOf(25)));
+
+        assertEquals(0, BigDecimal.valueOf(125).compareTo(existing.getTotalCreditosDolares()));
+        assertEquals(0, BigDecimal.valueOf(85).compareTo(existing.getSaldoDiaDolares()));
+        assertEquals(0, BigDecimal.valueOf(525).compareTo(existing.getSaldoAcumuladoDolares()));
+        verify(transacaoRepository, never()).calcularTotalCreditosPorData(any());
+        verify(transacaoRepository, never()).calcularTotalDebitosPorData(any());
+    }
+
+    @Test
+    void registrarAlteracao_incremental_mudancaDeDataETipo_aplicaEstornoEMovimento() {
+        LocalDate antiga = LocalDate.of(2025, 6, 1);
+        LocalDate nova = LocalDate.of(2025, 6, 2);
+        ExtratoFinanceiro extratoAntigo = new ExtratoFinanceiro(antiga);
+        extratoAntigo.setTotalCreditosDolares(BigDecimal.valueOf(30));
+        extratoAntigo.setSaldoDiaDolares(BigDecimal.valueOf(30));
+        extratoAntigo.setSaldoAcumuladoDolares(BigDecimal.valueOf(30));
+
+        when(extratoFinanceiroRepository.findByData(antiga)).thenReturn(Optional.of(extratoAntigo));
+        diaAusenteAteInserir(nova);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(antiga)).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.registrarAlteracao(
+                new MovimentoExtrato(antiga, TipoTransacao.CREDITO, BigDecimal.valueOf(30)),
+                new MovimentoExtrato(nova, TipoTransacao.DEBITO, BigDecimal.valueOf(10)));
+
+        ArgumentCaptor<ExtratoFinanceiro> captor = ArgumentCaptor.forClass(ExtratoFinanceiro.class);
+        verify(extratoFinanceiroRepository, times(2)).save(captor.capture());
+
+        ExtratoFinanceiro diaAntigo = captor.getAllValues().get(0);
+        assertEquals(antiga, diaAntigo.getData());
+        assertEquals(0, diaAntigo.getTotalCreditosDolares().signum());
+        assertEquals(0, diaAntigo.getSaldoAcumuladoDolares().signum());
+
+        ExtratoFinanceiro diaNovo = captor.getAllValues().get(1);
+        assertEquals(nova, diaNovo.getData());
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(diaNovo.getTotalDebitosDolares()));
+        assertEquals(0, BigDecimal.valueOf(-10).compareTo(diaNovo.getSaldoAcumuladoDolares()));
+    }
+
+    @Test
+    void registrarAlteracao_incremental_semDiferenca_naoSalva() {
+        LocalDate d = LocalDate.of(2025, 6, 3);
+        MovimentoExtrato movimento = new MovimentoExtrato(d, TipoTransacao.DEBITO, BigDecimal.TEN);
+
+        extratoFinanceiroService.registrarAlteracao(movimento, movimento);
+
+        verify(extratoFinanceiroRepository, never()).save(any());
+    }
+
+    @Test
+    void registrarAlteracao_modoCompleto_reagregaCadaDia() {
+        ReflectionTestUtils.setField(extratoFinanceiroService, "modoAtualizacao", ModoAtualizacaoExtrato.COMPLETO);
+        LocalDate d = LocalDate.of(2025, 6, 4);
+
+        diaAusenteAteInserir(d);
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.TEN);
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d.minusDays(1))).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        when(extratoFinanceiroRepository.findByData(any())).thenReturn(Optional.of(e));
+        extratoFinanceiroService.registrarAlteracao(null,
+                new MovimentoExtrato(d, TipoTransacao.CREDITO, BigDecimal.TEN));
+
+        verify(transacaoRepository).calcularTotalCreditosPorData(d);
+        verify(extratoFinanceiroRepository).save(any());
+    }
+
+    @Test
+    void revisarExtratoDias_modoCompleto_travaTodosOsDiasAntesDaPrimeiraRevisao() {
+        ReflectionTestUtils.setField(extratoFinanceiroService, "modoAtualizacao", ModoAtualizacaoExtrato.COMPLETO);
+        LocalDate d1 = LocalDate.of(2025, 6, 4);
+        // Com 256 faixas, d2 cai na faixa anterior à de d1: a ordem das datas não é a das faixas
+        LocalDate d2 = d1.plusDays(511);
+        Set<LocalDate> dias = new TreeSet<>(List.of(d1, d2));
+
+        diaAusenteAteInserir(d1);
+        diaAusenteAteInserir(d2);
         when(transacaoRepository.calcularTotalCreditosPorData(any())).thenReturn(BigDecimal.ZERO);
         when(transacaoRepository.calcularTotalDebitosPorData(any())).thenReturn(BigDecimal.ZERO);
         when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(any())).thenReturn(BigDecimal.ZERO);
-        when(extratoFinanceiroRepository.save(any())).thenReturn(e);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        extratoFinanceiroService.regenerarExtratosPeriodo(start, end);
+        extratoFinanceiroService.revisarExtratoDias(dias);
+
+        InOrder ordem = inOrder(bloqueioExtratoService, transacaoRepository);
+        ordem.verify(bloqueioExtratoService).bloquearAteFimDaTransacao(dias);
+        ordem.verify(transacaoRepository).calcularTotalCreditosPorData(d1);
+        ordem.verify(transacaoRepository).calcularTotalCreditosPorData(d2);
+    }
+
+    @Test
+    void revisarExtratoDias_modoIncremental_naoTrava() {
+        extratoFinanceiroService.revisarExtratoDias(Set.of(LocalDate.of(2025, 6, 4)));
+
+        verifyNoInteractions(bloqueioExtratoService, extratoFinanceiroRepository, transacaoRepository);
+    }
+
+    @Test
+    void verificarExtratoDia_consistente_naoRecalcula() {
+        LocalDate d = LocalDate.of(2025, 6, 5);
+        ExtratoFinanceiro existing = new ExtratoFinanceiro(d);
+        existing.setTotalCreditosDolares(new BigDecimal("10.00"));
+        existing.setTotalDebitosDolares(new BigDecimal("4.00"));
+
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.TEN);
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.valueOf(4));
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(existing));
+
+        assertTrue(extratoFinanceiroService.verificarExtratoDia(d));
+        verify(extratoFinanceiroRepository, never()).save(any());
+    }
+
+    @Test
+    void verificarExtratoDia_divergente_recalcula() {
+        LocalDate d = LocalDate.of(2025, 6, 6);
+        ExtratoFinanceiro existing = new ExtratoFinanceiro(d);
+
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.TEN);
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(existing));
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d.minusDays(1))).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertFalse(extratoFinanceiroService.verificarExtratoDia(d));
+        assertEquals(BigDecimal.TEN, existing.getTotalCreditosDolares());
+        verify(extratoFinanceiroRepository).save(existing);
+    }
+    @Test
+    void atualizarExtratoDia_retroativo_propagaDiferencaParaDiasSeguintes() {
+        LocalDate d = LocalDate.of(2025, 2, 10);
+        ExtratoFinanceiro existing = new ExtratoFinanceiro(d);
+        existing.setSaldoAcumuladoDolares(BigDecimal.valueOf(100));
+
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(existing));
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.valueOf(50));
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d.minusDays(1))).thenReturn(BigDecimal.valueOf(100));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.atualizarExtratoDia(d);
+
+        verify(extratoFinanceiroRepository).deslocarSaldoAcumuladoApos(eq(d), eq(BigDecimal.valueOf(50)), any());
+    }
+
+    @Test
+    void aplicarDelta_propagaSaldoEmUmUnicoUpdate() {
+        LocalDate d = LocalDate.of(2025, 2, 11);
+        ExtratoFinanceiro existing = new ExtratoFinanceiro(d);
+
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(existing));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.aplicarDelta(d, BigDecimal.ZERO, BigDecimal.valueOf(7));
+
+        verify(extratoFinanceiroRepository, times(1))
+                .deslocarSaldoAcumuladoApos(eq(d), eq(BigDecimal.valueOf(-7)), any());
+        verify(extratoFinanceiroRepository, times(1)).findByData(any());
+    }
+
+    @Test
+    void calcularSaldoAcumuladoAteData_semExtratoAnterior_retornaZero() {
+        LocalDate d = LocalDate.of(2020, 1, 1);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d)).thenReturn(null);
+        assertEquals(BigDecimal.ZERO, extratoFinanceiroService.calcularSaldoAcumuladoAteData(d));
+    }
+
+    @Test
+    void registrarAlteracao_modoAssincrono_apenasMarcaDatas() {
+        ReflectionTestUtils.setField(extratoFinanceiroService, "modoAtualizacao", ModoAtualizacaoExtrato.ASSINCRONO);
+        LocalDate d1 = LocalDate.of(2025, 4, 1);
+        LocalDate d2 = LocalDate.of(2025, 4, 2);
+
+        extratoFinanceiroService.registrarAlteracao(
+                new MovimentoExtrato(d1, TipoTransacao.CREDITO, BigDecimal.TEN),
+                new MovimentoExtrato(d2, TipoTransacao.CREDITO, BigDecimal.TEN));
+        extratoFinanceiroService.revisarExtratoDia(d2);
+
+        verify(filaExtratoService).marcarPendente(d1);
+        verify(filaExtratoService, times(2)).marcarPendente(d2);
+        verifyNoInteractions(extratoFinanceiroRepository, transacaoRepository);
+    }
+
+    @Test
+    void sincronizarExtratoDia_pendente_recalculaNaHora() {
+        LocalDate d = LocalDate.of(2025, 4, 3);
+        when(filaExtratoService.retirar(d)).thenReturn(true);
+        diaAusenteAteInserir(d);
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.ONE);
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertTrue(extratoFinanceiroService.sincronizarExtratoDia(d));
+        verify(extratoFinanceiroRepository).save(any());
+    }
+
+    @Test
+    void sincronizarExtratoDia_semPendencia_naoRecalcula() {
+        LocalDate d = LocalDate.of(2025, 4, 4);
+        when(filaExtratoService.retirar(d)).thenReturn(false);
+
+        assertFalse(extratoFinanceiroService.sincronizarExtratoDia(d));
+        verifyNoInteractions(extratoFinanceiroRepository);
+    }
+
+    @Test
+    void sincronizarExtratoDia_emProcessamento_esperaProcessadorSemRecalcular() {
+        LocalDate d = LocalDate.of(2025, 4, 5);
+        when(filaExtratoService.retirar(d)).thenReturn(false);
+        when(filaExtratoService.aguardarProcessamento(d)).thenReturn(true);
+
+        assertTrue(extratoFinanceiroService.sincronizarExtratoDia(d));
+        verify(filaExtratoService).aguardarProcessamento(d);
+        verifyNoInteractions(extratoFinanceiroRepository);
+    }
+
+    @Test
+    void sincronizarExtratoDia_processadorFalhou_recalculaNaHora() {
+        LocalDate d = LocalDate.of(2025, 4, 6);
+        // Em processamento na primeira consulta; devolvida à fila depois da falha do processador
+        when(filaExtratoService.retirar(d)).thenReturn(false, true);
+        when(filaExtratoService.aguardarProcessamento(d)).thenReturn(true);
+        diaAusenteAteInserir(d);
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.ONE);
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.ZERO);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertTrue(extratoFinanceiroService.sincronizarExtratoDia(d));
+        verify(extratoFinanceiroRepository).save(any());
+    }
+
+    @Test
+    void atualizarExtratoDia_registraDiferencaNosResumos() {
+        LocalDate d = LocalDate.of(2025, 7, 1);
+        ExtratoFinanceiro existing = new ExtratoFinanceiro(d);
+        existing.setTotalCreditosDolares(BigDecimal.valueOf(10));
+        existing.setTotalDebitosDolares(BigDecimal.valueOf(4));
+
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(existing));
+        when(transacaoRepository.calcularTotalCreditosPorData(d)).thenReturn(BigDecimal.valueOf(15));
+        when(transacaoRepository.calcularTotalDebitosPorData(d)).thenReturn(BigDecimal.valueOf(4));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.atualizarExtratoDia(d);
+
+        verify(resumoExtratoService).registrarDelta(d, BigDecimal.valueOf(5), BigDecimal.ZERO);
+    }
+
+    @Test
+    void aplicarDelta_registraDiferencaNosResumos() {
+        LocalDate d = LocalDate.of(2025, 7, 2);
+        when(extratoFinanceiroRepository.findByData(d)).thenReturn(Optional.of(new ExtratoFinanceiro(d)));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.aplicarDelta(d, BigDecimal.ONE, BigDecimal.TEN);
+
+        verify(resumoExtratoService).registrarDelta(d, BigDecimal.ONE, BigDecimal.TEN);
+    }
+
+    @Test
+    void calcularSaldoAcumuladoAteData_indiceCarregado_naoConsultaBanco() {
+        LocalDate d = LocalDate.of(2025, 8, 1);
+        when(indiceMovimentosService.isPronto()).thenReturn(true);
+        when(indiceMovimentosService.calcularSaldoAteData(d)).thenReturn(new BigDecimal("12.34"));
+
+        assertEquals(new BigDecimal("12.34"), extratoFinanceiroService.calcularSaldoAcumuladoAteData(d));
+        verifyNoInteractions(extratoFinanceiroRepository);
+    }
 
-        verify(extratoFinanceiroRepository, atLeastOnce()).save(any());
-        verify(extratoFinanceiroRepository, times(3)).findByData(any());
+    @Test
+    void calcularTotaisPorPeriodo_semIndice_consultaBanco() {
+        LocalDate inicio = LocalDate.of(2025, 8, 1);
+        LocalDate fim = LocalDate.of(2025, 8, 31);
+        when(indiceMovimentosService.isPronto()).thenReturn(false);
+        when(transacaoRepository.calcularTotalCreditosPorPeriodo(inicio, fim)).thenReturn(BigDecimal.TEN);
+        when(transacaoRepository.calcularTotalDebitosPorPeriodo(inicio, fim)).thenReturn(BigDecimal.ONE);
+
+        assertEquals(BigDecimal.TEN, extratoFinanceiroService.calcularTotalCreditosPorPeriodo(inicio, fim));
+        assertEquals(BigDecimal.ONE, extratoFinanceiroService.calcularTotalDebitosPorPeriodo(inicio, fim));
+    }
+
+    @Test
+    void registrarAlteracao_atualizaIndiceDeMovimentos() {
+        MovimentoExtrato atual = new MovimentoExtrato(LocalDate.of(2025, 8, 2), TipoTransacao.CREDITO, BigDecimal.ONE);
+        when(extratoFinanceiroRepository.findByData(any())).thenReturn(Optional.of(new ExtratoFinanceiro(atual.getData())));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.registrarAlteracao(null, atual);
+
+        verify(indiceMovimentosService).registrarAlteracao(null, atual);
+    }
+
+    @Test
+    void registrarAlteracao_mudancaDeData_travaAsDuasDatasAntesDeGravar() {
+        LocalDate antiga = LocalDate.of(2025, 6, 1);
+        LocalDate nova = LocalDate.of(2025, 6, 3);
+        diaAusenteAteInserir(antiga);
+        diaAusenteAteInserir(nova);
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.registrarAlteracao(
+                new MovimentoExtrato(antiga, TipoTransacao.CREDITO, BigDecimal.TEN),
+                new MovimentoExtrato(nova, TipoTransacao.CREDITO, BigDecimal.TEN));
+
+        InOrder ordem = inOrder(bloqueioExtratoService, extratoFinanceiroRepository);
+        ordem.verify(bloqueioExtratoService).bloquearAteFimDaTransacao(argThat(datas ->
+                datas.size() == 2 && datas.contains(antiga) && datas.contains(nova)));
+        ordem.verify(extratoFinanceiroRepository, atLeastOnce()).save(any());
+    }
+
+    @Test
+    void registrarAlteracao_modoAssincrono_naoTrava() {
+        ReflectionTestUtils.setField(extratoFinanceiroService, "modoAtualizacao", ModoAtualizacaoExtrato.ASSINCRONO);
+
+        extratoFinanceiroService.registrarAlteracao(null,
+                new MovimentoExtrato(LocalDate.of(2025, 6, 1), TipoTransacao.CREDITO, BigDecimal.TEN));
+
+        verifyNoInteractions(bloqueioExtratoService);
+    }
+
+    @Test
+    void aplicarDelta_diaNovo_criaLinhaComSaldoAnteriorPeloInsertSeAusente() {
+        LocalDate d = LocalDate.of(2025, 6, 20);
+        diaAusenteAteInserir(d);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d.minusDays(1))).thenReturn(BigDecimal.valueOf(70));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        ExtratoFinanceiro result = extratoFinanceiroService.aplicarDelta(d, BigDecimal.valueOf(5), BigDecimal.ZERO);
+
+        verify(extratoFinanceiroJdbcRepository).inserirDiaSeAusente(d, BigDecimal.valueOf(70));
+        verify(bloqueioExtratoService).bloquearAteFimDaTransacao(List.of(d));
+        assertEquals(0, BigDecimal.valueOf(75).compareTo(result.getSaldoAcumuladoDolares()));
+    }
+
+    @Test
+    void registrarAlteracoes_incremental_deslocaCadaFaixaUmaVez() {
+        LocalDate d1 = LocalDate.of(2025, 1, 10);
+        LocalDate d2 = LocalDate.of(2025, 2, 10);
+        LocalDate d3 = LocalDate.of(2025, 3, 10);
+        ExtratoFinanceiro dia1 = new ExtratoFinanceiro(d1);
+        dia1.setSaldoAcumuladoDolares(BigDecimal.valueOf(100));
+        ExtratoFinanceiro dia2 = new ExtratoFinanceiro(d2);
+        dia2.setSaldoAcumuladoDolares(BigDecimal.valueOf(100));
+        when(extratoFinanceiroRepository.findByData(d1)).thenReturn(Optional.of(dia1));
+        when(extratoFinanceiroRepository.findByData(d2)).thenReturn(Optional.of(dia2));
+        diaAusenteAteInserir(d3);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(d3.minusDays(1))).thenReturn(BigDecimal.valueOf(80));
+        when(extratoFinanceiroRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        extratoFinanceiroService.registrarAlteracoes(List.of(), List.of(
+                new MovimentoExtrato(d2, TipoTransacao.DEBITO, BigDecimal.TEN),
+                new MovimentoExtrato(d1, TipoTransacao.DEBITO, BigDecimal.TEN),
+                new MovimentoExtrato(d3, TipoTransacao.DEBITO, BigDecimal.TEN)));
+
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(dia1.getSaldoAcumuladoDolares()));
+        // d2 recebe a diferença de d1 mais a própria
+        assertEquals(0, BigDecimal.valueOf(80).compareTo(dia2.getSaldoAcumuladoDolares()));
+        verify(extratoFinanceiroRepository).deslocarSaldoAcumuladoEntre(eq(d1), eq(d2), eq(BigDecimal.valueOf(-10)), any());
+        verify(extratoFinanceiroRepository).deslocarSaldoAcumuladoEntre(eq(d2), eq(d3), eq(BigDecimal.valueOf(-20)), any());
+        // Só os dias depois do último recebem o total, num único UPDATE
+        verify(extratoFinanceiroRepository).deslocarSaldoAcumuladoApos(eq(d3), eq(BigDecimal.valueOf(-30)), any());
+        verify(extratoFinanceiroRepository, times(1)).deslocarSaldoAcumuladoApos(any(), any(), any());
+        verify(bloqueioExtratoService, times(1)).bloquearAteFimDaTransacao(any());
+        verify(indiceMovimentosService, times(3)).registrarAlteracao(isNull(), any());
+    }
+
+    @Test
+    void registrarAlteracoes_modoAssincrono_marcaDatasAnterioresEAtuais() {
+        ReflectionTestUtils.setField(extratoFinanceiroService, "modoAtualizacao", ModoAtualizacaoExtrato.ASSINCRONO);
+        LocalDate antiga = LocalDate.of(2025, 1, 10);
+        LocalDate nova = LocalDate.of(2025, 1, 20);
+
+        extratoFinanceiroService.registrarAlteracoes(
+                List.of(new MovimentoExtrato(antiga, TipoTransacao.DEBITO, BigDecimal.TEN)),
+                List.of(new MovimentoExtrato(nova, TipoTransacao.DEBITO, BigDecimal.TEN)));
+
+        verify(filaExtratoService).marcarPendente(antiga);
+        verify(filaExtratoService).marcarPendente(nova);
+        verify(extratoFinanceiroRepository, never()).save(any());
     }
 }
@@ -0,0 +1,95 @@
+package com.web.dev.painelOnline.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilaExtratoServiceTest {
+
+    private final FilaExtratoService filaExtratoService = new FilaExtratoService();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void marcarPendente_mesmaDataVariasVezes_coalesceEmUmaEntrada() {
+        LocalDate d1 = LocalDate.of(2025, 5, 2);
+        LocalDate d2 = LocalDate.of(2025, 5, 1);
+
+        for (int i = 0; i < 100; i++) {
+            filaExtratoService.marcarPendente(d1);
+        }
+        filaExtratoService.marcarPendente(d2);
+
+        assertEquals(2, filaExtratoService.quantidadePendentes());
+        assertEquals(List.of(d2, d1), filaExtratoService.retirarPendentes());
+        assertEquals(0, filaExtratoService.quantidadePendentes());
+    }
+
+    @Test
+    void marcarPendente_dentroDeTransacao_soEntraNaFilaAposCommit() {
+        LocalDate d = LocalDate.of(2025, 5, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        filaExtratoService.marcarPendente(d);
+        assertEquals(0, filaExtratoService.quantidadePendentes());
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        assertEquals(1, filaExtratoService.quantidadePendentes());
+    }
+
+    @Test
+    void retirar_removeSomenteADataPedida() {
+        LocalDate d1 = LocalDate.of(2025, 5, 4);
+        LocalDate d2 = LocalDate.of(2025, 5, 5);
+        filaExtratoService.marcarPendente(d1);
+        filaExtratoService.marcarPendente(d2);
+
+        assertTrue(filaExtratoService.retirar(d1));
+        assertFalse(filaExtratoService.retirar(d1));
+        assertEquals(List.of(d2), filaExtratoService.retirarPendentes());
+    }
+
+    @Test
+    void aguardarProcessamento_dataRetiradaPeloProcessador_esperaConcluir() throws Exception {
+        LocalDate d = LocalDate.of(2025, 5, 6);
+        filaExtratoService.marcarPendente(d);
+        assertEquals(List.of(d), filaExtratoService.retirarPendentes());
+
+        // Nem pendente nem concluída: quem sincroniza não pode retirar, tem que esperar
+        assertFalse(filaExtratoService.retirar(d));
+        CompletableFuture<Boolean> espera = CompletableFuture.supplyAsync(() -> filaExtratoService.aguardarProcessamento(d));
+        Thread.sleep(100);
+        assertFalse(espera.isDone());
+
+        filaExtratoService.concluir(d);
+        assertTrue(espera.get(5, TimeUnit.SECONDS));
+        assertFalse(filaExtratoService.aguardarProcessamento(d));
+    }
+
+    @Test
+    void aguardarProcessamento_semConcluir_esgotaTempo() {
+        LocalDate d = LocalDate.of(2025, 5, 7);
+        ReflectionTestUtils.setField(filaExtratoService, "esperaMs", 50L);
+        filaExtratoService.marcarPendente(d);
+        filaExtratoService.retirarPendentes();
+
+        assertThrows(CannotAcquireLockException.class, () -> filaExtratoService.aguardarProcessamento(d));
+    }
+}
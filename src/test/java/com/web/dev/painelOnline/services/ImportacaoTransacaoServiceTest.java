@@ -0,0 +1,183 @@
+package com.web.dev.painelOnline.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.dto.ResultadoImportacaoDTO;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.TransacaoJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImportacaoTransacaoServiceTest {
+
+    @Mock
+    private TransacaoJdbcRepository transacaoJdbcRepository;
+
+    @Mock
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Mock
+    private IndiceMovimentosService indiceMovimentosService;
+
+    @Mock
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AutocompletarService autocompletarService;
+
+    @InjectMocks
+    private ImportacaoTransacaoService importacaoTransacaoService;
+
+    // Cópia de cada lote enviado ao JDBC (a lista é reaproveitada entre lotes)
+    private final List<List<Transacao>> lotes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(importacaoTransacaoService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(importacaoTransacaoService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(importacaoTransacaoService, "tamanhoLote", 2);
+        doAnswer(inv -> lotes.add(new ArrayList<>(inv.getArgument(0)))).when(transacaoJdbcRepository).inserirEmLote(any(), anyInt());
+    }
+
+    private static InputStream corpo(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String itemJson(String data, String valor) {
+        return "{\"data\":\"" + data + "\",\"caracteristica\":\"Compra\",\"valorReais\":" + valor
+                + ",\"taxaCambio\":5.0000,\"tipoTransacao\":\"DEBITO\",\"statusPagamento\":\"PAGO\",\"tipoPagamento\":\"A_VISTA\"}";
+    }
+
+    @Test
+    void importarJson_gravaEmLotes_eRegeneraIntervaloUmaVez() {
+        String json = "[" + itemJson("2024-03-05", "50.00") + "," + itemJson("2024-01-10", "10.00") + ","
+                + itemJson("2024-02-20", "25.00") + "]";
+
+        ResultadoImportacaoDTO resultado = importacaoTransacaoService.importarJson(corpo(json));
+
+        assertEquals(3, resultado.getImportadas());
+        assertEquals(LocalDate.of(2024, 1, 10), resultado.getDataInicio());
+        assertEquals(LocalDate.of(2024, 3, 5), resultado.getDataFim());
+        assertTrue(resultado.isExtratoAtualizado());
+
+        assertEquals(2, lotes.size());
+        assertEquals(2, lotes.get(0).size());
+        assertEquals(1, lotes.get(1).size());
+        assertEquals(0, new BigDecimal("10.00").compareTo(lotes.get(0).get(0).getValorDolares()));
+
+        verify(transactionManager).commit(any());
+        verify(indiceMovimentosService).recarregar();
+        verify(extratoFinanceiroService, times(1)).regenerarExtratosPeriodo(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 3, 5));
+    }
+
+    @Test
+    void importarJson_itemInvalido_desfazTudoSemRegenerar() {
+        String json = "[" + itemJson("2024-03-05", "50.00") + "," + itemJson("2024-03-06", "50.00") + ","
+                + itemJson("2024-03-07", "-1") + "]";
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> importacaoTransacaoService.importarJson(corpo(json)));
+
+        assertTrue(erro.getMessage().startsWith("Item 3:"), erro.getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(extratoFinanceiroService, indiceMovimentosService);
+    }
+
+    @Test
+    void importarJson_enumInvalido_informaItem() {
+        String json = "[" + itemJson("2024-03-05", "50.00").replace("DEBITO", "TRANSFERENCIA") + "]";
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> importacaoTransacaoService.importarJson(corpo(json)));
+
+        assertTrue(erro.getMessage().startsWith("Item 1:"), erro.getMessage());
+    }
+
+    @Test
+    void importarJson_corpoQueNaoEArray_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importacaoTransacaoService.importarJson(corpo(itemJson("2024-03-05", "1"))));
+    }
+
+    @Test
+    void importarCsv_cabecalhoEmQualquerOrdem_separadorPontoEVirgula() {
+        String csv = "﻿tipoTransacao;data;caracteristica;valor_reais;taxaCambio;statusPagamento;tipoPagamento\n"
+                + "credito;31/01/2024;\"Venda; lote 7\";1234,50;5,0000;PAGO;A_VISTA\n"
+                + "\n"
+                + "DEBITO;2024-02-01;Frete;100.00;5.0000;PENDENTE;A_PRAZO\n";
+
+        ResultadoImportacaoDTO resultado = importacaoTransacaoService.importarCsv(corpo(csv));
+
+        assertEquals(2, resultado.getImportadas());
+        Transacao primeira = lotes.get(0).get(0);
+        assertEquals(TipoTransacao.CREDITO, primeira.getTipoTransacao());
+        assertEquals("Venda; lote 7", primeira.getCaracteristica());
+        assertEquals(0, new BigDecimal("1234.50").compareTo(primeira.getValorReais()));
+        assertEquals(0, new BigDecimal("246.90").compareTo(primeira.getValorDolares()));
+        assertEquals(StatusPagamento.PENDENTE, lotes.get(0).get(1).getStatusPagamento());
+        // Sem coluna dataVencimento: à vista não vence, a prazo vence no prazo padrão
+        assertNull(primeira.getDataVencimento());
+        assertEquals(LocalDate.of(2024, 3, 2), lotes.get(0).get(1).getDataVencimento());
+        verify(extratoFinanceiroService).regenerarExtratosPeriodo(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1));
+    }
+
+    @Test
+    void importarCsv_linhaInvalida_informaNumeroDaLinha() {
+        String csv = "data,caracteristica,valorReais,taxaCambio,tipoTransacao,statusPagamento,tipoPagamento\n"
+                + "2024-01-01,Ok,10.00,5.0,CREDITO,PAGO,A_VISTA\n"
+                + "2024-13-01,Data ruim,10.00,5.0,CREDITO,PAGO,A_VISTA\n";
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> importacaoTransacaoService.importarCsv(corpo(csv)));
+
+        assertTrue(erro.getMessage().startsWith("Linha 3:"), erro.getMessage());
+    }
+
+    @Test
+    void importarCsv_colunaAusente_throws() {
+        String csv = "data,caracteristica,valorReais\n2024-01-01,Ok,10.00\n";
+
+        assertThrows(IllegalArgumentException.class, () -> importacaoTransacaoService.importarCsv(corpo(csv)));
+    }
+
+    @Test
+    void importar_regeneracaoFalha_transacoesFicamEResultadoAvisa() {
+        doThrow(new RuntimeException("falhou")).when(extratoFinanceiroService).regenerarExtratosPeriodo(any(), any());
+
+        ResultadoImportacaoDTO resultado = importacaoTransacaoService.importarJson(corpo("[" + itemJson("2024-03-05", "5") + "]"));
+
+        assertEquals(1, resultado.getImportadas());
+        assertFalse(resultado.isExtratoAtualizado());
+        assertEquals("falhou", resultado.getErroExtrato());
+    }
+
+    @Test
+    void importar_vazio_naoRegenera() {
+        ResultadoImportacaoDTO resultado = importacaoTransacaoService.importarJson(corpo("[]"));
+
+        assertEquals(0, resultado.getImportadas());
+        verifyNoInteractions(transacaoJdbcRepository, extratoFinanceiroService, indiceMovimentosService);
+    }
+}
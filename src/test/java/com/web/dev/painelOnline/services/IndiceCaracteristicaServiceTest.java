@@ -0,0 +1,116 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.CaracteristicaDTO;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IndiceCaracteristicaServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(indiceCaracteristicaService, "tamanhoCarga", 2);
+        ReflectionTestUtils.setField(indiceCaracteristicaService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        // Carga em duas páginas pela chave primária
+        when(transacaoRepository.findCaracteristicasAposId(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new CaracteristicaDTO(1L, "Café da manhã"),
+                new CaracteristicaDTO(2L, "Farmácia São João")));
+        when(transacaoRepository.findCaracteristicasAposId(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new CaracteristicaDTO(5L, "CAFETERIA centro")));
+        indiceCaracteristicaService.carregar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void buscar_ignoraAcentosECaixa() {
+        assertTrue(indiceCaracteristicaService.isPronto());
+        assertArrayEquals(new long[]{1L, 5L}, indiceCaracteristicaService.buscar("cafe"));
+        assertArrayEquals(new long[]{2L}, indiceCaracteristicaService.buscar("SAO JOÃO"));
+        assertArrayEquals(new long[]{1L}, indiceCaracteristicaService.buscar("manha"));
+        verify(transacaoRepository, times(2)).findCaracteristicasAposId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void buscar_trigramasPresentesMasTrechoAusente_naoRetorna() {
+        // Todos os trigramas existem em algum texto, mas o trecho inteiro só em parte deles
+        assertArrayEquals(new long[]{5L}, indiceCaracteristicaService.buscar("feteria c"));
+        assertArrayEquals(new long[0], indiceCaracteristicaService.buscar("cafe sao"));
+        assertArrayEquals(new long[0], indiceCaracteristicaService.buscar("xyz"));
+    }
+
+    @Test
+    void buscar_termoCurto_confereOsTextos() {
+        assertArrayEquals(new long[]{1L, 2L}, indiceCaracteristicaService.buscar("Má"));
+        assertArrayEquals(new long[]{1L, 2L, 5L}, indiceCaracteristicaService.buscar(""));
+    }
+
+    @Test
+    void registrarERemover_atualizamOIndice() {
+        indiceCaracteristicaService.registrar(7L, "Padaria");
+        indiceCaracteristicaService.registrar(1L, "Almoço");
+        indiceCaracteristicaService.remover(5L);
+
+        assertArrayEquals(new long[]{7L}, indiceCaracteristicaService.buscar("padar"));
+        assertArrayEquals(new long[0], indiceCaracteristicaService.buscar("cafe"));
+        assertArrayEquals(new long[]{1L}, indiceCaracteristicaService.buscar("almoco"));
+    }
+
+    @Test
+    void registrar_dentroDeTransacao_soAplicaAposCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        indiceCaracteristicaService.registrar(3L, "Mercado");
+        assertArrayEquals(new long[0], indiceCaracteristicaService.buscar("mercado"));
+
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacao.afterCommit();
+        }
+        assertArrayEquals(new long[]{3L}, indiceCaracteristicaService.buscar("mercado"));
+    }
+
+    @Test
+    void recarregar_reaplicaAlteracoesCommitadasDuranteACarga() {
+        // A primeira página já foi lida quando a transação 1 muda e a 2 é excluída
+        when(transacaoRepository.findCaracteristicasAposId(eq(2L), any(Pageable.class))).thenAnswer(inv -> {
+            indiceCaracteristicaService.registrar(1L, "Padaria");
+            indiceCaracteristicaService.remover(2L);
+            return List.of(new CaracteristicaDTO(5L, "CAFETERIA centro"));
+        });
+
+        indiceCaracteristicaService.recarregar();
+
+        assertArrayEquals(new long[]{1L}, indiceCaracteristicaService.buscar("padar"));
+        assertArrayEquals(new long[]{5L}, indiceCaracteristicaService.buscar("cafe"));
+        assertArrayEquals(new long[0], indiceCaracteristicaService.buscar("farmacia"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.dto.MovimentoDiarioDTO;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceMovimentosServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private IndiceMovimentosService indiceMovimentosService;
+
+    private final LocalDate d1 = LocalDate.of(2025, 1, 10);
+    private final LocalDate d2 = LocalDate.of(2025, 1, 20);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(indiceMovimentosService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        when(transacaoRepository.findPrimeiraData()).thenReturn(d1);
+        when(transacaoRepository.findUltimaData()).thenReturn(d2);
+        when(transacaoRepository.somarMovimentosPorDia(d1, d2)).thenReturn(List.of(
+                new MovimentoDiarioDTO(d1, new BigDecimal("100.50"), BigDecimal.ZERO),
+                new MovimentoDiarioDTO(d2, new BigDecimal("10.00"), new BigDecimal("30.25"))));
+        indiceMovimentosService.carregar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void carregar_respondeSaldoETotaisSemConsultarNovamente() {
+        assertTrue(indiceMovimentosService.isPronto());
+        assertEquals(new BigDecimal("0.00"), indiceMovimentosService.calcularSaldoAteData(d1.minusDays(1)));
+        assertEquals(new BigDecimal("100.50"), indiceMovimentosService.calcularSaldoAteData(d1));
+        assertEquals(new BigDecimal("100.50"), indiceMovimentosService.calcularSaldoAteData(d2.minusDays(1)));
+        assertEquals(new BigDecimal("80.25"), indiceMovimentosService.calcularSaldoAteData(LocalDate.of(2030, 1, 1)));
+        assertEquals(new BigDecimal("10.00"), indiceMovimentosService.calcularTotalCreditosPorPeriodo(d1.plusDays(1), d2));
+        assertEquals(new BigDecimal("30.25"), indiceMovimentosService.calcularTotalDebitosPorPeriodo(d1, d2));
+
+        verify(transacaoRepository, times(1)).somarMovimentosPorDia(any(), any());
+    }
+
+    @Test
+    void registrarAlteracao_dentroDeTransacao_soAplicaAposCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        MovimentoExtrato anterior = new MovimentoExtrato(d1, TipoTransacao.CREDITO, new BigDecimal("100.50"));
+        MovimentoExtrato atual = new MovimentoExtrato(d2, TipoTransacao.DEBITO, new BigDecimal("0.50"));
+
+        indiceMovimentosService.registrarAlteracao(anterior, atual);
+        assertEquals(new BigDecimal("80.25"), indiceMovimentosService.calcularSaldoAteData(d2));
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        assertEquals(new BigDecimal("0.00"), indiceMovimentosService.calcularSaldoAteData(d1));
+        assertEquals(new BigDecimal("-20.75"), indiceMovimentosService.calcularSaldoAteData(d2));
+    }
+
+    @Test
+    void registrarAlteracao_dataForaDoIntervalo_realocaSemPerderValores() {
+        LocalDate antiga = LocalDate.of(2010, 5, 1);
+        LocalDate futura = LocalDate.of(2040, 5, 1);
+
+        indiceMovimentosService.registrarAlteracao(null, new MovimentoExtrato(antiga, TipoTransacao.DEBITO, new BigDecimal("1.00")));
+        indiceMovimentosService.registrarAlteracao(null, new MovimentoExtrato(futura, TipoTransacao.CREDITO, new BigDecimal("2.00")));
+
+        assertEquals(new BigDecimal("-1.00"), indiceMovimentosService.calcularSaldoAteData(antiga));
+        assertEquals(new BigDecimal("79.25"), indiceMovimentosService.calcularSaldoAteData(d2));
+        assertEquals(new BigDecimal("81.25"), indiceMovimentosService.calcularSaldoAteData(futura));
+    }
+
+    @Test
+    void recarregar_esperaCommitEmAndamento_semContarDuasVezes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        indiceMovimentosService.registrarAlteracao(null, new MovimentoExtrato(d1, TipoTransacao.CREDITO, new BigDecimal("5.00")));
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        // A transação já passou do beforeCommit: o commit no banco pode ter acontecido
+        syncs.forEach(sync -> sync.beforeCommit(false));
+
+        // O snapshot da recarga já enxerga o crédito de 5.00
+        when(transacaoRepository.somarMovimentosPorDia(d1, d2)).thenReturn(List.of(
+                new MovimentoDiarioDTO(d1, new BigDecimal("105.50"), BigDecimal.ZERO),
+                new MovimentoDiarioDTO(d2, new BigDecimal("10.00"), new BigDecimal("30.25"))));
+        clearInvocations(transacaoRepository);
+        CompletableFuture<Void> recarga = CompletableFuture.runAsync(indiceMovimentosService::recarregar);
+
+        // Sem abrir o snapshot enquanto a transação não aplicou o crédito
+        verify(transacaoRepository, after(200).never()).findMaiorId();
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        syncs.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        recarga.get(5, TimeUnit.SECONDS);
+
+        assertEquals(new BigDecimal("105.50"), indiceMovimentosService.calcularSaldoAteData(d1));
+        assertEquals(new BigDecimal("85.25"), indiceMovimentosService.calcularSaldoAteData(d2));
+    }
+
+    @Test
+    void recarregar_reaplicaAlteracoesCommitadasDepoisDoSnapshot() {
+        // Snapshot já aberto: a alteração commitada agora não está nele e vale na estrutura nova
+        when(transacaoRepository.somarMovimentosPorDia(d1, d2)).thenAnswer(inv -> {
+            indiceMovimentosService.registrarAlteracao(null, new MovimentoExtrato(d2, TipoTransacao.DEBITO, new BigDecimal("0.25")));
+            return List.of(
+                    new MovimentoDiarioDTO(d1, new BigDecimal("100.50"), BigDecimal.ZERO),
+                    new MovimentoDiarioDTO(d2, new BigDecimal("10.00"), new BigDecimal("30.25")));
+        });
+
+        indiceMovimentosService.recarregar();
+
+        assertEquals(new BigDecimal("80.00"), indiceMovimentosService.calcularSaldoAteData(d2));
+        assertEquals(new BigDecimal("30.50"), indiceMovimentosService.calcularTotalDebitosPorPeriodo(d1, d2));
+    }
+
+    @Test
+    void arvoreFenwick_conferePrefixosEIntervalosComSomaDireta() {
+        Random random = new Random(42);
+        long[] valores = new long[500];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = random.nextInt(20001) - 10000;
+        }
+        ArvoreFenwick arvore = ArvoreFenwick.de(valores);
+
+        for (int k = 0; k < 200; k++) {
+            int posicao = random.nextInt(valores.length);
+            long delta = random.nextInt(1001) - 500;
+            valores[posicao] += delta;
+            arvore.somar(posicao, delta);
+
+            int inicio = random.nextInt(valores.length);
+            int fim = inicio + random.nextInt(valores.length - inicio);
+            long esperado = 0;
+            for (int i = inicio; i <= fim; i++) {
+                esperado += valores[i];
+            }
+            assertEquals(esperado, arvore.intervalo(inicio, fim));
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package com.web.dev.painelOnline.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.dev.painelOnline.Enum.TipoOperacaoItem;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.OperacaoItemDTO;
+import com.web.dev.painelOnline.dto.OperacoesItensDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoOperacoesItensDTO;
 import com.web.dev.painelOnline.entities.ItemNota;
 import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ItemNotaJdbcRepository;
 import com.web.dev.painelOnline.repository.ItemNotaRepository;
 import com.web.dev.painelOnline.repository.TransacaoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class ItemNotaServiceTest {
@@ -26,6 +41,12 @@ class ItemNotaServiceTest {
     @Mock
     private ExtratoFinanceiroService extratoFinanceiroService;
 
+    @Mock
+    private AutocompletarService autocompletarService;
+
+    @Mock
+    private ItemNotaJdbcRepository itemNotaJdbcRepository;
+
     @InjectMocks
     private ItemNotaService itemNotaService;
 
@@ -53,7 +74,7 @@ class ItemNotaServiceTest {
 
         assertEquals(77L, saved.getId());
         assertEquals(BigDecimal.valueOf(10).setScale(2), saved.getValorTotal().setScale(2));
-        verify(extratoFinanceiroService).atualizarExtratoDia(tx.getData());
+        verify(extratoFinanceiroService).revisarExtratoDia(tx.getData());
     }
 
     @Test
@@ -68,7 +89,7 @@ class ItemNotaServiceTest {
 
     @Test
     void atualizarItem_notFound_throwsRuntime() {
-        when(itemNotaRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemNotaRepository.findByIdParaAtualizar(1L)).thenReturn(Optional.empty());
         RuntimeException ex = assertThrows(RuntimeException.class, () -> itemNotaService.atualizarItem(1L, new ItemNota()));
         assertTrue(ex.getMessage().contains("ItemNota não encontrada"));
     }
@@ -81,18 +102,19 @@ class ItemNotaServiceTest {
         ItemNota existent = new ItemNota("A", 1, BigDecimal.ONE, tx);
         existent.setId(3L);
 
-        when(itemNotaRepository.findById(3L)).thenReturn(Optional.of(existent));
+        when(itemNotaRepository.findByIdParaAtualizar(3L)).thenReturn(Optional.of(existent));
         doNothing().when(itemNotaRepository).deleteById(3L);
 
         itemNotaService.excluirItem(3L);
 
+        verify(itemNotaRepository, never()).findById(any());
         verify(itemNotaRepository).deleteById(3L);
-        verify(extratoFinanceiroService).atualizarExtratoDia(tx.getData());
+        verify(extratoFinanceiroService).revisarExtratoDia(tx.getData());
     }
 
     @Test
     void excluirItem_notFound_throws() {
-        when(itemNotaRepository.findById(99L)).thenReturn(Optional.empty());
+        when(itemNotaRepository.findByIdParaAtualizar(99L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> itemNotaService.excluirItem(99L));
     }
 
@@ -110,15 +132,15 @@ class ItemNotaServiceTest {
         ItemNota atualizado = new ItemNota();
         atualizado.setTransacao(newTx);
 
-        when(itemNotaRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(itemNotaRepository.findByIdParaAtualizar(1L)).thenReturn(Optional.of(existente));
         when(transacaoRepository.findById(2L)).thenReturn(Optional.of(newTx));
         when(itemNotaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         ItemNota result = itemNotaService.atualizarItem(1L, atualizado);
 
         assertEquals(newTx, result.getTransacao());
-        verify(extratoFinanceiroService).atualizarExtratoDia(oldTx.getData());
-        verify(extratoFinanceiroService).atualizarExtratoDia(newTx.getData());
+        // Os dois dias numa chamada só, para as faixas serem travadas juntas
+        verify(extratoFinanceiroService).revisarExtratoDias(Set.of(oldTx.getData(), newTx.getData()));
     }
 
     @Test
@@ -132,22 +154,235 @@ class ItemNotaServiceTest {
         ItemNota atualizado = new ItemNota();
         atualizado.setQuantidade(3); // altera quantidade
 
-        when(itemNotaRepository.findById(5L)).thenReturn(Optional.of(existente));
+        when(itemNotaRepository.findByIdParaAtualizar(5L)).thenReturn(Optional.of(existente));
         when(itemNotaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         ItemNota result = itemNotaService.atualizarItem(5L, atualizado);
 
         assertEquals(BigDecimal.valueOf(15).setScale(2), result.getValorTotal().setScale(2));
-        verify(extratoFinanceiroService).atualizarExtratoDia(tx.getData());
+        verify(extratoFinanceiroService).revisarExtratoDias(Set.of(tx.getData()));
     }
 
     @Test
-    void buscarTodosItens_returnsList() {
-        ItemNota item = new ItemNota();
-        when(itemNotaRepository.findAll()).thenReturn(List.of(item));
+    void criarItem_somaNoResumoDeItensDaTransacao() {
+        Transacao tx = new Transacao();
+        tx.setId(100L);
+        tx.setData(LocalDate.of(2025, 8, 8));
 
-        List<ItemNota> result = itemNotaService.buscarTodosItens();
-        assertEquals(1, result.size());
+        when(transacaoRepository.findById(100L)).thenReturn(Optional.of(tx));
+        when(itemNotaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        itemNotaService.criarItem(new ItemNota("Prod", 3, new BigDecimal("2.50"), tx));
+
+        verify(transacaoRepository).somarResumoItens(100L, 1, new BigDecimal("7.50"));
+    }
+
+    @Test
+    void atualizarItem_resumoDeItens_recebeDeltas() {
+        Transacao tx = new Transacao();
+        tx.setId(1L);
+        tx.setData(LocalDate.of(2025, 3, 3));
+        Transacao outra = new Transacao();
+        outra.setId(2L);
+        outra.setData(LocalDate.of(2025, 3, 4));
+
+        ItemNota existente = new ItemNota("Produto", 2, new BigDecimal("5.00"), tx);
+        existente.setId(5L);
+        existente.setValorTotal(new BigDecimal("10.00"));
+        when(itemNotaRepository.findByIdParaAtualizar(5L)).thenReturn(Optional.of(existente));
+        when(transacaoRepository.findById(2L)).thenReturn(Optional.of(outra));
+        when(itemNotaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Mesma transação: só a diferença de valor
+        ItemNota maisUm = new ItemNota();
+        maisUm.setQuantidade(3);
+        itemNotaService.atualizarItem(5L, maisUm);
+        verify(transacaoRepository).somarResumoItens(1L, 0, new BigDecimal("5.00"));
+
+        // Outra transação: sai de uma e entra na outra com o valor inteiro
+        ItemNota mover = new ItemNota();
+        mover.setTransacao(outra);
+        itemNotaService.atualizarItem(5L, mover);
+        verify(transacaoRepository).somarResumoItens(1L, -1, new BigDecimal("-15.00"));
+        verify(transacaoRepository).somarResumoItens(2L, 1, new BigDecimal("15.00"));
+    }
+
+    @Test
+    void excluirItem_subtraiDoResumoDeItens() {
+        Transacao tx = new Transacao();
+        tx.setId(8L);
+        tx.setData(LocalDate.of(2025, 9, 9));
+
+        ItemNota existente = new ItemNota("A", 4, new BigDecimal("1.25"), tx);
+        existente.setId(3L);
+        existente.setValorTotal(new BigDecimal("5.00"));
+        when(itemNotaRepository.findByIdParaAtualizar(3L)).thenReturn(Optional.of(existente));
+
+        itemNotaService.excluirItem(3L);
+
+        verify(transacaoRepository).somarResumoItens(8L, -1, new BigDecimal("-5.00"));
+    }
+
+    private static ItemNotaDTO itemDto(long id, long transacaoId) {
+        return new ItemNotaDTO(id, "Item " + id, 1, BigDecimal.ONE, BigDecimal.ONE, transacaoId);
+    }
+
+    @Test
+    void aplicarOperacoes_umLotePorEscritaEUmaRevisaoPorDia() {
+        Transacao tx1 = new Transacao();
+        tx1.setId(1L);
+        tx1.setData(LocalDate.of(2025, 5, 1));
+        Transacao tx2 = new Transacao();
+        tx2.setId(2L);
+        tx2.setData(LocalDate.of(2025, 5, 2));
+
+        when(itemNotaRepository.findDtosPorIdsParaAtualizar(Set.of(5L, 6L))).thenReturn(List.of(
+                new ItemNotaDTO(5L, "Velho", 1, new BigDecimal("4.00"), new BigDecimal("4.00"), 1L),
+                new ItemNotaDTO(6L, "Sai", 2, new BigDecimal("1.50"), new BigDecimal("3.00"), 1L)));
+        when(transacaoRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(tx1, tx2));
+        doAnswer(inv -> {
+            List<ItemNota> novos = inv.getArgument(1);
+            long id = 100L;
+            for (ItemNota item : novos) {
+                item.setId(id++);
+            }
+            return null;
+        }).when(itemNotaJdbcRepository).inserirEmLote(eq(tx1), anyList(), anyInt());
+        when(itemNotaRepository.excluirPorIds(List.of(6L))).thenReturn(1);
+
+        ResultadoOperacoesItensDTO resultado = itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of(
+                new OperacaoItemDTO(TipoOperacaoItem.CRIAR, null, 1L, "A", 2, new BigDecimal("2.50")),
+                new OperacaoItemDTO(TipoOperacaoItem.ATUALIZAR, 5L, 2L, null, 3, null),
+                new OperacaoItemDTO(TipoOperacaoItem.CRIAR, null, 1L, "B", 1, new BigDecimal("1.00")),
+                new OperacaoItemDTO(TipoOperacaoItem.EXCLUIR, 6L, null, null, null, null))));
+
+        assertEquals(2, resultado.getCriados());
+        assertEquals(1, resultado.getAtualizados());
+        assertEquals(1, resultado.getExcluidos());
+        assertEquals(2, resultado.getDiasAfetados());
+        assertEquals(List.of(100L, 5L, 101L), resultado.getItens().stream().map(ItemNotaDTO::getId).toList());
+        assertEquals(0, new BigDecimal("12.00").compareTo(resultado.getItens().get(1).getValorTotal()));
+
+        // Uma escrita em lote por tipo
+        verify(itemNotaJdbcRepository).inserirEmLote(eq(tx1), argThat(novos -> novos.size() == 2), anyInt());
+        verify(itemNotaJdbcRepository).atualizarEmLote(argThat(alterados -> alterados.size() == 1
+                && alterados.get(0).getTransacaoId().equals(2L)), anyInt());
+        verify(itemNotaRepository).excluirPorIds(List.of(6L));
+        verify(itemNotaRepository, never()).save(any());
+        // tx1: +5.00 +1.00 (novos) -4.00 (movido) -3.00 (excluído); tx2: +12.00
+        verify(transacaoRepository).somarResumoItens(1L, 0, new BigDecimal("-1.00"));
+        verify(transacaoRepository).somarResumoItens(2L, 1, new BigDecimal("12.00"));
+        verify(extratoFinanceiroService, times(1)).revisarExtratoDias(Set.of(tx1.getData(), tx2.getData()));
+    }
+
+    @Test
+    void aplicarOperacoes_contagemDiferente_falhaComConflito() {
+        Transacao tx = new Transacao();
+        tx.setId(1L);
+        tx.setData(LocalDate.of(2025, 5, 1));
+        when(itemNotaRepository.findDtosPorIdsParaAtualizar(Set.of(5L))).thenReturn(List.of(itemDto(5L, 1L)));
+        when(transacaoRepository.findAllById(Set.of(1L))).thenReturn(List.of(tx));
+        when(itemNotaRepository.excluirPorIds(List.of(5L))).thenReturn(0);
+
+        assertThrows(ConcurrencyFailureException.class, () -> itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of(
+                new OperacaoItemDTO(TipoOperacaoItem.EXCLUIR, 5L, null, null, null, null)))));
+
+        verify(transacaoRepository, never()).somarResumoItens(any(), anyInt(), any());
+        verifyNoInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void aplicarOperacoes_itemAlteradoNaoEncontradoNoUpdate_falhaComConflito() {
+        Transacao tx = new Transacao();
+        tx.setId(1L);
+        tx.setData(LocalDate.of(2025, 5, 1));
+        when(itemNotaRepository.findDtosPorIdsParaAtualizar(Set.of(5L))).thenReturn(List.of(itemDto(5L, 1L)));
+        when(transacaoRepository.findAllById(Set.of(1L))).thenReturn(List.of(tx));
+        when(itemNotaJdbcRepository.atualizarEmLote(anyList(), anyInt())).thenReturn(1);
+
+        assertThrows(ConcurrencyFailureException.class, () -> itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of(
+                new OperacaoItemDTO(TipoOperacaoItem.ATUALIZAR, 5L, null, "Novo", null, null)))));
+
+        verify(transacaoRepository, never()).somarResumoItens(any(), anyInt(), any());
+        verifyNoInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void aplicarOperacoes_invalidas_naoGravamNada() {
+        OperacaoItemDTO exclui = new OperacaoItemDTO(TipoOperacaoItem.EXCLUIR, 5L, null, null, null, null);
+        IllegalArgumentException repetido = assertThrows(IllegalArgumentException.class,
+                () -> itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of(exclui, exclui))));
+        assertTrue(repetido.getMessage().startsWith("Operação 2:"));
+
+        assertThrows(IllegalArgumentException.class, () -> itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of(
+                new OperacaoItemDTO(TipoOperacaoItem.CRIAR, null, 1L, "A", 0, BigDecimal.ONE)))));
+        assertThrows(IllegalArgumentException.class, () -> itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of())));
+
+        when(itemNotaRepository.findDtosPorIdsParaAtualizar(Set.of(9L))).thenReturn(List.of());
+        IllegalArgumentException inexistente = assertThrows(IllegalArgumentException.class,
+                () -> itemNotaService.aplicarOperacoes(new OperacoesItensDTO(List.of(
+                        new OperacaoItemDTO(TipoOperacaoItem.EXCLUIR, 9L, null, null, null, null)))));
+        assertTrue(inexistente.getMessage().contains("ItemNota não encontrada"));
+
+        verifyNoInteractions(itemNotaJdbcRepository, extratoFinanceiroService);
+        verify(itemNotaRepository, never()).excluirPorIds(any());
+    }
+
+    @Test
+    void buscarPaginaItens_paginaPorIdComCursor() {
+        when(itemNotaRepository.findPaginaDtos(eq(0L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(itemDto(1L, 9L), itemDto(4L, 9L), itemDto(7L, 10L)));
+
+        PaginaDTO<ItemNotaDTO> pagina = itemNotaService.buscarPaginaItens(null, null, null, null, 2);
+
+        assertEquals(List.of(1L, 4L), pagina.getItens().stream().map(ItemNotaDTO::getId).toList());
+        assertNotNull(pagina.getProximoCursor());
+        // Um registro a mais que o tamanho da página, só para saber se há próxima
+        verify(itemNotaRepository).findPaginaDtos(eq(0L), isNull(), isNull(), argThat(p -> p.getPageSize() == 3));
+
+        when(itemNotaRepository.findPaginaDtos(eq(4L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(itemDto(7L, 10L)));
+        PaginaDTO<ItemNotaDTO> ultima = itemNotaService.buscarPaginaItens(null, null, null, pagina.getProximoCursor(), 2);
+        assertEquals(List.of(7L), ultima.getItens().stream().map(ItemNotaDTO::getId).toList());
+        assertNull(ultima.getProximoCursor());
+        verify(itemNotaRepository, never()).findAll();
+    }
+
+    @Test
+    void buscarPaginaItens_porTransacaoEFaixaDeValor_usaConsultaDaTransacao() {
+        BigDecimal minimo = new BigDecimal("5.00");
+        BigDecimal maximo = new BigDecimal("50.00");
+        when(itemNotaRepository.findPaginaDtosDaTransacao(eq(9L), eq(0L), eq(minimo), eq(maximo), any(Pageable.class)))
+                .thenReturn(List.of(itemDto(1L, 9L)));
+
+        PaginaDTO<ItemNotaDTO> pagina = itemNotaService.buscarPaginaItens(9L, minimo, maximo, null, null);
+
+        assertEquals(1, pagina.getItens().size());
+        assertNull(pagina.getProximoCursor());
+        verify(itemNotaRepository, never()).findPaginaDtos(any(), any(), any(), any());
+    }
+
+    @Test
+    void buscarPaginaItens_parametrosInvalidos_lancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> itemNotaService.buscarPaginaItens(null, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> itemNotaService.buscarPaginaItens(null, null, null, "!!", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> itemNotaService.buscarPaginaItens(null, BigDecimal.TEN, BigDecimal.ONE, null, 10));
+    }
+
+    @Test
+    void escreverItens_umObjetoPorLinha() throws Exception {
+        ReflectionTestUtils.setField(itemNotaService, "objectMapper", new ObjectMapper());
+        when(itemNotaRepository.streamDtos(null, null)).thenReturn(Stream.of(itemDto(1L, 9L), itemDto(2L, 9L)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int total = itemNotaService.escreverItens(null, null, null, saida);
+
+        assertEquals(2, total);
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].startsWith("{\"id\":1,"));
+        assertTrue(linhas[1].contains("\"transacaoId\":9"));
     }
 
     @Test
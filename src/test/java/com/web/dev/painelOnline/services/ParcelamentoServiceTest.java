@@ -0,0 +1,210 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.dto.PlanoParcelamentoDTO;
+import com.web.dev.painelOnline.entities.Parcelamento;
+import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ParcelamentoRepository;
+import com.web.dev.painelOnline.repository.TransacaoJdbcRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ParcelamentoServiceTest {
+
+    @Mock
+    private ParcelamentoRepository parcelamentoRepository;
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private TransacaoJdbcRepository transacaoJdbcRepository;
+
+    @Mock
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Mock
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @Mock
+    private AutocompletarService autocompletarService;
+
+    @InjectMocks
+    private ParcelamentoService parcelamentoService;
+
+    @Captor
+    private ArgumentCaptor<List<Transacao>> parcelasCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<MovimentoExtrato>> movimentosCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private Parcelamento parcelamento(String valor, int quantidade, LocalDate primeira) {
+        Parcelamento p = new Parcelamento();
+        p.setCaracteristica("Notebook");
+        p.setValorTotalReais(new BigDecimal(valor));
+        p.setTaxaCambio(new BigDecimal("5.0000"));
+        p.setTipoTransacao(TipoTransacao.DEBITO);
+        p.setQuantidadeParcelas(quantidade);
+        p.setDataPrimeiraParcela(primeira);
+        return p;
+    }
+
+    private Transacao parcela(long id, int numero, LocalDate data, StatusPagamento status) {
+        Transacao t = new Transacao(data, "Notebook (" + numero + "/3)", new BigDecimal("33.33"), new BigDecimal("5.0000"),
+                TipoTransacao.DEBITO, status, TipoPagamento.PARCELADO);
+        t.setId(id);
+        t.setParcelamentoId(7L);
+        t.setNumeroParcela(numero);
+        t.setDataVencimento(data);
+        t.recalcularValorDolares();
+        return t;
+    }
+
+    @Test
+    void criar_geraParcelasNumLote_ultimaFicaComOResto_eExtratoUmaVez() {
+        when(parcelamentoRepository.save(any())).thenAnswer(inv -> {
+            Parcelamento p = inv.getArgument(0);
+            p.setId(7L);
+            return p;
+        });
+
+        PlanoParcelamentoDTO plano = parcelamentoService.criar(parcelamento("100.00", 3, LocalDate.of(2025, 1, 31)));
+
+        verify(transacaoJdbcRepository, times(1)).inserirEmLote(parcelasCaptor.capture(), eq(3));
+        List<Transacao> parcelas = parcelasCaptor.getValue();
+        assertEquals(3, parcelas.size());
+        assertEquals(0, new BigDecimal("33.33").compareTo(parcelas.get(0).getValorReais()));
+        assertEquals(0, new BigDecimal("33.33").compareTo(parcelas.get(1).getValorReais()));
+        assertEquals(0, new BigDecimal("33.34").compareTo(parcelas.get(2).getValorReais()));
+        // Datas a partir da primeira: fevereiro ajusta para o último dia, março volta ao dia 31
+        assertEquals(LocalDate.of(2025, 2, 28), parcelas.get(1).getData());
+        assertEquals(LocalDate.of(2025, 3, 31), parcelas.get(2).getData());
+        assertEquals(LocalDate.of(2025, 3, 31), parcelas.get(2).getDataVencimento());
+        assertEquals("Notebook (3/3)", parcelas.get(2).getCaracteristica());
+        assertEquals(7L, parcelas.get(2).getParcelamentoId());
+        assertEquals(StatusPagamento.PENDENTE, parcelas.get(0).getStatusPagamento());
+        assertEquals(TipoPagamento.PARCELADO, parcelas.get(0).getTipoPagamento());
+
+        verify(extratoFinanceiroService, times(1)).registrarAlteracoes(eq(List.of()), movimentosCaptor.capture());
+        assertEquals(3, movimentosCaptor.getValue().size());
+        verify(extratoFinanceiroService, never()).registrarAlteracao(any(), any());
+        assertEquals(7L, plano.getParcelamento().getId());
+    }
+
+    @Test
+    void criar_invalido_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parcelamentoService.criar(parcelamento("100.00", 1, LocalDate.of(2025, 1, 1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> parcelamentoService.criar(parcelamento("0.02", 3, LocalDate.of(2025, 1, 1))));
+        Parcelamento semData = parcelamento("100.00", 3, null);
+        assertThrows(IllegalArgumentException.class, () -> parcelamentoService.criar(semData));
+        verifyNoInteractions(transacaoJdbcRepository, extratoFinanceiroService);
+    }
+
+    @Test
+    void reprogramar_deslocaParcelasEmAbertoComUmUpdate() {
+        Parcelamento plano = parcelamento("100.00", 3, LocalDate.of(2025, 1, 10));
+        plano.setId(7L);
+        when(parcelamentoRepository.findById(7L)).thenReturn(Optional.of(plano));
+        when(transacaoRepository.findParcelasEmAberto(7L)).thenReturn(List.of(
+                parcela(2L, 2, LocalDate.of(2025, 2, 10), StatusPagamento.VENCIDO),
+                parcela(3L, 3, LocalDate.of(2025, 3, 10), StatusPagamento.PENDENTE)));
+        when(transacaoRepository.reprogramarParcelasEmAberto(eq(7L), eq(15), any())).thenReturn(2);
+
+        parcelamentoService.reprogramar(7L, LocalDate.of(2025, 2, 25));
+
+        verify(transacaoRepository).reprogramarParcelasEmAberto(eq(7L), eq(15), any());
+        verify(extratoFinanceiroService).registrarAlteracoes(movimentosCaptor.capture(), movimentosCaptor.capture());
+        List<MovimentoExtrato> anteriores = movimentosCaptor.getAllValues().get(0);
+        List<MovimentoExtrato> atuais = movimentosCaptor.getAllValues().get(1);
+        assertEquals(LocalDate.of(2025, 2, 10), anteriores.get(0).getData());
+        assertEquals(LocalDate.of(2025, 2, 25), atuais.get(0).getData());
+        assertEquals(LocalDate.of(2025, 3, 25), atuais.get(1).getData());
+        assertEquals(0, anteriores.get(1).getValorDolares().compareTo(atuais.get(1).getValorDolares()));
+    }
+
+    @Test
+    void reprogramar_parcelaPagaDuranteALeitura_conflitoSemMexerNoExtrato() {
+        Parcelamento plano = parcelamento("100.00", 3, LocalDate.of(2025, 1, 10));
+        plano.setId(7L);
+        when(parcelamentoRepository.findById(7L)).thenReturn(Optional.of(plano));
+        when(transacaoRepository.findParcelasEmAberto(7L)).thenReturn(List.of(
+                parcela(2L, 2, LocalDate.of(2025, 2, 10), StatusPagamento.PENDENTE),
+                parcela(3L, 3, LocalDate.of(2025, 3, 10), StatusPagamento.PENDENTE)));
+        // Uma das duas já não está em aberto quando o UPDATE roda
+        when(transacaoRepository.reprogramarParcelasEmAberto(eq(7L), anyInt(), any())).thenReturn(1);
+
+        assertThrows(ConcurrencyFailureException.class, () -> parcelamentoService.reprogramar(7L, LocalDate.of(2025, 2, 25)));
+        verifyNoInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void reprogramar_semParcelasEmAberto_throws() {
+        Parcelamento plano = parcelamento("100.00", 3, LocalDate.of(2025, 1, 10));
+        plano.setId(7L);
+        when(parcelamentoRepository.findById(7L)).thenReturn(Optional.of(plano));
+        when(transacaoRepository.findParcelasEmAberto(7L)).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> parcelamentoService.reprogramar(7L, LocalDate.of(2025, 5, 1)));
+        verify(transacaoRepository, never()).reprogramarParcelasEmAberto(any(), anyInt(), any());
+    }
+
+    @Test
+    void cancelar_umUpdate_eRevisaCadaDiaUmaVez() {
+        Parcelamento plano = parcelamento("100.00", 3, LocalDate.of(2025, 1, 10));
+        plano.setId(7L);
+        when(parcelamentoRepository.findById(7L)).thenReturn(Optional.of(plano));
+        LocalDate d2 = LocalDate.of(2025, 2, 10);
+        LocalDate d3 = LocalDate.of(2025, 3, 10);
+        when(transacaoRepository.findParcelasEmAberto(7L)).thenReturn(List.of(
+                parcela(2L, 2, d2, StatusPagamento.PENDENTE),
+                parcela(3L, 3, d3, StatusPagamento.PENDENTE)));
+        when(transacaoRepository.cancelarParcelasEmAberto(eq(7L), any())).thenReturn(2);
+
+        parcelamentoService.cancelar(7L);
+
+        verify(transacaoRepository, times(1)).cancelarParcelasEmAberto(eq(7L), any());
+        verify(extratoFinanceiroService).revisarExtratoDias(Set.of(d2, d3));
+        verify(extratoFinanceiroService, never()).registrarAlteracoes(any(), any());
+    }
+
+    @Test
+    void cancelar_contagemDiferente_conflito() {
+        Parcelamento plano = parcelamento("100.00", 3, LocalDate.of(2025, 1, 10));
+        plano.setId(7L);
+        when(parcelamentoRepository.findById(7L)).thenReturn(Optional.of(plano));
+        when(transacaoRepository.findParcelasEmAberto(7L)).thenReturn(List.of(
+                parcela(2L, 2, LocalDate.of(2025, 2, 10), StatusPagamento.PENDENTE)));
+        when(transacaoRepository.cancelarParcelasEmAberto(eq(7L), any())).thenReturn(0);
+
+        assertThrows(ConcurrencyFailureException.class, () -> parcelamentoService.cancelar(7L));
+        verifyNoInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void cancelar_naoEncontrado_throws() {
+        when(parcelamentoRepository.findById(99L)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> parcelamentoService.cancelar(99L));
+    }
+}
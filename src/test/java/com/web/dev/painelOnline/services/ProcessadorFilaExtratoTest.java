@@ -0,0 +1,56 @@
+package com.web.dev.painelOnline.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProcessadorFilaExtratoTest {
+
+    @Mock
+    private FilaExtratoService filaExtratoService;
+
+    @Mock
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @InjectMocks
+    private ProcessadorFilaExtrato processadorFilaExtrato;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void processarPendentes_recalculaCadaDataEmOrdem() {
+        LocalDate d1 = LocalDate.of(2025, 6, 1);
+        LocalDate d2 = LocalDate.of(2025, 6, 2);
+        when(filaExtratoService.retirarPendentes()).thenReturn(List.of(d1, d2));
+
+        assertEquals(2, processadorFilaExtrato.processarPendentes());
+
+        InOrder ordem = inOrder(extratoFinanceiroService);
+        ordem.verify(extratoFinanceiroService).atualizarExtratoDia(d1);
+        ordem.verify(extratoFinanceiroService).atualizarExtratoDia(d2);
+        verify(filaExtratoService).concluir(d1);
+        verify(filaExtratoService).concluir(d2);
+    }
+
+    @Test
+    void processarPendentes_falha_devolveDataParaFila() {
+        LocalDate d = LocalDate.of(2025, 6, 3);
+        when(filaExtratoService.retirarPendentes()).thenReturn(List.of(d));
+        when(extratoFinanceiroService.atualizarExtratoDia(d)).thenThrow(new RuntimeException("falha"));
+
+        assertEquals(0, processadorFilaExtrato.processarPendentes());
+        // Devolve antes de concluir: quem espera o dia o encontra de novo na fila
+        InOrder ordem = inOrder(filaExtratoService);
+        ordem.verify(filaExtratoService).devolver(d);
+        ordem.verify(filaExtratoService).concluir(d);
+    }
+}
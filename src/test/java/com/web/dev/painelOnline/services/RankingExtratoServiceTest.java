@@ -0,0 +1,150 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.DiaExtratoDTO;
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RankingExtratoServiceTest {
+
+    @Mock
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @InjectMocks
+    private RankingExtratoService rankingExtratoService;
+
+    // Extrato "gravado": o repositório simulado ordena e pagina a partir daqui
+    private final Map<LocalDate, ExtratoFinanceiro> banco = new HashMap<>();
+
+    private final LocalDate inicio = LocalDate.of(2025, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(rankingExtratoService, "tamanho", 5);
+        when(extratoFinanceiroRepository.findMaioresMovimentos(any())).thenAnswer(inv ->
+                pagina(RankingExtratoService.ORDEM_MOVIMENTO, d -> d.getMovimentoTotal().signum() > 0, inv.getArgument(0)));
+        when(extratoFinanceiroRepository.findPioresSaldosDia(any())).thenAnswer(inv ->
+                pagina(RankingExtratoService.ORDEM_SALDO, d -> d.getSaldoDia().signum() < 0, inv.getArgument(0)));
+    }
+
+    private List<ExtratoFinanceiro> pagina(Comparator<DiaExtratoDTO> ordem, Predicate<DiaExtratoDTO> filtro, Pageable pageable) {
+        return banco.values().stream()
+                .filter(e -> filtro.test(DiaExtratoDTO.de(e)))
+                .sorted((a, b) -> ordem.compare(DiaExtratoDTO.de(a), DiaExtratoDTO.de(b)))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private void gravar(LocalDate data, long creditos, long debitos) {
+        ExtratoFinanceiro extrato = new ExtratoFinanceiro(data);
+        extrato.setTotalCreditosDolares(BigDecimal.valueOf(creditos));
+        extrato.setTotalDebitosDolares(BigDecimal.valueOf(debitos));
+        banco.put(data, extrato);
+        rankingExtratoService.registrarDia(extrato);
+    }
+
+    private List<LocalDate> datas(List<DiaExtratoDTO> dias) {
+        return dias.stream().map(DiaExtratoDTO::getData).toList();
+    }
+
+    @Test
+    void primeiraPagina_saiDaMemoriaDepoisDaPrimeiraLeitura() {
+        for (int i = 0; i < 8; i++) {
+            gravar(inicio.plusDays(i), 10L * i, 0);
+        }
+
+        List<DiaExtratoDTO> primeira = rankingExtratoService.buscarMaioresMovimentos(0, 3);
+        rankingExtratoService.buscarMaioresMovimentos(0, 5);
+
+        assertEquals(List.of(inicio.plusDays(7), inicio.plusDays(6), inicio.plusDays(5)), datas(primeira));
+        verify(extratoFinanceiroRepository, times(1)).findMaioresMovimentos(any());
+    }
+
+    @Test
+    void paginaAlemDoRanking_consultaBanco() {
+        for (int i = 0; i < 8; i++) {
+            gravar(inicio.plusDays(i), 10L * i, 0);
+        }
+
+        List<DiaExtratoDTO> segunda = rankingExtratoService.buscarMaioresMovimentos(1, 3);
+
+        assertEquals(List.of(inicio.plusDays(4), inicio.plusDays(3), inicio.plusDays(2)), datas(segunda));
+    }
+
+    @Test
+    void diaSaiDoTopoCheio_releBanco() {
+        for (int i = 1; i <= 6; i++) {
+            gravar(inicio.plusDays(i), 10L * i, 0);
+        }
+        rankingExtratoService.buscarMaioresMovimentos(0, 5);
+
+        // O primeiro colocado cai para o fim: o 6º lugar, fora da memória, passa a fazer parte do topo
+        gravar(inicio.plusDays(6), 1, 0);
+        List<DiaExtratoDTO> topo = rankingExtratoService.buscarMaioresMovimentos(0, 5);
+
+        assertEquals(List.of(inicio.plusDays(5), inicio.plusDays(4), inicio.plusDays(3),
+                inicio.plusDays(2), inicio.plusDays(1)), datas(topo));
+        verify(extratoFinanceiroRepository, times(2)).findMaioresMovimentos(any());
+    }
+
+    @Test
+    void saldoNegativo_doMaisNegativoEmDiante() {
+        gravar(inicio, 0, 30);
+        gravar(inicio.plusDays(1), 50, 0);
+        gravar(inicio.plusDays(2), 10, 80);
+        rankingExtratoService.buscarPioresSaldos(0, 5);
+
+        gravar(inicio.plusDays(1), 0, 40);
+
+        assertEquals(List.of(inicio.plusDays(2), inicio.plusDays(1), inicio),
+                datas(rankingExtratoService.buscarPioresSaldos(0, 5)));
+        verify(extratoFinanceiroRepository, times(1)).findPioresSaldosDia(any());
+    }
+
+    @Test
+    void tamanhoInvalido_throws() {
+        assertThrows(IllegalArgumentException.class, () -> rankingExtratoService.buscarMaioresMovimentos(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> rankingExtratoService.buscarPioresSaldos(0, RankingExtratoService.TAMANHO_MAXIMO_PAGINA + 1));
+        assertThrows(IllegalArgumentException.class, () -> rankingExtratoService.buscarPioresSaldos(-1, 5));
+    }
+
+    @Test
+    void alteracoesAleatorias_memoriaIgualAoBanco() {
+        Random random = new Random(11);
+        for (int passo = 0; passo < 2_000; passo++) {
+            gravar(inicio.plusDays(random.nextInt(30)), random.nextInt(100), random.nextInt(100));
+            if (passo % 7 == 0) {
+                int n = 1 + random.nextInt(5);
+                List<ExtratoFinanceiro> esperadoMovimento = pagina(RankingExtratoService.ORDEM_MOVIMENTO,
+                        d -> d.getMovimentoTotal().signum() > 0, PageRequest.of(0, n));
+                List<ExtratoFinanceiro> esperadoSaldo = pagina(RankingExtratoService.ORDEM_SALDO,
+                        d -> d.getSaldoDia().signum() < 0, PageRequest.of(0, n));
+
+                assertEquals(datas(paraDias(esperadoMovimento)),
+                        datas(rankingExtratoService.buscarMaioresMovimentos(0, n)), "passo " + passo);
+                assertEquals(datas(paraDias(esperadoSaldo)),
+                        datas(rankingExtratoService.buscarPioresSaldos(0, n)), "passo " + passo);
+            }
+        }
+    }
+
+    private static List<DiaExtratoDTO> paraDias(List<ExtratoFinanceiro> extratos) {
+        return extratos.stream().map(DiaExtratoDTO::de).toList();
+    }
+}
@@ -0,0 +1,157 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.MovimentoDiarioDTO;
+import com.web.dev.painelOnline.entities.ExtratoFinanceiro;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroJdbcRepository;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegeneracaoExtratoServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @Mock
+    private ExtratoFinanceiroJdbcRepository extratoFinanceiroJdbcRepository;
+
+    @Mock
+    private BloqueioExtratoService bloqueioExtratoService;
+
+    @InjectMocks
+    private RegeneracaoExtratoService regeneracaoExtratoService;
+
+    @Captor
+    private ArgumentCaptor<List<ExtratoFinanceiro>> extratosCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void regenerar_umaConsultaAgrupada_diasSemMovimentoRepetemSaldo() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 1, 4);
+
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(start.minusDays(1))).thenReturn(BigDecimal.valueOf(100));
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(end)).thenReturn(BigDecimal.valueOf(100));
+        when(transacaoRepository.somarMovimentosPorDia(start, end)).thenReturn(List.of(
+                new MovimentoDiarioDTO(LocalDate.of(2025, 1, 2), BigDecimal.valueOf(50), BigDecimal.valueOf(20)),
+                new MovimentoDiarioDTO(LocalDate.of(2025, 1, 4), BigDecimal.ZERO, BigDecimal.valueOf(5))
+        ));
+
+        int dias = regeneracaoExtratoService.regenerar(start, end);
+
+        assertEquals(4, dias);
+        // Todas as faixas travadas antes de ler saldos e movimentos
+        InOrder ordem = inOrder(bloqueioExtratoService, extratoFinanceiroRepository, transacaoRepository);
+        ordem.verify(bloqueioExtratoService).bloquearTudoAteFimDaTransacao();
+        ordem.verify(extratoFinanceiroRepository).calcularSaldoAcumuladoAteData(start.minusDays(1));
+        ordem.verify(transacaoRepository).somarMovimentosPorDia(start, end);
+        verify(transacaoRepository, times(1)).somarMovimentosPorDia(start, end);
+        verify(extratoFinanceiroJdbcRepository).salvarEmLote(extratosCaptor.capture(), anyInt());
+
+        List<ExtratoFinanceiro> extratos = extratosCaptor.getValue();
+        assertEquals(4, extratos.size());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(extratos.get(0).getSaldoAcumuladoDolares()));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(extratos.get(1).getSaldoDiaDolares()));
+        assertEquals(0, BigDecimal.valueOf(130).compareTo(extratos.get(1).getSaldoAcumuladoDolares()));
+        assertEquals(0, extratos.get(2).getTotalCreditosDolares().signum());
+        assertEquals(0, BigDecimal.valueOf(130).compareTo(extratos.get(2).getSaldoAcumuladoDolares()));
+        assertEquals(0, BigDecimal.valueOf(125).compareTo(extratos.get(3).getSaldoAcumuladoDolares()));
+
+        // Dias posteriores ao período recebem a diferença do saldo final (125 - 100)
+        verify(extratoFinanceiroRepository).deslocarSaldoAcumuladoApos(eq(end), argThat(v -> v.compareTo(BigDecimal.valueOf(25)) == 0), any());
+        verify(extratoFinanceiroRepository, never()).save(any());
+    }
+
+    @Test
+    void regenerar_semDiferencaNoSaldoFinal_naoDesloca() {
+        LocalDate d = LocalDate.of(2025, 3, 1);
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(any())).thenReturn(BigDecimal.TEN);
+        when(transacaoRepository.somarMovimentosPorDia(d, d)).thenReturn(List.of());
+
+        regeneracaoExtratoService.regenerar(d, d);
+
+        verify(extratoFinanceiroRepository, never()).deslocarSaldoAcumuladoApos(any(), any(), any());
+    }
+
+    @Test
+    void regenerar_periodoInvertido_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> regeneracaoExtratoService.regenerar(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void regenerar_variosMeses_umaConsultaEUmLotePorParticao_encadeiaSaldos() {
+        LocalDate start = LocalDate.of(2024, 12, 30);
+        LocalDate end = LocalDate.of(2025, 2, 2);
+
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(start.minusDays(1))).thenReturn(BigDecimal.valueOf(10));
+        when(extratoFinanceiroRepository.calcularSaldoAcumuladoAteData(end)).thenReturn(BigDecimal.valueOf(10));
+        when(transacaoRepository.somarMovimentosPorDia(any(), any())).thenReturn(List.of());
+        when(transacaoRepository.somarMovimentosPorDia(LocalDate.of(2024, 12, 30), LocalDate.of(2024, 12, 31))).thenReturn(List.of(
+                new MovimentoDiarioDTO(LocalDate.of(2024, 12, 31), BigDecimal.valueOf(100), BigDecimal.ZERO)));
+        when(transacaoRepository.somarMovimentosPorDia(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31))).thenReturn(List.of(
+                new MovimentoDiarioDTO(LocalDate.of(2025, 1, 15), BigDecimal.ZERO, BigDecimal.valueOf(40))));
+        when(transacaoRepository.somarMovimentosPorDia(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 2))).thenReturn(List.of(
+                new MovimentoDiarioDTO(LocalDate.of(2025, 2, 1), BigDecimal.valueOf(5), BigDecimal.ZERO)));
+
+        int dias = regeneracaoExtratoService.regenerar(start, end);
+
+        assertEquals(35, dias);
+        verify(transacaoRepository, times(3)).somarMovimentosPorDia(any(), any());
+        verify(extratoFinanceiroJdbcRepository, times(3)).salvarEmLote(extratosCaptor.capture(), anyInt());
+
+        List<List<ExtratoFinanceiro>> lotes = extratosCaptor.getAllValues();
+        assertEquals(2, lotes.get(0).size());
+        assertEquals(31, lotes.get(1).size());
+        assertEquals(2, lotes.get(2).size());
+
+        // 10 inicial, +100 em 31/12, -40 em 15/01, +5 em 01/02
+        assertEquals(0, BigDecimal.valueOf(110).compareTo(lotes.get(0).get(1).getSaldoAcumuladoDolares()));
+        assertEquals(0, BigDecimal.valueOf(110).compareTo(lotes.get(1).get(13).getSaldoAcumuladoDolares()));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(lotes.get(1).get(14).getSaldoAcumuladoDolares()));
+        assertEquals(0, BigDecimal.valueOf(75).compareTo(lotes.get(2).get(1).getSaldoAcumuladoDolares()));
+
+        verify(extratoFinanceiroRepository).deslocarSaldoAcumuladoApos(eq(end), argThat(v -> v.compareTo(BigDecimal.valueOf(65)) == 0), any());
+    }
+
+    @Test
+    void particionarPorMes_respeitaLimitesDoPeriodo() {
+        List<LocalDate[]> meses = RegeneracaoExtratoService.particionarPorMes(
+                LocalDate.of(2024, 2, 10), LocalDate.of(2024, 4, 5));
+
+        assertEquals(3, meses.size());
+        assertEquals(LocalDate.of(2024, 2, 10), meses.get(0)[0]);
+        assertEquals(LocalDate.of(2024, 2, 29), meses.get(0)[1]);
+        assertEquals(LocalDate.of(2024, 3, 1), meses.get(1)[0]);
+        assertEquals(LocalDate.of(2024, 4, 5), meses.get(2)[1]);
+    }
+
+    @Test
+    void threads_nuncaPassamDoPoolDeConexoesMenosUm() {
+        ReflectionTestUtils.setField(regeneracaoExtratoService, "tamanhoPool", 3);
+        assertTrue(regeneracaoExtratoService.threads() <= 2);
+
+        ReflectionTestUtils.setField(regeneracaoExtratoService, "paralelismo", 16);
+        assertEquals(2, regeneracaoExtratoService.threads());
+
+        ReflectionTestUtils.setField(regeneracaoExtratoService, "tamanhoPool", 1);
+        assertEquals(1, regeneracaoExtratoService.threads());
+    }
+}
@@ -0,0 +1,178 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.dto.TotaisMensaisDTO;
+import com.web.dev.painelOnline.entities.ExtratoAnual;
+import com.web.dev.painelOnline.entities.ExtratoMensal;
+import com.web.dev.painelOnline.repository.ExtratoAnualRepository;
+import com.web.dev.painelOnline.repository.ExtratoFinanceiroRepository;
+import com.web.dev.painelOnline.repository.ExtratoMensalRepository;
+import com.web.dev.painelOnline.repository.ResumoExtratoJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResumoExtratoServiceTest {
+
+    @Mock
+    private ExtratoMensalRepository extratoMensalRepository;
+
+    @Mock
+    private ExtratoAnualRepository extratoAnualRepository;
+
+    @Mock
+    private ExtratoFinanceiroRepository extratoFinanceiroRepository;
+
+    @Mock
+    private ResumoExtratoJdbcRepository resumoExtratoJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ResumoExtratoService resumoExtratoService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<ExtratoAnual>> anuaisCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(resumoExtratoService, "transactionTemplate", new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void registrarDelta_somaNoMesENoAno() {
+        LocalDate d = LocalDate.of(2025, 3, 10);
+
+        resumoExtratoService.registrarDelta(d, BigDecimal.valueOf(5), BigDecimal.valueOf(-20));
+
+        // Soma direto no banco, sem ler a linha do mês ou do ano
+        verify(resumoExtratoJdbcRepository).somarNoMes(2025, 3, BigDecimal.valueOf(5), BigDecimal.valueOf(-20));
+        verify(resumoExtratoJdbcRepository).somarNoAno(2025, BigDecimal.valueOf(5), BigDecimal.valueOf(-20));
+        verifyNoInteractions(extratoMensalRepository, extratoAnualRepository);
+    }
+
+    @Test
+    void registrarDelta_semDiferenca_naoGrava() {
+        resumoExtratoService.registrarDelta(LocalDate.of(2025, 3, 10), BigDecimal.ZERO, BigDecimal.ZERO);
+
+        verifyNoInteractions(extratoMensalRepository, extratoAnualRepository, resumoExtratoJdbcRepository);
+    }
+
+    @Test
+    void reconstruir_refazMesesEAnosAPartirDoExtratoDiario() {
+        when(extratoFinanceiroRepository.somarTotaisPorMes(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 12, 31)))
+                .thenReturn(List.of(
+                        new TotaisMensaisDTO(2024, 12, BigDecimal.valueOf(10), BigDecimal.valueOf(3)),
+                        new TotaisMensaisDTO(2025, 1, BigDecimal.valueOf(7), BigDecimal.ONE),
+                        new TotaisMensaisDTO(2025, 2, BigDecimal.valueOf(3), BigDecimal.ZERO)));
+
+        int meses = resumoExtratoService.reconstruir(2024, 2025);
+
+        assertEquals(3, meses);
+        verify(extratoMensalRepository).excluirAnos(2024, 2025);
+        verify(extratoAnualRepository).excluirAnos(2024, 2025);
+        verify(extratoAnualRepository).saveAll(anuaisCaptor.capture());
+
+        List<ExtratoAnual> anuais = new ArrayList<>();
+        anuaisCaptor.getValue().forEach(anuais::add);
+        assertEquals(2, anuais.size());
+        assertEquals(BigDecimal.valueOf(7), anuais.get(0).getSaldoDolares());
+        assertEquals(BigDecimal.valueOf(10), anuais.get(1).getTotalCreditosDolares());
+        assertEquals(BigDecimal.valueOf(9), anuais.get(1).getSaldoDolares());
+    }
+
+    @Test
+    void buscarMes_semLinha_retornaZerado() {
+        when(extratoMensalRepository.findByAnoAndMes(2020, 1)).thenReturn(Optional.empty());
+
+        ExtratoMensal mensal = resumoExtratoService.buscarMes(2020, 1);
+
+        assertEquals(0, mensal.getSaldoDolares().signum());
+        assertEquals(1, mensal.getMes());
+    }
+
+    @Test
+    void reconstruirTodos_semExtrato_naoFazNada() {
+        when(extratoFinanceiroRepository.findPrimeiraData()).thenReturn(null);
+
+        assertEquals(0, resumoExtratoService.reconstruirTodos());
+        verifyNoInteractions(extratoMensalRepository, extratoAnualRepository);
+    }
+
+    @Test
+    void conferirNaInicializacao_tabelasDeTotaisVazias_refazAnosComExtrato() {
+        LocalDate inicio = LocalDate.of(2024, 12, 2);
+        LocalDate fim = LocalDate.of(2025, 1, 20);
+        when(extratoFinanceiroRepository.findPrimeiraData()).thenReturn(inicio);
+        when(extratoFinanceiroRepository.findUltimaData()).thenReturn(fim);
+        when(extratoFinanceiroRepository.somarTotaisPorMes(inicio, fim)).thenReturn(List.of(
+                new TotaisMensaisDTO(2024, 12, BigDecimal.valueOf(10), BigDecimal.valueOf(3)),
+                new TotaisMensaisDTO(2025, 1, BigDecimal.valueOf(7), BigDecimal.ONE)));
+        when(extratoMensalRepository.findAll()).thenReturn(List.of());
+        when(extratoAnualRepository.findAll()).thenReturn(List.of());
+
+        resumoExtratoService.conferirNaInicializacao();
+
+        verify(extratoMensalRepository).excluirAnos(2024, 2024);
+        verify(extratoMensalRepository).excluirAnos(2025, 2025);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void reconstruirDivergentes_totaisConferem_naoRefaz() {
+        LocalDate dia = LocalDate.of(2025, 3, 10);
+        when(extratoFinanceiroRepository.findPrimeiraData()).thenReturn(dia);
+        when(extratoFinanceiroRepository.findUltimaData()).thenReturn(dia);
+        when(extratoFinanceiroRepository.somarTotaisPorMes(dia, dia)).thenReturn(List.of(
+                new TotaisMensaisDTO(2025, 3, BigDecimal.valueOf(5), BigDecimal.valueOf(2))));
+        ExtratoMensal mensal = new ExtratoMensal(2025, 3);
+        mensal.somar(new BigDecimal("5.00"), new BigDecimal("2.00"));
+        ExtratoAnual anual = new ExtratoAnual(2025);
+        anual.somar(new BigDecimal("5.00"), new BigDecimal("2.00"));
+        when(extratoMensalRepository.findAll()).thenReturn(List.of(mensal));
+        when(extratoAnualRepository.findAll()).thenReturn(List.of(anual));
+
+        assertEquals(0, resumoExtratoService.reconstruirDivergentes());
+        verify(extratoMensalRepository, never()).excluirAnos(anyInt(), anyInt());
+    }
+
+    @Test
+    void reconstruirDivergentes_mesAtrasadoOuSemExtrato_refazSoAnosAfetados() {
+        LocalDate inicio = LocalDate.of(2024, 5, 1);
+        LocalDate fim = LocalDate.of(2025, 3, 10);
+        when(extratoFinanceiroRepository.findPrimeiraData()).thenReturn(inicio);
+        when(extratoFinanceiroRepository.findUltimaData()).thenReturn(fim);
+        when(extratoFinanceiroRepository.somarTotaisPorMes(inicio, fim)).thenReturn(List.of(
+                new TotaisMensaisDTO(2024, 5, BigDecimal.ONE, BigDecimal.ZERO),
+                new TotaisMensaisDTO(2025, 3, BigDecimal.valueOf(5), BigDecimal.valueOf(2))));
+        ExtratoMensal maio = new ExtratoMensal(2024, 5);
+        maio.somar(BigDecimal.ONE, BigDecimal.ZERO);
+        ExtratoAnual ano2024 = new ExtratoAnual(2024);
+        ano2024.somar(BigDecimal.ONE, BigDecimal.ZERO);
+        // Março ficou para trás do extrato diário, e 2023 não tem mais extrato
+        ExtratoMensal marco = new ExtratoMensal(2025, 3);
+        marco.somar(BigDecimal.valueOf(5), BigDecimal.ZERO);
+        ExtratoAnual ano2023 = new ExtratoAnual(2023);
+        ano2023.somar(BigDecimal.TEN, BigDecimal.ZERO);
+        when(extratoMensalRepository.findAll()).thenReturn(List.of(maio, marco));
+        when(extratoAnualRepository.findAll()).thenReturn(List.of(ano2024, ano2023));
+
+        assertEquals(2, resumoExtratoService.reconstruirDivergentes());
+        verify(extratoMensalRepository).excluirAnos(2023, 2023);
+        verify(extratoMensalRepository).excluirAnos(2025, 2025);
+        verify(extratoMensalRepository, never()).excluirAnos(2024, 2024);
+    }
+}
@@ -1,12 +1,24 @@
 package com.web.dev.painelOnline.services;
 
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.Enum.TipoPagamento;
+import com.web.dev.painelOnline.Enum.TipoTransacao;
+import com.web.dev.painelOnline.dto.AtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.ItemNotaDTO;
+import com.web.dev.painelOnline.dto.PaginaDTO;
+import com.web.dev.painelOnline.dto.ResultadoAtualizacaoStatusDTO;
+import com.web.dev.painelOnline.dto.TransacaoResumoDTO;
 import com.web.dev.painelOnline.entities.ItemNota;
 import com.web.dev.painelOnline.entities.Transacao;
+import com.web.dev.painelOnline.repository.ItemNotaJdbcRepository;
 import com.web.dev.painelOnline.repository.ItemNotaRepository;
 import com.web.dev.painelOnline.repository.TransacaoRepository;
+import com.web.dev.painelOnline.util.CursorTransacao;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,9 +35,18 @@ class TransacaoServiceTest {
     @Mock
     private ItemNotaRepository itemNotaRepository;
 
+    @Mock
+    private ItemNotaJdbcRepository itemNotaJdbcRepository;
+
     @Mock
     private ExtratoFinanceiroService extratoFinanceiroService;
 
+    @Mock
+    private IndiceCaracteristicaService indiceCaracteristicaService;
+
+    @Mock
+    private AutocompletarService autocompletarService;
+
     @InjectMocks
     private TransacaoService transacaoService;
 
@@ -48,7 +69,7 @@ class TransacaoServiceTest {
         Transacao saved = transacaoService.criarTransacao(t);
         assertEquals(55L, saved.getId());
         verify(transacaoRepository).save(t);
-        verify(extratoFinanceiroService).atualizarExtratoDia(t.getData());
+        verify(extratoFinanceiroService).registrarAlteracao(isNull(), argThat(m -> m.getData().equals(t.getData())));
     }
 
     @Test
@@ -59,7 +80,7 @@ class TransacaoServiceTest {
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> transacaoService.criarTransacao(t));
         assertEquals("db fail", ex.getMessage());
-        verify(extratoFinanceiroService, never()).atualizarExtratoDia(any());
+        verify(extratoFinanceiroService, never()).registrarAlteracao(any(), any());
     }
 
     @Test
@@ -76,17 +97,17 @@ class TransacaoServiceTest {
             return arg;
         });
 
-        when(itemNotaRepository.save(any())).thenAnswer(inv -> {
-            ItemNota arg = inv.getArgument(0);
-            arg.setId(100L);
-            return arg;
-        });
-
         Transacao saved = transacaoService.criarTransacaoComItens(t, List.of(i1, i2));
         assertNotNull(saved.getId());
         assertEquals(BigDecimal.valueOf(13).setScale(0), saved.getValorReais().setScale(0));
-        verify(itemNotaRepository, times(2)).save(any());
-        verify(extratoFinanceiroService).atualizarExtratoDia(t.getData());
+        assertEquals(0, new BigDecimal("10.00").compareTo(i1.getValorTotal()));
+        // Resumo de itens já vai gravado na inserção da transação
+        assertEquals(2, saved.getQuantidadeItens());
+        assertEquals(0, new BigDecimal("13.00").compareTo(saved.getValorItens()));
+        // Um único lote JDBC em vez de um save por item
+        verify(itemNotaJdbcRepository).inserirEmLote(eq(saved), eq(List.of(i1, i2)), anyInt());
+        verify(itemNotaRepository, never()).save(any());
+        verify(extratoFinanceiroService).registrarAlteracao(isNull(), argThat(m -> m.getData().equals(t.getData())));
     }
 
     @Test
@@ -104,7 +125,7 @@ class TransacaoServiceTest {
         assertEquals(0, saved.getValorReais().compareTo(BigDecimal.ZERO));
         assertEquals(999L, saved.getId());
         verify(itemNotaRepository, never()).save(any());
-        verify(extratoFinanceiroService).atualizarExtratoDia(t.getData());
+        verify(extratoFinanceiroService).registrarAlteracao(isNull(), argThat(m -> m.getData().equals(t.getData())));
     }
 
     @Test
@@ -116,6 +137,206 @@ class TransacaoServiceTest {
         assertTrue(ex.getMessage().contains("Itens devem conter"));
     }
 
+    @Test
+    void criarTransacaoComItens_itensDentroDaTransacao_naoVaoPeloCascade() {
+        Transacao t = new Transacao();
+        t.setData(LocalDate.of(2025, 11, 11));
+        ItemNota item = new ItemNota("X", 1, BigDecimal.ONE, null);
+        t.setItens(new ArrayList<>(List.of(item)));
+        when(transacaoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        transacaoService.criarTransacaoComItens(t, List.of(item));
+
+        verify(transacaoRepository).save(argThat(salva -> salva.getItens() == null));
+        verify(itemNotaJdbcRepository).inserirEmLote(any(), eq(List.of(item)), anyInt());
+    }
+
+    @Test
+    void criarTransacaoComItens_itemSemDescricao_throwsSemGravar() {
+        Transacao t = new Transacao();
+        ItemNota semDescricao = new ItemNota(" ", 1, BigDecimal.ONE, null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transacaoService.criarTransacaoComItens(t, List.of(semDescricao)));
+        verifyNoInteractions(transacaoRepository, itemNotaJdbcRepository);
+    }
+
+    private static ItemNotaDTO itemDto(long id, long transacaoId) {
+        return new ItemNotaDTO(id, "Item " + id, 1, BigDecimal.ONE, BigDecimal.ONE, transacaoId);
+    }
+
+    @Test
+    void atualizarQuantidadeItens_aumenta_umLoteDePlaceholders() {
+        Transacao t = new Transacao();
+        t.setId(5L);
+        when(transacaoRepository.findById(5L)).thenReturn(Optional.of(t));
+        when(itemNotaRepository.findDtosDaTransacaoParaAtualizar(5L)).thenReturn(List.of(itemDto(1L, 5L)));
+        doAnswer(inv -> {
+            List<ItemNota> novos = inv.getArgument(1);
+            long id = 10L;
+            for (ItemNota item : novos) {
+                item.setId(id++);
+                item.setTransacao(t);
+            }
+            return null;
+        }).when(itemNotaJdbcRepository).inserirEmLote(eq(t), anyList(), anyInt());
+
+        TransacaoResumoDTO resultado = transacaoService.atualizarQuantidadeItens(5L, 3);
+
+        assertEquals(3, resultado.getQuantidadeItens());
+        assertEquals(List.of(1L, 10L, 11L), resultado.getItens().stream().map(ItemNotaDTO::getId).toList());
+        assertEquals("Item 3", resultado.getItens().get(2).getDescricao());
+        verify(itemNotaJdbcRepository).inserirEmLote(eq(t), argThat(novos -> novos.size() == 2), anyInt());
+        verify(transacaoRepository).somarResumoItens(5L, 2, BigDecimal.ZERO);
+        verify(itemNotaRepository, never()).save(any());
+        verify(transacaoRepository, never()).findTransacaoComItens(any());
+    }
+
+    @Test
+    void atualizarQuantidadeItens_diminui_umDeleteAposOUltimoMantido() {
+        Transacao t = new Transacao();
+        t.setId(6L);
+        when(transacaoRepository.findById(6L)).thenReturn(Optional.of(t));
+        when(itemNotaRepository.findDtosDaTransacaoParaAtualizar(6L))
+                .thenReturn(List.of(itemDto(3L, 6L), itemDto(8L, 6L), itemDto(9L, 6L), itemDto(12L, 6L)));
+        when(itemNotaRepository.excluirItensApos(6L, 8L)).thenReturn(2);
+        when(itemNotaRepository.excluirItensApos(6L, 0L)).thenReturn(4);
+
+        TransacaoResumoDTO resultado = transacaoService.atualizarQuantidadeItens(6L, 2);
+
+        assertEquals(List.of(3L, 8L), resultado.getItens().stream().map(ItemNotaDTO::getId).toList());
+        assertEquals(0, new BigDecimal("2.00").compareTo(resultado.getTotalItens()));
+        verify(itemNotaRepository).excluirItensApos(6L, 8L);
+        verify(transacaoRepository).somarResumoItens(6L, -2, new BigDecimal("-2.00"));
+        verify(itemNotaRepository, never()).delete(any());
+
+        transacaoService.atualizarQuantidadeItens(6L, 0);
+        verify(itemNotaRepository).excluirItensApos(6L, 0L);
+    }
+
+    @Test
+    void atualizarQuantidadeItens_deleteRemoveItemNaoLido_conflitoSemAjustarResumo() {
+        Transacao t = new Transacao();
+        t.setId(6L);
+        when(transacaoRepository.findById(6L)).thenReturn(Optional.of(t));
+        when(itemNotaRepository.findDtosDaTransacaoParaAtualizar(6L))
+                .thenReturn(List.of(itemDto(3L, 6L), itemDto(8L, 6L)));
+        // Um item criado depois da leitura também sai no DELETE
+        when(itemNotaRepository.excluirItensApos(6L, 3L)).thenReturn(2);
+
+        assertThrows(ConcurrencyFailureException.class, () -> transacaoService.atualizarQuantidadeItens(6L, 1));
+        verify(transacaoRepository, never()).somarResumoItens(any(), anyInt(), any());
+    }
+
+    @Test
+    void atualizarQuantidadeItens_transacaoInexistente_throws() {
+        when(transacaoRepository.findById(404L)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> transacaoService.atualizarQuantidadeItens(404L, 1));
+        verifyNoInteractions(itemNotaJdbcRepository);
+    }
+
+    @Test
+    void buscarPorCaracteristica_comIndice_leSoOsIdsEncontrados() {
+        Transacao t2 = new Transacao();
+        t2.setId(2L);
+        Transacao t5 = new Transacao();
+        t5.setId(5L);
+        when(indiceCaracteristicaService.isPronto()).thenReturn(true);
+        when(indiceCaracteristicaService.buscar("cafe")).thenReturn(new long[]{2L, 5L});
+        when(transacaoRepository.findAllById(List.of(2L, 5L))).thenReturn(new ArrayList<>(List.of(t5, t2)));
+
+        List<Transacao> res = transacaoService.buscarPorCaracteristica("cafe");
+
+        assertEquals(List.of(2L, 5L), res.stream().map(Transacao::getId).toList());
+        verify(transacaoRepository, never()).findByCaracteristicaContaining(any());
+    }
+
+    @Test
+    void buscarPorCaracteristica_semIndice_usaConsultaNoBanco() {
+        when(indiceCaracteristicaService.isPronto()).thenReturn(false);
+        when(transacaoRepository.findByCaracteristicaContaining("cafe")).thenReturn(List.of(new Transacao()));
+
+        assertEquals(1, transacaoService.buscarPorCaracteristica("cafe").size());
+        verify(indiceCaracteristicaService, never()).buscar(any());
+    }
+
+    @Test
+    void criarEExcluir_atualizamIndiceDeCaracteristicas() {
+        Transacao t = new Transacao(LocalDate.of(2025, 1, 1), "Padaria", BigDecimal.TEN, BigDecimal.ONE,
+                TipoTransacao.DEBITO, StatusPagamento.PAGO, TipoPagamento.A_VISTA);
+        when(transacaoRepository.save(any())).thenAnswer(inv -> {
+            Transacao salva = inv.getArgument(0);
+            salva.setId(9L);
+            return salva;
+        });
+        when(transacaoRepository.findByIdParaAtualizar(9L)).thenReturn(Optional.of(t));
+
+        transacaoService.criarTransacao(t);
+        transacaoService.excluirTransacao(9L);
+
+        verify(indiceCaracteristicaService).registrar(9L, "Padaria");
+        verify(indiceCaracteristicaService).remover(9L);
+    }
+
+    @Test
+    void atualizarStatusEmLote_porIds_umUpdate_eUmaRevisaoPorDia() {
+        AtualizacaoStatusDTO request = new AtualizacaoStatusDTO();
+        request.setNovoStatus(StatusPagamento.PAGO);
+        request.setIds(List.of(1L, 2L, 3L, 2L));
+        LocalDate d1 = LocalDate.of(2025, 1, 5);
+        LocalDate d2 = LocalDate.of(2025, 1, 9);
+        when(transacaoRepository.findDatasParaStatusPorIds(any(), eq(StatusPagamento.PAGO))).thenReturn(List.of(d2, d1));
+        when(transacaoRepository.atualizarStatusPorIds(any(), eq(StatusPagamento.PAGO), any())).thenReturn(3);
+
+        ResultadoAtualizacaoStatusDTO resultado = transacaoService.atualizarStatusEmLote(request);
+
+        assertEquals(3, resultado.getAtualizadas());
+        assertEquals(2, resultado.getDiasAfetados());
+        verify(transacaoRepository).atualizarStatusPorIds(argThat(ids -> ids.size() == 3), eq(StatusPagamento.PAGO), any());
+        // Os dois dias numa chamada só, travados juntos antes da primeira revisão
+        verify(extratoFinanceiroService).revisarExtratoDias(Set.of(d1, d2));
+        verify(extratoFinanceiroService, never()).registrarAlteracao(any(), any());
+        verify(transacaoRepository, never()).save(any());
+    }
+
+    @Test
+    void atualizarStatusEmLote_porFiltro_fimInclusivo() {
+        AtualizacaoStatusDTO request = new AtualizacaoStatusDTO();
+        request.setNovoStatus(StatusPagamento.CANCELADO);
+        request.setDataInicio(LocalDate.of(2025, 1, 1));
+        request.setDataFim(LocalDate.of(2025, 1, 31));
+        request.setTipoPagamento(TipoPagamento.A_PRAZO);
+        when(transacaoRepository.findDatasParaStatusNoIntervalo(any(), any(), any(), any(), any())).thenReturn(List.of());
+        when(transacaoRepository.atualizarStatusNoIntervalo(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        ResultadoAtualizacaoStatusDTO resultado = transacaoService.atualizarStatusEmLote(request);
+
+        assertEquals(0, resultado.getAtualizadas());
+        verify(transacaoRepository).atualizarStatusNoIntervalo(eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 2, 1)),
+                isNull(), eq(TipoPagamento.A_PRAZO), eq(StatusPagamento.CANCELADO), any());
+        verifyNoInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void atualizarStatusEmLote_requisicaoInvalida_throws() {
+        AtualizacaoStatusDTO semStatus = new AtualizacaoStatusDTO();
+        semStatus.setIds(List.of(1L));
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.atualizarStatusEmLote(semStatus));
+
+        AtualizacaoStatusDTO ambos = new AtualizacaoStatusDTO();
+        ambos.setNovoStatus(StatusPagamento.PAGO);
+        ambos.setIds(List.of(1L));
+        ambos.setDataInicio(LocalDate.of(2025, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.atualizarStatusEmLote(ambos));
+
+        AtualizacaoStatusDTO semPeriodo = new AtualizacaoStatusDTO();
+        semPeriodo.setNovoStatus(StatusPagamento.PAGO);
+        semPeriodo.setStatusAtual(StatusPagamento.PENDENTE);
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.atualizarStatusEmLote(semPeriodo));
+
+        verifyNoInteractions(transacaoRepository);
+    }
+
     @Test
     void atualizarTransacao_existing_updatesAndCallsExtrato_forDifferentDates() {
         Transacao persisted = new Transacao();
@@ -126,13 +347,14 @@ class TransacaoServiceTest {
         updated.setData(LocalDate.of(2025,2,2));
         updated.setCaracteristica("novo");
 
-        when(transacaoRepository.findById(7L)).thenReturn(Optional.of(persisted));
+        when(transacaoRepository.findByIdParaAtualizar(7L)).thenReturn(Optional.of(persisted));
         when(transacaoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         Transacao res = transacaoService.atualizarTransacao(7L, updated);
         assertEquals("novo", res.getCaracteristica());
-        verify(extratoFinanceiroService).atualizarExtratoDia(LocalDate.of(2025,1,1));
-        verify(extratoFinanceiroService).atualizarExtratoDia(LocalDate.of(2025,2,2));
+        verify(extratoFinanceiroService).registrarAlteracao(
+                argThat(m -> m.getData().equals(LocalDate.of(2025,1,1))),
+                argThat(m -> m.getData().equals(LocalDate.of(2025,2,2))));
     }
 
     @Test
@@ -146,16 +368,18 @@ class TransacaoServiceTest {
         updated.setData(same);
         updated.setCaracteristica("igual");
 
-        when(transacaoRepository.findById(8L)).thenReturn(Optional.of(persisted));
+        when(transacaoRepository.findByIdParaAtualizar(8L)).thenReturn(Optional.of(persisted));
         when(transacaoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         transacaoService.atualizarTransacao(8L, updated);
-        verify(extratoFinanceiroService, times(1)).atualizarExtratoDia(same);
+        verify(extratoFinanceiroService, times(1)).registrarAlteracao(
+                argThat(m -> m.getData().equals(same)),
+                argThat(m -> m.getData().equals(same)));
     }
 
     @Test
     void atualizarTransacao_notFound_throws() {
-        when(transacaoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(transacaoRepository.findByIdParaAtualizar(999L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> transacaoService.atualizarTransacao(999L, new Transacao()));
     }
 
@@ -164,17 +388,17 @@ class TransacaoServiceTest {
         Transacao t = new Transacao();
         t.setId(30L);
         t.setData(LocalDate.of(2025,12,12));
-        when(transacaoRepository.findById(30L)).thenReturn(Optional.of(t));
+        when(transacaoRepository.findByIdParaAtualizar(30L)).thenReturn(Optional.of(t));
         doNothing().when(transacaoRepository).deleteById(30L);
 
         transacaoService.excluirTransacao(30L);
         verify(transacaoRepository).deleteById(30L);
-        verify(extratoFinanceiroService).atualizarExtratoDia(t.getData());
+        verify(extratoFinanceiroService).registrarAlteracao(argThat(m -> m.getData().equals(t.getData())), isNull());
     }
 
     @Test
     void excluirTransacao_notFound_throws() {
-        when(transacaoRepository.findById(123L)).thenReturn(Optional.empty());
+        when(transacaoRepository.findByIdParaAtualizar(123L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> transacaoService.excluirTransacao(123L));
     }
 
@@ -187,6 +411,129 @@ class TransacaoServiceTest {
         verify(transacaoRepository).findAll();
     }
 
+    private static TransacaoResumoDTO resumo(long id, LocalDate data, long quantidadeItens) {
+        TransacaoResumoDTO t = new TransacaoResumoDTO();
+        t.setId(id);
+        t.setData(data);
+        t.setQuantidadeItens(quantidadeItens);
+        return t;
+    }
+
+    @Test
+    void buscarPaginaTransacoes_paginaCheia_retornaCursorDaUltima() {
+        LocalDate dia = LocalDate.of(2025, 1, 10);
+        when(transacaoRepository.findPaginaNoIntervalo(any(), any(), any(), any(), any()))
+                .thenReturn(new ArrayList<>(List.of(resumo(1L, dia, 0), resumo(2L, dia, 0), resumo(3L, dia.plusDays(1), 0))));
+
+        PaginaDTO<TransacaoResumoDTO> pagina = transacaoService.buscarPaginaTransacoes(null, 2, false);
+
+        assertEquals(2, pagina.getItens().size());
+        CursorTransacao cursor = CursorTransacao.decodificar(pagina.getProximoCursor());
+        assertEquals(dia, cursor.getData());
+        assertEquals(2L, cursor.getId());
+        // Pede um a mais para saber se há próxima página; primeira página começa antes do período
+        verify(transacaoRepository).findPaginaNoIntervalo(eq(TransacaoService.DATA_MINIMA), any(),
+                eq(TransacaoService.DATA_MINIMA), eq(0L), argThat(p -> p.getPageSize() == 3 && p.getOffset() == 0));
+    }
+
+    @Test
+    void buscarPaginaTransacoesMes_continuaDoCursor_ultimaPaginaSemCursor() {
+        String cursor = new CursorTransacao(LocalDate.of(2025, 2, 14), 77L).codificar();
+        when(transacaoRepository.findPaginaNoIntervaloDecrescente(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(resumo(76L, LocalDate.of(2025, 2, 14), 0)));
+
+        PaginaDTO<TransacaoResumoDTO> pagina = transacaoService.buscarPaginaTransacoesMes(2025, 2, cursor, 10, false);
+
+        assertEquals(1, pagina.getItens().size());
+        assertNull(pagina.getProximoCursor());
+        // O mês continua do mais recente para o mais antigo
+        verify(transacaoRepository).findPaginaNoIntervaloDecrescente(eq(LocalDate.of(2025, 2, 1)), eq(LocalDate.of(2025, 3, 1)),
+                eq(LocalDate.of(2025, 2, 14)), eq(77L), any());
+        verify(transacaoRepository, never()).findPaginaNoIntervalo(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buscarPaginaTransacoesMes_primeiraPaginaComecaDepoisDoFimDoMes() {
+        LocalDate dia = LocalDate.of(2025, 2, 20);
+        when(transacaoRepository.findPaginaNoIntervaloDecrescente(any(), any(), any(), any(), any()))
+                .thenReturn(new ArrayList<>(List.of(resumo(9L, dia, 0), resumo(4L, dia.minusDays(3), 0))));
+
+        PaginaDTO<TransacaoResumoDTO> pagina = transacaoService.buscarPaginaTransacoesMes(2025, 2, null, 1, false);
+
+        CursorTransacao cursor = CursorTransacao.decodificar(pagina.getProximoCursor());
+        assertEquals(dia, cursor.getData());
+        assertEquals(9L, cursor.getId());
+        verify(transacaoRepository).findPaginaNoIntervaloDecrescente(eq(LocalDate.of(2025, 2, 1)), eq(LocalDate.of(2025, 3, 1)),
+                eq(LocalDate.of(2025, 3, 1)), eq(Long.MAX_VALUE), argThat(p -> p.getPageSize() == 2));
+    }
+
+    @Test
+    void buscarPaginaTransacoesPorPeriodo_semCursorNemTamanho_listaInteiraComFimInclusivo() {
+        when(transacaoRepository.findPaginaNoIntervalo(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(resumo(1L, LocalDate.of(2025, 1, 31), 0)));
+
+        PaginaDTO<TransacaoResumoDTO> pagina = transacaoService.buscarPaginaTransacoesPorPeriodo(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null, null, false);
+
+        // Sem limite e sem próxima página, como antes da paginação
+        assertNull(pagina.getProximoCursor());
+        assertEquals(1, pagina.getItens().size());
+        verify(transacaoRepository).findPaginaNoIntervalo(eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 2, 1)),
+                eq(LocalDate.of(2025, 1, 1)), eq(0L), argThat(Pageable::isUnpaged));
+    }
+
+    @Test
+    void buscarPaginaTransacoesPorPeriodo_cursorSemTamanho_usaTamanhoPadrao() {
+        String cursor = new CursorTransacao(LocalDate.of(2025, 1, 5), 3L).codificar();
+        when(transacaoRepository.findPaginaNoIntervalo(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        transacaoService.buscarPaginaTransacoesPorPeriodo(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), cursor, null, false);
+
+        verify(transacaoRepository).findPaginaNoIntervalo(eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 2, 1)),
+                eq(LocalDate.of(2025, 1, 5)), eq(3L), argThat(p -> p.getPageSize() == 101));
+    }
+
+    @Test
+    void buscarPaginaTransacoes_incluirItens_umaConsultaParaAPagina() {
+        LocalDate dia = LocalDate.of(2025, 1, 10);
+        when(transacaoRepository.findPaginaNoIntervalo(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(resumo(1L, dia, 2), resumo(2L, dia, 0), resumo(3L, dia, 1)));
+        when(itemNotaRepository.findDtosPorTransacaoIds(any())).thenReturn(List.of(
+                new ItemNotaDTO(10L, "a", 1, BigDecimal.ONE, BigDecimal.ONE, 1L),
+                new ItemNotaDTO(11L, "b", 1, BigDecimal.ONE, BigDecimal.ONE, 1L),
+                new ItemNotaDTO(12L, "c", 1, BigDecimal.ONE, BigDecimal.ONE, 3L)));
+
+        PaginaDTO<TransacaoResumoDTO> pagina = transacaoService.buscarPaginaTransacoes(null, 10, true);
+
+        assertEquals(2, pagina.getItens().get(0).getItens().size());
+        assertTrue(pagina.getItens().get(1).getItens().isEmpty());
+        assertEquals(12L, pagina.getItens().get(2).getItens().get(0).getId());
+        // Transações sem itens ficam fora do IN
+        verify(itemNotaRepository, times(1)).findDtosPorTransacaoIds(argThat(ids -> ids.size() == 2 && !ids.contains(2L)));
+    }
+
+    @Test
+    void buscarPaginaTransacoes_semIncluirItens_naoConsultaItens() {
+        when(transacaoRepository.findPaginaNoIntervalo(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(resumo(1L, LocalDate.of(2025, 1, 10), 2)));
+
+        PaginaDTO<TransacaoResumoDTO> pagina = transacaoService.buscarPaginaTransacoes(null, 10, false);
+
+        assertNull(pagina.getItens().get(0).getItens());
+        verifyNoInteractions(itemNotaRepository);
+    }
+
+    @Test
+    void buscarPagina_tamanhoOuCursorInvalido_throws() {
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.buscarPaginaTransacoes(null, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.buscarPaginaTransacoes(null, 501, false));
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.buscarPaginaTransacoes("!!", 10, false));
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.buscarPaginaTransacoes("bm9wZQ", 10, false));
+        assertThrows(IllegalArgumentException.class, () -> transacaoService.buscarPaginaTransacoesPorPeriodo(
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null, 10, false));
+        verifyNoInteractions(transacaoRepository);
+    }
+
     @Test
     void buscarTransacaoPorId_delegatesToRepository() {
         Transacao t = new Transacao();
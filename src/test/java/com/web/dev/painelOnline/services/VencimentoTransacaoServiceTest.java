@@ -0,0 +1,96 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.Enum.StatusPagamento;
+import com.web.dev.painelOnline.dto.ExecucaoVencimentoDTO;
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VencimentoTransacaoServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ExtratoFinanceiroService extratoFinanceiroService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private VencimentoTransacaoService vencimentoTransacaoService;
+
+    private final LocalDate hoje = LocalDate.of(2025, 3, 10);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(vencimentoTransacaoService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(vencimentoTransacaoService, "tamanhoLote", 2);
+    }
+
+    @Test
+    void marcarVencidas_processaEmLotesAteLoteIncompleto() {
+        LocalDate d1 = LocalDate.of(2025, 1, 5);
+        LocalDate d2 = LocalDate.of(2025, 2, 1);
+        when(transacaoRepository.findIdsPendentesVencidas(eq(hoje), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(transacaoRepository.findDatasParaStatusPorIds(any(), eq(StatusPagamento.VENCIDO)))
+                .thenReturn(List.of(d2, d1), List.of(d2));
+        when(transacaoRepository.marcarVencidas(any(), eq(hoje), any())).thenReturn(2, 1);
+
+        ExecucaoVencimentoDTO execucao = vencimentoTransacaoService.marcarVencidas(hoje);
+
+        assertEquals(3, execucao.getAtualizadas());
+        assertEquals(2, execucao.getLotes());
+        assertEquals(2, execucao.getDiasAfetados());
+        assertNull(execucao.getErro());
+        assertSame(execucao, vencimentoTransacaoService.getUltimaExecucao());
+        verify(transacaoRepository, times(2)).findIdsPendentesVencidas(eq(hoje), any(Pageable.class));
+        // Cada dia revisado uma vez, mesmo aparecendo em dois lotes
+        verify(extratoFinanceiroService).revisarExtratoDias(Set.of(d1, d2));
+        verifyNoMoreInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void marcarVencidas_semPendentes_naoAtualiza() {
+        when(transacaoRepository.findIdsPendentesVencidas(eq(hoje), any(Pageable.class))).thenReturn(List.of());
+
+        ExecucaoVencimentoDTO execucao = vencimentoTransacaoService.marcarVencidas(hoje);
+
+        assertEquals(0, execucao.getAtualizadas());
+        assertEquals(0, execucao.getLotes());
+        verify(transacaoRepository, never()).marcarVencidas(any(), any(), any());
+        verifyNoInteractions(extratoFinanceiroService);
+    }
+
+    @Test
+    void marcarVencidas_falhaNoLote_registraErroEMantemLotesAnteriores() {
+        when(transacaoRepository.findIdsPendentesVencidas(eq(hoje), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L));
+        when(transacaoRepository.findDatasParaStatusPorIds(any(), eq(StatusPagamento.VENCIDO))).thenReturn(List.of());
+        when(transacaoRepository.marcarVencidas(any(), eq(hoje), any()))
+                .thenReturn(2)
+                .thenThrow(new RuntimeException("timeout"));
+
+        ExecucaoVencimentoDTO execucao = vencimentoTransacaoService.marcarVencidas(hoje);
+
+        assertEquals(2, execucao.getAtualizadas());
+        assertEquals(1, execucao.getLotes());
+        assertEquals("timeout", execucao.getErro());
+    }
+}
@@ -0,0 +1,53 @@
+package com.web.dev.painelOnline.services;
+
+import com.web.dev.painelOnline.repository.TransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class VerificacaoResumoItensServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private VerificacaoResumoItensService verificacaoResumoItensService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(verificacaoResumoItensService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(verificacaoResumoItensService, "tamanhoFaixa", 10);
+    }
+
+    @Test
+    void verificar_percorreFaixasDeIdESomaCorrigidas() {
+        when(transacaoRepository.findMaiorId()).thenReturn(25L);
+        when(transacaoRepository.corrigirResumoItens(0L, 10L)).thenReturn(1);
+        when(transacaoRepository.corrigirResumoItens(10L, 20L)).thenReturn(0);
+        when(transacaoRepository.corrigirResumoItens(20L, 25L)).thenReturn(2);
+
+        assertEquals(3, verificacaoResumoItensService.verificar());
+        verify(transacaoRepository, times(3)).corrigirResumoItens(anyLong(), anyLong());
+        // Uma transação por faixa
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void verificar_semTransacoes_naoAtualiza() {
+        when(transacaoRepository.findMaiorId()).thenReturn(null);
+
+        assertEquals(0, verificacaoResumoItensService.verificar());
+        verify(transacaoRepository, never()).corrigirResumoItens(anyLong(), anyLong());
+    }
+}
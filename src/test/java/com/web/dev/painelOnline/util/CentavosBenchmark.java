@@ -0,0 +1,66 @@
+package com.web.dev.painelOnline.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Soma de itens de nota e conversão para dólares: BigDecimal x centavos em long.
+// Não roda no mvn test; executar pelo main com o classpath de teste (ex.: -prof gc).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CentavosBenchmark {
+
+    @Param({"10000"})
+    private int itens;
+
+    private BigDecimal[] valoresUnitarios;
+    private int[] quantidades;
+    private BigDecimal taxa;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        valoresUnitarios = new BigDecimal[itens];
+        quantidades = new int[itens];
+        for (int i = 0; i < itens; i++) {
+            valoresUnitarios[i] = BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2);
+            quantidades[i] = 1 + random.nextInt(20);
+        }
+        taxa = new BigDecimal("5.4321");
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itens; i++) {
+            total = total.add(valoresUnitarios[i].multiply(BigDecimal.valueOf(quantidades[i])));
+        }
+        return total.divide(taxa, 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal centavos() {
+        long total = 0L;
+        for (int i = 0; i < itens; i++) {
+            total = Centavos.somar(total, Centavos.multiplicar(Centavos.de(valoresUnitarios[i]), quantidades[i]));
+        }
+        return Centavos.paraBigDecimal(Centavos.dividirPorTaxa(total, Centavos.taxaDe(taxa)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CentavosBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
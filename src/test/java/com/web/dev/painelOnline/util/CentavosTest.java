@@ -0,0 +1,63 @@
+package com.web.dev.painelOnline.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentavosTest {
+
+    @Test
+    void de_roundsHalfUpAndTreatsNullAsZero() {
+        assertEquals(0L, Centavos.de(null));
+        assertEquals(1235L, Centavos.de(new BigDecimal("12.345")));
+        assertEquals(-1235L, Centavos.de(new BigDecimal("-12.345")));
+        assertEquals(1200L, Centavos.de(new BigDecimal("12")));
+    }
+
+    @Test
+    void paraBigDecimal_keepsScaleTwo() {
+        assertEquals(new BigDecimal("-0.05"), Centavos.paraBigDecimal(-5L));
+        assertEquals(new BigDecimal("123.40"), Centavos.paraBigDecimal(12340L));
+    }
+
+    @Test
+    void dividirArredondando_halfUpAwayFromZero() {
+        assertEquals(3L, Centavos.dividirArredondando(5, 2));
+        assertEquals(-3L, Centavos.dividirArredondando(-5, 2));
+        assertEquals(-3L, Centavos.dividirArredondando(5, -2));
+        assertEquals(2L, Centavos.dividirArredondando(7, 4));
+        assertEquals(1L, Centavos.dividirArredondando(5, 4));
+        assertEquals(0L, Centavos.dividirArredondando(0, 7));
+    }
+
+    @Test
+    void dividirPorTaxa_matchesBigDecimalDivide() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal valor = BigDecimal.valueOf(random.nextLong() % 100_000_000_00L, 2);
+            BigDecimal taxa = BigDecimal.valueOf(1 + random.nextInt(99_999), 4);
+
+            BigDecimal esperado = valor.divide(taxa, 2, RoundingMode.HALF_UP);
+            long calculado = Centavos.dividirPorTaxa(Centavos.de(valor), Centavos.taxaDe(taxa));
+
+            assertEquals(0, esperado.compareTo(Centavos.paraBigDecimal(calculado)), valor + " / " + taxa);
+        }
+    }
+
+    @Test
+    void dividirPorTaxa_zeroRate_throws() {
+        assertThrows(ArithmeticException.class, () -> Centavos.dividirPorTaxa(100, 0));
+    }
+
+    @Test
+    void overflow_throws() {
+        assertThrows(ArithmeticException.class, () -> Centavos.somar(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Centavos.subtrair(Long.MIN_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Centavos.multiplicar(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Centavos.dividirPorTaxa(Long.MAX_VALUE / 100, 54321));
+    }
+}